@@ -0,0 +1,299 @@
+package org.datavec.api.records.reader.impl.csv;
+
+import lombok.Getter;
+import lombok.NonNull;
+import org.datavec.api.conf.Configuration;
+import org.datavec.api.split.InputSplit;
+import org.datavec.api.transform.ColumnType;
+import org.datavec.api.transform.metadata.CategoricalMetaData;
+import org.datavec.api.transform.schema.Schema;
+import org.datavec.api.writable.*;
+import org.datavec.api.writable.batch.ColumnarRecordBatch;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.factory.Nd4j;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * A CSV record reader for numerical data, that parses values directly according to a {@link Schema}.<br>
+ * Supported column types are Integer, Long, Double, Float and Categorical; categorical values are converted to the
+ * index of the category in the schema's list of state names.<br>
+ * Compared to {@link CSVRecordReader}:
+ * <ul>
+ *     <li>{@link #next(int)} returns a {@link ColumnarRecordBatch}: values are parsed straight into a primitive
+ *     array, without creating any String or Writable objects per value. RecordReaderDataSetIterator and
+ *     RecordReaderMultiDataSetIterator use the batch arrays directly</li>
+ *     <li>{@link #next()} returns writables of the types specified by the schema (IntWritable, DoubleWritable etc,
+ *     and Text for categorical columns) instead of Text for all values</li>
+ * </ul>
+ * Fields may be quoted, but quotes within fields (escaped or otherwise) are not supported. Every line must have
+ * exactly as many values as there are columns in the schema.
+ *
+ * @see ColumnarRecordBatch
+ */
+public class CSVColumnarRecordReader extends CSVRecordReader {
+    private static final int MAX_FAST_PATH_DIGITS = 15;
+    private static final double[] POW10 = new double[23];
+    static {
+        POW10[0] = 1.0;
+        for (int i = 1; i < POW10.length; i++) {
+            POW10[i] = POW10[i - 1] * 10.0;
+        }
+    }
+
+    @Getter
+    private final Schema schema;
+    private final ColumnType[] types;
+    private final String[][] states;
+    private char delimiter;
+    private char quote;
+
+    //Start (inclusive) and end (exclusive) of each field in the current line
+    private final int[] fieldStart;
+    private final int[] fieldEnd;
+
+    /**
+     * @param schema Schema of the CSV data
+     */
+    public CSVColumnarRecordReader(Schema schema) {
+        this(0, schema);
+    }
+
+    /**
+     * @param skipNumLines Number of lines to skip
+     * @param schema       Schema of the CSV data
+     */
+    public CSVColumnarRecordReader(int skipNumLines, Schema schema) {
+        this(skipNumLines, DEFAULT_DELIMITER, DEFAULT_QUOTE, schema);
+    }
+
+    /**
+     * @param skipNumLines Number of lines to skip
+     * @param delimiter    Delimiter to use
+     * @param quote        Quote character to strip from quoted fields
+     * @param schema       Schema of the CSV data
+     */
+    public CSVColumnarRecordReader(int skipNumLines, char delimiter, char quote, @NonNull Schema schema) {
+        super(skipNumLines, delimiter, quote);
+        this.delimiter = delimiter;
+        this.quote = quote;
+        this.schema = schema;
+
+        int n = schema.numColumns();
+        types = new ColumnType[n];
+        states = new String[n][0];
+        for (int i = 0; i < n; i++) {
+            types[i] = schema.getType(i);
+            switch (types[i]) {
+                case Integer:
+                case Long:
+                case Double:
+                case Float:
+                    break;
+                case Categorical:
+                    List<String> s = ((CategoricalMetaData) schema.getMetaData(i)).getStateNames();
+                    states[i] = s.toArray(new String[s.size()]);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Column \"" + schema.getName(i) + "\" has type " + types[i]
+                                    + ": only Integer, Long, Double, Float and Categorical columns are supported");
+            }
+        }
+        fieldStart = new int[n];
+        fieldEnd = new int[n];
+    }
+
+    @Override
+    public void initialize(Configuration conf, InputSplit split) throws IOException, InterruptedException {
+        super.initialize(conf, split);
+        this.delimiter = conf.getChar(DELIMITER, DEFAULT_DELIMITER);
+        this.quote = conf.getChar(QUOTE, DEFAULT_QUOTE);
+    }
+
+    /**
+     * Read up to num records, as a single {@link ColumnarRecordBatch}
+     */
+    @Override
+    public List<List<Writable>> next(int num) {
+        if (num <= 0)
+            throw new IllegalArgumentException("Number of records must be > 0, got " + num);
+        if (!hasNext())
+            throw new NoSuchElementException("No next element found!");
+
+        int numColumns = types.length;
+        double[] data = new double[num * numColumns];
+        int count = 0;
+        while (count < num && hasNext()) {
+            String line = nextLine();
+            split(line);
+            int offset = count * numColumns;
+            for (int i = 0; i < numColumns; i++) {
+                data[offset + i] = parseValue(line, i);
+            }
+            count++;
+        }
+
+        if (count < num)
+            data = Arrays.copyOf(data, count * numColumns);
+        INDArray arr = Nd4j.create(data, new int[] {count, numColumns}, 'c');
+        return new ColumnarRecordBatch(schema, arr);
+    }
+
+    @Override
+    protected List<Writable> parseLine(String line) {
+        split(line);
+        List<Writable> out = new ArrayList<>(types.length);
+        for (int i = 0; i < types.length; i++) {
+            switch (types[i]) {
+                case Integer:
+                    long l = parseLong(line, i);
+                    if (l < java.lang.Integer.MIN_VALUE || l > java.lang.Integer.MAX_VALUE)
+                        throw invalidValue(line, i, new NumberFormatException("Value out of range for integer"));
+                    out.add(new IntWritable((int) l));
+                    break;
+                case Long:
+                    out.add(new LongWritable(parseLong(line, i)));
+                    break;
+                case Double:
+                    out.add(new DoubleWritable(parseDouble(line, i)));
+                    break;
+                case Float:
+                    out.add(new FloatWritable((float) parseDouble(line, i)));
+                    break;
+                default:
+                    out.add(new Text(states[i][parseCategory(line, i)]));
+            }
+        }
+        return out;
+    }
+
+    /**
+     * Find the start and end of each field in the line
+     */
+    private void split(String line) {
+        int length = line.length();
+        int pos = 0;
+        for (int i = 0; i < types.length; i++) {
+            int end;
+            if (pos < length && line.charAt(pos) == quote) {
+                int closing = line.indexOf(quote, pos + 1);
+                if (closing < 0)
+                    throw new IllegalStateException("Unterminated quote in line: \"" + line + "\"");
+                fieldStart[i] = pos + 1;
+                fieldEnd[i] = closing;
+                end = closing + 1;
+            } else {
+                end = line.indexOf(delimiter, pos);
+                if (end < 0)
+                    end = length;
+                fieldStart[i] = pos;
+                fieldEnd[i] = end;
+            }
+
+            if (i < types.length - 1) {
+                if (end >= length || line.charAt(end) != delimiter)
+                    throw new IllegalStateException("Expected " + types.length + " values, got " + (i + 1)
+                                    + " in line: \"" + line + "\"");
+                pos = end + 1;
+            } else if (end != length) {
+                throw new IllegalStateException("Expected " + types.length + " values, got more in line: \""
+                                + line + "\"");
+            }
+        }
+    }
+
+    private double parseValue(String line, int column) {
+        switch (types[column]) {
+            case Integer:
+            case Long:
+                return parseLong(line, column);
+            case Double:
+            case Float:
+                return parseDouble(line, column);
+            default:
+                return parseCategory(line, column);
+        }
+    }
+
+    private long parseLong(String line, int column) {
+        int start = fieldStart[column];
+        int end = fieldEnd[column];
+        boolean negative = start < end && line.charAt(start) == '-';
+        int pos = negative ? start + 1 : start;
+        //Fast path: up to 18 digits can't overflow
+        if (pos < end && end - pos <= 18) {
+            long v = 0;
+            for (; pos < end; pos++) {
+                int digit = line.charAt(pos) - '0';
+                if (digit < 0 || digit > 9)
+                    break;
+                v = 10 * v + digit;
+            }
+            if (pos == end)
+                return negative ? -v : v;
+        }
+        try {
+            return Long.parseLong(line.substring(start, end));
+        } catch (NumberFormatException e) {
+            throw invalidValue(line, column, e);
+        }
+    }
+
+    private double parseDouble(String line, int column) {
+        int start = fieldStart[column];
+        int end = fieldEnd[column];
+        boolean negative = start < end && line.charAt(start) == '-';
+        int pos = negative ? start + 1 : start;
+
+        //Fast path for plain decimals: with at most 15 significant digits, both the mantissa and the power of 10
+        // are exact doubles, so a single division gives the correctly rounded result
+        long mantissa = 0;
+        int digits = 0;
+        int fractionDigits = -1;
+        for (; pos < end; pos++) {
+            char c = line.charAt(pos);
+            if (c >= '0' && c <= '9') {
+                mantissa = 10 * mantissa + (c - '0');
+                digits++;
+                if (fractionDigits >= 0)
+                    fractionDigits++;
+            } else if (c == '.' && fractionDigits < 0) {
+                fractionDigits = 0;
+            } else {
+                break;
+            }
+        }
+        if (pos == end && digits > 0 && digits <= MAX_FAST_PATH_DIGITS) {
+            double v = fractionDigits > 0 ? mantissa / POW10[fractionDigits] : mantissa;
+            return negative ? -v : v;
+        }
+
+        try {
+            return Double.parseDouble(line.substring(start, end));
+        } catch (NumberFormatException e) {
+            throw invalidValue(line, column, e);
+        }
+    }
+
+    private int parseCategory(String line, int column) {
+        int start = fieldStart[column];
+        int length = fieldEnd[column] - start;
+        String[] s = states[column];
+        for (int i = 0; i < s.length; i++) {
+            if (s[i].length() == length && line.regionMatches(start, s[i], 0, length))
+                return i;
+        }
+        throw new IllegalStateException("Invalid value \"" + line.substring(start, start + length)
+                        + "\" for categorical column \"" + schema.getName(column) + "\": expected one of "
+                        + Arrays.toString(s));
+    }
+
+    private IllegalStateException invalidValue(String line, int column, NumberFormatException e) {
+        return new IllegalStateException("Invalid value \"" + line.substring(fieldStart[column], fieldEnd[column])
+                        + "\" for column \"" + schema.getName(column) + "\" of type " + types[column], e);
+    }
+}
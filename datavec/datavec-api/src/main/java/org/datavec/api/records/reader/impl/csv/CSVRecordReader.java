@@ -166,11 +166,17 @@ public class CSVRecordReader extends LineRecordReader {
 
     @Override
     public List<Writable> next() {
+        return parseLine(nextLine());
+    }
+
+    /**
+     * @return The next (unparsed) line, skipping the first skipNumLines lines if required
+     */
+    protected String nextLine() {
         if (!skipLines())
             throw new NoSuchElementException("No next element found!");
         Text t = (Text) super.next().iterator().next();
-        String val = t.toString();
-        return parseLine(val);
+        return t.toString();
     }
 
     protected List<Writable> parseLine(String line) {
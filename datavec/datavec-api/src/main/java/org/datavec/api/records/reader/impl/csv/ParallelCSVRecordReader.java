@@ -0,0 +1,431 @@
+package org.datavec.api.records.reader.impl.csv;
+
+import lombok.Getter;
+import org.datavec.api.conf.Configuration;
+import org.datavec.api.records.Record;
+import org.datavec.api.records.metadata.RecordMetaData;
+import org.datavec.api.records.metadata.RecordMetaDataLine;
+import org.datavec.api.split.InputSplit;
+import org.datavec.api.split.InputStreamInputSplit;
+import org.datavec.api.split.StringSplit;
+import org.datavec.api.writable.Text;
+import org.datavec.api.writable.Writable;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.net.URI;
+import java.nio.charset.Charset;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A CSV record reader that reads local files in parallel.<br>
+ * Each file is split into chunks of approximately {@code chunkSizeBytes} bytes, with chunk boundaries aligned to the
+ * start of a line. The chunks are read and parsed on a pool of worker threads, and the records are returned either
+ * in the same order as {@link CSVRecordReader} (ordered = true), or in the order in which the chunks are parsed
+ * (ordered = false). At most 2 * numThreads chunks are read ahead of the consumer.<br>
+ * Records and metadata are the same as for CSVRecordReader: each line is one record, the first skipNumLines lines of
+ * each file are skipped, and {@link #nextRecord()} returns a {@link RecordMetaDataLine} with the line number within
+ * the file, so {@link #loadFromMetaData(List)} works as usual. In unordered mode, the line number of a record is only
+ * known once all earlier chunks of the same file have been parsed, so nextRecord() may wait for them.<br>
+ * Limitations: only splits with local file locations (such as {@link org.datavec.api.split.FileSplit}) are supported,
+ * lines must end with '\n' or "\r\n", and the character set must be ASCII compatible (such as UTF-8).
+ */
+public class ParallelCSVRecordReader extends CSVRecordReader {
+    public static final int DEFAULT_CHUNK_SIZE_BYTES = 8 * 1024 * 1024;
+
+    @Getter
+    private final int numThreads;
+    @Getter
+    private final int chunkSizeBytes;
+    @Getter
+    private final boolean ordered;
+    private char delimiter;
+    private char quote;
+
+    private ExecutorService executor;
+    private List<Chunk> chunks;
+    private int numSubmitted;
+    private int numTaken;
+    //Ordered mode: chunks in submission order. Unordered mode: chunks in completion order
+    private Deque<Future<ChunkResult>> submitted;
+    private CompletionService<ChunkResult> completionService;
+    private ChunkResult current;
+    private int currentPosition;
+
+    /**
+     * Ordered reader with the default delimiter, quote and chunk size, and one thread per processor
+     */
+    public ParallelCSVRecordReader() {
+        this(0, DEFAULT_DELIMITER, DEFAULT_QUOTE, Runtime.getRuntime().availableProcessors(), true);
+    }
+
+    /**
+     * @param skipNumLines Number of lines to skip at the start of each file
+     * @param delimiter    Delimiter to use
+     * @param quote        Quote character to strip
+     * @param numThreads   Number of threads to read and parse chunks with
+     * @param ordered      If true: return records in the same order as CSVRecordReader. If false: return records in
+     *                     the order in which chunks are parsed
+     */
+    public ParallelCSVRecordReader(int skipNumLines, char delimiter, char quote, int numThreads, boolean ordered) {
+        this(skipNumLines, delimiter, quote, numThreads, DEFAULT_CHUNK_SIZE_BYTES, ordered);
+    }
+
+    /**
+     * @param skipNumLines   Number of lines to skip at the start of each file
+     * @param delimiter      Delimiter to use
+     * @param quote          Quote character to strip
+     * @param numThreads     Number of threads to read and parse chunks with
+     * @param chunkSizeBytes Approximate size of each chunk, in bytes
+     * @param ordered        If true: return records in the same order as CSVRecordReader. If false: return records
+     *                       in the order in which chunks are parsed
+     */
+    public ParallelCSVRecordReader(int skipNumLines, char delimiter, char quote, int numThreads, int chunkSizeBytes,
+                    boolean ordered) {
+        super(skipNumLines, delimiter, quote);
+        if (numThreads <= 0)
+            throw new IllegalArgumentException("Number of threads must be > 0, got " + numThreads);
+        if (chunkSizeBytes <= 0)
+            throw new IllegalArgumentException("Chunk size must be > 0, got " + chunkSizeBytes);
+        this.delimiter = delimiter;
+        this.quote = quote;
+        this.numThreads = numThreads;
+        this.chunkSizeBytes = chunkSizeBytes;
+        this.ordered = ordered;
+    }
+
+    @Override
+    public void initialize(InputSplit split) throws IOException, InterruptedException {
+        if (split instanceof StringSplit || split instanceof InputStreamInputSplit)
+            throw new UnsupportedOperationException("ParallelCSVRecordReader only supports splits with local file "
+                            + "locations; use CSVRecordReader for " + split.getClass().getSimpleName());
+        stop();
+        this.inputSplit = split;
+        this.locations = split.locations();
+        for (URI uri : locations) {
+            if (!"file".equalsIgnoreCase(uri.getScheme()))
+                throw new UnsupportedOperationException("ParallelCSVRecordReader only supports local files; "
+                                + "use CSVRecordReader for location " + uri);
+        }
+    }
+
+    @Override
+    public void initialize(Configuration conf, InputSplit split) throws IOException, InterruptedException {
+        super.initialize(conf, split);
+        this.delimiter = conf.getChar(DELIMITER, DEFAULT_DELIMITER);
+        this.quote = conf.getChar(QUOTE, DEFAULT_QUOTE);
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (inputSplit == null)
+            throw new IllegalStateException("Cannot read records: reader has not been initialized");
+        if (chunks == null)
+            start();
+        while (current == null || currentPosition >= current.records.size()) {
+            if (numTaken >= chunks.size())
+                return false;
+            current = takeNext();
+            currentPosition = 0;
+        }
+        return true;
+    }
+
+    @Override
+    public List<Writable> next() {
+        if (!hasNext())
+            throw new NoSuchElementException("No next element found!");
+        //Release the record, so that the chunk's memory can be reclaimed as it is consumed
+        List<Writable> next = current.records.set(currentPosition++, null);
+        invokeListeners(next);
+        return next;
+    }
+
+    @Override
+    public Record nextRecord() {
+        List<Writable> next = next();
+        Chunk chunk = current.chunk;
+        long line = firstLine(chunk) + currentPosition - 1;
+        RecordMetaData meta = new RecordMetaDataLine((int) line, locations[chunk.location],
+                        ParallelCSVRecordReader.class);
+        return new org.datavec.api.records.impl.Record(next, meta);
+    }
+
+    @Override
+    public void reset() {
+        stop();
+        super.reset();
+    }
+
+    @Override
+    public void close() throws IOException {
+        stop();
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    /**
+     * Split all locations into chunks, and submit the first chunks for parsing
+     */
+    private void start() {
+        List<Chunk> list = new ArrayList<>();
+        for (int i = 0; i < locations.length; i++) {
+            try {
+                addChunks(i, list);
+            } catch (IOException e) {
+                throw new RuntimeException("Error splitting file into chunks: " + locations[i], e);
+            }
+        }
+
+        if (executor == null) {
+            final AtomicInteger threadCount = new AtomicInteger();
+            executor = Executors.newFixedThreadPool(numThreads, new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable r) {
+                    Thread t = new Thread(r, "ParallelCSVRecordReader-" + threadCount.getAndIncrement());
+                    t.setDaemon(true);
+                    return t;
+                }
+            });
+        }
+        chunks = list;
+        numSubmitted = 0;
+        numTaken = 0;
+        submitted = new ArrayDeque<>();
+        completionService = new ExecutorCompletionService<>(executor);
+        submitChunks();
+    }
+
+    /**
+     * Cancel any outstanding chunks. The executor is kept, so that it can be reused after a reset
+     */
+    private void stop() {
+        if (submitted != null) {
+            for (Future<ChunkResult> f : submitted)
+                f.cancel(true);
+        }
+        chunks = null;
+        submitted = null;
+        completionService = null;
+        current = null;
+        currentPosition = 0;
+    }
+
+    private void addChunks(int location, List<Chunk> list) throws IOException {
+        File f = new File(locations[location]);
+        try (RandomAccessFile raf = new RandomAccessFile(f, "r")) {
+            long length = raf.length();
+            //Skip lines at the start of the file
+            long start = 0;
+            int headerLines = 0;
+            while (headerLines < skipNumLines && start < length) {
+                start = nextLineStart(raf, start + 1, length);
+                headerLines++;
+            }
+
+            Chunk previous = null;
+            while (start < length) {
+                long end = nextLineStart(raf, start + chunkSizeBytes, length);
+                Chunk c = new Chunk(location, start, end, previous);
+                if (previous == null)
+                    c.firstLine = headerLines;
+                list.add(c);
+                previous = c;
+                start = end;
+            }
+        }
+    }
+
+    /**
+     * @return The first position >= pos that is the start of a line, or the file length if there is none
+     */
+    private static long nextLineStart(RandomAccessFile raf, long pos, long length) throws IOException {
+        if (pos >= length)
+            return length;
+        //Check from pos - 1: if that is a new line character, pos is already the start of a line
+        raf.seek(pos - 1);
+        byte[] buffer = new byte[8192];
+        long offset = pos - 1;
+        int read;
+        while ((read = raf.read(buffer)) > 0) {
+            for (int i = 0; i < read; i++) {
+                if (buffer[i] == '\n')
+                    return offset + i + 1;
+            }
+            offset += read;
+        }
+        return length;
+    }
+
+    private void submitChunks() {
+        while (numSubmitted < chunks.size() && numSubmitted - numTaken < 2 * numThreads) {
+            final Chunk c = chunks.get(numSubmitted++);
+            Callable<ChunkResult> task = new ChunkParser(c, locations[c.location], delimiter, quote);
+            submitted.add(ordered ? executor.submit(task) : completionService.submit(task));
+        }
+    }
+
+    private ChunkResult takeNext() {
+        Future<ChunkResult> f;
+        try {
+            if (ordered) {
+                f = submitted.remove();
+            } else {
+                f = completionService.take();
+                submitted.remove(f);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for chunk to be parsed", e);
+        }
+        numTaken++;
+        submitChunks();
+        return get(f);
+    }
+
+    private static ChunkResult get(Future<ChunkResult> f) {
+        try {
+            return f.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for chunk to be parsed", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException)
+                throw (RuntimeException) e.getCause();
+            throw new RuntimeException("Error parsing CSV chunk", e.getCause());
+        }
+    }
+
+    /**
+     * @return Line number (within the file) of the first line of the chunk. Waits for earlier chunks of the same
+     * file to be parsed, if necessary
+     */
+    private static long firstLine(Chunk chunk) {
+        if (chunk.firstLine >= 0)
+            return chunk.firstLine;
+        Deque<Chunk> unknown = new ArrayDeque<>();
+        Chunk c = chunk;
+        while (c.firstLine < 0) {
+            unknown.push(c);
+            c = c.previous;
+        }
+        while (!unknown.isEmpty()) {
+            Chunk next = unknown.pop();
+            next.firstLine = c.firstLine + c.numLines();
+            next.previous = null;
+            c = next;
+        }
+        return chunk.firstLine;
+    }
+
+    private static class Chunk {
+        private final int location;
+        private final long start;
+        private final long end;
+        //Only accessed by the consumer thread. Null once firstLine is known
+        private Chunk previous;
+        private long firstLine = -1;
+
+        private final CountDownLatch parsed = new CountDownLatch(1);
+        private volatile int numLines = -1;
+        private volatile Throwable error;
+
+        private Chunk(int location, long start, long end, Chunk previous) {
+            this.location = location;
+            this.start = start;
+            this.end = end;
+            this.previous = previous;
+        }
+
+        private int numLines() {
+            try {
+                parsed.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Interrupted while waiting for chunk to be parsed", e);
+            }
+            if (error != null)
+                throw new IllegalStateException("Error parsing earlier chunk of file", error);
+            return numLines;
+        }
+    }
+
+    private static class ChunkResult {
+        private final Chunk chunk;
+        private final List<List<Writable>> records;
+
+        private ChunkResult(Chunk chunk, List<List<Writable>> records) {
+            this.chunk = chunk;
+            this.records = records;
+        }
+    }
+
+    /**
+     * Reads and parses a single chunk. Each task has its own parser, as SerializableCSVParser isn't thread safe
+     */
+    private static class ChunkParser implements Callable<ChunkResult> {
+        private final Chunk chunk;
+        private final URI uri;
+        private final SerializableCSVParser parser;
+
+        private ChunkParser(Chunk chunk, URI uri, char delimiter, char quote) {
+            this.chunk = chunk;
+            this.uri = uri;
+            this.parser = new SerializableCSVParser(delimiter, quote);
+        }
+
+        @Override
+        public ChunkResult call() throws Exception {
+            try {
+                long size = chunk.end - chunk.start;
+                if (size > Integer.MAX_VALUE - 8)
+                    throw new IllegalStateException("Line too long: chunk of " + uri + " starting at byte "
+                                    + chunk.start + " has " + size + " bytes without a new line character");
+                byte[] bytes = new byte[(int) size];
+                try (RandomAccessFile raf = new RandomAccessFile(new File(uri), "r")) {
+                    raf.seek(chunk.start);
+                    raf.readFully(bytes);
+                }
+
+                Charset charset = Charset.defaultCharset();
+                List<List<Writable>> records = new ArrayList<>();
+                int lineStart = 0;
+                while (lineStart < bytes.length) {
+                    int lineEnd = lineStart;
+                    while (lineEnd < bytes.length && bytes[lineEnd] != '\n')
+                        lineEnd++;
+                    int next = lineEnd + 1;
+                    if (lineEnd > lineStart && bytes[lineEnd - 1] == '\r')
+                        lineEnd--;
+                    records.add(parseLine(new String(bytes, lineStart, lineEnd - lineStart, charset)));
+                    lineStart = next;
+                }
+                chunk.numLines = records.size();
+                return new ChunkResult(chunk, records);
+            } catch (Throwable t) {
+                chunk.error = t;
+                throw t;
+            } finally {
+                chunk.parsed.countDown();
+            }
+        }
+
+        private List<Writable> parseLine(String line) throws IOException {
+            String[] split = parser.parseLine(line);
+            List<Writable> ret = new ArrayList<>(split.length);
+            for (String s : split) {
+                ret.add(new Text(s));
+            }
+            return ret;
+        }
+    }
+}
@@ -22,6 +22,9 @@ import org.datavec.api.records.reader.RecordReader;
 import org.datavec.api.transform.analysis.DataAnalysis;
 import org.datavec.api.transform.analysis.columns.ColumnAnalysis;
 import org.datavec.api.transform.analysis.columns.NumericalColumnAnalysis;
+import org.datavec.api.transform.batch.BatchFilter;
+import org.datavec.api.transform.batch.BatchTransform;
+import org.datavec.api.transform.batch.ColumnBatch;
 import org.datavec.api.transform.condition.Condition;
 import org.datavec.api.transform.filter.ConditionFilter;
 import org.datavec.api.transform.filter.Filter;
@@ -241,6 +244,98 @@ public class TransformProcess implements Serializable {
         return currValues;
     }
 
+    /**
+     * Execute the full sequence of transformations for a batch of examples. Filtered examples are removed.<br>
+     * Transforms and filters that implement {@link BatchTransform} or {@link BatchFilter} operate on whole columns
+     * of the batch; all others are executed one example at a time. The result is the same as calling
+     * {@link #execute(List)} for each example.<br>
+     * <b>NOTE:</b> Only TransformProcesses that contain only transforms and filters can be executed on batches; see
+     * {@link #supportsBatchExecution()}
+     *
+     * @param input Examples to transform
+     * @return Transformed examples
+     */
+    public List<List<Writable>> executeBatch(List<List<Writable>> input) {
+        return executeBatch(ColumnBatch.fromRecords(initialSchema, input)).toRecords();
+    }
+
+    /**
+     * Execute the full sequence of transformations for a batch of examples. Filtered examples are removed.
+     *
+     * @param input Examples to transform, with the initial schema of this TransformProcess
+     * @return Transformed examples, with the final schema of this TransformProcess
+     * @see #executeBatch(List)
+     */
+    public ColumnBatch executeBatch(ColumnBatch input) {
+        return executeBatch(input, 0, actionList.size());
+    }
+
+    /**
+     * Execute a subset of the steps of this TransformProcess for a batch of examples. Filtered examples are removed.
+     * All steps from fromStep (inclusive) to toStep (exclusive) must be transforms or filters.
+     *
+     * @param input    Examples to transform, with the schema of the data before step fromStep
+     * @param fromStep Index of the first step to execute
+     * @param toStep   Index of the last step to execute, plus one
+     * @return Transformed examples
+     * @see #executeBatch(List)
+     */
+    public ColumnBatch executeBatch(ColumnBatch input, int fromStep, int toStep) {
+        ColumnBatch batch = input;
+        for (int i = fromStep; i < toStep; i++) {
+            DataAction d = actionList.get(i);
+            if (d.getTransform() != null) {
+                batch = executeBatch(d.getTransform(), batch);
+            } else if (d.getFilter() != null) {
+                batch = executeBatch(d.getFilter(), batch);
+            } else {
+                throw new IllegalStateException("Cannot execute step " + i + " on a batch of examples: only "
+                        + "transforms and filters can be executed on batches. Step: " + d);
+            }
+        }
+        return batch;
+    }
+
+    /**
+     * @return True if this TransformProcess contains only transforms and filters, and hence can be executed using
+     * {@link #executeBatch(List)}
+     */
+    public boolean supportsBatchExecution() {
+        for (DataAction d : actionList) {
+            if (d.getTransform() == null && d.getFilter() == null)
+                return false;
+        }
+        return true;
+    }
+
+    private static ColumnBatch executeBatch(Transform t, ColumnBatch batch) {
+        if (t instanceof BatchTransform) {
+            ColumnBatch out = ((BatchTransform) t).mapBatch(batch);
+            if (out != null)
+                return out;
+        }
+
+        //Fall back on transforming one example at a time
+        List<List<Writable>> out = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            out.add(t.map(batch.getRecord(i)));
+        }
+        return ColumnBatch.fromRecords(t.transform(batch.getSchema()), out);
+    }
+
+    private static ColumnBatch executeBatch(Filter f, ColumnBatch batch) {
+        boolean[] remove = null;
+        if (f instanceof BatchFilter)
+            remove = ((BatchFilter) f).removeExamples(batch);
+        if (remove == null) {
+            remove = new boolean[batch.size()];
+            for (int i = 0; i < remove.length; i++) {
+                remove[i] = f.removeExample(batch.getRecord(i));
+            }
+        }
+        return batch.removeExamples(remove);
+    }
+
     /**
      *
      * @param input
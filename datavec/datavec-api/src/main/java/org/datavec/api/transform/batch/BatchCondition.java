@@ -0,0 +1,18 @@
+package org.datavec.api.transform.batch;
+
+/**
+ * Optional interface for {@link org.datavec.api.transform.condition.Condition} implementations that can evaluate
+ * the condition for a whole {@link ColumnBatch} at once.
+ *
+ * @see org.datavec.api.transform.filter.ConditionFilter
+ */
+public interface BatchCondition {
+
+    /**
+     * @param batch Batch of examples. Must not be modified
+     * @return For each example, the same value as {@link org.datavec.api.transform.condition.Condition#condition(java.util.List)},
+     * or null if the condition can't be evaluated column-wise for this batch
+     */
+    boolean[] conditionBatch(ColumnBatch batch);
+
+}
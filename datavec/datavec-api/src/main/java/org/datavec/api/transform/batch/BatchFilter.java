@@ -0,0 +1,18 @@
+package org.datavec.api.transform.batch;
+
+/**
+ * Optional interface for {@link org.datavec.api.transform.filter.Filter} implementations that can filter a whole
+ * {@link ColumnBatch} at once.<br>
+ * Filters that don't implement this interface (or that return null from {@link #removeExamples(ColumnBatch)}) are
+ * executed record by record using {@link org.datavec.api.transform.filter.Filter#removeExample(java.util.List)}.
+ */
+public interface BatchFilter {
+
+    /**
+     * @param batch Batch of examples. Must not be modified
+     * @return For each example, the same value as {@link org.datavec.api.transform.filter.Filter#removeExample(java.util.List)}
+     * (true: remove the example), or null if this batch can't be filtered column-wise
+     */
+    boolean[] removeExamples(ColumnBatch batch);
+
+}
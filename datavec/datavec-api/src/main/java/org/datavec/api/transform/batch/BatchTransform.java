@@ -0,0 +1,23 @@
+package org.datavec.api.transform.batch;
+
+/**
+ * Optional interface for {@link org.datavec.api.transform.Transform} implementations that can transform a whole
+ * {@link ColumnBatch} at once, operating on the column values directly instead of on one record at a time.<br>
+ * Transforms that don't implement this interface (or that return null from {@link #mapBatch(ColumnBatch)}) are
+ * executed record by record using {@link org.datavec.api.transform.Transform#map(java.util.List)}.
+ *
+ * @see org.datavec.api.transform.TransformProcess#executeBatch(ColumnBatch)
+ */
+public interface BatchTransform {
+
+    /**
+     * Transform a batch of examples. The result must be the same as calling
+     * {@link org.datavec.api.transform.Transform#map(java.util.List)} on each example
+     *
+     * @param batch Batch to transform. Must not be modified
+     * @return Transformed batch, or null if this batch can't be transformed column-wise (for example, if a column is
+     * not stored as primitive values)
+     */
+    ColumnBatch mapBatch(ColumnBatch batch);
+
+}
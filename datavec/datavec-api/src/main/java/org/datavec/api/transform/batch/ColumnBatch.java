@@ -0,0 +1,419 @@
+package org.datavec.api.transform.batch;
+
+import lombok.Getter;
+import lombok.NonNull;
+import org.datavec.api.transform.ColumnType;
+import org.datavec.api.transform.metadata.CategoricalMetaData;
+import org.datavec.api.transform.schema.Schema;
+import org.datavec.api.writable.*;
+import org.datavec.api.writable.batch.ColumnarRecordBatch;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A batch of (non-sequence) examples, stored column by column, for batch execution of a
+ * {@link org.datavec.api.transform.TransformProcess}.<br>
+ * Each column is stored as one of:
+ * <ul>
+ *     <li>double[]: Double and Float columns</li>
+ *     <li>long[]: Integer, Long and Time columns</li>
+ *     <li>Writable[]: all other columns, and any column whose values are not all of the writable type for the
+ *     column type (for example, a Double column with NullWritable or Text values)</li>
+ * </ul>
+ * Converting records to a ColumnBatch and back gives the same writables (type and value) as the original records.
+ * ColumnBatch instances should be treated as immutable: transforms return a new batch (which may share columns with
+ * the input batch) instead of modifying the input arrays.
+ *
+ * @see BatchTransform
+ * @see BatchFilter
+ * @see BatchCondition
+ */
+public class ColumnBatch {
+
+    @Getter
+    private final Schema schema;
+    private final int size;
+    private final Object[] columns;
+
+    /**
+     * @param schema  Schema for the batch
+     * @param size    Number of examples
+     * @param columns Values for each column: double[], long[] or Writable[], with length equal to size
+     */
+    public ColumnBatch(@NonNull Schema schema, int size, @NonNull Object[] columns) {
+        if (columns.length != schema.numColumns())
+            throw new IllegalArgumentException("Expected " + schema.numColumns() + " columns for schema, got "
+                            + columns.length);
+        for (int i = 0; i < columns.length; i++) {
+            Object c = columns[i];
+            int length;
+            if (c instanceof double[]) {
+                if (!isDoubleType(schema.getType(i)))
+                    throw new IllegalArgumentException(invalidStorage(schema, i, "double[]"));
+                length = ((double[]) c).length;
+            } else if (c instanceof long[]) {
+                if (!isLongType(schema.getType(i)))
+                    throw new IllegalArgumentException(invalidStorage(schema, i, "long[]"));
+                length = ((long[]) c).length;
+            } else if (c instanceof Writable[]) {
+                length = ((Writable[]) c).length;
+            } else {
+                throw new IllegalArgumentException("Invalid values for column \"" + schema.getName(i)
+                                + "\": expected double[], long[] or Writable[], got "
+                                + (c == null ? null : c.getClass().getSimpleName()));
+            }
+            if (length != size)
+                throw new IllegalArgumentException("Invalid values for column \"" + schema.getName(i)
+                                + "\": expected " + size + " values, got " + length);
+        }
+        this.schema = schema;
+        this.size = size;
+        this.columns = columns;
+    }
+
+    private static String invalidStorage(Schema schema, int column, String storage) {
+        return "Column \"" + schema.getName(column) + "\" of type " + schema.getType(column) + " cannot be stored as "
+                        + storage;
+    }
+
+    private static boolean isDoubleType(ColumnType type) {
+        return type == ColumnType.Double || type == ColumnType.Float;
+    }
+
+    private static boolean isLongType(ColumnType type) {
+        return type == ColumnType.Integer || type == ColumnType.Long || type == ColumnType.Time;
+    }
+
+    /**
+     * Create a batch from a list of records. If the records are a {@link ColumnarRecordBatch} with the same schema,
+     * the values are copied directly from the underlying array
+     *
+     * @param schema  Schema of the records
+     * @param records Records to convert
+     */
+    public static ColumnBatch fromRecords(@NonNull Schema schema, @NonNull List<List<Writable>> records) {
+        if (records instanceof ColumnarRecordBatch && schema.equals(((ColumnarRecordBatch) records).getSchema()))
+            return fromColumnarRecordBatch((ColumnarRecordBatch) records);
+
+        int size = records.size();
+        int numColumns = schema.numColumns();
+        Writable[][] values = new Writable[numColumns][size];
+        for (int i = 0; i < size; i++) {
+            List<Writable> record = records.get(i);
+            if (record.size() != numColumns)
+                throw new IllegalStateException("Cannot create column batch: record " + i + " has " + record.size()
+                                + " values, but schema has " + numColumns + " columns");
+            for (int j = 0; j < numColumns; j++) {
+                values[j][i] = record.get(j);
+            }
+        }
+
+        Object[] columns = new Object[numColumns];
+        for (int j = 0; j < numColumns; j++) {
+            columns[j] = toColumn(schema.getType(j), values[j]);
+        }
+        return new ColumnBatch(schema, size, columns);
+    }
+
+    private static ColumnBatch fromColumnarRecordBatch(ColumnarRecordBatch batch) {
+        Schema schema = batch.getSchema();
+        int size = batch.size();
+        Object[] columns = new Object[schema.numColumns()];
+        for (int j = 0; j < columns.length; j++) {
+            double[] values = batch.getArrays().get(j).toDoubleVector();
+            ColumnType type = schema.getType(j);
+            if (isDoubleType(type)) {
+                columns[j] = values;
+            } else if (isLongType(type)) {
+                long[] l = new long[size];
+                for (int i = 0; i < size; i++)
+                    l[i] = (long) values[i];
+                columns[j] = l;
+            } else {
+                List<String> states = ((CategoricalMetaData) schema.getMetaData(j)).getStateNames();
+                Writable[] w = new Writable[size];
+                for (int i = 0; i < size; i++)
+                    w[i] = new Text(states.get((int) values[i]));
+                columns[j] = w;
+            }
+        }
+        return new ColumnBatch(schema, size, columns);
+    }
+
+    /**
+     * Convert the values of a column to the storage for the column type. Values are only stored as primitives if
+     * all of them are the writable type for the column type, so that the conversion back to writables is exact
+     */
+    private static Object toColumn(ColumnType type, Writable[] values) {
+        Class<? extends Writable> c;
+        switch (type) {
+            case Double:
+                c = DoubleWritable.class;
+                break;
+            case Float:
+                c = FloatWritable.class;
+                break;
+            case Integer:
+                c = IntWritable.class;
+                break;
+            case Long:
+            case Time:
+                c = LongWritable.class;
+                break;
+            default:
+                return values;
+        }
+        for (Writable w : values) {
+            if (w == null || w.getClass() != c)
+                return values;
+        }
+
+        if (isDoubleType(type)) {
+            double[] d = new double[values.length];
+            for (int i = 0; i < d.length; i++)
+                d[i] = values[i].toDouble();
+            return d;
+        } else {
+            long[] l = new long[values.length];
+            for (int i = 0; i < l.length; i++)
+                l[i] = values[i].toLong();
+            return l;
+        }
+    }
+
+    /**
+     * @return Number of examples in the batch
+     */
+    public int size() {
+        return size;
+    }
+
+    public int numColumns() {
+        return columns.length;
+    }
+
+    /**
+     * @return The values of the column: double[], long[] or Writable[]
+     */
+    public Object getColumn(int column) {
+        return columns[column];
+    }
+
+    /**
+     * @return True if the column is stored as a double[]
+     */
+    public boolean isDoubleColumn(int column) {
+        return columns[column] instanceof double[];
+    }
+
+    /**
+     * @return True if the column is stored as a long[]
+     */
+    public boolean isLongColumn(int column) {
+        return columns[column] instanceof long[];
+    }
+
+    /**
+     * @return The values of a column stored as double[]. The array must not be modified
+     */
+    public double[] getDoubleColumn(int column) {
+        if (!isDoubleColumn(column))
+            throw new IllegalStateException("Column \"" + schema.getName(column) + "\" is not stored as double[]");
+        return (double[]) columns[column];
+    }
+
+    /**
+     * @return The values of a column stored as long[]. The array must not be modified
+     */
+    public long[] getLongColumn(int column) {
+        if (!isLongColumn(column))
+            throw new IllegalStateException("Column \"" + schema.getName(column) + "\" is not stored as long[]");
+        return (long[]) columns[column];
+    }
+
+    /**
+     * Get the values of a column as doubles, converting long values, and writable values using
+     * {@link Writable#toDouble()}. The array must not be modified
+     */
+    public double[] getColumnAsDoubles(int column) {
+        Object c = columns[column];
+        if (c instanceof double[])
+            return (double[]) c;
+        double[] out = new double[size];
+        if (c instanceof long[]) {
+            long[] l = (long[]) c;
+            for (int i = 0; i < size; i++)
+                out[i] = l[i];
+        } else {
+            Writable[] w = (Writable[]) c;
+            for (int i = 0; i < size; i++)
+                out[i] = w[i].toDouble();
+        }
+        return out;
+    }
+
+    /**
+     * Get the values of a column as writables. For columns stored as writables, the array must not be modified
+     */
+    public Writable[] getColumnAsWritables(int column) {
+        Object c = columns[column];
+        if (c instanceof Writable[])
+            return (Writable[]) c;
+        Writable[] out = new Writable[size];
+        for (int i = 0; i < size; i++)
+            out[i] = getWritable(i, column);
+        return out;
+    }
+
+    /**
+     * @return The value for the given example and column
+     */
+    public Writable getWritable(int example, int column) {
+        Object c = columns[column];
+        if (c instanceof Writable[])
+            return ((Writable[]) c)[example];
+        switch (schema.getType(column)) {
+            case Double:
+                return new DoubleWritable(((double[]) c)[example]);
+            case Float:
+                return new FloatWritable((float) ((double[]) c)[example]);
+            case Integer:
+                return new IntWritable((int) ((long[]) c)[example]);
+            default:
+                return new LongWritable(((long[]) c)[example]);
+        }
+    }
+
+    /**
+     * @return The values of the given example, as a list of writables
+     */
+    public List<Writable> getRecord(int example) {
+        List<Writable> out = new ArrayList<>(columns.length);
+        for (int j = 0; j < columns.length; j++) {
+            out.add(getWritable(example, j));
+        }
+        return out;
+    }
+
+    /**
+     * @return All examples, as lists of writables
+     */
+    public List<List<Writable>> toRecords() {
+        List<List<Writable>> out = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            out.add(getRecord(i));
+        }
+        return out;
+    }
+
+    /**
+     * Create a new batch with one column replaced. Other columns are shared with this batch
+     *
+     * @param newSchema Schema of the new batch
+     * @param column    Index of the column to replace
+     * @param values    New values for the column: double[], long[] or Writable[]
+     */
+    public ColumnBatch withColumn(@NonNull Schema newSchema, int column, @NonNull Object values) {
+        Object[] newColumns = columns.clone();
+        newColumns[column] = values;
+        return new ColumnBatch(newSchema, size, newColumns);
+    }
+
+    /**
+     * Create a new batch with only the given columns, in the given order. The columns are shared with this batch
+     *
+     * @param newSchema Schema of the new batch
+     * @param columns   Indices of the columns to keep
+     */
+    public ColumnBatch selectColumns(@NonNull Schema newSchema, int... columns) {
+        Object[] newColumns = new Object[columns.length];
+        for (int j = 0; j < columns.length; j++) {
+            newColumns[j] = this.columns[columns[j]];
+        }
+        return new ColumnBatch(newSchema, size, newColumns);
+    }
+
+    /**
+     * Remove examples from the batch
+     *
+     * @param remove For each example: true to remove the example, false to keep it
+     * @return Batch without the removed examples; this batch if no examples are removed
+     */
+    public ColumnBatch removeExamples(@NonNull boolean[] remove) {
+        if (remove.length != size)
+            throw new IllegalArgumentException("Expected " + size + " values, got " + remove.length);
+        int newSize = 0;
+        for (boolean b : remove) {
+            if (!b)
+                newSize++;
+        }
+        if (newSize == size)
+            return this;
+
+        Object[] newColumns = new Object[columns.length];
+        for (int j = 0; j < columns.length; j++) {
+            Object c = columns[j];
+            int k = 0;
+            if (c instanceof double[]) {
+                double[] from = (double[]) c;
+                double[] to = new double[newSize];
+                for (int i = 0; i < size; i++) {
+                    if (!remove[i])
+                        to[k++] = from[i];
+                }
+                newColumns[j] = to;
+            } else if (c instanceof long[]) {
+                long[] from = (long[]) c;
+                long[] to = new long[newSize];
+                for (int i = 0; i < size; i++) {
+                    if (!remove[i])
+                        to[k++] = from[i];
+                }
+                newColumns[j] = to;
+            } else {
+                Writable[] from = (Writable[]) c;
+                Writable[] to = new Writable[newSize];
+                for (int i = 0; i < size; i++) {
+                    if (!remove[i])
+                        to[k++] = from[i];
+                }
+                newColumns[j] = to;
+            }
+        }
+        return new ColumnBatch(schema, newSize, newColumns);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("ColumnBatch(size=").append(size).append(",columns=[");
+        for (int j = 0; j < columns.length; j++) {
+            if (j > 0)
+                sb.append(",");
+            sb.append(schema.getName(j)).append(":").append(columns[j].getClass().getSimpleName());
+        }
+        return sb.append("])").toString();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o)
+            return true;
+        if (!(o instanceof ColumnBatch))
+            return false;
+        ColumnBatch b = (ColumnBatch) o;
+        if (size != b.size || !schema.equals(b.schema))
+            return false;
+        for (int j = 0; j < columns.length; j++) {
+            if (!Arrays.equals(getColumnAsWritables(j), b.getColumnAsWritables(j)))
+                return false;
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * schema.hashCode() + size;
+    }
+}
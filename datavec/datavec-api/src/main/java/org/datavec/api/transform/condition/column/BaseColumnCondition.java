@@ -18,6 +18,7 @@ package org.datavec.api.transform.condition.column;
 
 import lombok.Data;
 import lombok.EqualsAndHashCode;
+import org.datavec.api.transform.batch.ColumnBatch;
 import org.datavec.api.transform.condition.SequenceConditionMode;
 import org.datavec.api.transform.schema.Schema;
 import org.datavec.api.writable.Writable;
@@ -76,6 +77,18 @@ public abstract class BaseColumnCondition implements ColumnCondition {
         return columnCondition(list.get(columnIdx));
     }
 
+    /**
+     * Evaluate {@link #columnCondition(Writable)} for each value of the column, for batch execution
+     */
+    protected boolean[] columnConditionBatch(ColumnBatch batch) {
+        Writable[] values = batch.getColumnAsWritables(columnIdx);
+        boolean[] out = new boolean[values.length];
+        for (int i = 0; i < values.length; i++) {
+            out[i] = columnCondition(values[i]);
+        }
+        return out;
+    }
+
     @Override
     public boolean conditionSequence(List<List<Writable>> list) {
         switch (sequenceMode) {
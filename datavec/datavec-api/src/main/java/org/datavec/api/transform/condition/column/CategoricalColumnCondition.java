@@ -18,6 +18,8 @@ package org.datavec.api.transform.condition.column;
 
 import lombok.Data;
 import lombok.EqualsAndHashCode;
+import org.datavec.api.transform.batch.BatchCondition;
+import org.datavec.api.transform.batch.ColumnBatch;
 import org.datavec.api.transform.condition.ConditionOp;
 import org.datavec.api.transform.condition.SequenceConditionMode;
 import org.datavec.api.writable.Writable;
@@ -32,7 +34,7 @@ import java.util.Set;
  */
 @EqualsAndHashCode(callSuper = true)
 @Data
-public class CategoricalColumnCondition extends BaseColumnCondition {
+public class CategoricalColumnCondition extends BaseColumnCondition implements BatchCondition {
 
     private final ConditionOp op;
     private final String value;
@@ -119,6 +121,11 @@ public class CategoricalColumnCondition extends BaseColumnCondition {
         return op.apply(writable.toString(), value, set);
     }
 
+    @Override
+    public boolean[] conditionBatch(ColumnBatch batch) {
+        return columnConditionBatch(batch);
+    }
+
     @Override
     public String toString() {
         return "CategoricalColumnCondition(columnName=\"" + columnName + "\"," + op + ","
@@ -18,6 +18,8 @@ package org.datavec.api.transform.condition.column;
 
 import lombok.Data;
 import lombok.EqualsAndHashCode;
+import org.datavec.api.transform.batch.BatchCondition;
+import org.datavec.api.transform.batch.ColumnBatch;
 import org.datavec.api.transform.condition.ConditionOp;
 import org.datavec.api.transform.condition.SequenceConditionMode;
 import org.datavec.api.writable.Writable;
@@ -32,7 +34,7 @@ import java.util.Set;
  */
 @EqualsAndHashCode(callSuper = true)
 @Data
-public class DoubleColumnCondition extends BaseColumnCondition {
+public class DoubleColumnCondition extends BaseColumnCondition implements BatchCondition {
 
     private final ConditionOp op;
     private final Double value;
@@ -117,6 +119,17 @@ public class DoubleColumnCondition extends BaseColumnCondition {
         return op.apply(writable.toDouble(), (value == null ? Double.NaN : value), set);
     }
 
+    @Override
+    public boolean[] conditionBatch(ColumnBatch batch) {
+        double[] values = batch.getColumnAsDoubles(columnIdx);
+        double v = (value == null ? Double.NaN : value);
+        boolean[] out = new boolean[values.length];
+        for (int i = 0; i < values.length; i++) {
+            out[i] = op.apply(values[i], v, set);
+        }
+        return out;
+    }
+
     @Override
     public String toString() {
         return "DoubleColumnCondition(columnName=\"" + columnName + "\"," + op + ","
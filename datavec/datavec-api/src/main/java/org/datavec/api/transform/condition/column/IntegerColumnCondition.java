@@ -18,6 +18,8 @@ package org.datavec.api.transform.condition.column;
 
 import lombok.Data;
 import lombok.EqualsAndHashCode;
+import org.datavec.api.transform.batch.BatchCondition;
+import org.datavec.api.transform.batch.ColumnBatch;
 import org.datavec.api.transform.condition.ConditionOp;
 import org.datavec.api.transform.condition.SequenceConditionMode;
 import org.datavec.api.writable.Writable;
@@ -32,7 +34,7 @@ import java.util.Set;
  */
 @EqualsAndHashCode(callSuper = true)
 @Data
-public class IntegerColumnCondition extends BaseColumnCondition {
+public class IntegerColumnCondition extends BaseColumnCondition implements BatchCondition {
 
     private final ConditionOp op;
     private final Integer value;
@@ -114,28 +116,44 @@ public class IntegerColumnCondition extends BaseColumnCondition {
 
     @Override
     public boolean columnCondition(Writable writable) {
+        return columnCondition(writable.toInt());
+    }
+
+    private boolean columnCondition(int x) {
         switch (op) {
             case LessThan:
-                return writable.toInt() < value;
+                return x < value;
             case LessOrEqual:
-                return writable.toInt() <= value;
+                return x <= value;
             case GreaterThan:
-                return writable.toInt() > value;
+                return x > value;
             case GreaterOrEqual:
-                return writable.toInt() >= value;
+                return x >= value;
             case Equal:
-                return writable.toInt() == value;
+                return x == value;
             case NotEqual:
-                return writable.toInt() != value;
+                return x != value;
             case InSet:
-                return set.contains(writable.toInt());
+                return set.contains(x);
             case NotInSet:
-                return !set.contains(writable.toInt());
+                return !set.contains(x);
             default:
                 throw new RuntimeException("Unknown or not implemented op: " + op);
         }
     }
 
+    @Override
+    public boolean[] conditionBatch(ColumnBatch batch) {
+        if (!batch.isLongColumn(columnIdx))
+            return columnConditionBatch(batch);
+        long[] values = batch.getLongColumn(columnIdx);
+        boolean[] out = new boolean[values.length];
+        for (int i = 0; i < values.length; i++) {
+            out[i] = columnCondition((int) values[i]);
+        }
+        return out;
+    }
+
     @Override
     public String toString() {
         return "IntegerColumnCondition(columnName=\"" + columnName + "\"," + op + ","
@@ -18,6 +18,8 @@ package org.datavec.api.transform.condition.column;
 
 import lombok.Data;
 import lombok.EqualsAndHashCode;
+import org.datavec.api.transform.batch.BatchCondition;
+import org.datavec.api.transform.batch.ColumnBatch;
 import org.datavec.api.transform.condition.ConditionOp;
 import org.datavec.api.transform.condition.SequenceConditionMode;
 import org.datavec.api.writable.Writable;
@@ -32,7 +34,7 @@ import java.util.Set;
  */
 @EqualsAndHashCode(callSuper = true)
 @Data
-public class LongColumnCondition extends BaseColumnCondition {
+public class LongColumnCondition extends BaseColumnCondition implements BatchCondition {
 
     private final ConditionOp op;
     private final Long value;
@@ -115,6 +117,19 @@ public class LongColumnCondition extends BaseColumnCondition {
         return op.apply(writable.toLong(), (value == null ? 0 : value), set);
     }
 
+    @Override
+    public boolean[] conditionBatch(ColumnBatch batch) {
+        if (!batch.isLongColumn(columnIdx))
+            return columnConditionBatch(batch);
+        long[] values = batch.getLongColumn(columnIdx);
+        long v = (value == null ? 0 : value);
+        boolean[] out = new boolean[values.length];
+        for (int i = 0; i < values.length; i++) {
+            out[i] = op.apply(values[i], v, set);
+        }
+        return out;
+    }
+
     @Override
     public String toString() {
         return "LongColumnCondition(columnName=\"" + columnName + "\"," + op + ","
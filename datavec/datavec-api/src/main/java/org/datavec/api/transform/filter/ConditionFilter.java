@@ -18,6 +18,9 @@ package org.datavec.api.transform.filter;
 
 import lombok.Data;
 import lombok.EqualsAndHashCode;
+import org.datavec.api.transform.batch.BatchCondition;
+import org.datavec.api.transform.batch.BatchFilter;
+import org.datavec.api.transform.batch.ColumnBatch;
 import org.datavec.api.transform.condition.Condition;
 import org.datavec.api.transform.schema.Schema;
 import org.datavec.api.writable.Writable;
@@ -34,7 +37,7 @@ import java.util.List;
  */
 @EqualsAndHashCode
 @Data
-public class ConditionFilter implements Filter {
+public class ConditionFilter implements Filter, BatchFilter {
 
     private final Condition condition;
 
@@ -65,6 +68,13 @@ public class ConditionFilter implements Filter {
         return condition.condition(writables);
     }
 
+    @Override
+    public boolean[] removeExamples(ColumnBatch batch) {
+        if (condition instanceof BatchCondition)
+            return ((BatchCondition) condition).conditionBatch(batch);
+        return null;
+    }
+
     @Override
     public boolean removeSequence(List<List<Writable>> sequence) {
         return condition.conditionSequence(sequence);
@@ -17,6 +17,8 @@
 package org.datavec.api.transform.transform.categorical;
 
 import lombok.Data;
+import org.datavec.api.transform.batch.BatchTransform;
+import org.datavec.api.transform.batch.ColumnBatch;
 import org.datavec.api.transform.metadata.CategoricalMetaData;
 import org.datavec.api.transform.metadata.ColumnMetaData;
 import org.datavec.api.transform.metadata.IntegerMetaData;
@@ -34,7 +36,7 @@ import java.util.*;
  */
 @Data
 @JsonIgnoreProperties({"inputSchema", "columnIdx", "stateNames", "statesMap"})
-public class CategoricalToIntegerTransform extends BaseTransform {
+public class CategoricalToIntegerTransform extends BaseTransform implements BatchTransform {
 
     private String columnName;
     private int columnIdx = -1;
@@ -121,6 +123,22 @@ public class CategoricalToIntegerTransform extends BaseTransform {
         return out;
     }
 
+    @Override
+    public ColumnBatch mapBatch(ColumnBatch batch) {
+        Writable[] in = batch.getColumnAsWritables(columnIdx);
+        long[] out = new long[in.length];
+        for (int i = 0; i < in.length; i++) {
+            String str = in[i].toString();
+            Integer classIdx = statesMap.get(str);
+            if (classIdx == null) {
+                throw new IllegalStateException("Cannot convert categorical value to integer value: input value (\"" + str
+                        + "\") is not in the list of known categories (state names/categories: " + stateNames + ")");
+            }
+            out[i] = classIdx;
+        }
+        return batch.withColumn(transform(batch.getSchema()), columnIdx, out);
+    }
+
     /**
      * Transform an object
      * in to another object
@@ -18,6 +18,8 @@ package org.datavec.api.transform.transform.column;
 
 import lombok.Data;
 import org.datavec.api.transform.ColumnOp;
+import org.datavec.api.transform.batch.BatchTransform;
+import org.datavec.api.transform.batch.ColumnBatch;
 import org.datavec.api.transform.metadata.ColumnMetaData;
 import org.datavec.api.transform.schema.Schema;
 import org.datavec.api.transform.transform.BaseTransform;
@@ -37,7 +39,7 @@ import java.util.*;
  */
 @JsonIgnoreProperties({"inputSchema", "columnsToRemoveIdx", "indicesToRemove"})
 @Data
-public class RemoveColumnsTransform extends BaseTransform implements ColumnOp {
+public class RemoveColumnsTransform extends BaseTransform implements ColumnOp, BatchTransform {
 
     private int[] columnsToRemoveIdx;
     private String[] columnsToRemove;
@@ -140,6 +142,20 @@ public class RemoveColumnsTransform extends BaseTransform implements ColumnOp {
         return outList;
     }
 
+    /**
+     * Remove the columns from a batch of examples. The remaining columns are not copied
+     */
+    @Override
+    public ColumnBatch mapBatch(ColumnBatch batch) {
+        int[] keep = new int[batch.numColumns() - indicesToRemove.size()];
+        int j = 0;
+        for (int i = 0; i < batch.numColumns(); i++) {
+            if (!indicesToRemove.contains(i))
+                keep[j++] = i;
+        }
+        return batch.selectColumns(transform(batch.getSchema()), keep);
+    }
+
     /**
      * Transform an object
      * in to another object
@@ -17,6 +17,8 @@
 package org.datavec.api.transform.transform.doubletransform;
 
 import lombok.Data;
+import org.datavec.api.transform.batch.BatchTransform;
+import org.datavec.api.transform.batch.ColumnBatch;
 import org.datavec.api.transform.MathOp;
 import org.datavec.api.transform.metadata.ColumnMetaData;
 import org.datavec.api.transform.metadata.DoubleMetaData;
@@ -36,7 +38,7 @@ import java.util.List;
  * @see DoubleColumnsMathOpTransform to do a mathematical operation involving multiple columns (instead of a scalar)
  */
 @Data
-public class DoubleMathOpTransform extends BaseColumnTransform {
+public class DoubleMathOpTransform extends BaseColumnTransform implements BatchTransform {
 
     private final MathOp mathOp;
     private final double scalar;
@@ -100,6 +102,16 @@ public class DoubleMathOpTransform extends BaseColumnTransform {
         return new DoubleWritable(doOp(columnWritable.toDouble()));
     }
 
+    @Override
+    public ColumnBatch mapBatch(ColumnBatch batch) {
+        double[] in = batch.getColumnAsDoubles(columnNumber);
+        double[] out = new double[in.length];
+        for (int i = 0; i < in.length; i++) {
+            out[i] = doOp(in[i]);
+        }
+        return batch.withColumn(transform(batch.getSchema()), columnNumber, out);
+    }
+
     @Override
     public String toString() {
         return "DoubleMathOpTransform(mathOp=" + mathOp + ",scalar=" + scalar + ")";
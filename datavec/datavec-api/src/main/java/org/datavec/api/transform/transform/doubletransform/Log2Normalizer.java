@@ -17,6 +17,8 @@
 package org.datavec.api.transform.transform.doubletransform;
 
 import lombok.Data;
+import org.datavec.api.transform.batch.BatchTransform;
+import org.datavec.api.transform.batch.ColumnBatch;
 import org.datavec.api.transform.metadata.ColumnMetaData;
 import org.datavec.api.transform.metadata.DoubleMetaData;
 import org.datavec.api.writable.DoubleWritable;
@@ -31,7 +33,7 @@ import org.nd4j.shade.jackson.annotation.JsonProperty;
  * @author Alex Black
  */
 @Data
-public class Log2Normalizer extends BaseDoubleTransform {
+public class Log2Normalizer extends BaseDoubleTransform implements BatchTransform {
 
     protected static final double log2 = Math.log(2);
     protected final double columnMean;
@@ -56,6 +58,16 @@ public class Log2Normalizer extends BaseDoubleTransform {
         return new DoubleWritable(normMean(val));
     }
 
+    @Override
+    public ColumnBatch mapBatch(ColumnBatch batch) {
+        double[] in = batch.getColumnAsDoubles(columnNumber);
+        double[] out = new double[in.length];
+        for (int i = 0; i < in.length; i++) {
+            out[i] = Double.isNaN(in[i]) ? 0 : normMean(in[i]);
+        }
+        return batch.withColumn(transform(batch.getSchema()), columnNumber, out);
+    }
+
     private double log2(double x) {
         return Math.log(x) / log2;
     }
@@ -17,6 +17,8 @@
 package org.datavec.api.transform.transform.doubletransform;
 
 import lombok.Data;
+import org.datavec.api.transform.batch.BatchTransform;
+import org.datavec.api.transform.batch.ColumnBatch;
 import org.datavec.api.transform.metadata.ColumnMetaData;
 import org.datavec.api.transform.metadata.DoubleMetaData;
 import org.datavec.api.writable.DoubleWritable;
@@ -33,7 +35,7 @@ import org.nd4j.shade.jackson.annotation.JsonProperty;
  */
 @Data
 @JsonIgnoreProperties({"ratio", "inputSchema", "columnNumber"})
-public class MinMaxNormalizer extends BaseDoubleTransform {
+public class MinMaxNormalizer extends BaseDoubleTransform implements BatchTransform {
 
     protected final double min;
     protected final double max;
@@ -64,6 +66,16 @@ public class MinMaxNormalizer extends BaseDoubleTransform {
         return new DoubleWritable(ratio * (val - min) + newMin);
     }
 
+    @Override
+    public ColumnBatch mapBatch(ColumnBatch batch) {
+        double[] in = batch.getColumnAsDoubles(columnNumber);
+        double[] out = new double[in.length];
+        for (int i = 0; i < in.length; i++) {
+            out[i] = Double.isNaN(in[i]) ? 0 : ratio * (in[i] - min) + newMin;
+        }
+        return batch.withColumn(transform(batch.getSchema()), columnNumber, out);
+    }
+
     @Override
     public ColumnMetaData getNewColumnMetaData(String newColumnName, ColumnMetaData oldColumnMeta) {
         return new DoubleMetaData(newColumnName, newMin, newMax);
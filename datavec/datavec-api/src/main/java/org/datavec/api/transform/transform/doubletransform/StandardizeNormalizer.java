@@ -17,6 +17,8 @@
 package org.datavec.api.transform.transform.doubletransform;
 
 import lombok.Data;
+import org.datavec.api.transform.batch.BatchTransform;
+import org.datavec.api.transform.batch.ColumnBatch;
 import org.datavec.api.writable.DoubleWritable;
 import org.datavec.api.writable.Writable;
 import org.nd4j.shade.jackson.annotation.JsonProperty;
@@ -28,7 +30,7 @@ import org.nd4j.shade.jackson.annotation.JsonProperty;
  * @author Alex Black
  */
 @Data
-public class StandardizeNormalizer extends BaseDoubleTransform {
+public class StandardizeNormalizer extends BaseDoubleTransform implements BatchTransform {
 
     protected final double mean;
     protected final double stdev;
@@ -47,6 +49,16 @@ public class StandardizeNormalizer extends BaseDoubleTransform {
         return new DoubleWritable((val - mean) / stdev);
     }
 
+    @Override
+    public ColumnBatch mapBatch(ColumnBatch batch) {
+        double[] in = batch.getColumnAsDoubles(columnNumber);
+        double[] out = new double[in.length];
+        for (int i = 0; i < in.length; i++) {
+            out[i] = (in[i] - mean) / stdev;
+        }
+        return batch.withColumn(transform(batch.getSchema()), columnNumber, out);
+    }
+
     @Override
     public String toString() {
         return "StandardizeNormalizer(mean=" + mean + ",stdev=" + stdev + ")";
@@ -17,6 +17,8 @@
 package org.datavec.api.transform.transform.doubletransform;
 
 import lombok.Data;
+import org.datavec.api.transform.batch.BatchTransform;
+import org.datavec.api.transform.batch.ColumnBatch;
 import org.datavec.api.writable.DoubleWritable;
 import org.datavec.api.writable.Writable;
 import org.nd4j.shade.jackson.annotation.JsonProperty;
@@ -25,7 +27,7 @@ import org.nd4j.shade.jackson.annotation.JsonProperty;
  * Normalize by substracting the mean
  */
 @Data
-public class SubtractMeanNormalizer extends BaseDoubleTransform {
+public class SubtractMeanNormalizer extends BaseDoubleTransform implements BatchTransform {
 
     private final double mean;
 
@@ -39,6 +41,16 @@ public class SubtractMeanNormalizer extends BaseDoubleTransform {
         return new DoubleWritable(writable.toDouble() - mean);
     }
 
+    @Override
+    public ColumnBatch mapBatch(ColumnBatch batch) {
+        double[] in = batch.getColumnAsDoubles(columnNumber);
+        double[] out = new double[in.length];
+        for (int i = 0; i < in.length; i++) {
+            out[i] = in[i] - mean;
+        }
+        return batch.withColumn(transform(batch.getSchema()), columnNumber, out);
+    }
+
     @Override
     public String toString() {
         return "SubstractMeanNormalizer(mean=" + mean + ")";
@@ -0,0 +1,78 @@
+package org.datavec.api.writable.batch;
+
+import com.google.common.base.Preconditions;
+import lombok.Getter;
+import lombok.NonNull;
+import org.datavec.api.transform.metadata.CategoricalMetaData;
+import org.datavec.api.transform.schema.Schema;
+import org.datavec.api.writable.*;
+import org.nd4j.linalg.api.ndarray.INDArray;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A columnar record batch, backed by a single INDArray of shape [numRecords, numColumns], with the column types
+ * given by a {@link Schema}. Numerical columns hold the values directly; categorical columns hold the index of the
+ * category in the list of state names.<br>
+ * As an {@link NDArrayRecordBatch}, the underlying arrays are the (column vector) views of each column, so consumers
+ * such as RecordReaderDataSetIterator can use the batch without creating any writables. Calling {@link #get(int)}
+ * returns writables of the types specified by the schema: IntWritable, LongWritable, DoubleWritable, FloatWritable,
+ * or Text (state name) for categorical columns.<br>
+ * Note that values are stored in the default floating point data type, so integer values above 2^24 (float) or
+ * 2^53 (double) may not be represented exactly.
+ *
+ * @see org.datavec.api.records.reader.impl.csv.CSVColumnarRecordReader
+ */
+public class ColumnarRecordBatch extends NDArrayRecordBatch {
+
+    @Getter
+    private final Schema schema;
+    @Getter
+    private final INDArray array;
+
+    public ColumnarRecordBatch(@NonNull Schema schema, @NonNull INDArray array) {
+        super(columns(schema, array));
+        this.schema = schema;
+        this.array = array;
+    }
+
+    private static List<INDArray> columns(Schema schema, INDArray array) {
+        Preconditions.checkArgument(array.rank() == 2 && array.size(1) == schema.numColumns(),
+                        "Expected array of shape [numRecords, %s] for schema with %s columns, got array with shape %s",
+                        schema.numColumns(), schema.numColumns(), array.shapeInfoToString());
+        List<INDArray> out = new ArrayList<>(schema.numColumns());
+        for (int i = 0; i < schema.numColumns(); i++) {
+            out.add(array.getColumn(i));
+        }
+        return out;
+    }
+
+    @Override
+    public List<Writable> get(int index) {
+        Preconditions.checkArgument(index >= 0 && index < size(), "Invalid index: " + index + ", size = " + size());
+        int numColumns = schema.numColumns();
+        List<Writable> out = new ArrayList<>(numColumns);
+        for (int i = 0; i < numColumns; i++) {
+            double d = array.getDouble(index, i);
+            switch (schema.getType(i)) {
+                case Integer:
+                    out.add(new IntWritable((int) d));
+                    break;
+                case Long:
+                    out.add(new LongWritable((long) d));
+                    break;
+                case Float:
+                    out.add(new FloatWritable((float) d));
+                    break;
+                case Categorical:
+                    List<String> states = ((CategoricalMetaData) schema.getMetaData(i)).getStateNames();
+                    out.add(new Text(states.get((int) d)));
+                    break;
+                default:
+                    out.add(new DoubleWritable(d));
+            }
+        }
+        return out;
+    }
+}
@@ -52,10 +52,10 @@ public class NDArrayRecordBatch extends AbstractWritableRecordBatch {
     public NDArrayRecordBatch(@NonNull List<INDArray> arrays){
         Preconditions.checkArgument(arrays.size() > 0, "Input list must not be empty");
         this.arrays = arrays;
+        size = arrays.get(0).size(0);
 
         //Check that dimension 0 matches:
         if(arrays.size() > 1){
-            size = arrays.get(0).size(0);
             for( int i=1; i<arrays.size(); i++ ){
                 if(size != arrays.get(i).size(0)){
                     throw new IllegalArgumentException("Invalid input arrays: all arrays must have same size for" +
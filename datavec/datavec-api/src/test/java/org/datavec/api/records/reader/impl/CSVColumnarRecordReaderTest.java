@@ -0,0 +1,131 @@
+package org.datavec.api.records.reader.impl;
+
+import org.apache.commons.io.FileUtils;
+import org.datavec.api.records.reader.impl.csv.CSVColumnarRecordReader;
+import org.datavec.api.records.reader.impl.csv.CSVRecordReader;
+import org.datavec.api.split.FileSplit;
+import org.datavec.api.transform.schema.Schema;
+import org.datavec.api.writable.*;
+import org.datavec.api.writable.batch.ColumnarRecordBatch;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.io.ClassPathResource;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class CSVColumnarRecordReaderTest {
+
+    @Rule
+    public TemporaryFolder testDir = new TemporaryFolder();
+
+    private static Schema irisSchema() {
+        return new Schema.Builder().addColumnsDouble("f_%d", 0, 3).addColumnInteger("label").build();
+    }
+
+    @Test
+    public void testBatchesMatchCSVRecordReader() throws Exception {
+        File f = new ClassPathResource("datavec-api/iris.dat").getFile();
+        CSVRecordReader expRR = new CSVRecordReader();
+        expRR.initialize(new FileSplit(f));
+        CSVColumnarRecordReader rr = new CSVColumnarRecordReader(irisSchema());
+        rr.initialize(new FileSplit(f));
+        assertTrue(rr.batchesSupported());
+
+        int count = 0;
+        while (rr.hasNext()) {
+            List<List<Writable>> batch = rr.next(32);
+            assertTrue(batch instanceof ColumnarRecordBatch);
+            INDArray arr = ((ColumnarRecordBatch) batch).getArray();
+            assertEquals(5, arr.columns());
+            assertEquals(batch.size(), arr.rows());
+            assertEquals(5, ((ColumnarRecordBatch) batch).getArrays().size());
+
+            for (int i = 0; i < batch.size(); i++) {
+                List<Writable> exp = expRR.next();
+                for (int j = 0; j < 4; j++) {
+                    assertEquals(exp.get(j).toDouble(), arr.getDouble(i, j), 1e-6);
+                }
+                assertEquals(exp.get(4).toInt(), arr.getInt(i, 4));
+
+                List<Writable> record = batch.get(i);
+                assertTrue(record.get(0) instanceof DoubleWritable);
+                assertEquals(new IntWritable(exp.get(4).toInt()), record.get(4));
+            }
+            count += batch.size();
+        }
+        assertEquals(150, count);
+        assertFalse(expRR.hasNext());
+
+        //Reset + single record path
+        rr.reset();
+        List<Writable> first = rr.next();
+        assertEquals(Arrays.<Writable>asList(new DoubleWritable(5.1), new DoubleWritable(3.5), new DoubleWritable(1.4),
+                        new DoubleWritable(0.2), new IntWritable(0)), first);
+    }
+
+    @Test
+    public void testTypesAndQuotes() throws Exception {
+        File f = testDir.newFile("data.csv");
+        FileUtils.writeStringToFile(f, "header,line,to,skip,x\n"
+                        + "1,-12345678901,0.25,\"b\",\"3\"\n"
+                        + "-2,7,-1e3,a,4.5\n"
+                        + "3,0,123456789.123456789,c,-0.0625\n", StandardCharsets.UTF_8);
+
+        Schema schema = new Schema.Builder().addColumnInteger("int").addColumnLong("long").addColumnDouble("double")
+                        .addColumnCategorical("cat", "a", "b", "c").addColumnFloat("float").build();
+
+        CSVColumnarRecordReader rr = new CSVColumnarRecordReader(1, schema);
+        rr.initialize(new FileSplit(f));
+        List<Writable> r = rr.next();
+        assertEquals(Arrays.<Writable>asList(new IntWritable(1), new LongWritable(-12345678901L),
+                        new DoubleWritable(0.25), new Text("b"), new FloatWritable(3.0f)), r);
+        r = rr.next();
+        assertEquals(Arrays.<Writable>asList(new IntWritable(-2), new LongWritable(7), new DoubleWritable(-1000),
+                        new Text("a"), new FloatWritable(4.5f)), r);
+        r = rr.next();
+        assertEquals(123456789.123456789, r.get(2).toDouble(), 0.0);
+
+        rr.reset();
+        List<List<Writable>> batch = rr.next(10);
+        assertEquals(3, batch.size());
+        INDArray arr = ((ColumnarRecordBatch) batch).getArray();
+        assertEquals(1.0, arr.getDouble(0, 3), 0.0);
+        assertEquals(0.0, arr.getDouble(1, 3), 0.0);
+        assertEquals(2.0, arr.getDouble(2, 3), 0.0);
+        assertEquals(-0.0625, arr.getDouble(2, 4), 0.0);
+        assertEquals(new Text("c"), batch.get(2).get(3));
+        assertFalse(rr.hasNext());
+    }
+
+    @Test
+    public void testInvalidData() throws Exception {
+        Schema schema = new Schema.Builder().addColumnInteger("int").addColumnCategorical("cat", "a", "b").build();
+        String[] invalid = {"1", "1,a,2", "x,a", "1,z", "\"1,a"};
+        for (String s : invalid) {
+            File f = testDir.newFile();
+            FileUtils.writeStringToFile(f, s, StandardCharsets.UTF_8);
+            CSVColumnarRecordReader rr = new CSVColumnarRecordReader(schema);
+            rr.initialize(new FileSplit(f));
+            try {
+                rr.next(1);
+                fail("Expected exception for: " + s);
+            } catch (IllegalStateException e) {
+                //Expected
+            }
+        }
+
+        try {
+            new CSVColumnarRecordReader(new Schema.Builder().addColumnString("str").build());
+            fail("Expected exception");
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage().contains("str"));
+        }
+    }
+}
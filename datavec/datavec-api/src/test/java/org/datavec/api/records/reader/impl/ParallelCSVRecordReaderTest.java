@@ -0,0 +1,154 @@
+package org.datavec.api.records.reader.impl;
+
+import org.apache.commons.io.FileUtils;
+import org.datavec.api.records.Record;
+import org.datavec.api.records.metadata.RecordMetaData;
+import org.datavec.api.records.metadata.RecordMetaDataLine;
+import org.datavec.api.records.reader.impl.csv.CSVRecordReader;
+import org.datavec.api.records.reader.impl.csv.ParallelCSVRecordReader;
+import org.datavec.api.split.CollectionInputSplit;
+import org.datavec.api.split.FileSplit;
+import org.datavec.api.split.InputSplit;
+import org.datavec.api.split.StringSplit;
+import org.datavec.api.writable.Writable;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class ParallelCSVRecordReaderTest {
+
+    @Rule
+    public TemporaryFolder testDir = new TemporaryFolder();
+
+    private File writeFile(String name, int numLines, boolean trailingNewLine) throws Exception {
+        StringBuilder sb = new StringBuilder("a,b,c\n");
+        for (int i = 0; i < numLines; i++) {
+            if (i > 0)
+                sb.append(i % 7 == 0 ? "\r\n" : "\n");
+            if (i % 10 == 3) {
+                sb.append(i).append(",\"quoted, value ").append(i).append("\",x");
+            } else if (i % 50 == 7) {
+                //Empty line
+            } else {
+                sb.append(i).append(",").append(i * 0.5).append(",").append(name);
+            }
+        }
+        if (trailingNewLine)
+            sb.append("\n");
+        File f = testDir.newFile(name);
+        FileUtils.writeStringToFile(f, sb.toString(), StandardCharsets.UTF_8);
+        return f;
+    }
+
+    private InputSplit split() throws Exception {
+        File f1 = writeFile("first.csv", 1000, true);
+        File f2 = writeFile("second.csv", 517, false);
+        return new CollectionInputSplit(Arrays.asList(f1.toURI(), f2.toURI()));
+    }
+
+    @Test
+    public void testOrdered() throws Exception {
+        InputSplit split = split();
+        CSVRecordReader expRR = new CSVRecordReader(1);
+        expRR.initialize(split);
+        ParallelCSVRecordReader rr = new ParallelCSVRecordReader(1, ',', '"', 4, 100, true);
+        rr.initialize(split);
+
+        List<RecordMetaData> meta = new ArrayList<>();
+        List<List<Writable>> records = new ArrayList<>();
+        int count = 0;
+        while (expRR.hasNext()) {
+            assertTrue(rr.hasNext());
+            Record exp = expRR.nextRecord();
+            Record act = rr.nextRecord();
+            assertEquals(exp.getRecord(), act.getRecord());
+            RecordMetaDataLine expMeta = (RecordMetaDataLine) exp.getMetaData();
+            RecordMetaDataLine actMeta = (RecordMetaDataLine) act.getMetaData();
+            assertEquals(expMeta.getURI(), actMeta.getURI());
+            assertEquals(expMeta.getLineNumber(), actMeta.getLineNumber());
+            if (count++ % 37 == 0) {
+                meta.add(act.getMetaData());
+                records.add(act.getRecord());
+            }
+        }
+        assertFalse(rr.hasNext());
+        assertEquals(1000 + 517, count);
+
+        List<Record> loaded = rr.loadFromMetaData(meta);
+        for (int i = 0; i < loaded.size(); i++) {
+            assertEquals(records.get(i), loaded.get(i).getRecord());
+        }
+
+        //Reset, and read in batches
+        rr.reset();
+        expRR.reset();
+        while (rr.hasNext()) {
+            List<List<Writable>> batch = rr.next(64);
+            assertEquals(expRR.next(64), batch);
+        }
+        assertFalse(expRR.hasNext());
+        rr.close();
+    }
+
+    @Test
+    public void testUnordered() throws Exception {
+        InputSplit split = split();
+        CSVRecordReader expRR = new CSVRecordReader(1);
+        expRR.initialize(split);
+        Map<String, List<Writable>> expected = new HashMap<>();
+        while (expRR.hasNext()) {
+            Record r = expRR.nextRecord();
+            expected.put(key(r.getMetaData()), r.getRecord());
+        }
+
+        ParallelCSVRecordReader rr = new ParallelCSVRecordReader(1, ',', '"', 3, 64, false);
+        rr.initialize(split);
+        Map<String, List<Writable>> actual = new HashMap<>();
+        while (rr.hasNext()) {
+            Record r = rr.nextRecord();
+            assertNull(actual.put(key(r.getMetaData()), r.getRecord()));
+        }
+        assertEquals(expected, actual);
+        rr.close();
+    }
+
+    private static String key(RecordMetaData meta) {
+        return meta.getURI() + "_" + ((RecordMetaDataLine) meta).getLineNumber();
+    }
+
+    @Test
+    public void testSkipLinesAndEmptyFiles() throws Exception {
+        File f = testDir.newFile();
+        FileUtils.writeStringToFile(f, "1,2\n3,4", StandardCharsets.UTF_8);
+        ParallelCSVRecordReader rr = new ParallelCSVRecordReader(2, ',', '"', 2, true);
+        rr.initialize(new FileSplit(f));
+        assertFalse(rr.hasNext());
+
+        //Empty files are skipped
+        File empty = testDir.newFile();
+        rr = new ParallelCSVRecordReader(1, ',', '"', 2, true);
+        rr.initialize(new CollectionInputSplit(Arrays.asList(empty.toURI(), f.toURI())));
+        Record r = rr.nextRecord();
+        assertEquals("3", r.getRecord().get(0).toString());
+        assertEquals(1, ((RecordMetaDataLine) r.getMetaData()).getLineNumber());
+        assertFalse(rr.hasNext());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testNonFileSplit() throws Exception {
+        new ParallelCSVRecordReader().initialize(new StringSplit("1,2,3"));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testNonFileLocation() throws Exception {
+        new ParallelCSVRecordReader().initialize(
+                        new CollectionInputSplit(Collections.singletonList(new URI("http://localhost/data.csv"))));
+    }
+}
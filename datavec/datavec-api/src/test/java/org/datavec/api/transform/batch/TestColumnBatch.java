@@ -0,0 +1,155 @@
+package org.datavec.api.transform.batch;
+
+import org.datavec.api.transform.MathOp;
+import org.datavec.api.transform.TransformProcess;
+import org.datavec.api.transform.condition.ConditionOp;
+import org.datavec.api.transform.condition.column.CategoricalColumnCondition;
+import org.datavec.api.transform.condition.column.DoubleColumnCondition;
+import org.datavec.api.transform.condition.column.IntegerColumnCondition;
+import org.datavec.api.transform.condition.column.LongColumnCondition;
+import org.datavec.api.transform.schema.Schema;
+import org.datavec.api.transform.transform.doubletransform.Log2Normalizer;
+import org.datavec.api.transform.transform.doubletransform.MinMaxNormalizer;
+import org.datavec.api.transform.transform.doubletransform.StandardizeNormalizer;
+import org.datavec.api.transform.transform.doubletransform.SubtractMeanNormalizer;
+import org.datavec.api.writable.*;
+import org.datavec.api.writable.batch.ColumnarRecordBatch;
+import org.junit.Test;
+import org.nd4j.linalg.factory.Nd4j;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class TestColumnBatch {
+
+    private static Schema schema() {
+        return new Schema.Builder().addColumnDouble("d").addColumnFloat("f").addColumnInteger("i")
+                        .addColumnLong("l").addColumnCategorical("cat", "a", "b", "c").addColumnString("s").build();
+    }
+
+    private static List<List<Writable>> data(int n) {
+        Random r = new Random(12345);
+        String[] states = {"a", "b", "c"};
+        List<List<Writable>> out = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            out.add(Arrays.<Writable>asList(new DoubleWritable(r.nextDouble() * 10), new FloatWritable(r.nextFloat()),
+                            new IntWritable(r.nextInt(100)), new LongWritable(r.nextLong() % 1000),
+                            new Text(states[r.nextInt(3)]), new Text("str" + i)));
+        }
+        return out;
+    }
+
+    @Test
+    public void testRoundTrip() {
+        Schema schema = schema();
+        List<List<Writable>> data = data(20);
+        ColumnBatch batch = ColumnBatch.fromRecords(schema, data);
+        assertEquals(20, batch.size());
+        assertTrue(batch.isDoubleColumn(0));
+        assertTrue(batch.isDoubleColumn(1));
+        assertTrue(batch.isLongColumn(2));
+        assertTrue(batch.isLongColumn(3));
+        assertTrue(batch.getColumn(4) instanceof Writable[]);
+        assertTrue(batch.getColumn(5) instanceof Writable[]);
+        assertEquals(data, batch.toRecords());
+
+        //Values that aren't of the writable type for the column type: kept as writables
+        data.set(3, Arrays.<Writable>asList(NullWritable.INSTANCE, new DoubleWritable(1.0), new LongWritable(3),
+                        new LongWritable(4), new Text("a"), new Text("x")));
+        batch = ColumnBatch.fromRecords(schema, data);
+        assertFalse(batch.isDoubleColumn(0));
+        assertFalse(batch.isDoubleColumn(1));
+        assertFalse(batch.isLongColumn(2));
+        assertTrue(batch.isLongColumn(3));
+        assertEquals(data, batch.toRecords());
+
+        boolean[] remove = new boolean[20];
+        remove[0] = true;
+        remove[19] = true;
+        ColumnBatch filtered = batch.removeExamples(remove);
+        assertEquals(data.subList(1, 19), filtered.toRecords());
+        assertSame(batch, batch.removeExamples(new boolean[20]));
+    }
+
+    @Test
+    public void testExecuteBatchMatchesExecute() {
+        Schema schema = schema();
+        TransformProcess tp = new TransformProcess.Builder(schema)
+                        .transform(new MinMaxNormalizer("d", 0, 10))
+                        .transform(new StandardizeNormalizer("f", 0.5, 0.25))
+                        .filter(new DoubleColumnCondition("d", ConditionOp.GreaterThan, 0.9))
+                        .categoricalToInteger("cat")
+                        .filter(new IntegerColumnCondition("cat", ConditionOp.Equal, 2))
+                        .transform(new SubtractMeanNormalizer("i", 50))
+                        .transform(new Log2Normalizer("l", 10, -1000, 2.0))
+                        .filter(new LongColumnCondition("i", ConditionOp.LessThan, -40))
+                        .doubleMathOp("l", MathOp.Multiply, 3.0)
+                        //No batch implementation: executed one example at a time
+                        .appendStringColumnTransform("s", "_suffix")
+                        .removeColumns("f")
+                        .build();
+        assertTrue(tp.supportsBatchExecution());
+
+        List<List<Writable>> data = data(500);
+        List<List<Writable>> exp = new ArrayList<>();
+        for (List<Writable> l : data) {
+            List<Writable> out = tp.execute(l);
+            if (out != null)
+                exp.add(out);
+        }
+        assertTrue(exp.size() > 0 && exp.size() < data.size());
+
+        List<List<Writable>> act = tp.executeBatch(data);
+        assertEquals(exp, act);
+
+        ColumnBatch out = tp.executeBatch(ColumnBatch.fromRecords(schema, data));
+        assertEquals(tp.getFinalSchema(), out.getSchema());
+        assertEquals(exp, out.toRecords());
+    }
+
+    @Test
+    public void testCategoricalFilter() {
+        Schema schema = new Schema.Builder().addColumnCategorical("cat", "Keep", "Remove").addColumnInteger("int")
+                        .build();
+        TransformProcess tp = new TransformProcess.Builder(schema)
+                        .filter(new CategoricalColumnCondition("cat", ConditionOp.Equal, "Remove")).build();
+
+        List<List<Writable>> in = new ArrayList<>();
+        in.add(Arrays.<Writable>asList(new Text("Keep"), new IntWritable(0)));
+        in.add(Arrays.<Writable>asList(new Text("Remove"), new IntWritable(1)));
+        in.add(Arrays.<Writable>asList(new Text("Keep"), new IntWritable(2)));
+        assertEquals(Arrays.asList(in.get(0), in.get(2)), tp.executeBatch(in));
+    }
+
+    @Test
+    public void testFromColumnarRecordBatch() {
+        Schema schema = new Schema.Builder().addColumnDouble("d").addColumnInteger("i")
+                        .addColumnCategorical("cat", "a", "b").build();
+        ColumnarRecordBatch records = new ColumnarRecordBatch(schema,
+                        Nd4j.create(new double[] {0.5, 3, 1, 1.5, 4, 0}, new int[] {2, 3}, 'c'));
+        ColumnBatch batch = ColumnBatch.fromRecords(schema, records);
+        assertTrue(batch.isDoubleColumn(0));
+        assertTrue(batch.isLongColumn(1));
+        List<List<Writable>> exp = new ArrayList<>();
+        exp.add(Arrays.<Writable>asList(new DoubleWritable(0.5), new IntWritable(3), new Text("b")));
+        exp.add(Arrays.<Writable>asList(new DoubleWritable(1.5), new IntWritable(4), new Text("a")));
+        assertEquals(exp, batch.toRecords());
+    }
+
+    @Test
+    public void testUnsupportedSteps() {
+        Schema schema = new Schema.Builder().addColumnString("key").addColumnInteger("i").build();
+        TransformProcess tp = new TransformProcess.Builder(schema).convertToSequence().build();
+        assertFalse(tp.supportsBatchExecution());
+        try {
+            tp.executeBatch(Arrays.asList(Arrays.<Writable>asList(new Text("k"), new IntWritable(0))));
+            fail("Expected exception");
+        } catch (IllegalStateException e) {
+            assertTrue(e.getMessage().contains("only transforms and filters"));
+        }
+    }
+}
@@ -10,6 +10,7 @@ import org.apache.arrow.vector.FieldVector;
 import org.datavec.api.transform.DataAction;
 import org.datavec.api.transform.Transform;
 import org.datavec.api.transform.TransformProcess;
+import org.datavec.api.transform.batch.ColumnBatch;
 import org.datavec.api.transform.filter.Filter;
 import org.datavec.api.transform.join.Join;
 import org.datavec.api.transform.ops.IAggregableReduceOp;
@@ -22,12 +23,13 @@ import org.datavec.api.transform.sequence.SequenceSplit;
 import org.datavec.api.writable.*;
 import org.datavec.arrow.ArrowConverter;
 import org.datavec.local.transforms.functions.EmptyRecordFunction;
-import org.datavec.local.transforms.join.ExecuteJoinFromCoGroupFlatMapFunction;
-import org.datavec.local.transforms.join.ExtractKeysFunction;
+import org.datavec.local.transforms.join.LocalJoinExecutor;
 import org.datavec.local.transforms.misc.ColumnAsKeyPairFunction;
 import org.datavec.local.transforms.rank.UnzipForCalculateSortedRankFunction;
 import org.datavec.local.transforms.reduce.MapToPairForReducerFunction;
 import org.datavec.local.transforms.sequence.*;
+import org.datavec.local.transforms.stream.CloseableIterator;
+import org.datavec.local.transforms.stream.ExternalRecordSorter;
 import org.datavec.local.transforms.transform.LocalTransformFunction;
 import org.datavec.local.transforms.transform.SequenceSplitFunction;
 import org.datavec.local.transforms.transform.filter.LocalFilterFunction;
@@ -309,10 +311,19 @@ public class LocalTransformExecutor {
         }
 
 
-        for (DataAction d : dataActions) {
+        for (int i = 0; i < dataActions.size(); i++) {
+            DataAction d = dataActions.get(i);
             //log.info("Starting execution of stage {} of {}", count, dataActions.size());     //
 
-            if (d.getTransform() != null) {
+            if (currentWritables != null && !isTryCatch() && batchInputSchema(d) != null) {
+                //Execute consecutive transforms and filters on the whole data set at once, column-wise where possible
+                int end = i + 1;
+                while (end < dataActions.size() && batchInputSchema(dataActions.get(end)) != null)
+                    end++;
+                ColumnBatch batch = ColumnBatch.fromRecords(batchInputSchema(d), currentWritables);
+                currentWritables = sequence.executeBatch(batch, i, end).toRecords();
+                i = end - 1;
+            } else if (d.getTransform() != null) {
                 Transform t = d.getTransform();
                 if (currentWritables != null) {
                     Function<List<Writable>, List<Writable>> function = new LocalTransformFunction(t);
@@ -537,7 +548,22 @@ public class LocalTransformExecutor {
 
 
     /**
-     * Execute a join on the specified data
+     * @return Input schema for the action, if it can be executed on a {@link ColumnBatch} (transforms and filters);
+     * null otherwise
+     */
+    static Schema batchInputSchema(DataAction d) {
+        if (d.getTransform() != null)
+            return d.getTransform().getInputSchema();
+        if (d.getFilter() != null)
+            return d.getFilter().getInputSchema();
+        return null;
+    }
+
+    /**
+     * Execute a join on the specified data<br>
+     * The join is executed by {@link LocalJoinExecutor} with its default settings: a hash join if either side has
+     * at most {@link ExternalRecordSorter#DEFAULT_MAX_RECORDS_IN_MEMORY} examples, or a sort-merge join that spills
+     * to disk otherwise. Use {@link LocalJoinExecutor} directly to join data that is not held in memory.
      *
      * @param join  Join to execute
      * @param left  Left data for join
@@ -548,34 +574,19 @@ public class LocalTransformExecutor {
                                                    List<List<Writable>> right) {
 
         String[] leftColumnNames = join.getJoinColumnsLeft();
-        int[] leftColumnIndexes = new int[leftColumnNames.length];
-        for (int i = 0; i < leftColumnNames.length; i++) {
-            leftColumnIndexes[i] = join.getLeftSchema().getIndexOfColumn(leftColumnNames[i]);
-        }
-        ExtractKeysFunction extractKeysFunction1 = new ExtractKeysFunction(leftColumnIndexes);
-
-        List<Pair<List<Writable>, List<Writable>>> leftJV = left.stream()
-                .filter(input -> input.size() != leftColumnNames.length).map(input ->
-                extractKeysFunction1.apply(input)).collect(toList());
+        Iterator<List<Writable>> leftIter = left.stream()
+                .filter(input -> input.size() != leftColumnNames.length).iterator();
 
         String[] rightColumnNames = join.getJoinColumnsRight();
-        int[] rightColumnIndexes = new int[rightColumnNames.length];
-        for (int i = 0; i < rightColumnNames.length; i++) {
-            rightColumnIndexes[i] = join.getRightSchema().getIndexOfColumn(rightColumnNames[i]);
-        }
-
-        ExtractKeysFunction extractKeysFunction = new ExtractKeysFunction(rightColumnIndexes);
-        List<Pair<List<Writable>, List<Writable>>> rightJV =
-                right.stream().filter(input -> input.size() != rightColumnNames.length)
-                        .map(input -> extractKeysFunction.apply(input))
-                        .collect(toList());
+        Iterator<List<Writable>> rightIter = right.stream()
+                .filter(input -> input.size() != rightColumnNames.length).iterator();
 
-        Map<List<Writable>, Pair<List<List<Writable>>, List<List<Writable>>>> cogroupedJV = FunctionalUtils.cogroup(leftJV, rightJV);
-        ExecuteJoinFromCoGroupFlatMapFunction executeJoinFromCoGroupFlatMapFunction = new ExecuteJoinFromCoGroupFlatMapFunction(join);
-        List<List<Writable>> ret =  cogroupedJV.entrySet().stream()
-                .flatMap(input ->
-                        executeJoinFromCoGroupFlatMapFunction.call(Pair.of(input.getKey(),input.getValue())).stream())
-                .collect(toList());
+        List<List<Writable>> ret = new ArrayList<>();
+        try (CloseableIterator<List<Writable>> joined =
+                        new LocalJoinExecutor.Builder().build().executeJoin(join, leftIter, rightIter)) {
+            while (joined.hasNext())
+                ret.add(joined.next());
+        }
 
         Schema retSchema = join.getOutputSchema();
         return ArrowConverter.toArrowWritables(ArrowConverter.toArrowColumns(bufferAllocator,retSchema,ret),retSchema);
@@ -5,14 +5,16 @@ import org.datavec.api.records.reader.impl.transform.TransformProcessRecordReade
 import org.datavec.api.transform.TransformProcess;
 import org.datavec.api.writable.Writable;
 
-import java.util.Arrays;
-import java.util.Collections;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.NoSuchElementException;
 
 /**
  * A wrapper around the {@link TransformProcessRecordReader}
  * that uses the {@link LocalTransformExecutor}
  * instead of the {@link TransformProcess} methods.
+ * When reading multiple records at once with {@link #next(int)}, the records are transformed as a batch, using
+ * {@link TransformProcess#executeBatch(List)}, if the TransformProcess only contains transforms and filters.
  *
  * @author Adam Gibson
  */
@@ -27,4 +29,31 @@ public class LocalTransformProcessRecordReader extends TransformProcessRecordRea
     public LocalTransformProcessRecordReader(RecordReader recordReader, TransformProcess transformProcess) {
         super(recordReader, transformProcess);
     }
+
+    @Override
+    public List<List<Writable>> next(int num) {
+        if (!transformProcess.supportsBatchExecution())
+            return super.next(num);
+        if (!hasNext())
+            throw new NoSuchElementException("No next element");
+
+        List<List<Writable>> out = new ArrayList<>(num);
+        if (next != null) {
+            //Already prefetched (and transformed) by hasNext()
+            out.add(next.getRecord());
+            next = null;
+        }
+        while (out.size() < num && recordReader.hasNext()) {
+            List<List<Writable>> batch;
+            if (recordReader.batchesSupported()) {
+                batch = recordReader.next(num - out.size());
+            } else {
+                batch = new ArrayList<>(num - out.size());
+                while (batch.size() < num - out.size() && recordReader.hasNext())
+                    batch.add(recordReader.next());
+            }
+            out.addAll(transformProcess.executeBatch(batch));
+        }
+        return out;
+    }
 }
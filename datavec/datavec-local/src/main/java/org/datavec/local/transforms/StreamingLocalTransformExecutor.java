@@ -0,0 +1,754 @@
+package org.datavec.local.transforms;
+
+import lombok.extern.slf4j.Slf4j;
+import org.datavec.api.records.reader.RecordReader;
+import org.datavec.api.records.reader.SequenceRecordReader;
+import org.datavec.api.transform.DataAction;
+import org.datavec.api.transform.TransformProcess;
+import org.datavec.api.transform.batch.ColumnBatch;
+import org.datavec.api.transform.join.Join;
+import org.datavec.api.transform.ops.IAggregableReduceOp;
+import org.datavec.api.transform.rank.CalculateSortedRank;
+import org.datavec.api.transform.reduce.IAssociativeReducer;
+import org.datavec.api.transform.schema.Schema;
+import org.datavec.api.transform.schema.SequenceSchema;
+import org.datavec.api.transform.sequence.ConvertToSequence;
+import org.datavec.api.writable.Text;
+import org.datavec.api.writable.Writable;
+import org.datavec.local.transforms.join.LocalJoinExecutor;
+import org.datavec.local.transforms.rank.UnzipForCalculateSortedRankFunction;
+import org.datavec.local.transforms.reduce.MapToPairForReducerFunction;
+import org.datavec.local.transforms.sequence.ConvertToSequenceLengthOne;
+import org.datavec.local.transforms.sequence.LocalGroupToSequenceFunction;
+import org.datavec.local.transforms.sequence.LocalSequenceFilterFunction;
+import org.datavec.local.transforms.sequence.LocalSequenceTransformFunction;
+import org.datavec.local.transforms.stream.CloseableIterator;
+import org.datavec.local.transforms.stream.ExternalRecordSorter;
+import org.datavec.local.transforms.stream.ParallelBatchIterator;
+import org.datavec.local.transforms.stream.PrefetchIterator;
+import org.datavec.local.transforms.transform.LocalTransformFunction;
+import org.datavec.local.transforms.transform.SequenceSplitFunction;
+import org.datavec.local.transforms.transform.filter.LocalFilterFunction;
+import org.nd4j.linalg.function.Function;
+import org.nd4j.linalg.primitives.Pair;
+
+import java.io.File;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Streaming, bounded-memory executor for {@link TransformProcess}es.<br>
+ * Unlike {@link LocalTransformExecutor}, the input data is pulled from a {@link RecordReader} or
+ * {@link SequenceRecordReader} and the output is returned as an iterator, so the data set never needs to fit in
+ * memory:
+ * <ul>
+ *     <li>The input is read on a separate thread, and passed on in batches through a bounded queue</li>
+ *     <li>Consecutive stateless steps (transforms, filters, sequence splits, conversion from sequences and to
+ *     sequences of length 1) are applied to batches of examples in parallel, with at most {@code queueCapacity}
+ *     batches in flight. Transforms and filters on non-sequence data are executed column-wise where possible
+ *     (see {@link TransformProcess#executeBatch(ColumnBatch, int, int)})</li>
+ *     <li>Steps that need to see all examples (reductions, conversion to sequences by key and sorted rank
+ *     calculation) sort their input with an {@link ExternalRecordSorter}, which spills sorted runs to disk once
+ *     more than {@code maxRecordsInMemory} examples have been collected. Only a single group (one reduction key or
+ *     one sequence) is held in memory when the sorted examples are processed</li>
+ *     <li>Joins of two record readers ({@link #executeJoin(Join, RecordReader, RecordReader)}) are executed by a
+ *     {@link LocalJoinExecutor}, as a hash join or as a sort-merge join that spills to disk</li>
+ * </ul>
+ * Output order is deterministic: stateless steps preserve the input order; reductions and conversions to sequences
+ * return groups in order of their key.<br>
+ * The returned iterators release their threads and temporary files once exhausted; if iteration is stopped early,
+ * {@link CloseableIterator#close()} should be called.<br>
+ * If the {@link LocalTransformExecutor#LOG_ERROR_PROPERTY} system property is set, errors in transforms are logged
+ * and the failing examples are dropped.
+ */
+@Slf4j
+public class StreamingLocalTransformExecutor {
+    public static final int DEFAULT_BATCH_SIZE = 1024;
+
+    private final int numThreads;
+    private final int batchSize;
+    private final int queueCapacity;
+    private final int maxRecordsInMemory;
+    private final File spillDirectory;
+
+    private StreamingLocalTransformExecutor(Builder builder) {
+        this.numThreads = builder.numThreads;
+        this.batchSize = builder.batchSize;
+        this.queueCapacity = builder.queueCapacity > 0 ? builder.queueCapacity : 2 * builder.numThreads;
+        this.maxRecordsInMemory = builder.maxRecordsInMemory;
+        this.spillDirectory = builder.spillDirectory;
+    }
+
+    /**
+     * Execute the specified TransformProcess on all examples from the given record reader<br>
+     * Note: this method can only be used if the TransformProcess returns non-sequence data. For TransformProcesses
+     * that return a sequence, use {@link #executeToSequence(RecordReader, TransformProcess)}
+     *
+     * @param recordReader     Record reader to read input data from. Should be initialized
+     * @param transformProcess TransformProcess to execute
+     * @return Iterator over the processed data
+     */
+    public CloseableIterator<List<Writable>> execute(RecordReader recordReader, TransformProcess transformProcess) {
+        if (transformProcess.getFinalSchema() instanceof SequenceSchema) {
+            throw new IllegalStateException("Cannot return sequence data with this method");
+        }
+        return execute(new RecordReaderIterator(recordReader, transformProcess.getInitialSchema().numColumns()),
+                        false, transformProcess);
+    }
+
+    /**
+     * Execute the specified TransformProcess on all examples from the given record reader<br>
+     * Note: this method can only be used if the TransformProcess starts with non-sequential data, but returns
+     * <i>sequence</i> data (after grouping or converting to a sequence as one of the steps)
+     *
+     * @param recordReader     Record reader to read input data from. Should be initialized
+     * @param transformProcess TransformProcess to execute
+     * @return Iterator over the processed (sequence) data
+     */
+    public CloseableIterator<List<List<Writable>>> executeToSequence(RecordReader recordReader,
+                    TransformProcess transformProcess) {
+        if (!(transformProcess.getFinalSchema() instanceof SequenceSchema)) {
+            throw new IllegalStateException("Cannot return non-sequence data with this method");
+        }
+        return execute(new RecordReaderIterator(recordReader, transformProcess.getInitialSchema().numColumns()),
+                        false, transformProcess);
+    }
+
+    /**
+     * Execute the specified TransformProcess on all sequences from the given sequence record reader<br>
+     * Note: this method can only be used if the TransformProcess starts with sequence data, but returns
+     * <i>non-sequential</i> data (after reducing or converting sequential data to individual examples)
+     *
+     * @param sequenceRecordReader Sequence record reader to read input data from. Should be initialized
+     * @param transformProcess     TransformProcess to execute
+     * @return Iterator over the processed (non-sequential) data
+     */
+    public CloseableIterator<List<Writable>> executeSequenceToSeparate(SequenceRecordReader sequenceRecordReader,
+                    TransformProcess transformProcess) {
+        if (transformProcess.getFinalSchema() instanceof SequenceSchema) {
+            throw new IllegalStateException("Cannot return sequence data with this method");
+        }
+        return execute(new SequenceRecordReaderIterator(sequenceRecordReader), true, transformProcess);
+    }
+
+    /**
+     * Execute the specified TransformProcess on all sequences from the given sequence record reader<br>
+     * Note: this method can only be used if the TransformProcess starts with sequence data, and also returns
+     * sequence data
+     *
+     * @param sequenceRecordReader Sequence record reader to read input data from. Should be initialized
+     * @param transformProcess     TransformProcess to execute
+     * @return Iterator over the processed (sequence) data
+     */
+    public CloseableIterator<List<List<Writable>>> executeSequenceToSequence(SequenceRecordReader sequenceRecordReader,
+                    TransformProcess transformProcess) {
+        if (!(transformProcess.getFinalSchema() instanceof SequenceSchema)) {
+            throw new IllegalStateException("Cannot return non-sequence data with this method");
+        }
+        return execute(new SequenceRecordReaderIterator(sequenceRecordReader), true, transformProcess);
+    }
+
+    /**
+     * Execute a join on the examples from the given record readers, using a {@link LocalJoinExecutor} with the
+     * same memory limit and spill directory as this executor
+     *
+     * @param join        Join to execute
+     * @param leftReader  Record reader for the left data. Should be initialized
+     * @param rightReader Record reader for the right data. Should be initialized
+     * @return Iterator over the joined data
+     */
+    public CloseableIterator<List<Writable>> executeJoin(Join join, RecordReader leftReader, RecordReader rightReader) {
+        LocalJoinExecutor joinExecutor = new LocalJoinExecutor.Builder().maxRecordsInMemory(maxRecordsInMemory)
+                        .spillDirectory(spillDirectory).build();
+        return joinExecutor.executeJoin(join,
+                        new RecordReaderIterator(leftReader, join.getLeftSchema().numColumns()),
+                        new RecordReaderIterator(rightReader, join.getRightSchema().numColumns()));
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> CloseableIterator<T> execute(Iterator<?> source, boolean sequenceInput, TransformProcess tp) {
+        Pipeline<T> pipeline = new Pipeline<>(numThreads);
+        Iterator<Object> current = pipeline.add(new PrefetchIterator<>((Iterator<Object>) source, batchSize,
+                        queueCapacity));
+        boolean sequence = sequenceInput;
+
+        List<DataAction> actions = tp.getActionList();
+        int i = 0;
+        while (i < actions.size()) {
+            DataAction d = actions.get(i);
+            if (isStateless(d)) {
+                //Pipeline all consecutive stateless steps together
+                int end = i + 1;
+                while (end < actions.size() && isStateless(actions.get(end)))
+                    end++;
+                current = pipeline.add(new ParallelBatchIterator<>(current,
+                                new StatelessStepsFunction(tp, i, end, sequence), batchSize, queueCapacity,
+                                pipeline.executor));
+                for (int j = i; j < end; j++)
+                    sequence = isSequenceAfter(actions.get(j), sequence);
+                i = end;
+            } else {
+                current = pipeline.add(sortingStep(d, current, sequence));
+                sequence = isSequenceAfter(d, sequence);
+                i++;
+            }
+        }
+
+        pipeline.output = (Iterator<T>) current;
+        return pipeline;
+    }
+
+    private SortingStep sortingStep(DataAction d, Iterator<Object> input, boolean sequence) {
+        if (d.getReducer() != null) {
+            if (sequence)
+                throw new IllegalStateException("Error during execution of reduction: current writables are null. "
+                                + "Trying to execute a reduce operation on a sequence?");
+            return new ReduceStep(input, d.getReducer());
+        } else if (d.getConvertToSequence() != null) {
+            if (sequence)
+                throw new IllegalStateException("Cannot execute ConvertToSequence operation: data is already sequence data");
+            return new ConvertToSequenceStep(input, d.getConvertToSequence());
+        } else if (d.getCalculateSortedRank() != null) {
+            if (sequence)
+                throw new IllegalStateException("Error during execution of CalculateSortedRank: current writables are null. "
+                                + "Trying to execute a CalculateSortedRank operation on a sequence? (not currently supported)");
+            return new CalculateSortedRankStep(input, d.getCalculateSortedRank());
+        }
+        throw new RuntimeException("Unknown/not implemented action: " + d);
+    }
+
+    /**
+     * @return True if the action can be executed on each example (or sequence) independently
+     */
+    private static boolean isStateless(DataAction d) {
+        return d.getTransform() != null || d.getFilter() != null || d.getSequenceSplit() != null
+                        || d.getConvertFromSequence() != null
+                        || (d.getConvertToSequence() != null && d.getConvertToSequence().isSingleStepSequencesMode());
+    }
+
+    private static boolean isSequenceAfter(DataAction d, boolean sequenceBefore) {
+        if (d.getConvertToSequence() != null)
+            return true;
+        if (d.getConvertFromSequence() != null || d.getReducer() != null || d.getCalculateSortedRank() != null)
+            return false;
+        return sequenceBefore;
+    }
+
+    /**
+     * Executes a range of stateless steps on a batch of examples or sequences
+     */
+    private static class StatelessStepsFunction implements Function<List<Object>, List<Object>> {
+        private final TransformProcess tp;
+        private final List<DataAction> actions;
+        private final int fromStep;
+        private final int toStep;
+        private final boolean sequenceInput;
+
+        private StatelessStepsFunction(TransformProcess tp, int fromStep, int toStep, boolean sequenceInput) {
+            this.tp = tp;
+            this.actions = tp.getActionList();
+            this.fromStep = fromStep;
+            this.toStep = toStep;
+            this.sequenceInput = sequenceInput;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public List<Object> apply(List<Object> batch) {
+            boolean tryCatch = LocalTransformExecutor.isTryCatch();
+            boolean sequence = sequenceInput;
+            List<Object> current = batch;
+            for (int i = fromStep; i < toStep && !current.isEmpty(); i++) {
+                DataAction d = actions.get(i);
+
+                Schema batchSchema = LocalTransformExecutor.batchInputSchema(d);
+                if (!sequence && !tryCatch && batchSchema != null) {
+                    int end = i + 1;
+                    while (end < toStep && LocalTransformExecutor.batchInputSchema(actions.get(end)) != null)
+                        end++;
+                    ColumnBatch columnBatch = ColumnBatch.fromRecords(batchSchema, (List<List<Writable>>) (List<?>) current);
+                    current = (List<Object>) (List<?>) tp.executeBatch(columnBatch, i, end).toRecords();
+                    i = end - 1;
+                    continue;
+                }
+
+                List<Object> out = new ArrayList<>(current.size());
+                if (d.getTransform() != null) {
+                    if (sequence) {
+                        LocalSequenceTransformFunction f = new LocalSequenceTransformFunction(d.getTransform());
+                        for (Object o : current) {
+                            List<List<Writable>> s = f.apply((List<List<Writable>>) o);
+                            if (!tryCatch || !s.isEmpty())
+                                out.add(s);
+                        }
+                    } else {
+                        LocalTransformFunction f = new LocalTransformFunction(d.getTransform());
+                        for (Object o : current) {
+                            List<Writable> r = f.apply((List<Writable>) o);
+                            //In try/catch mode, failing examples are returned as empty lists
+                            if (!tryCatch || !r.isEmpty())
+                                out.add(r);
+                        }
+                    }
+                } else if (d.getFilter() != null) {
+                    if (sequence) {
+                        LocalSequenceFilterFunction f = new LocalSequenceFilterFunction(d.getFilter());
+                        for (Object o : current) {
+                            if (f.apply((List<List<Writable>>) o))
+                                out.add(o);
+                        }
+                    } else {
+                        LocalFilterFunction f = new LocalFilterFunction(d.getFilter());
+                        for (Object o : current) {
+                            if (f.apply((List<Writable>) o))
+                                out.add(o);
+                        }
+                    }
+                } else if (d.getConvertToSequence() != null) {
+                    ConvertToSequenceLengthOne f = new ConvertToSequenceLengthOne();
+                    for (Object o : current)
+                        out.add(f.apply((List<Writable>) o));
+                } else if (d.getConvertFromSequence() != null) {
+                    if (!sequence)
+                        throw new IllegalStateException(
+                                        "Cannot execute ConvertFromSequence operation: current sequence is null");
+                    for (Object o : current)
+                        out.addAll((List<List<Writable>>) o);
+                } else if (d.getSequenceSplit() != null) {
+                    if (!sequence)
+                        throw new IllegalStateException("Error during execution of SequenceSplit: currentSequence is null");
+                    SequenceSplitFunction f = new SequenceSplitFunction(d.getSequenceSplit());
+                    for (Object o : current)
+                        out.addAll(f.call((List<List<Writable>>) o));
+                } else {
+                    throw new RuntimeException("Unknown/not implemented action: " + d);
+                }
+                current = out;
+                sequence = isSequenceAfter(d, sequence);
+            }
+            return current;
+        }
+    }
+
+    /**
+     * Base class for steps that sort all of their input (spilling to disk as required) and then process the sorted
+     * examples in order
+     */
+    private abstract class SortingStep implements CloseableIterator<Object> {
+        private final Iterator<Object> input;
+        private ExternalRecordSorter sorter;
+        private CloseableIterator<List<Writable>> sorted;
+        private List<Writable> peeked;
+        private Object next;
+        private boolean closed;
+
+        private SortingStep(Iterator<Object> input) {
+            this.input = input;
+        }
+
+        /**
+         * @return Record to sort, for the given input record (for example, with key values prepended)
+         */
+        protected abstract List<Writable> toSortRecord(List<Writable> record);
+
+        protected abstract Comparator<List<Writable>> comparator();
+
+        /**
+         * @return The next output value, computed from one or more sorted records. Called only if
+         * {@link #hasNextSorted()} is true
+         */
+        protected abstract Object computeNext();
+
+        protected boolean hasNextSorted() {
+            return peeked != null || sorted.hasNext();
+        }
+
+        protected List<Writable> peekSorted() {
+            if (peeked == null)
+                peeked = sorted.next();
+            return peeked;
+        }
+
+        protected List<Writable> nextSorted() {
+            List<Writable> r = peekSorted();
+            peeked = null;
+            return r;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public boolean hasNext() {
+            if (closed)
+                return false;
+            if (sorted == null) {
+                sorter = new ExternalRecordSorter(comparator(), maxRecordsInMemory, spillDirectory);
+                while (input.hasNext())
+                    sorter.add(toSortRecord((List<Writable>) input.next()));
+                if (sorter.numSpilledRuns() > 0)
+                    log.info("Sorted {} examples using {} spill files", sorter.numRecords(), sorter.numSpilledRuns());
+                sorted = sorter.sortedIterator();
+            }
+            if (next == null && hasNextSorted())
+                next = computeNext();
+            return next != null;
+        }
+
+        @Override
+        public Object next() {
+            if (!hasNext())
+                throw new NoSuchElementException();
+            Object ret = next;
+            next = null;
+            return ret;
+        }
+
+        @Override
+        public void close() {
+            if (closed)
+                return;
+            closed = true;
+            if (sorter != null)
+                sorter.close();
+            peeked = null;
+            next = null;
+        }
+    }
+
+    /**
+     * Reduction: examples are sorted by reduction key (prepended to each example as a Text value) and each run of
+     * examples with the same key is passed to an {@link IAggregableReduceOp}
+     */
+    private class ReduceStep extends SortingStep {
+        private final IAssociativeReducer reducer;
+        private final MapToPairForReducerFunction keyFunction;
+
+        private ReduceStep(Iterator<Object> input, IAssociativeReducer reducer) {
+            super(input);
+            this.reducer = reducer;
+            this.keyFunction = new MapToPairForReducerFunction(reducer);
+        }
+
+        @Override
+        protected List<Writable> toSortRecord(List<Writable> record) {
+            return withKeys(Collections.<Writable>singletonList(new Text(keyFunction.apply(record).getFirst())), record);
+        }
+
+        @Override
+        protected Comparator<List<Writable>> comparator() {
+            return new KeyPrefixComparator(1);
+        }
+
+        @Override
+        protected Object computeNext() {
+            IAggregableReduceOp<List<Writable>, List<Writable>> op = reducer.aggregableReducer();
+            Writable key = peekSorted().get(0);
+            while (hasNextSorted() && peekSorted().get(0).equals(key)) {
+                List<Writable> r = nextSorted();
+                op.accept(r.subList(1, r.size()));
+            }
+            return op.get();
+        }
+    }
+
+    /**
+     * Conversion to sequences by key: examples are sorted by their key column values (prepended to each example as
+     * Text values). Each run of examples with the same key is then sorted using the sequence comparator
+     */
+    private class ConvertToSequenceStep extends SortingStep {
+        private final ConvertToSequence cts;
+        private final int[] keyColumnIdxs;
+
+        private ConvertToSequenceStep(Iterator<Object> input, ConvertToSequence cts) {
+            super(input);
+            this.cts = cts;
+            this.keyColumnIdxs = cts.getInputSchema().getIndexOfColumns(cts.getKeyColumns());
+        }
+
+        @Override
+        protected List<Writable> toSortRecord(List<Writable> record) {
+            List<Writable> keys = new ArrayList<>(keyColumnIdxs.length);
+            for (int idx : keyColumnIdxs)
+                keys.add(new Text(record.get(idx).toString()));
+            return withKeys(keys, record);
+        }
+
+        @Override
+        protected Comparator<List<Writable>> comparator() {
+            return new KeyPrefixComparator(keyColumnIdxs.length);
+        }
+
+        @Override
+        protected Object computeNext() {
+            int numKeys = keyColumnIdxs.length;
+            List<Writable> key = new ArrayList<>(peekSorted().subList(0, numKeys));
+            List<List<Writable>> group = new ArrayList<>();
+            while (hasNextSorted() && peekSorted().subList(0, numKeys).equals(key)) {
+                List<Writable> r = nextSorted();
+                group.add(new ArrayList<>(r.subList(numKeys, r.size())));
+            }
+            if (cts.getComparator() == null)
+                return group;
+            return new LocalGroupToSequenceFunction(cts.getComparator()).apply(group);
+        }
+    }
+
+    /**
+     * Sorted rank calculation: examples are sorted by the specified column, and the rank is appended
+     */
+    private class CalculateSortedRankStep extends SortingStep {
+        private final CalculateSortedRank csr;
+        private final int sortColumnIdx;
+        private final UnzipForCalculateSortedRankFunction rankFunction = new UnzipForCalculateSortedRankFunction();
+        private long rank;
+
+        private CalculateSortedRankStep(Iterator<Object> input, CalculateSortedRank csr) {
+            super(input);
+            this.csr = csr;
+            this.sortColumnIdx = csr.getInputSchema().getIndexOfColumn(csr.getSortOnColumn());
+        }
+
+        @Override
+        protected List<Writable> toSortRecord(List<Writable> record) {
+            return record;
+        }
+
+        @Override
+        protected Comparator<List<Writable>> comparator() {
+            final Comparator<Writable> comparator = csr.getComparator();
+            final boolean ascending = csr.isAscending();
+            return new Comparator<List<Writable>>() {
+                @Override
+                public int compare(List<Writable> o1, List<Writable> o2) {
+                    int result = comparator.compare(o1.get(sortColumnIdx), o2.get(sortColumnIdx));
+                    return ascending ? result : -result;
+                }
+            };
+        }
+
+        @Override
+        protected Object computeNext() {
+            List<Writable> r = nextSorted();
+            return rankFunction.apply(Pair.of(Pair.of(r.get(sortColumnIdx), r), rank++));
+        }
+    }
+
+    private static List<Writable> withKeys(List<Writable> keys, List<Writable> record) {
+        List<Writable> out = new ArrayList<>(keys.size() + record.size());
+        out.addAll(keys);
+        out.addAll(record);
+        return out;
+    }
+
+    /**
+     * Compares records by their first {@code numKeys} values, which must be {@link Text} writables
+     */
+    private static class KeyPrefixComparator implements Comparator<List<Writable>> {
+        private final int numKeys;
+
+        private KeyPrefixComparator(int numKeys) {
+            this.numKeys = numKeys;
+        }
+
+        @Override
+        public int compare(List<Writable> o1, List<Writable> o2) {
+            for (int i = 0; i < numKeys; i++) {
+                int c = ((Text) o1.get(i)).compareTo((Text) o2.get(i));
+                if (c != 0)
+                    return c;
+            }
+            return 0;
+        }
+    }
+
+    private static class RecordReaderIterator implements Iterator<List<Writable>> {
+        private final RecordReader recordReader;
+        private final int numColumns;
+        private List<Writable> next;
+        private long numFiltered;
+
+        private RecordReaderIterator(RecordReader recordReader, int numColumns) {
+            this.recordReader = recordReader;
+            this.numColumns = numColumns;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (next == null && recordReader.hasNext()) {
+                List<Writable> r = recordReader.next();
+                if (r.size() == numColumns) {
+                    next = r;
+                } else {
+                    numFiltered++;
+                }
+            }
+            if (next == null && numFiltered > 0) {
+                log.warn("Filtered out " + numFiltered + " values");
+                numFiltered = 0;
+            }
+            return next != null;
+        }
+
+        @Override
+        public List<Writable> next() {
+            if (!hasNext())
+                throw new NoSuchElementException();
+            List<Writable> r = next;
+            next = null;
+            return r;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    private static class SequenceRecordReaderIterator implements Iterator<List<List<Writable>>> {
+        private final SequenceRecordReader sequenceRecordReader;
+
+        private SequenceRecordReaderIterator(SequenceRecordReader sequenceRecordReader) {
+            this.sequenceRecordReader = sequenceRecordReader;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return sequenceRecordReader.hasNext();
+        }
+
+        @Override
+        public List<List<Writable>> next() {
+            return sequenceRecordReader.sequenceRecord();
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    /**
+     * The output iterator: owns the threads and the iterators of all steps, and releases them once the output is
+     * exhausted or closed
+     */
+    private static class Pipeline<T> implements CloseableIterator<T> {
+        private final ExecutorService executor;
+        private final List<CloseableIterator<?>> steps = new ArrayList<>();
+        private Iterator<T> output;
+        private boolean closed;
+
+        private Pipeline(int numThreads) {
+            final AtomicInteger threadCount = new AtomicInteger();
+            executor = Executors.newFixedThreadPool(numThreads, new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable r) {
+                    Thread t = new Thread(r, "StreamingLocalTransformExecutor-" + threadCount.getAndIncrement());
+                    t.setDaemon(true);
+                    return t;
+                }
+            });
+        }
+
+        private <I extends CloseableIterator<?>> I add(I step) {
+            steps.add(step);
+            return step;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (closed)
+                return false;
+            boolean hasNext;
+            try {
+                hasNext = output.hasNext();
+            } catch (RuntimeException | Error e) {
+                close();
+                throw e;
+            }
+            if (!hasNext)
+                close();
+            return hasNext;
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext())
+                throw new NoSuchElementException();
+            return output.next();
+        }
+
+        @Override
+        public void close() {
+            if (closed)
+                return;
+            closed = true;
+            for (CloseableIterator<?> c : steps)
+                c.close();
+            executor.shutdownNow();
+        }
+    }
+
+    public static class Builder {
+        private int numThreads = Runtime.getRuntime().availableProcessors();
+        private int batchSize = DEFAULT_BATCH_SIZE;
+        private int queueCapacity = -1;
+        private int maxRecordsInMemory = ExternalRecordSorter.DEFAULT_MAX_RECORDS_IN_MEMORY;
+        private File spillDirectory;
+
+        /**
+         * @param numThreads Number of threads used to execute stateless steps. Defaults to the number of processors
+         */
+        public Builder numThreads(int numThreads) {
+            this.numThreads = numThreads;
+            return this;
+        }
+
+        /**
+         * @param batchSize Number of examples (or sequences) passed between threads at once. Default: 1024
+         */
+        public Builder batchSize(int batchSize) {
+            this.batchSize = batchSize;
+            return this;
+        }
+
+        /**
+         * @param queueCapacity Maximum number of batches read ahead of, or being processed for, each pipelined set of
+         *                      steps. Default: 2 * numThreads
+         */
+        public Builder queueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+            return this;
+        }
+
+        /**
+         * @param maxRecordsInMemory Maximum number of examples held in memory by each reduce, convert to sequence or
+         *                           sorted rank step (and by each side of a join), before sorted examples are
+         *                           spilled to disk. Default: 1000000
+         */
+        public Builder maxRecordsInMemory(int maxRecordsInMemory) {
+            this.maxRecordsInMemory = maxRecordsInMemory;
+            return this;
+        }
+
+        /**
+         * @param spillDirectory Directory for temporary files. Defaults to the system temporary directory
+         */
+        public Builder spillDirectory(File spillDirectory) {
+            this.spillDirectory = spillDirectory;
+            return this;
+        }
+
+        public StreamingLocalTransformExecutor build() {
+            if (numThreads <= 0)
+                throw new IllegalStateException("Number of threads must be > 0, got " + numThreads);
+            if (batchSize <= 0)
+                throw new IllegalStateException("Batch size must be > 0, got " + batchSize);
+            if (maxRecordsInMemory <= 0)
+                throw new IllegalStateException("Maximum number of records in memory must be > 0, got "
+                                + maxRecordsInMemory);
+            return new StreamingLocalTransformExecutor(this);
+        }
+    }
+}
@@ -0,0 +1,689 @@
+package org.datavec.local.transforms.join;
+
+import com.google.common.collect.Iterators;
+import lombok.extern.slf4j.Slf4j;
+import org.datavec.api.transform.join.Join;
+import org.datavec.api.writable.*;
+import org.datavec.local.transforms.stream.CloseableIterator;
+import org.datavec.local.transforms.stream.ExternalRecordSorter;
+
+import java.io.*;
+import java.util.*;
+
+/**
+ * Executes a {@link Join} on two (possibly very large) streams of examples.<br>
+ * Two join strategies are available, both supporting all {@link Join.JoinType}s:
+ * <ul>
+ *     <li>{@link JoinStrategy#HASH}: all examples of one side (the build side) are grouped by their join key values in
+ *     memory. The examples of the other side are then streamed and matched against the groups</li>
+ *     <li>{@link JoinStrategy#SORT_MERGE}: both sides are sorted by their join key values using an
+ *     {@link ExternalRecordSorter}, spilling sorted runs to disk once more than {@code maxRecordsInMemory} examples
+ *     have been collected, and the sorted sides are then merged. Only the right examples for one key are held in
+ *     memory at a time; if there are more than {@code maxRecordsInMemory} of them, they are spilled to disk too</li>
+ * </ul>
+ * With {@link JoinStrategy#AUTO} (the default), up to {@code maxRecordsInMemory} examples are read from the right side
+ * and, if required, from the left side. A hash join is used if either side has no more examples than that (the right
+ * side is preferred as the build side); otherwise, a sort-merge join is used.<br>
+ * Join key values match as for {@link Writable#equals(Object)}, with the same rules for both strategies: integer
+ * writables (ByteWritable, IntWritable, LongWritable) match by value regardless of type, as do floating point
+ * writables (FloatWritable, DoubleWritable; 0.0 matches -0.0). Integer and floating point keys never match each other,
+ * and keys with NaN values never match anything. Other writables match writables of the same type only.<br>
+ * The order of the output examples is not defined. The returned iterator deletes any temporary files once it is
+ * exhausted; if iteration is stopped early, {@link CloseableIterator#close()} should be called.
+ */
+@Slf4j
+public class LocalJoinExecutor {
+
+    public enum JoinStrategy {
+        AUTO, HASH, SORT_MERGE
+    }
+
+    private final JoinStrategy strategy;
+    private final int maxRecordsInMemory;
+    private final File spillDirectory;
+
+    private LocalJoinExecutor(Builder builder) {
+        this.strategy = builder.strategy;
+        this.maxRecordsInMemory = builder.maxRecordsInMemory;
+        this.spillDirectory = builder.spillDirectory;
+    }
+
+    /**
+     * Execute a join on the specified data
+     *
+     * @param join  Join to execute
+     * @param left  Left data for join
+     * @param right Right data for join
+     * @return Iterator over the joined data
+     */
+    public CloseableIterator<List<Writable>> executeJoin(Join join, Iterator<List<Writable>> left,
+                    Iterator<List<Writable>> right) {
+        int[] leftKeys = join.getLeftSchema().getIndexOfColumns(join.getJoinColumnsLeft());
+        int[] rightKeys = join.getRightSchema().getIndexOfColumns(join.getJoinColumnsRight());
+
+        switch (strategy) {
+            case HASH:
+                return new HashJoinIterator(join, false, read(right, Integer.MAX_VALUE), rightKeys, left, leftKeys);
+            case SORT_MERGE:
+                return new SortMergeJoinIterator(join, left, leftKeys, right, rightKeys);
+            case AUTO:
+                List<List<Writable>> rightBuffer = read(right, maxRecordsInMemory);
+                if (!right.hasNext()) {
+                    log.debug("Executing hash join: {} right examples", rightBuffer.size());
+                    return new HashJoinIterator(join, false, rightBuffer, rightKeys, left, leftKeys);
+                }
+                List<List<Writable>> leftBuffer = read(left, maxRecordsInMemory);
+                Iterator<List<Writable>> allRight = Iterators.concat(rightBuffer.iterator(), right);
+                if (!left.hasNext()) {
+                    log.debug("Executing hash join: {} left examples", leftBuffer.size());
+                    return new HashJoinIterator(join, true, leftBuffer, leftKeys, allRight, rightKeys);
+                }
+                log.debug("Executing sort-merge join: more than {} examples on both sides", maxRecordsInMemory);
+                return new SortMergeJoinIterator(join, Iterators.concat(leftBuffer.iterator(), left), leftKeys,
+                                allRight, rightKeys);
+            default:
+                throw new RuntimeException("Unknown/not implemented join strategy: " + strategy);
+        }
+    }
+
+    private static List<List<Writable>> read(Iterator<List<Writable>> iter, int maxRecords) {
+        List<List<Writable>> out = new ArrayList<>();
+        while (out.size() < maxRecords && iter.hasNext())
+            out.add(iter.next());
+        return out;
+    }
+
+    /**
+     * @return True if examples from the specified side without a match on the other side are included in the output
+     */
+    private static boolean isOuter(Join.JoinType joinType, boolean leftSide) {
+        switch (joinType) {
+            case Inner:
+                return false;
+            case LeftOuter:
+                return leftSide;
+            case RightOuter:
+                return !leftSide;
+            case FullOuter:
+                return true;
+            default:
+                throw new RuntimeException("Unknown/not implemented join type: " + joinType);
+        }
+    }
+
+    private static final int INTEGER_KEY = 0;
+    private static final int FLOATING_POINT_KEY = 1;
+    private static final int OTHER_KEY = 2;
+
+    private static int keyType(Writable w) {
+        if (w instanceof IntWritable || w instanceof LongWritable || w instanceof ByteWritable)
+            return INTEGER_KEY;
+        if (w instanceof DoubleWritable || w instanceof FloatWritable)
+            return FLOATING_POINT_KEY;
+        return OTHER_KEY;
+    }
+
+    /**
+     * @return False if the join key values of the example contain NaN: such examples never match any other example
+     */
+    private static boolean isMatchable(List<Writable> example, int[] keys) {
+        for (int k : keys) {
+            Writable w = example.get(k);
+            if (keyType(w) == FLOATING_POINT_KEY && Double.isNaN(w.toDouble()))
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Compare the join key values of two examples. For matchable keys (see {@link #isMatchable(List, int[])}), a
+     * result of 0 means the keys match: integer and floating point writables are compared by value (as for
+     * {@link Writable#equals(Object)}), other writables of different types are ordered by type
+     */
+    private static int compareKeys(List<Writable> first, int[] firstKeys, List<Writable> second, int[] secondKeys) {
+        for (int i = 0; i < firstKeys.length; i++) {
+            int c = compare(first.get(firstKeys[i]), second.get(secondKeys[i]));
+            if (c != 0)
+                return c;
+        }
+        return 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static int compare(Writable w1, Writable w2) {
+        int type = keyType(w1);
+        if (type != keyType(w2))
+            return Integer.compare(type, keyType(w2));
+        switch (type) {
+            case INTEGER_KEY:
+                return Long.compare(w1.toLong(), w2.toLong());
+            case FLOATING_POINT_KEY:
+                double d1 = w1.toDouble();
+                double d2 = w2.toDouble();
+                //0.0 == -0.0, as for equals. NaN is ordered last
+                return d1 == d2 ? 0 : Double.compare(d1, d2);
+            default:
+                if (w1.getClass() != w2.getClass())
+                    return w1.getClass().getName().compareTo(w2.getClass().getName());
+                if (w1 instanceof Comparable)
+                    return ((Comparable<Object>) w1).compareTo(w2);
+                return w1.toString().compareTo(w2.toString());
+        }
+    }
+
+    /**
+     * Hash code of a join key value, consistent with {@link #compare(Writable, Writable)}
+     */
+    private static int hash(Writable w) {
+        switch (keyType(w)) {
+            case INTEGER_KEY:
+                long l = w.toLong();
+                return (int) (l ^ (l >>> 32));
+            case FLOATING_POINT_KEY:
+                double d = w.toDouble();
+                long bits = Double.doubleToLongBits(d == 0.0 ? 0.0 : d);
+                return (int) (bits ^ (bits >>> 32));
+            default:
+                return w instanceof Comparable ? w.hashCode() : w.toString().hashCode();
+        }
+    }
+
+    /**
+     * Join key values of an example, for the hash join table. Equality is as per {@link #compare(Writable, Writable)}
+     */
+    private static final class JoinKey {
+        private final Writable[] values;
+        private final int hash;
+
+        private JoinKey(List<Writable> example, int[] keys) {
+            values = new Writable[keys.length];
+            int h = 1;
+            for (int i = 0; i < keys.length; i++) {
+                values[i] = example.get(keys[i]);
+                h = 31 * h + hash(values[i]);
+            }
+            hash = h;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof JoinKey))
+                return false;
+            JoinKey other = (JoinKey) o;
+            if (hash != other.hash || values.length != other.values.length)
+                return false;
+            for (int i = 0; i < values.length; i++) {
+                if (compare(values[i], other.values[i]) != 0)
+                    return false;
+            }
+            return true;
+        }
+    }
+
+    private static Comparator<List<Writable>> keyComparator(final int[] keys) {
+        return new Comparator<List<Writable>>() {
+            @Override
+            public int compare(List<Writable> o1, List<Writable> o2) {
+                return compareKeys(o1, keys, o2, keys);
+            }
+        };
+    }
+
+    /**
+     * Base class for the join iterators: output is produced in chunks by {@link #advance()}
+     */
+    private static abstract class JoinIterator implements CloseableIterator<List<Writable>> {
+        protected final Join join;
+        protected Iterator<List<Writable>> pending;
+        private boolean closed;
+
+        private JoinIterator(Join join) {
+            this.join = join;
+        }
+
+        /**
+         * Set {@link #pending} to the next (non-empty) output values
+         *
+         * @return False if there are no more output values
+         */
+        protected abstract boolean advance();
+
+        protected abstract void release();
+
+        /**
+         * Lazily join the given example with each of the given examples from the other side
+         *
+         * @param example     Example to join. May be null: in that case, the others are joined with null values
+         * @param exampleLeft Whether the example (or null values) belong to the left side
+         */
+        protected Iterator<List<Writable>> joinWith(final List<Writable> example, final boolean exampleLeft,
+                        final Iterator<List<Writable>> others) {
+            return new Iterator<List<Writable>>() {
+                @Override
+                public boolean hasNext() {
+                    return others.hasNext();
+                }
+
+                @Override
+                public List<Writable> next() {
+                    List<Writable> other = others.next();
+                    return exampleLeft ? join.joinExamples(example, other) : join.joinExamples(other, example);
+                }
+
+                @Override
+                public void remove() {
+                    throw new UnsupportedOperationException();
+                }
+            };
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (closed)
+                return false;
+            while (pending == null || !pending.hasNext()) {
+                boolean more;
+                try {
+                    more = advance();
+                } catch (RuntimeException e) {
+                    close();
+                    throw e;
+                }
+                if (!more) {
+                    close();
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public List<Writable> next() {
+            if (!hasNext())
+                throw new NoSuchElementException();
+            return pending.next();
+        }
+
+        @Override
+        public void close() {
+            if (closed)
+                return;
+            closed = true;
+            pending = null;
+            release();
+        }
+    }
+
+    private static class BuildGroup {
+        private final List<List<Writable>> examples = new ArrayList<>(1);
+        private boolean matched;
+    }
+
+    /**
+     * Hash join: the examples of the build side are grouped by key in memory; the probe side is streamed
+     */
+    private static class HashJoinIterator extends JoinIterator {
+        private final boolean buildLeft;
+        private final Iterator<List<Writable>> probe;
+        private final int[] probeKeys;
+        private final boolean outerProbe;
+        private final boolean outerBuild;
+        private Map<JoinKey, BuildGroup> table = new LinkedHashMap<>();
+        //Build examples with NaN key values
+        private BuildGroup unmatchable = new BuildGroup();
+        private Iterator<BuildGroup> unmatched;
+
+        private HashJoinIterator(Join join, boolean buildLeft, List<List<Writable>> build, int[] buildKeys,
+                        Iterator<List<Writable>> probe, int[] probeKeys) {
+            super(join);
+            this.buildLeft = buildLeft;
+            this.probe = probe;
+            this.probeKeys = probeKeys;
+            this.outerProbe = isOuter(join.getJoinType(), !buildLeft);
+            this.outerBuild = isOuter(join.getJoinType(), buildLeft);
+
+            for (List<Writable> example : build) {
+                if (!isMatchable(example, buildKeys)) {
+                    unmatchable.examples.add(example);
+                    continue;
+                }
+                JoinKey key = new JoinKey(example, buildKeys);
+                BuildGroup group = table.get(key);
+                if (group == null) {
+                    group = new BuildGroup();
+                    table.put(key, group);
+                }
+                group.examples.add(example);
+            }
+        }
+
+        @Override
+        protected boolean advance() {
+            while (probe.hasNext()) {
+                List<Writable> example = probe.next();
+                BuildGroup group = isMatchable(example, probeKeys) ? table.get(new JoinKey(example, probeKeys)) : null;
+                if (group != null) {
+                    group.matched = true;
+                    pending = joinWith(example, !buildLeft, group.examples.iterator());
+                    return true;
+                } else if (outerProbe) {
+                    pending = joinWith(null, buildLeft, Collections.singletonList(example).iterator());
+                    return true;
+                }
+            }
+
+            //All probe examples processed: return any unmatched build examples, for outer joins
+            if (!outerBuild)
+                return false;
+            if (unmatched == null)
+                unmatched = Iterators.concat(table.values().iterator(), Iterators.singletonIterator(unmatchable));
+            while (unmatched.hasNext()) {
+                BuildGroup group = unmatched.next();
+                if (!group.matched) {
+                    pending = joinWith(null, !buildLeft, group.examples.iterator());
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        protected void release() {
+            table = null;
+            unmatchable = null;
+            unmatched = null;
+        }
+    }
+
+    /**
+     * Sort-merge join: both sides are sorted by key (spilling to disk as required) and then merged
+     */
+    private class SortMergeJoinIterator extends JoinIterator {
+        private final Iterator<List<Writable>> leftInput;
+        private final Iterator<List<Writable>> rightInput;
+        private final int[] leftKeys;
+        private final int[] rightKeys;
+        private final boolean outerLeft;
+        private final boolean outerRight;
+
+        private ExternalRecordSorter leftSorter;
+        private ExternalRecordSorter rightSorter;
+        private PeekingIterator left;
+        private PeekingIterator right;
+        //Right examples for the current key, and one of these examples (to compare keys against)
+        private GroupBuffer group;
+        private List<Writable> groupExample;
+
+        private SortMergeJoinIterator(Join join, Iterator<List<Writable>> leftInput, int[] leftKeys,
+                        Iterator<List<Writable>> rightInput, int[] rightKeys) {
+            super(join);
+            this.leftInput = leftInput;
+            this.rightInput = rightInput;
+            this.leftKeys = leftKeys;
+            this.rightKeys = rightKeys;
+            this.outerLeft = isOuter(join.getJoinType(), true);
+            this.outerRight = isOuter(join.getJoinType(), false);
+        }
+
+        private void sort() {
+            leftSorter = new ExternalRecordSorter(keyComparator(leftKeys), maxRecordsInMemory, spillDirectory);
+            while (leftInput.hasNext())
+                leftSorter.add(leftInput.next());
+            rightSorter = new ExternalRecordSorter(keyComparator(rightKeys), maxRecordsInMemory, spillDirectory);
+            while (rightInput.hasNext())
+                rightSorter.add(rightInput.next());
+            log.debug("Sorted {} left and {} right examples for join ({} and {} spill files)", leftSorter.numRecords(),
+                            rightSorter.numRecords(), leftSorter.numSpilledRuns(), rightSorter.numSpilledRuns());
+            left = new PeekingIterator(leftSorter.sortedIterator());
+            right = new PeekingIterator(rightSorter.sortedIterator());
+        }
+
+        @Override
+        protected boolean advance() {
+            if (left == null)
+                sort();
+
+            if (group != null) {
+                //Join the next left example with the current right group, if it has the same key
+                if (left.hasNext() && compareKeys(left.peek(), leftKeys, groupExample, rightKeys) == 0) {
+                    pending = joinWith(left.next(), true, group.iterator());
+                    return true;
+                }
+                group.close();
+                group = null;
+                groupExample = null;
+            }
+
+            while (true) {
+                boolean hasLeft = left.hasNext();
+                boolean hasRight = right.hasNext();
+                //Stop as soon as no more output is possible
+                if (!hasLeft && !hasRight)
+                    return false;
+                if (!hasLeft && !outerRight)
+                    return false;
+                if (!hasRight && !outerLeft)
+                    return false;
+
+                int c;
+                if (!hasLeft)
+                    c = 1;
+                else if (!hasRight)
+                    c = -1;
+                else
+                    c = compareKeys(left.peek(), leftKeys, right.peek(), rightKeys);
+
+                if (c == 0 && !isMatchable(left.peek(), leftKeys)) {
+                    //NaN key values: equal to the right key in sort order, but never matching
+                    c = -1;
+                }
+
+                if (c < 0) {
+                    //Left example without matching right examples
+                    List<Writable> example = left.next();
+                    if (outerLeft) {
+                        pending = joinWith(null, false, Collections.singletonList(example).iterator());
+                        return true;
+                    }
+                } else if (c > 0) {
+                    //Right example without matching left examples
+                    List<Writable> example = right.next();
+                    if (outerRight) {
+                        pending = joinWith(null, true, Collections.singletonList(example).iterator());
+                        return true;
+                    }
+                } else {
+                    //Collect all right examples for this key, then join with each left example
+                    groupExample = right.peek();
+                    group = new GroupBuffer();
+                    while (right.hasNext() && compareKeys(right.peek(), rightKeys, groupExample, rightKeys) == 0)
+                        group.add(right.next());
+                    pending = joinWith(left.next(), true, group.iterator());
+                    return true;
+                }
+            }
+        }
+
+        @Override
+        protected void release() {
+            if (group != null)
+                group.close();
+            group = null;
+            groupExample = null;
+            if (leftSorter != null)
+                leftSorter.close();
+            if (rightSorter != null)
+                rightSorter.close();
+        }
+    }
+
+    private static class PeekingIterator {
+        private final Iterator<List<Writable>> iter;
+        private List<Writable> peeked;
+
+        private PeekingIterator(Iterator<List<Writable>> iter) {
+            this.iter = iter;
+        }
+
+        private boolean hasNext() {
+            return peeked != null || iter.hasNext();
+        }
+
+        private List<Writable> peek() {
+            if (peeked == null)
+                peeked = iter.next();
+            return peeked;
+        }
+
+        private List<Writable> next() {
+            List<Writable> next = peek();
+            peeked = null;
+            return next;
+        }
+    }
+
+    /**
+     * The right examples for a single key. Held in memory, unless there are more than maxRecordsInMemory of them: in
+     * that case they are written to a temporary file, which is read again for each left example with the same key
+     */
+    private class GroupBuffer implements Closeable {
+        private List<List<Writable>> examples = new ArrayList<>();
+        private File file;
+        private DataOutputStream out;
+        private DataInputStream in;
+
+        private void add(List<Writable> example) {
+            try {
+                if (file == null) {
+                    examples.add(example);
+                    if (examples.size() > maxRecordsInMemory) {
+                        file = File.createTempFile("datavec_join_", ".bin", spillDirectory);
+                        out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)));
+                        for (List<Writable> l : examples)
+                            ExternalRecordSorter.writeRecord(l, out);
+                        examples = null;
+                    }
+                } else {
+                    ExternalRecordSorter.writeRecord(example, out);
+                }
+            } catch (IOException e) {
+                close();
+                throw new RuntimeException("Error writing join values to spill file", e);
+            }
+        }
+
+        private Iterator<List<Writable>> iterator() {
+            if (file == null)
+                return examples.iterator();
+
+            try {
+                if (out != null) {
+                    out.writeInt(-1);
+                    out.close();
+                    out = null;
+                }
+                if (in != null)
+                    in.close();
+                in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+            } catch (IOException e) {
+                close();
+                throw new RuntimeException("Error reading join values from spill file", e);
+            }
+            final DataInputStream stream = in;
+            return new Iterator<List<Writable>>() {
+                private List<Writable> next = read();
+
+                private List<Writable> read() {
+                    try {
+                        return ExternalRecordSorter.readRecord(stream);
+                    } catch (IOException e) {
+                        throw new RuntimeException("Error reading join values from spill file", e);
+                    }
+                }
+
+                @Override
+                public boolean hasNext() {
+                    return next != null;
+                }
+
+                @Override
+                public List<Writable> next() {
+                    if (next == null)
+                        throw new NoSuchElementException();
+                    List<Writable> ret = next;
+                    next = read();
+                    return ret;
+                }
+
+                @Override
+                public void remove() {
+                    throw new UnsupportedOperationException();
+                }
+            };
+        }
+
+        @Override
+        public void close() {
+            examples = null;
+            try {
+                if (out != null)
+                    out.close();
+                if (in != null)
+                    in.close();
+            } catch (IOException e) {
+                log.warn("Error closing join spill file", e);
+            }
+            out = null;
+            in = null;
+            if (file != null && file.exists() && !file.delete())
+                log.warn("Could not delete join spill file {}", file.getAbsolutePath());
+            file = null;
+        }
+    }
+
+    public static class Builder {
+        private JoinStrategy strategy = JoinStrategy.AUTO;
+        private int maxRecordsInMemory = ExternalRecordSorter.DEFAULT_MAX_RECORDS_IN_MEMORY;
+        private File spillDirectory;
+
+        /**
+         * @param strategy Join strategy to use. Default: {@link JoinStrategy#AUTO}
+         */
+        public Builder strategy(JoinStrategy strategy) {
+            this.strategy = strategy;
+            return this;
+        }
+
+        /**
+         * @param maxRecordsInMemory Maximum number of examples held in memory: for the build side of a hash join
+         *                           (with {@link JoinStrategy#AUTO}), for each side while sorting for a sort-merge
+         *                           join, and for the right examples with the same key. Default: 1000000
+         */
+        public Builder maxRecordsInMemory(int maxRecordsInMemory) {
+            this.maxRecordsInMemory = maxRecordsInMemory;
+            return this;
+        }
+
+        /**
+         * @param spillDirectory Directory for temporary files. Defaults to the system temporary directory
+         */
+        public Builder spillDirectory(File spillDirectory) {
+            this.spillDirectory = spillDirectory;
+            return this;
+        }
+
+        public LocalJoinExecutor build() {
+            if (strategy == null)
+                throw new IllegalStateException("Join strategy cannot be null");
+            if (maxRecordsInMemory <= 0)
+                throw new IllegalStateException("Maximum number of records in memory must be > 0, got "
+                                + maxRecordsInMemory);
+            return new LocalJoinExecutor(this);
+        }
+    }
+}
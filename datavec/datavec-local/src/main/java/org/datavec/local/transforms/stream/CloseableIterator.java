@@ -0,0 +1,19 @@
+package org.datavec.local.transforms.stream;
+
+import java.io.Closeable;
+import java.util.Iterator;
+
+/**
+ * An iterator that holds resources (threads, temporary files) that should be released once iteration is complete.<br>
+ * Implementations release their resources automatically once the iterator is exhausted; {@link #close()} only needs
+ * to be called if iteration is stopped early.
+ */
+public interface CloseableIterator<T> extends Iterator<T>, Closeable {
+
+    /**
+     * Release any resources held by this iterator. Calling this method more than once has no effect
+     */
+    @Override
+    void close();
+
+}
@@ -0,0 +1,328 @@
+package org.datavec.local.transforms.stream;
+
+import lombok.extern.slf4j.Slf4j;
+import org.datavec.api.writable.Writable;
+import org.datavec.api.writable.WritableFactory;
+
+import java.io.*;
+import java.util.*;
+
+/**
+ * External (spill-to-disk) merge sort for records.<br>
+ * Records are buffered in memory until {@code maxRecordsInMemory} records have been added. The buffer is then sorted
+ * and written to a temporary file (a "run") in the spill directory. Once all records have been added,
+ * {@link #sortedIterator()} returns the records in sorted order by merging the runs; if no runs were written, the
+ * records are simply sorted in memory.<br>
+ * The sort is stable: records that compare as equal are returned in the order in which they were added.<br>
+ * Spilled records are serialized using {@link WritableFactory}, hence all writables must be of a registered type.
+ */
+@Slf4j
+public class ExternalRecordSorter implements Closeable {
+    public static final int DEFAULT_MAX_RECORDS_IN_MEMORY = 1000000;
+    /**
+     * Maximum number of runs that are merged at once. If more runs than this are spilled, they are merged in
+     * multiple passes
+     */
+    public static final int MAX_MERGE_FAN_IN = 64;
+
+    private static final int IO_BUFFER_SIZE = 1 << 16;
+
+    private final Comparator<List<Writable>> comparator;
+    private final int maxRecordsInMemory;
+    private final File spillDirectory;
+
+    private List<List<Writable>> buffer = new ArrayList<>();
+    private final List<File> runs = new ArrayList<>();
+    private final List<Closeable> openIterators = new ArrayList<>();
+    private long numRecords;
+    private boolean iterating;
+
+    /**
+     * @param comparator         Comparator defining the sort order
+     * @param maxRecordsInMemory Maximum number of records to hold in memory before spilling them to disk
+     * @param spillDirectory     Directory for temporary files. If null: the default temporary directory is used
+     */
+    public ExternalRecordSorter(Comparator<List<Writable>> comparator, int maxRecordsInMemory, File spillDirectory) {
+        if (maxRecordsInMemory <= 0)
+            throw new IllegalArgumentException("Maximum number of records in memory must be > 0, got "
+                            + maxRecordsInMemory);
+        this.comparator = comparator;
+        this.maxRecordsInMemory = maxRecordsInMemory;
+        this.spillDirectory = spillDirectory;
+    }
+
+    /**
+     * Add a record to be sorted
+     */
+    public void add(List<Writable> record) {
+        if (iterating)
+            throw new IllegalStateException("Cannot add records after sortedIterator() has been called");
+        buffer.add(record);
+        numRecords++;
+        if (buffer.size() >= maxRecordsInMemory)
+            spill();
+    }
+
+    /**
+     * @return Number of records added so far
+     */
+    public long numRecords() {
+        return numRecords;
+    }
+
+    /**
+     * @return Number of sorted runs written to disk so far
+     */
+    public int numSpilledRuns() {
+        return runs.size();
+    }
+
+    /**
+     * Return all records added, in sorted order. May only be called once: no more records can be added afterwards.
+     * Temporary files are deleted once the iterator is exhausted or closed, or when this sorter is closed
+     */
+    public CloseableIterator<List<Writable>> sortedIterator() {
+        if (iterating)
+            throw new IllegalStateException("sortedIterator() can only be called once");
+        iterating = true;
+
+        if (runs.isEmpty()) {
+            List<List<Writable>> sorted = sortBuffer();
+            buffer = null;
+            return new ListIterator(sorted);
+        }
+
+        if (!buffer.isEmpty())
+            spill();
+        buffer = null;
+
+        //Merge the first runs into a single one until the remaining runs can be merged at once. Replacing the
+        //merged runs with the result keeps the runs in insertion order, which keeps the sort stable
+        while (runs.size() > MAX_MERGE_FAN_IN) {
+            List<File> toMerge = new ArrayList<>(runs.subList(0, MAX_MERGE_FAN_IN));
+            MergeIterator merge = new MergeIterator(toMerge);
+            File merged = writeRun(merge);
+            merge.close();
+            runs.subList(0, MAX_MERGE_FAN_IN).clear();
+            runs.add(0, merged);
+        }
+
+        MergeIterator merge = new MergeIterator(new ArrayList<>(runs));
+        runs.clear();
+        openIterators.add(merge);
+        return merge;
+    }
+
+    /**
+     * Delete any temporary files and release the records held in memory
+     */
+    @Override
+    public void close() {
+        buffer = null;
+        for (Closeable c : openIterators) {
+            try {
+                c.close();
+            } catch (IOException e) {
+                log.warn("Error closing spill file iterator", e);
+            }
+        }
+        openIterators.clear();
+        for (File f : runs)
+            delete(f);
+        runs.clear();
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<List<Writable>> sortBuffer() {
+        List<Writable>[] arr = buffer.toArray(new List[buffer.size()]);
+        //Arrays.parallelSort is a stable merge sort
+        Arrays.parallelSort(arr, comparator);
+        return Arrays.asList(arr);
+    }
+
+    private void spill() {
+        List<List<Writable>> sorted = sortBuffer();
+        buffer = new ArrayList<>();
+        runs.add(writeRun(sorted.iterator()));
+        log.debug("Spilled sorted run {} ({} records) to disk", runs.size(), sorted.size());
+    }
+
+    private File writeRun(Iterator<List<Writable>> records) {
+        File f = null;
+        try {
+            f = File.createTempFile("datavec_sort_", ".bin", spillDirectory);
+            try (DataOutputStream out = new DataOutputStream(
+                            new BufferedOutputStream(new FileOutputStream(f), IO_BUFFER_SIZE))) {
+                while (records.hasNext())
+                    writeRecord(records.next(), out);
+                out.writeInt(-1);
+            }
+            return f;
+        } catch (IOException e) {
+            if (f != null)
+                delete(f);
+            throw new RuntimeException("Error writing sorted records to spill file", e);
+        }
+    }
+
+    /**
+     * Write a single record to the given output, in the format read by {@link #readRecord(DataInput)}
+     */
+    public static void writeRecord(List<Writable> record, DataOutput out) throws IOException {
+        out.writeInt(record.size());
+        WritableFactory wf = WritableFactory.getInstance();
+        for (Writable w : record)
+            wf.writeWithType(w, out);
+    }
+
+    /**
+     * Read a single record written by {@link #writeRecord(List, DataOutput)}
+     *
+     * @return The record, or null if the end marker (a negative record size) was read
+     */
+    public static List<Writable> readRecord(DataInput in) throws IOException {
+        int size = in.readInt();
+        if (size < 0)
+            return null;
+        WritableFactory wf = WritableFactory.getInstance();
+        List<Writable> record = new ArrayList<>(size);
+        for (int i = 0; i < size; i++)
+            record.add(wf.readWithType(in));
+        return record;
+    }
+
+    private static void delete(File f) {
+        if (f.exists() && !f.delete())
+            log.warn("Could not delete spill file {}", f.getAbsolutePath());
+    }
+
+    private static class ListIterator implements CloseableIterator<List<Writable>> {
+        private List<List<Writable>> list;
+        private int pos;
+
+        private ListIterator(List<List<Writable>> list) {
+            this.list = list;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return list != null && pos < list.size();
+        }
+
+        @Override
+        public List<Writable> next() {
+            if (!hasNext())
+                throw new NoSuchElementException();
+            List<Writable> next = list.get(pos);
+            //Release the reference, so records that have been consumed can be garbage collected
+            list.set(pos++, null);
+            return next;
+        }
+
+        @Override
+        public void close() {
+            list = null;
+        }
+    }
+
+    /**
+     * Reads the records of a single run, one at a time
+     */
+    private static class RunReader implements Closeable {
+        private final File file;
+        private final DataInputStream in;
+        private List<Writable> current;
+
+        private RunReader(File file) throws IOException {
+            this.file = file;
+            this.in = new DataInputStream(new BufferedInputStream(new FileInputStream(file), IO_BUFFER_SIZE));
+            advance();
+        }
+
+        private void advance() throws IOException {
+            current = readRecord(in);
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+
+    /**
+     * K-way merge of sorted runs. Ties are broken by run index, which keeps the merge stable
+     */
+    private class MergeIterator implements CloseableIterator<List<Writable>> {
+        private final List<File> files;
+        private final List<RunReader> readers = new ArrayList<>();
+        private final PriorityQueue<Integer> heap;
+        private boolean closed;
+
+        private MergeIterator(List<File> files) {
+            this.files = files;
+            this.heap = new PriorityQueue<>(Math.max(1, files.size()), new Comparator<Integer>() {
+                @Override
+                public int compare(Integer r1, Integer r2) {
+                    int c = comparator.compare(readers.get(r1).current, readers.get(r2).current);
+                    return c != 0 ? c : Integer.compare(r1, r2);
+                }
+            });
+            try {
+                for (int i = 0; i < files.size(); i++) {
+                    RunReader r = new RunReader(files.get(i));
+                    readers.add(r);
+                    if (r.current != null)
+                        heap.add(i);
+                }
+            } catch (IOException e) {
+                close();
+                throw new RuntimeException("Error opening spill files", e);
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (closed)
+                return false;
+            if (heap.isEmpty()) {
+                close();
+                return false;
+            }
+            return true;
+        }
+
+        @Override
+        public List<Writable> next() {
+            if (!hasNext())
+                throw new NoSuchElementException();
+            int idx = heap.poll();
+            RunReader r = readers.get(idx);
+            List<Writable> next = r.current;
+            try {
+                r.advance();
+            } catch (IOException e) {
+                close();
+                throw new RuntimeException("Error reading spill file " + r.file.getAbsolutePath(), e);
+            }
+            if (r.current != null)
+                heap.add(idx);
+            return next;
+        }
+
+        @Override
+        public void close() {
+            if (closed)
+                return;
+            closed = true;
+            for (RunReader r : readers) {
+                try {
+                    r.close();
+                } catch (IOException e) {
+                    log.warn("Error closing spill file {}", r.file.getAbsolutePath(), e);
+                }
+            }
+            for (File f : files)
+                delete(f);
+        }
+    }
+}
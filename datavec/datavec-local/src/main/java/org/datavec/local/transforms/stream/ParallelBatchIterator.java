@@ -0,0 +1,116 @@
+package org.datavec.local.transforms.stream;
+
+import org.nd4j.linalg.function.Function;
+
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Applies a function to batches of values from another iterator, using an {@link ExecutorService}.<br>
+ * Values are read from the source iterator on the consumer thread in batches of {@code batchSize}, and at most
+ * {@code maxBatchesInFlight} batches are submitted to the executor at any time, which bounds the amount of memory
+ * used. Output values are returned in the same order as the input values.<br>
+ * Exceptions thrown by the function are rethrown on the consumer thread.
+ *
+ * @param <I> Input value type
+ * @param <O> Output value type
+ */
+public class ParallelBatchIterator<I, O> implements CloseableIterator<O> {
+
+    private final Iterator<I> source;
+    private final Function<List<I>, List<O>> function;
+    private final int batchSize;
+    private final int maxBatchesInFlight;
+    private final ExecutorService executor;
+
+    private final Deque<Future<List<O>>> inFlight = new ArrayDeque<>();
+    private Iterator<O> current;
+    private boolean closed;
+
+    /**
+     * @param source             Input values
+     * @param function           Function to apply to each batch of input values. May be called concurrently
+     * @param batchSize          Number of input values per batch
+     * @param maxBatchesInFlight Maximum number of batches being processed (or waiting for the consumer) at once
+     * @param executor           Executor to run the function on
+     */
+    public ParallelBatchIterator(Iterator<I> source, Function<List<I>, List<O>> function, int batchSize,
+                    int maxBatchesInFlight, ExecutorService executor) {
+        if (batchSize <= 0)
+            throw new IllegalArgumentException("Batch size must be > 0, got " + batchSize);
+        if (maxBatchesInFlight <= 0)
+            throw new IllegalArgumentException("Maximum number of batches in flight must be > 0, got "
+                            + maxBatchesInFlight);
+        this.source = source;
+        this.function = function;
+        this.batchSize = batchSize;
+        this.maxBatchesInFlight = maxBatchesInFlight;
+        this.executor = executor;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (closed)
+            return false;
+        while (current == null || !current.hasNext()) {
+            submitBatches();
+            if (inFlight.isEmpty())
+                return false;
+            current = get(inFlight.removeFirst()).iterator();
+        }
+        return true;
+    }
+
+    @Override
+    public O next() {
+        if (!hasNext())
+            throw new NoSuchElementException();
+        return current.next();
+    }
+
+    @Override
+    public void close() {
+        if (closed)
+            return;
+        closed = true;
+        for (Future<List<O>> f : inFlight)
+            f.cancel(true);
+        inFlight.clear();
+        current = null;
+    }
+
+    private void submitBatches() {
+        while (inFlight.size() < maxBatchesInFlight && source.hasNext()) {
+            final List<I> batch = new ArrayList<>(batchSize);
+            while (batch.size() < batchSize && source.hasNext())
+                batch.add(source.next());
+            inFlight.addLast(executor.submit(new Callable<List<O>>() {
+                @Override
+                public List<O> call() {
+                    return function.apply(batch);
+                }
+            }));
+        }
+    }
+
+    private List<O> get(Future<List<O>> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            close();
+            throw new RuntimeException("Interrupted while waiting for batch", e);
+        } catch (ExecutionException e) {
+            close();
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException)
+                throw (RuntimeException) cause;
+            if (cause instanceof Error)
+                throw (Error) cause;
+            throw new RuntimeException(cause);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package org.datavec.local.transforms.stream;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Iterates over the values of another iterator, which is read on a separate (daemon) thread.<br>
+ * Values are passed from the reading thread to the consumer in batches, through a bounded queue: at most
+ * {@code queueCapacity} batches of {@code batchSize} values are read ahead of the consumer.<br>
+ * Exceptions thrown by the underlying iterator are rethrown (wrapped in a RuntimeException) by {@link #hasNext()}
+ * once all values read before the exception have been consumed.
+ */
+public class PrefetchIterator<T> implements CloseableIterator<T> {
+
+    private static final List<Object> END = new ArrayList<>();
+
+    private final Iterator<T> source;
+    private final int batchSize;
+    private final BlockingQueue<List<T>> queue;
+
+    private Thread thread;
+    private volatile Throwable error;
+    private volatile boolean closed;
+    private boolean done;
+    private Iterator<T> current;
+
+    /**
+     * @param source        Iterator to read values from
+     * @param batchSize     Number of values to pass to the consumer at once
+     * @param queueCapacity Maximum number of batches to read ahead of the consumer
+     */
+    public PrefetchIterator(Iterator<T> source, int batchSize, int queueCapacity) {
+        if (batchSize <= 0)
+            throw new IllegalArgumentException("Batch size must be > 0, got " + batchSize);
+        if (queueCapacity <= 0)
+            throw new IllegalArgumentException("Queue capacity must be > 0, got " + queueCapacity);
+        this.source = source;
+        this.batchSize = batchSize;
+        //One extra slot for the end marker
+        this.queue = new ArrayBlockingQueue<>(queueCapacity + 1);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean hasNext() {
+        if (done || closed)
+            return false;
+        if (thread == null)
+            start();
+
+        while (current == null || !current.hasNext()) {
+            List<T> batch;
+            try {
+                batch = queue.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Interrupted while waiting for input", e);
+            }
+            if (batch == (List<T>) (List<?>) END) {
+                done = true;
+                current = null;
+                if (error != null)
+                    throw new RuntimeException("Error reading input", error);
+                return false;
+            }
+            current = batch.iterator();
+        }
+        return true;
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext())
+            throw new NoSuchElementException();
+        return current.next();
+    }
+
+    @Override
+    public void close() {
+        if (closed)
+            return;
+        closed = true;
+        if (thread != null)
+            thread.interrupt();
+        queue.clear();
+        current = null;
+    }
+
+    private void start() {
+        thread = new Thread(new Runnable() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public void run() {
+                try {
+                    List<T> batch = new ArrayList<>(batchSize);
+                    while (!closed && source.hasNext()) {
+                        batch.add(source.next());
+                        if (batch.size() == batchSize) {
+                            queue.put(batch);
+                            batch = new ArrayList<>(batchSize);
+                        }
+                    }
+                    if (!batch.isEmpty() && !closed)
+                        queue.put(batch);
+                } catch (InterruptedException e) {
+                    //Closed by the consumer
+                    return;
+                } catch (Throwable t) {
+                    error = t;
+                }
+                if (!closed) {
+                    try {
+                        queue.put((List<T>) (List<?>) END);
+                    } catch (InterruptedException e) {
+                        //Closed by the consumer
+                    }
+                }
+            }
+        }, "PrefetchIterator");
+        thread.setDaemon(true);
+        thread.start();
+    }
+}
@@ -9,8 +9,10 @@ import org.datavec.api.split.FileSplit;
 import org.datavec.api.transform.TransformProcess;
 import org.datavec.api.transform.condition.ConditionOp;
 import org.datavec.api.transform.condition.column.CategoricalColumnCondition;
+import org.datavec.api.transform.condition.column.DoubleColumnCondition;
 import org.datavec.api.transform.schema.Schema;
 import org.datavec.api.transform.schema.SequenceSchema;
+import org.datavec.api.transform.transform.doubletransform.MinMaxNormalizer;
 import org.datavec.api.writable.IntWritable;
 import org.datavec.api.writable.LongWritable;
 import org.datavec.api.writable.Text;
@@ -24,6 +26,7 @@ import java.util.Arrays;
 import java.util.List;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 public class LocalTransformProcessRecordReaderTests {
 
@@ -118,4 +121,43 @@ public class LocalTransformProcessRecordReaderTests {
         }
     }
 
+    @Test
+    public void testBatchNext() throws Exception {
+        Schema schema = new Schema.Builder().addColumnsDouble("%d", 0, 3).addColumnCategorical("label", "0", "1", "2")
+                .build();
+        TransformProcess tp = new TransformProcess.Builder(schema)
+                .filter(new DoubleColumnCondition("0", ConditionOp.LessThan, 5.0))
+                .transform(new MinMaxNormalizer("1", 2.0, 4.5))
+                .categoricalToInteger("label")
+                .removeColumns("3")
+                .build();
+
+        CSVRecordReader expRR = new CSVRecordReader();
+        expRR.initialize(new FileSplit(new ClassPathResource("iris.dat").getFile()));
+        LocalTransformProcessRecordReader exp = new LocalTransformProcessRecordReader(expRR, tp);
+        List<List<Writable>> expected = new ArrayList<>();
+        while (exp.hasNext()) {
+            expected.add(exp.next());
+        }
+
+        CSVRecordReader csvRecordReader = new CSVRecordReader();
+        csvRecordReader.initialize(new FileSplit(new ClassPathResource("iris.dat").getFile()));
+        LocalTransformProcessRecordReader rr = new LocalTransformProcessRecordReader(csvRecordReader, tp);
+        List<List<Writable>> actual = new ArrayList<>();
+        //Prefetch via hasNext/next, then batches
+        actual.add(rr.next());
+        while (rr.hasNext()) {
+            List<List<Writable>> batch = rr.next(32);
+            assertTrue(batch.size() <= 32);
+            actual.addAll(batch);
+        }
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(4, actual.get(i).size());
+            for (int j = 0; j < 4; j++) {
+                assertEquals(expected.get(i).get(j).toDouble(), actual.get(i).get(j).toDouble(), 1e-12);
+            }
+        }
+    }
+
 }
@@ -0,0 +1,81 @@
+package org.datavec.local.transforms.stream;
+
+import org.datavec.api.writable.*;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class TestExternalRecordSorter {
+
+    @Rule
+    public TemporaryFolder testDir = new TemporaryFolder();
+
+    private static final Comparator<List<Writable>> BY_FIRST = new Comparator<List<Writable>>() {
+        @Override
+        public int compare(List<Writable> o1, List<Writable> o2) {
+            return Integer.compare(o1.get(0).toInt(), o2.get(0).toInt());
+        }
+    };
+
+    @Test
+    public void testSortInMemoryAndSpilled() throws Exception {
+        Random r = new Random(12345);
+        List<List<Writable>> data = new ArrayList<>();
+        for (int i = 0; i < 10000; i++) {
+            data.add(Arrays.<Writable>asList(new IntWritable(r.nextInt(50)), new LongWritable(i),
+                            new Text("text" + i), new DoubleWritable(r.nextDouble()), NullWritable.INSTANCE));
+        }
+        List<List<Writable>> exp = new ArrayList<>(data);
+        //Collections.sort is stable
+        Collections.sort(exp, BY_FIRST);
+
+        for (int maxInMemory : new int[] {100000, 1000, 100}) {
+            File dir = testDir.newFolder();
+            ExternalRecordSorter sorter = new ExternalRecordSorter(BY_FIRST, maxInMemory, dir);
+            for (List<Writable> l : data)
+                sorter.add(l);
+            assertEquals(data.size(), sorter.numRecords());
+            if (maxInMemory < data.size())
+                assertTrue(sorter.numSpilledRuns() > 0);
+            else
+                assertEquals(0, sorter.numSpilledRuns());
+
+            List<List<Writable>> act = new ArrayList<>();
+            CloseableIterator<List<Writable>> iter = sorter.sortedIterator();
+            while (iter.hasNext())
+                act.add(iter.next());
+            //100 runs: more than MAX_MERGE_FAN_IN, so merged in 2 passes
+            assertEquals(String.valueOf(maxInMemory), exp, act);
+            assertEquals(0, dir.listFiles().length);
+            sorter.close();
+        }
+    }
+
+    @Test
+    public void testCloseDeletesFiles() throws Exception {
+        File dir = testDir.newFolder();
+        ExternalRecordSorter sorter = new ExternalRecordSorter(BY_FIRST, 10, dir);
+        for (int i = 0; i < 100; i++)
+            sorter.add(Collections.<Writable>singletonList(new IntWritable(100 - i)));
+        assertEquals(10, sorter.numSpilledRuns());
+        assertEquals(10, dir.listFiles().length);
+
+        CloseableIterator<List<Writable>> iter = sorter.sortedIterator();
+        assertEquals(1, iter.next().get(0).toInt());
+        sorter.close();
+        assertFalse(iter.hasNext());
+        assertEquals(0, dir.listFiles().length);
+
+        try {
+            sorter.add(Collections.<Writable>singletonList(new IntWritable(0)));
+            fail("Expected exception");
+        } catch (IllegalStateException e) {
+            //Expected
+        }
+    }
+}
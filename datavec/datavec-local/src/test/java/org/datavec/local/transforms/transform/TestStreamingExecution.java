@@ -0,0 +1,190 @@
+package org.datavec.local.transforms.transform;
+
+import org.datavec.api.records.reader.impl.collection.CollectionRecordReader;
+import org.datavec.api.records.reader.impl.collection.CollectionSequenceRecordReader;
+import org.datavec.api.transform.MathOp;
+import org.datavec.api.transform.ReduceOp;
+import org.datavec.api.transform.TransformProcess;
+import org.datavec.api.transform.condition.ConditionOp;
+import org.datavec.api.transform.condition.column.DoubleColumnCondition;
+import org.datavec.api.transform.reduce.Reducer;
+import org.datavec.api.transform.schema.Schema;
+import org.datavec.api.transform.schema.SequenceSchema;
+import org.datavec.api.transform.sequence.comparator.NumericalColumnComparator;
+import org.datavec.api.writable.*;
+import org.datavec.api.writable.comparator.DoubleWritableComparator;
+import org.datavec.local.transforms.StreamingLocalTransformExecutor;
+import org.datavec.local.transforms.stream.CloseableIterator;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class TestStreamingExecution {
+
+    @Rule
+    public TemporaryFolder testDir = new TemporaryFolder();
+
+    private static <T> List<T> collect(Iterator<T> iter) {
+        List<T> out = new ArrayList<>();
+        while (iter.hasNext())
+            out.add(iter.next());
+        return out;
+    }
+
+    private static Schema schema() {
+        return new Schema.Builder().addColumnString("key").addColumnInteger("time").addColumnDouble("value").build();
+    }
+
+    private static List<List<Writable>> data(int n, int numKeys) {
+        Random r = new Random(12345);
+        List<List<Writable>> out = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            out.add(Arrays.<Writable>asList(new Text("key" + r.nextInt(numKeys)), new IntWritable(n - i),
+                            new DoubleWritable(r.nextDouble())));
+        }
+        return out;
+    }
+
+    @Test
+    public void testStatelessSteps() {
+        TransformProcess tp = new TransformProcess.Builder(schema())
+                        .doubleMathOp("value", MathOp.Multiply, 10.0)
+                        .filter(new DoubleColumnCondition("value", ConditionOp.LessThan, 2.0))
+                        .appendStringColumnTransform("key", "_x")
+                        .removeColumns("time")
+                        .build();
+
+        List<List<Writable>> data = data(5000, 10);
+        List<List<Writable>> exp = new ArrayList<>();
+        for (List<Writable> l : data) {
+            List<Writable> out = tp.execute(l);
+            if (out != null)
+                exp.add(out);
+        }
+
+        StreamingLocalTransformExecutor executor = new StreamingLocalTransformExecutor.Builder().numThreads(4)
+                        .batchSize(100).queueCapacity(3).build();
+        List<List<Writable>> act = collect(executor.execute(new CollectionRecordReader(data), tp));
+        //Order is preserved
+        assertEquals(exp, act);
+    }
+
+    @Test
+    public void testReduceWithSpill() throws Exception {
+        TransformProcess tp = new TransformProcess.Builder(schema())
+                        .removeColumns("time")
+                        .reduce(new Reducer.Builder(ReduceOp.Sum).keyColumns("key").build())
+                        .build();
+
+        List<List<Writable>> data = data(2000, 10);
+        Map<String, Double> expSums = new TreeMap<>();
+        for (List<Writable> l : data) {
+            String key = l.get(0).toString();
+            Double sum = expSums.get(key);
+            expSums.put(key, (sum == null ? 0 : sum) + l.get(2).toDouble());
+        }
+
+        File spillDir = testDir.newFolder();
+        StreamingLocalTransformExecutor executor = new StreamingLocalTransformExecutor.Builder().numThreads(2)
+                        .batchSize(64).maxRecordsInMemory(100).spillDirectory(spillDir).build();
+        List<List<Writable>> out = collect(executor.execute(new CollectionRecordReader(data), tp));
+
+        //Groups are returned in order of their key
+        assertEquals(expSums.size(), out.size());
+        int i = 0;
+        for (Map.Entry<String, Double> e : expSums.entrySet()) {
+            assertEquals(e.getKey(), out.get(i).get(0).toString());
+            assertEquals(e.getValue(), out.get(i).get(1).toDouble(), 1e-6);
+            i++;
+        }
+
+        //Spill files are deleted once the output has been consumed
+        assertEquals(0, spillDir.listFiles().length);
+    }
+
+    @Test
+    public void testConvertToSequenceAndRank() throws Exception {
+        List<List<Writable>> data = data(1000, 7);
+        File spillDir = testDir.newFolder();
+        StreamingLocalTransformExecutor executor = new StreamingLocalTransformExecutor.Builder().numThreads(3)
+                        .batchSize(50).maxRecordsInMemory(64).spillDirectory(spillDir).build();
+
+        //Convert to sequence by key, sorted by time
+        TransformProcess tp = new TransformProcess.Builder(schema())
+                        .convertToSequence("key", new NumericalColumnComparator("time"))
+                        .build();
+        List<List<List<Writable>>> sequences = collect(executor.executeToSequence(new CollectionRecordReader(data), tp));
+
+        Map<String, List<List<Writable>>> expSequences = new TreeMap<>();
+        for (List<Writable> l : data) {
+            String key = l.get(0).toString();
+            if (!expSequences.containsKey(key))
+                expSequences.put(key, new ArrayList<List<Writable>>());
+            expSequences.get(key).add(l);
+        }
+        for (List<List<Writable>> seq : expSequences.values())
+            Collections.reverse(seq);   //Time is decreasing in the input data
+        assertEquals(new ArrayList<>(expSequences.values()), sequences);
+        assertEquals(0, spillDir.listFiles().length);
+
+        //Sorted rank
+        tp = new TransformProcess.Builder(schema())
+                        .calculateSortedRank("rank", "value", new DoubleWritableComparator())
+                        .build();
+        List<List<Writable>> ranked = collect(executor.execute(new CollectionRecordReader(data), tp));
+        assertEquals(data.size(), ranked.size());
+        for (int i = 0; i < ranked.size(); i++) {
+            assertEquals(4, ranked.get(i).size());
+            assertEquals(i, ranked.get(i).get(3).toLong());
+            if (i > 0)
+                assertTrue(ranked.get(i - 1).get(2).toDouble() <= ranked.get(i).get(2).toDouble());
+        }
+        assertEquals(0, spillDir.listFiles().length);
+    }
+
+    @Test
+    public void testSequenceToSeparate() {
+        Schema schema = new SequenceSchema.Builder().addColumnInteger("col0").addColumnDouble("col1").build();
+        TransformProcess tp = new TransformProcess.Builder(schema)
+                        .doubleMathOp("col1", MathOp.Add, 10.0)
+                        .convertFromSequence()
+                        .filter(new DoubleColumnCondition("col1", ConditionOp.GreaterThan, 12.0))
+                        .build();
+
+        List<List<List<Writable>>> sequences = new ArrayList<>();
+        sequences.add(Arrays.asList(Arrays.<Writable>asList(new IntWritable(0), new DoubleWritable(0.5)),
+                        Arrays.<Writable>asList(new IntWritable(1), new DoubleWritable(3.0))));
+        sequences.add(Collections.singletonList(Arrays.<Writable>asList(new IntWritable(2), new DoubleWritable(1.5))));
+
+        StreamingLocalTransformExecutor executor = new StreamingLocalTransformExecutor.Builder().numThreads(2)
+                        .batchSize(1).build();
+        List<List<Writable>> out =
+                        collect(executor.executeSequenceToSeparate(new CollectionSequenceRecordReader(sequences), tp));
+
+        List<List<Writable>> exp = new ArrayList<>();
+        exp.add(Arrays.<Writable>asList(new IntWritable(0), new DoubleWritable(10.5)));
+        exp.add(Arrays.<Writable>asList(new IntWritable(2), new DoubleWritable(11.5)));
+        assertEquals(exp, out);
+    }
+
+    @Test
+    public void testCloseEarly() throws Exception {
+        TransformProcess tp = new TransformProcess.Builder(schema())
+                        .reduce(new Reducer.Builder(ReduceOp.TakeFirst).keyColumns("key").build())
+                        .build();
+        File spillDir = testDir.newFolder();
+        StreamingLocalTransformExecutor executor = new StreamingLocalTransformExecutor.Builder()
+                        .maxRecordsInMemory(10).spillDirectory(spillDir).build();
+        CloseableIterator<List<Writable>> iter = executor.execute(new CollectionRecordReader(data(500, 5)), tp);
+        assertTrue(iter.hasNext());
+        iter.next();
+        iter.close();
+        assertFalse(iter.hasNext());
+        assertEquals(0, spillDir.listFiles().length);
+    }
+}
@@ -0,0 +1,199 @@
+package org.datavec.local.transforms.transform.join;
+
+import org.datavec.api.records.reader.impl.collection.CollectionRecordReader;
+import org.datavec.api.transform.join.Join;
+import org.datavec.api.transform.schema.Schema;
+import org.datavec.api.writable.*;
+import org.datavec.local.transforms.StreamingLocalTransformExecutor;
+import org.datavec.local.transforms.join.LocalJoinExecutor;
+import org.datavec.local.transforms.join.LocalJoinExecutor.JoinStrategy;
+import org.datavec.local.transforms.stream.CloseableIterator;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class TestLocalJoinExecutor {
+
+    @Rule
+    public TemporaryFolder testDir = new TemporaryFolder();
+
+    private static final Schema LEFT_SCHEMA = new Schema.Builder().addColumnLong("key").addColumnString("cat")
+                    .addColumnDouble("leftValue").build();
+    private static final Schema RIGHT_SCHEMA = new Schema.Builder().addColumnInteger("rightValue")
+                    .addColumnString("rightCat").addColumnLong("rightKey").build();
+
+    private static List<List<Writable>> leftData(int n) {
+        Random r = new Random(12345);
+        List<List<Writable>> out = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            out.add(Arrays.<Writable>asList(new LongWritable(r.nextInt(20)), new Text("cat" + r.nextInt(2)),
+                            new DoubleWritable(i)));
+        }
+        return out;
+    }
+
+    private static List<List<Writable>> rightData(int n) {
+        Random r = new Random(67890);
+        List<List<Writable>> out = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            out.add(Arrays.<Writable>asList(new IntWritable(i), new Text("cat" + r.nextInt(2)),
+                            new LongWritable(10 + r.nextInt(20))));
+        }
+        return out;
+    }
+
+    private static Join join(Join.JoinType joinType) {
+        return new Join.Builder(joinType).setJoinColumnsLeft("key", "cat").setJoinColumnsRight("rightKey", "rightCat")
+                        .setSchemas(LEFT_SCHEMA, RIGHT_SCHEMA).build();
+    }
+
+    /**
+     * Simple nested loop join, for comparison
+     */
+    private static List<List<Writable>> nestedLoopJoin(Join join, List<List<Writable>> left,
+                    List<List<Writable>> right) {
+        Join.JoinType jt = join.getJoinType();
+        boolean outerLeft = jt == Join.JoinType.LeftOuter || jt == Join.JoinType.FullOuter;
+        boolean outerRight = jt == Join.JoinType.RightOuter || jt == Join.JoinType.FullOuter;
+        List<List<Writable>> out = new ArrayList<>();
+        Set<Integer> matchedRight = new HashSet<>();
+        for (List<Writable> l : left) {
+            boolean matched = false;
+            for (int i = 0; i < right.size(); i++) {
+                List<Writable> r = right.get(i);
+                if (l.get(0).equals(r.get(2)) && l.get(1).equals(r.get(1))) {
+                    out.add(join.joinExamples(l, r));
+                    matched = true;
+                    matchedRight.add(i);
+                }
+            }
+            if (!matched && outerLeft)
+                out.add(join.joinExamples(l, null));
+        }
+        if (outerRight) {
+            for (int i = 0; i < right.size(); i++) {
+                if (!matchedRight.contains(i))
+                    out.add(join.joinExamples(null, right.get(i)));
+            }
+        }
+        return out;
+    }
+
+    private static List<String> sorted(Iterator<List<Writable>> iter) {
+        List<String> out = new ArrayList<>();
+        while (iter.hasNext())
+            out.add(iter.next().toString());
+        Collections.sort(out);
+        return out;
+    }
+
+    @Test
+    public void testJoinStrategies() throws Exception {
+        //With maxRecordsInMemory = 250 and AUTO: hash join with the left side as the build side
+        List<List<Writable>> left = leftData(200);
+        List<List<Writable>> right = rightData(300);
+
+        for (Join.JoinType jt : Join.JoinType.values()) {
+            Join join = join(jt);
+            List<String> exp = sorted(nestedLoopJoin(join, left, right).iterator());
+            assertTrue(exp.size() > 0);
+
+            //maxRecordsInMemory = 4: sort-merge joins spill, and so do right examples with the same key
+            for (JoinStrategy strategy : JoinStrategy.values()) {
+                for (int maxRecordsInMemory : new int[] {4, 250, 1000}) {
+                    File dir = testDir.newFolder();
+                    LocalJoinExecutor executor = new LocalJoinExecutor.Builder().strategy(strategy)
+                                    .maxRecordsInMemory(maxRecordsInMemory).spillDirectory(dir).build();
+                    List<String> act = sorted(executor.executeJoin(join, left.iterator(), right.iterator()));
+                    assertEquals(jt + " - " + strategy + " - " + maxRecordsInMemory, exp, act);
+                    assertEquals(0, dir.listFiles().length);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testKeyEquivalence() {
+        //Same rules as Writable.equals, for all strategies: integer keys match by value regardless of type, and so do
+        // floating point keys (with 0.0 == -0.0). NaN never matches, and integer keys never match floating point keys
+        Schema left = new Schema.Builder().addColumnInteger("key").addColumnString("leftValue").build();
+        Schema right = new Schema.Builder().addColumnLong("key").addColumnString("rightValue").build();
+        Join join = new Join.Builder(Join.JoinType.FullOuter).setJoinColumns("key").setSchemas(left, right).build();
+
+        List<List<Writable>> leftData = new ArrayList<>();
+        leftData.add(Arrays.<Writable>asList(new IntWritable(1), new Text("a")));
+        leftData.add(Arrays.<Writable>asList(new DoubleWritable(0.0), new Text("b")));
+        leftData.add(Arrays.<Writable>asList(new DoubleWritable(Double.NaN), new Text("c")));
+        leftData.add(Arrays.<Writable>asList(new IntWritable(-5), new Text("d")));
+        List<List<Writable>> rightData = new ArrayList<>();
+        rightData.add(Arrays.<Writable>asList(new LongWritable(1), new Text("e")));
+        rightData.add(Arrays.<Writable>asList(new IntWritable(1), new Text("f")));
+        rightData.add(Arrays.<Writable>asList(new FloatWritable(-0.0f), new Text("g")));
+        rightData.add(Arrays.<Writable>asList(new DoubleWritable(Double.NaN), new Text("h")));
+        rightData.add(Arrays.<Writable>asList(new LongWritable(-5), new Text("i")));
+        rightData.add(Arrays.<Writable>asList(new DoubleWritable(1.0), new Text("j")));
+
+        List<String> exp = new ArrayList<>();
+        for (String[] pair : new String[][] {{"a", "e"}, {"a", "f"}, {"b", "g"}, {"c", null}, {"d", "i"},
+                        {null, "h"}, {null, "j"}}) {
+            exp.add(pair[0] + "," + pair[1]);
+        }
+        Collections.sort(exp);
+
+        for (JoinStrategy strategy : JoinStrategy.values()) {
+            //maxRecordsInMemory = 2: AUTO uses a sort-merge join
+            for (int maxRecordsInMemory : new int[] {2, 1000}) {
+                LocalJoinExecutor executor = new LocalJoinExecutor.Builder().strategy(strategy)
+                                .maxRecordsInMemory(maxRecordsInMemory).spillDirectory(testDir.getRoot()).build();
+                Iterator<List<Writable>> iter = executor.executeJoin(join, leftData.iterator(), rightData.iterator());
+                List<String> act = new ArrayList<>();
+                while (iter.hasNext()) {
+                    List<Writable> l = iter.next();
+                    //Output: key, leftValue, rightValue. Missing values are NullWritable
+                    act.add(value(l.get(1)) + "," + value(l.get(2)));
+                }
+                Collections.sort(act);
+                assertEquals(strategy + " - " + maxRecordsInMemory, exp, act);
+            }
+        }
+    }
+
+    private static String value(Writable w) {
+        return w instanceof NullWritable ? "null" : w.toString();
+    }
+
+    @Test
+    public void testCloseEarly() throws Exception {
+        File dir = testDir.newFolder();
+        LocalJoinExecutor executor = new LocalJoinExecutor.Builder().strategy(JoinStrategy.SORT_MERGE)
+                        .maxRecordsInMemory(4).spillDirectory(dir).build();
+        CloseableIterator<List<Writable>> iter = executor.executeJoin(join(Join.JoinType.FullOuter),
+                        leftData(100).iterator(), rightData(100).iterator());
+        assertTrue(iter.hasNext());
+        iter.next();
+        assertTrue(dir.listFiles().length > 0);
+        iter.close();
+        assertFalse(iter.hasNext());
+        assertEquals(0, dir.listFiles().length);
+    }
+
+    @Test
+    public void testStreamingExecutorJoin() throws Exception {
+        List<List<Writable>> left = leftData(100);
+        List<List<Writable>> right = rightData(100);
+        Join join = join(Join.JoinType.LeftOuter);
+
+        File dir = testDir.newFolder();
+        StreamingLocalTransformExecutor executor = new StreamingLocalTransformExecutor.Builder().maxRecordsInMemory(10)
+                        .spillDirectory(dir).build();
+        List<String> act = sorted(executor.executeJoin(join, new CollectionRecordReader(left),
+                        new CollectionRecordReader(right)));
+        assertEquals(sorted(nestedLoopJoin(join, left, right).iterator()), act);
+        assertEquals(0, dir.listFiles().length);
+    }
+}
@@ -28,11 +28,13 @@ import org.datavec.api.records.reader.RecordReader;
 import org.datavec.api.records.reader.SequenceRecordReader;
 import org.datavec.api.records.reader.impl.collection.CollectionRecordReader;
 import org.datavec.api.records.reader.impl.collection.CollectionSequenceRecordReader;
+import org.datavec.api.records.reader.impl.csv.CSVColumnarRecordReader;
 import org.datavec.api.records.reader.impl.csv.CSVRecordReader;
 import org.datavec.api.records.reader.impl.csv.CSVSequenceRecordReader;
 import org.datavec.api.split.FileSplit;
 import org.datavec.api.split.InputStreamInputSplit;
 import org.datavec.api.split.NumberedFileInputSplit;
+import org.datavec.api.transform.schema.Schema;
 import org.datavec.api.writable.DoubleWritable;
 import org.datavec.api.writable.IntWritable;
 import org.datavec.api.writable.NDArrayWritable;
@@ -139,6 +141,41 @@ public class RecordReaderDataSetiteratorTest extends BaseDL4JTest {
 
     }
 
+    @Test
+    public void testColumnarCSVRecordReader() throws Exception {
+        File f = new ClassPathResource("iris.txt").getTempFileFromArchive();
+        Schema schema = new Schema.Builder().addColumnsDouble("f_%d", 0, 3).addColumnInteger("label").build();
+
+        for (boolean regression : new boolean[] {false, true}) {
+            RecordReader expRR = new CSVRecordReader();
+            expRR.initialize(new FileSplit(f));
+            RecordReader rr = new CSVColumnarRecordReader(schema);
+            rr.initialize(new FileSplit(f));
+
+            DataSetIterator expIter;
+            DataSetIterator iter;
+            if (regression) {
+                expIter = new RecordReaderDataSetIterator.Builder(expRR, 32).regression(3, 4).build();
+                iter = new RecordReaderDataSetIterator.Builder(rr, 32).regression(3, 4).build();
+            } else {
+                expIter = new RecordReaderDataSetIterator(expRR, 32, 4, 3);
+                iter = new RecordReaderDataSetIterator(rr, 32, 4, 3);
+            }
+
+            int count = 0;
+            while (expIter.hasNext()) {
+                assertTrue(iter.hasNext());
+                DataSet exp = expIter.next();
+                DataSet act = iter.next();
+                assertEquals(exp.getFeatures(), act.getFeatures());
+                assertEquals(exp.getLabels(), act.getLabels());
+                count += act.numExamples();
+            }
+            assertFalse(iter.hasNext());
+            assertEquals(150, count);
+        }
+    }
+
     @Test
     public void testSequenceRecordReader() throws Exception {
         File rootDir = temporaryFolder.newFolder();
@@ -0,0 +1,157 @@
+package org.deeplearning4j.datasets.iterator;
+
+import org.deeplearning4j.BaseDL4JTest;
+import org.deeplearning4j.datasets.iterator.file.DataSetShardReader;
+import org.deeplearning4j.datasets.iterator.file.DataSetShardWriter;
+import org.deeplearning4j.datasets.iterator.file.ShardCompression;
+import org.deeplearning4j.datasets.iterator.file.ShardedDataSetIterator;
+import org.deeplearning4j.datasets.iterator.impl.IrisDataSetIterator;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.nd4j.linalg.dataset.DataSet;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class TestShardedDataSetIterator extends BaseDL4JTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static List<DataSet> irisBatches() {
+        List<DataSet> l = new ArrayList<>();
+        IrisDataSetIterator iter = new IrisDataSetIterator(10, 150);
+        while (iter.hasNext()) {
+            l.add(iter.next());
+        }
+        return l;
+    }
+
+    @Test
+    public void testWriteRead() throws Exception {
+        List<DataSet> exp = irisBatches();
+        for (ShardCompression c : ShardCompression.values()) {
+            File f = folder.newFile();
+            try (DataSetShardWriter w = new DataSetShardWriter(f, c)) {
+                for (DataSet ds : exp) {
+                    w.write(ds);
+                }
+            }
+
+            assertEquals(exp, DataSetShardReader.read(f));
+            assertEquals(exp.get(7), DataSetShardReader.read(f, 7));
+            DataSetShardReader.Index index = DataSetShardReader.readIndex(f);
+            assertEquals(c, index.getCompression());
+            assertEquals(15, index.numRecords());
+            assertEquals(150, index.totalExamples());
+        }
+    }
+
+    @Test
+    public void testExportAndIterate() throws Exception {
+        File dir = folder.newFolder();
+        List<File> shards = DataSetShardWriter.export(new IrisDataSetIterator(10, 150), dir, "iris", 4,
+                        ShardCompression.DEFLATE);
+        assertEquals(4, shards.size());
+
+        List<DataSet> exp = irisBatches();
+        ShardedDataSetIterator iter = new ShardedDataSetIterator.Builder().rootDir(dir).prefetchShards(2).build();
+        try {
+            assertEquals(150, iter.numExamples());
+            for (int epoch = 0; epoch < 2; epoch++) {
+                List<DataSet> act = new ArrayList<>();
+                while (iter.hasNext()) {
+                    act.add(iter.next());
+                }
+                assertEquals(exp, act);
+                assertEquals(150, iter.cursor());
+                iter.reset();
+            }
+        } finally {
+            iter.shutdown();
+        }
+    }
+
+    @Test
+    public void testShuffle() throws Exception {
+        File dir = folder.newFolder();
+        List<File> shards = DataSetShardWriter.export(new IrisDataSetIterator(5, 150), dir, "iris", 3,
+                        ShardCompression.NONE);
+
+        List<DataSet> exp = new ArrayList<>();
+        IrisDataSetIterator irisIter = new IrisDataSetIterator(5, 150);
+        while (irisIter.hasNext()) {
+            exp.add(irisIter.next());
+        }
+
+        ShardedDataSetIterator iter = new ShardedDataSetIterator.Builder().shards(shards).rng(new Random(12345))
+                        .shuffleBufferSize(8).prefetchShards(3).numThreads(2).build();
+        try {
+            List<DataSet> first = new ArrayList<>();
+            while (iter.hasNext()) {
+                first.add(iter.next());
+            }
+            assertEquals(exp.size(), first.size());
+            assertNotEquals(exp, first);
+            assertTrue(first.containsAll(exp));
+
+            //Different order after reset, same contents
+            iter.reset();
+            List<DataSet> second = new ArrayList<>();
+            while (iter.hasNext()) {
+                second.add(iter.next());
+            }
+            assertNotEquals(first, second);
+            assertTrue(second.containsAll(exp));
+        } finally {
+            iter.shutdown();
+        }
+    }
+
+    @Test
+    public void testCorruptShard() throws Exception {
+        File f = folder.newFile();
+        try (DataSetShardWriter w = new DataSetShardWriter(f, ShardCompression.DEFLATE)) {
+            for (DataSet ds : irisBatches()) {
+                w.write(ds);
+            }
+        }
+
+        //Flip a byte in the first record
+        try (RandomAccessFile raf = new RandomAccessFile(f, "rw")) {
+            raf.seek(40);
+            int b = raf.read();
+            raf.seek(40);
+            raf.write(b ^ 0xFF);
+        }
+
+        try {
+            DataSetShardReader.read(f);
+            fail("Expected exception");
+        } catch (IOException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("Checksum"));
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testIncompleteShard() throws Exception {
+        File f = folder.newFile();
+        try (DataSetShardWriter w = new DataSetShardWriter(f, ShardCompression.NONE)) {
+            for (DataSet ds : irisBatches()) {
+                w.write(ds);
+            }
+        }
+        //Truncated file: footer is missing
+        try (RandomAccessFile raf = new RandomAccessFile(f, "rw")) {
+            raf.setLength(raf.length() - 1);
+        }
+        DataSetShardReader.read(f);
+    }
+}
@@ -0,0 +1,110 @@
+package org.deeplearning4j.nn.inference;
+
+import org.deeplearning4j.BaseDL4JTest;
+import org.deeplearning4j.nn.conf.ComputationGraphConfiguration;
+import org.deeplearning4j.nn.conf.MultiLayerConfiguration;
+import org.deeplearning4j.nn.conf.NeuralNetConfiguration;
+import org.deeplearning4j.nn.conf.graph.MergeVertex;
+import org.deeplearning4j.nn.conf.layers.ActivationLayer;
+import org.deeplearning4j.nn.conf.layers.DenseLayer;
+import org.deeplearning4j.nn.conf.layers.DropoutLayer;
+import org.deeplearning4j.nn.conf.layers.OutputLayer;
+import org.deeplearning4j.nn.graph.ComputationGraph;
+import org.deeplearning4j.nn.multilayer.MultiLayerNetwork;
+import org.junit.Test;
+import org.nd4j.linalg.activations.Activation;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.factory.Nd4j;
+
+import static org.junit.Assert.*;
+
+public class InferencePlanTest extends BaseDL4JTest {
+
+    private static MultiLayerNetwork getNetwork() {
+        MultiLayerConfiguration conf = new NeuralNetConfiguration.Builder().seed(12345).list()
+                        .layer(new DenseLayer.Builder().nIn(10).nOut(16).activation(Activation.IDENTITY).build())
+                        .layer(new ActivationLayer.Builder().activation(Activation.TANH).build())
+                        .layer(new DropoutLayer.Builder(0.5).build())
+                        .layer(new DenseLayer.Builder().nIn(16).nOut(16).activation(Activation.RELU).build())
+                        .layer(new OutputLayer.Builder().nIn(16).nOut(3).activation(Activation.SOFTMAX).build())
+                        .build();
+
+        MultiLayerNetwork net = new MultiLayerNetwork(conf);
+        net.init();
+        return net;
+    }
+
+    @Test
+    public void testMultiLayerNetwork1() {
+        MultiLayerNetwork net = getNetwork();
+        InferencePlan plan = new InferencePlan.Builder(net).build();
+
+        assertEquals(5, plan.getNumSteps());
+        assertEquals(2, plan.getNumFusedSteps());
+        assertEquals(2, plan.getNumWorkspaces());
+
+        for (int batch : new int[] {1, 3, 8}) {
+            INDArray input = Nd4j.rand(batch, 10);
+            INDArray exp = net.output(input);
+
+            // input must not be modified by plan
+            INDArray inputCopy = input.dup();
+            assertEquals(exp, plan.outputSingle(input));
+            assertEquals(inputCopy, input);
+        }
+    }
+
+    @Test
+    public void testPreallocatedOutput1() {
+        MultiLayerNetwork net = getNetwork();
+        InferencePlan plan = new InferencePlan.Builder(net).maxBatchShape(new long[] {8, 10}).build();
+
+        for (long size : plan.getWorkspaceSizes())
+            assertTrue(size > 0);
+
+        INDArray output = Nd4j.create(4, 3);
+        for (int i = 0; i < 5; i++) {
+            INDArray input = Nd4j.rand(4, 10);
+            plan.output(new INDArray[] {input}, new INDArray[] {output});
+            assertEquals(net.output(input), output);
+        }
+    }
+
+    @Test
+    public void testComputationGraph1() {
+        ComputationGraphConfiguration conf = new NeuralNetConfiguration.Builder().seed(12345).graphBuilder()
+                        .addInputs("in1", "in2")
+                        .addLayer("d1", new DenseLayer.Builder().nIn(4).nOut(8).activation(Activation.IDENTITY).build(), "in1")
+                        .addLayer("d2", new DenseLayer.Builder().nIn(5).nOut(8).activation(Activation.TANH).build(), "in2")
+                        .addLayer("act", new ActivationLayer.Builder().activation(Activation.SIGMOID).build(), "d1")
+                        // d2 output is consumed twice, so activation on top of it can't be done in place
+                        .addLayer("act2", new ActivationLayer.Builder().activation(Activation.RELU).build(), "d2")
+                        .addVertex("merge", new MergeVertex(), "act", "d2")
+                        .addLayer("out1", new OutputLayer.Builder().nIn(16).nOut(3).activation(Activation.SOFTMAX).build(), "merge")
+                        .addLayer("out2", new OutputLayer.Builder().nIn(8).nOut(2).activation(Activation.SOFTMAX).build(), "act2")
+                        // this one doesn't contribute to outputs, and should be dropped from plan
+                        .addLayer("unused", new DenseLayer.Builder().nIn(16).nOut(4).build(), "merge")
+                        .setOutputs("out1", "out2")
+                        .build();
+
+        ComputationGraph graph = new ComputationGraph(conf);
+        graph.init();
+
+        InferencePlan plan = new InferencePlan.Builder(graph).maxBatchShape(new long[] {4, 4}, new long[] {4, 5}).build();
+        assertEquals(7, plan.getNumSteps());
+        assertEquals(1, plan.getNumFusedSteps());
+
+        for (int batch : new int[] {1, 4}) {
+            INDArray in1 = Nd4j.rand(batch, 4);
+            INDArray in2 = Nd4j.rand(batch, 5);
+
+            INDArray[] exp = graph.output(in1, in2);
+            INDArray[] out = plan.output(in1, in2);
+
+            assertEquals(2, out.length);
+            assertEquals(exp[0], out[0]);
+            assertEquals(exp[1], out[1]);
+            assertFalse(out[0].isAttached());
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package org.deeplearning4j.nn.inference;
+
+import org.deeplearning4j.BaseDL4JTest;
+import org.deeplearning4j.datasets.iterator.ExistingDataSetIterator;
+import org.deeplearning4j.nn.conf.ComputationGraphConfiguration;
+import org.deeplearning4j.nn.conf.MultiLayerConfiguration;
+import org.deeplearning4j.nn.conf.NeuralNetConfiguration;
+import org.deeplearning4j.nn.conf.graph.LayerVertex;
+import org.deeplearning4j.nn.conf.inputs.InputType;
+import org.deeplearning4j.nn.conf.layers.ConvolutionLayer;
+import org.deeplearning4j.nn.conf.layers.DenseLayer;
+import org.deeplearning4j.nn.conf.layers.OutputLayer;
+import org.deeplearning4j.nn.conf.preprocessor.ComposableInputPreProcessor;
+import org.deeplearning4j.nn.conf.preprocessor.QuantizeDequantizePreProcessor;
+import org.deeplearning4j.nn.graph.ComputationGraph;
+import org.deeplearning4j.nn.multilayer.MultiLayerNetwork;
+import org.junit.Test;
+import org.nd4j.linalg.activations.Activation;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.dataset.DataSet;
+import org.nd4j.linalg.dataset.api.iterator.DataSetIterator;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.indexing.NDArrayIndex;
+import org.nd4j.linalg.ops.transforms.Transforms;
+import org.nd4j.linalg.primitives.Pair;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class QuantizationSimulatorTest extends BaseDL4JTest {
+
+    private static DataSetIterator getCalibrationData(int nIn) {
+        Nd4j.getRandom().setSeed(12345);
+        List<DataSet> list = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            list.add(new DataSet(Nd4j.rand(8, nIn), null));
+        }
+        return new ExistingDataSetIterator(list);
+    }
+
+    private static void assertIntegral(INDArray values) {
+        assertEquals(values, Transforms.round(values, true));
+        assertTrue(values.amaxNumber().doubleValue() <= 127);
+    }
+
+    @Test
+    public void testQuantizeWeights() {
+        Nd4j.getRandom().setSeed(12345);
+        INDArray dense = Nd4j.randn(10, 4);
+        dense.getColumn(2).assign(0);   //All zero channel
+
+        Pair<INDArray, INDArray> q = QuantizationSimulator.quantizeWeights(dense, false, true);
+        assertArrayEquals(dense.shape(), q.getFirst().shape());
+        assertArrayEquals(new long[] {1, 4}, q.getSecond().shape());
+        assertIntegral(q.getFirst());
+        for (int j = 0; j < 4; j++) {
+            double maxAbs = q.getFirst().getColumn(j).amaxNumber().doubleValue();
+            assertEquals(j == 2 ? 0.0 : 127.0, maxAbs, 0.0);
+        }
+        INDArray dequantized = q.getFirst().mulRowVector(q.getSecond());
+        double maxError = Transforms.abs(dequantized.sub(dense)).maxNumber().doubleValue();
+        assertTrue(maxError <= q.getSecond().maxNumber().doubleValue() / 2 + 1e-6);
+
+        INDArray conv = Nd4j.randn(new int[] {3, 2, 2, 2});
+        q = QuantizationSimulator.quantizeWeights(conv, true, true);
+        assertArrayEquals(conv.shape(), q.getFirst().shape());
+        assertArrayEquals(new long[] {3, 1}, q.getSecond().shape());
+        assertIntegral(q.getFirst());
+        for (int i = 0; i < 3; i++) {
+            assertEquals(127.0, q.getFirst().get(NDArrayIndex.point(i)).amaxNumber().doubleValue(), 0.0);
+        }
+
+        q = QuantizationSimulator.quantizeWeights(dense, false, false);
+        assertEquals(1, q.getSecond().length());
+        assertEquals(127.0, q.getFirst().amaxNumber().doubleValue(), 0.0);
+    }
+
+    @Test
+    public void testMultiLayerNetwork() {
+        MultiLayerConfiguration conf = new NeuralNetConfiguration.Builder().seed(12345).list()
+                        .layer(new ConvolutionLayer.Builder().kernelSize(2, 2).nOut(4).activation(Activation.RELU).build())
+                        .layer(new DenseLayer.Builder().nOut(16).activation(Activation.TANH).build())
+                        .layer(new OutputLayer.Builder().nOut(3).activation(Activation.SOFTMAX).build())
+                        .setInputType(InputType.convolutionalFlat(6, 6, 1))
+                        .build();
+        MultiLayerNetwork net = new MultiLayerNetwork(conf);
+        net.init();
+        INDArray paramsBefore = net.params().dup();
+
+        MultiLayerNetwork simulated = new QuantizationSimulator.Builder().calibrationBatches(3).build()
+                        .simulate(net, getCalibrationData(36));
+
+        //Original network must not be modified
+        assertEquals(paramsBefore, net.params());
+        assertNotEquals(net.params(), simulated.params());
+
+        MultiLayerConfiguration qConf = simulated.getLayerWiseConfigurations();
+        assertTrue(qConf.getInputPreProcess(0) instanceof QuantizeDequantizePreProcessor);
+        //Existing CNN to feed forward preprocessor is kept
+        assertTrue(qConf.getInputPreProcess(1) instanceof ComposableInputPreProcessor);
+        assertTrue(qConf.getInputPreProcess(2) instanceof QuantizeDequantizePreProcessor);
+        assertEquals(qConf, MultiLayerConfiguration.fromJson(qConf.toJson()));
+
+        INDArray in = Nd4j.rand(5, 36);
+        INDArray exp = net.output(in);
+        INDArray out = simulated.output(in);
+        double maxError = Transforms.abs(exp.sub(out)).maxNumber().doubleValue();
+        assertTrue("Max error: " + maxError, maxError < 0.05);
+    }
+
+    @Test
+    public void testWeightsOnly() {
+        MultiLayerConfiguration conf = new NeuralNetConfiguration.Builder().seed(12345).list()
+                        .layer(new DenseLayer.Builder().nIn(10).nOut(8).activation(Activation.TANH).build())
+                        .layer(new OutputLayer.Builder().nIn(8).nOut(3).activation(Activation.SOFTMAX).build())
+                        .build();
+        MultiLayerNetwork net = new MultiLayerNetwork(conf);
+        net.init();
+
+        MultiLayerNetwork simulated = new QuantizationSimulator.Builder().quantizeActivations(false).perChannel(false)
+                        .build().simulate(net, null);
+        assertNull(simulated.getLayerWiseConfigurations().getInputPreProcess(0));
+
+        //Biases are not quantized
+        assertEquals(net.getLayer(0).getParam("b"), simulated.getLayer(0).getParam("b"));
+        INDArray w = simulated.getLayer(1).getParam("W");
+        double scale = net.getLayer(1).getParam("W").amaxNumber().doubleValue() / 127;
+        assertIntegral(w.div(scale));
+    }
+
+    @Test
+    public void testComputationGraph() {
+        ComputationGraphConfiguration conf = new NeuralNetConfiguration.Builder().seed(12345).graphBuilder()
+                        .addInputs("in")
+                        .addLayer("d1", new DenseLayer.Builder().nIn(10).nOut(12).activation(Activation.TANH).build(), "in")
+                        .addLayer("d2", new DenseLayer.Builder().nIn(12).nOut(8).activation(Activation.SIGMOID).build(), "d1")
+                        .addLayer("out", new OutputLayer.Builder().nIn(8).nOut(3).activation(Activation.SOFTMAX).build(), "d2")
+                        .setOutputs("out")
+                        .build();
+        ComputationGraph graph = new ComputationGraph(conf);
+        graph.init();
+
+        ComputationGraph simulated = new QuantizationSimulator.Builder().build().simulate(graph, getCalibrationData(10));
+        for (String s : new String[] {"d1", "d2", "out"}) {
+            LayerVertex lv = (LayerVertex) simulated.getConfiguration().getVertices().get(s);
+            assertTrue(lv.getPreProcessor() instanceof QuantizeDequantizePreProcessor);
+        }
+
+        INDArray in = Nd4j.rand(5, 10);
+        double maxError = Transforms.abs(graph.outputSingle(in).sub(simulated.outputSingle(in))).maxNumber().doubleValue();
+        assertTrue("Max error: " + maxError, maxError < 0.05);
+    }
+}
@@ -0,0 +1,237 @@
+package org.deeplearning4j.nn.multilayer;
+
+import org.deeplearning4j.BaseDL4JTest;
+import org.deeplearning4j.nn.conf.MultiLayerConfiguration;
+import org.deeplearning4j.nn.conf.NeuralNetConfiguration;
+import org.deeplearning4j.nn.conf.WorkspaceMode;
+import org.deeplearning4j.nn.conf.inputs.InputType;
+import org.deeplearning4j.nn.conf.layers.BatchNormalization;
+import org.deeplearning4j.nn.conf.layers.ConvolutionLayer;
+import org.deeplearning4j.nn.conf.layers.DenseLayer;
+import org.deeplearning4j.nn.conf.layers.OutputLayer;
+import org.deeplearning4j.nn.api.Model;
+import org.deeplearning4j.nn.gradient.Gradient;
+import org.deeplearning4j.optimize.api.BaseTrainingListener;
+import org.junit.Test;
+import org.nd4j.linalg.activations.Activation;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.dataset.DataSet;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.learning.config.Sgd;
+import org.nd4j.linalg.lossfunctions.LossFunctions;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class TestGradientCheckpointing extends BaseDL4JTest {
+
+    private static MultiLayerConfiguration getConf(WorkspaceMode wsm, int checkpointInterval, double dropOut) {
+        return getConf(wsm, checkpointInterval, dropOut, new int[0]);
+    }
+
+    private static MultiLayerConfiguration getConf(WorkspaceMode wsm, int checkpointInterval, double dropOut,
+                    int[] checkpointLayers) {
+        return new NeuralNetConfiguration.Builder().seed(12345)
+                        .updater(new Sgd(0.1))
+                        .trainingWorkspaceMode(wsm).inferenceWorkspaceMode(wsm)
+                        .list()
+                        .layer(new ConvolutionLayer.Builder().kernelSize(2, 2).nOut(3).activation(Activation.TANH).build())
+                        .layer(new BatchNormalization.Builder().build())
+                        .layer(new DenseLayer.Builder().nOut(12).activation(Activation.TANH).build())
+                        .layer(new DenseLayer.Builder().nOut(10).activation(Activation.SIGMOID).build())
+                        .layer(new DenseLayer.Builder().nOut(8).activation(Activation.TANH).dropOut(dropOut).build())
+                        .layer(new DenseLayer.Builder().nOut(8).activation(Activation.RELU).build())
+                        .layer(new OutputLayer.Builder().nOut(3).activation(Activation.SOFTMAX)
+                                        .lossFunction(LossFunctions.LossFunction.MCXENT).build())
+                        .setInputType(InputType.convolutionalFlat(5, 5, 1))
+                        .checkpointInterval(checkpointInterval)
+                        .checkpointLayers(checkpointLayers)
+                        .build();
+    }
+
+    private static DataSet getData() {
+        Nd4j.getRandom().setSeed(12345);
+        INDArray f = Nd4j.rand(4, 25);
+        INDArray l = Nd4j.zeros(4, 3);
+        for (int i = 0; i < 4; i++)
+            l.putScalar(i, i % 3, 1.0);
+        return new DataSet(f, l);
+    }
+
+    @Test
+    public void testGradientsSameAsWithoutCheckpointing() {
+        DataSet ds = getData();
+        for (WorkspaceMode wsm : new WorkspaceMode[] {WorkspaceMode.NONE, WorkspaceMode.ENABLED}) {
+            for (int interval : new int[] {1, 2, 3}) {
+                MultiLayerNetwork net = new MultiLayerNetwork(getConf(wsm, 0, 0.0));
+                net.init();
+                MultiLayerNetwork netCheckpointed = new MultiLayerNetwork(getConf(wsm, interval, 0.0));
+                netCheckpointed.init();
+                assertEquals(net.params(), netCheckpointed.params());
+
+                net.setInput(ds.getFeatures());
+                net.setLabels(ds.getLabels());
+                net.computeGradientAndScore();
+                netCheckpointed.setInput(ds.getFeatures());
+                netCheckpointed.setLabels(ds.getLabels());
+                netCheckpointed.computeGradientAndScore();
+
+                String msg = "Workspace mode: " + wsm + ", interval: " + interval;
+                assertEquals(msg, net.score(), netCheckpointed.score(), 1e-6);
+                //Batch norm running statistics must be updated once only
+                assertEquals(msg, net.params(), netCheckpointed.params());
+                Gradient g = net.gradient();
+                Gradient gCheckpointed = netCheckpointed.gradient();
+                for (Map.Entry<String, INDArray> e : g.gradientForVariable().entrySet()) {
+                    assertEquals(msg + ", " + e.getKey(), e.getValue(), gCheckpointed.getGradientFor(e.getKey()));
+                }
+
+                //Input activation gradients
+                assertEquals(msg, net.calculateGradients(ds.getFeatures(), ds.getLabels(), null, null).getSecond(),
+                                netCheckpointed.calculateGradients(ds.getFeatures(), ds.getLabels(), null, null).getSecond());
+            }
+        }
+    }
+
+    @Test
+    public void testCheckpointLayersSameAsWithoutCheckpointing() {
+        DataSet ds = getData();
+        for (WorkspaceMode wsm : new WorkspaceMode[] {WorkspaceMode.NONE, WorkspaceMode.ENABLED}) {
+            for (int[] checkpointLayers : new int[][] {{0}, {1, 3}, {2}, {0, 1, 4}, {3, 0}, {5}}) {
+                MultiLayerNetwork net = new MultiLayerNetwork(getConf(wsm, 0, 0.0));
+                net.init();
+                MultiLayerNetwork netCheckpointed = new MultiLayerNetwork(getConf(wsm, 0, 0.0, checkpointLayers));
+                netCheckpointed.init();
+
+                String msg = "Workspace mode: " + wsm + ", checkpoint layers: " + Arrays.toString(checkpointLayers);
+                for (int i = 0; i < 3; i++) {
+                    net.fit(ds);
+                    netCheckpointed.fit(ds);
+                    assertEquals(msg, net.params(), netCheckpointed.params());
+                }
+                assertEquals(msg, net.calculateGradients(ds.getFeatures(), ds.getLabels(), null, null).getSecond(),
+                                netCheckpointed.calculateGradients(ds.getFeatures(), ds.getLabels(), null, null).getSecond());
+            }
+        }
+    }
+
+    @Test
+    public void testCheckpointLayersDropout() {
+        //Layer 4 (dropout) is after the last checkpoint: never recomputed
+        MultiLayerNetwork net = new MultiLayerNetwork(getConf(WorkspaceMode.ENABLED, 0, 0.5, new int[] {1, 3}));
+        net.init();
+        net.fit(getData());
+
+        try {
+            net = new MultiLayerNetwork(getConf(WorkspaceMode.ENABLED, 0, 0.5, new int[] {4}));
+            net.init();
+            net.fit(getData());
+            fail("Expected exception");
+        } catch (IllegalStateException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("layer 4"));
+        }
+    }
+
+    @Test
+    public void testCheckpointLayersValidation() {
+        try {
+            getConf(WorkspaceMode.ENABLED, 2, 0.0, new int[] {1});
+            fail("Expected exception");
+        } catch (IllegalStateException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("Only one of these"));
+        }
+        try {
+            getConf(WorkspaceMode.ENABLED, 0, 0.0, new int[] {7});
+            fail("Expected exception");
+        } catch (IllegalStateException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("7"));
+        }
+    }
+
+    @Test
+    public void testFitSameAsWithoutCheckpointing() {
+        DataSet ds = getData();
+        MultiLayerNetwork net = new MultiLayerNetwork(getConf(WorkspaceMode.ENABLED, 0, 0.0));
+        net.init();
+        MultiLayerNetwork netCheckpointed = new MultiLayerNetwork(getConf(WorkspaceMode.ENABLED, 2, 0.0));
+        netCheckpointed.init();
+
+        for (int i = 0; i < 5; i++) {
+            net.fit(ds);
+            netCheckpointed.fit(ds);
+            assertEquals(net.params(), netCheckpointed.params());
+        }
+        assertEquals(net.output(ds.getFeatures()), netCheckpointed.output(ds.getFeatures()));
+    }
+
+    @Test
+    public void testDropoutInLastSegmentAllowed() {
+        //Layer 4 (dropout) is in the last segment for interval 2 (layers 4 and 5), hence never recomputed
+        MultiLayerNetwork net = new MultiLayerNetwork(getConf(WorkspaceMode.ENABLED, 2, 0.5));
+        net.init();
+        net.fit(getData());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testDropoutInRecomputedSegment() {
+        //For interval 1, all layers before the last hidden layer are recomputed, including layer 4 (dropout)
+        MultiLayerNetwork net = new MultiLayerNetwork(getConf(WorkspaceMode.ENABLED, 1, 0.5));
+        net.init();
+        net.fit(getData());
+    }
+
+    @Test
+    public void testJsonRoundTrip() {
+        MultiLayerConfiguration conf = getConf(WorkspaceMode.ENABLED, 3, 0.0);
+        assertEquals(3, conf.getCheckpointInterval());
+
+        MultiLayerConfiguration fromJson = MultiLayerConfiguration.fromJson(conf.toJson());
+        assertEquals(conf, fromJson);
+        assertEquals(3, fromJson.getCheckpointInterval());
+
+        conf = getConf(WorkspaceMode.ENABLED, 0, 0.0, new int[] {3, 1});
+        assertArrayEquals(new int[] {1, 3}, conf.getCheckpointLayers());
+        fromJson = MultiLayerConfiguration.fromJson(conf.toJson());
+        assertEquals(conf, fromJson);
+        assertArrayEquals(new int[] {1, 3}, fromJson.getCheckpointLayers());
+        assertArrayEquals(new int[] {1, 3}, conf.clone().getCheckpointLayers());
+    }
+
+    @Test
+    public void testForwardPassListenerNotCalled() {
+        final AtomicInteger count = new AtomicInteger();
+        BaseTrainingListener l = new BaseTrainingListener() {
+            @Override
+            public void onForwardPass(Model model, List<INDArray> activations) {
+                for (INDArray a : activations)
+                    assertNotNull(a);
+                count.incrementAndGet();
+            }
+        };
+
+        MultiLayerNetwork net = new MultiLayerNetwork(getConf(WorkspaceMode.ENABLED, 0, 0.0));
+        net.init();
+        net.setListeners(l);
+        net.fit(getData());
+        assertTrue(count.get() > 0);
+
+        //Discarded activations are never passed to listeners
+        count.set(0);
+        MultiLayerNetwork netCheckpointed = new MultiLayerNetwork(getConf(WorkspaceMode.ENABLED, 2, 0.0));
+        netCheckpointed.init();
+        netCheckpointed.setListeners(l);
+        netCheckpointed.fit(getData());
+        assertEquals(0, count.get());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testToComputationGraphNotSupported() {
+        MultiLayerNetwork net = new MultiLayerNetwork(getConf(WorkspaceMode.ENABLED, 2, 0.0));
+        net.init();
+        net.toComputationGraph();
+    }
+}
@@ -0,0 +1,181 @@
+package org.deeplearning4j.nn.updater;
+
+import org.deeplearning4j.BaseDL4JTest;
+import org.deeplearning4j.nn.conf.ComputationGraphConfiguration;
+import org.deeplearning4j.nn.conf.LossScaler;
+import org.deeplearning4j.nn.conf.MultiLayerConfiguration;
+import org.deeplearning4j.nn.conf.NeuralNetConfiguration;
+import org.deeplearning4j.nn.conf.layers.DenseLayer;
+import org.deeplearning4j.nn.conf.layers.OutputLayer;
+import org.deeplearning4j.nn.gradient.Gradient;
+import org.deeplearning4j.nn.graph.ComputationGraph;
+import org.deeplearning4j.nn.multilayer.MultiLayerNetwork;
+import org.deeplearning4j.nn.workspace.LayerWorkspaceMgr;
+import org.junit.Test;
+import org.nd4j.linalg.activations.Activation;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.dataset.DataSet;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.learning.config.Adam;
+import org.nd4j.linalg.lossfunctions.LossFunctions;
+import org.nd4j.linalg.primitives.Pair;
+
+import static org.junit.Assert.*;
+
+public class TestLossScaling extends BaseDL4JTest {
+
+    private static MultiLayerConfiguration getConf(LossScaler lossScaler) {
+        return new NeuralNetConfiguration.Builder().seed(12345)
+                        .updater(new Adam(0.01))
+                        .list()
+                        .layer(new DenseLayer.Builder().nIn(6).nOut(8).activation(Activation.TANH).build())
+                        .layer(new DenseLayer.Builder().nIn(8).nOut(8).activation(Activation.SIGMOID).build())
+                        .layer(new OutputLayer.Builder().nIn(8).nOut(3).activation(Activation.SOFTMAX)
+                                        .lossFunction(LossFunctions.LossFunction.MCXENT).build())
+                        .lossScaler(lossScaler)
+                        .build();
+    }
+
+    private static DataSet getData() {
+        Nd4j.getRandom().setSeed(12345);
+        INDArray f = Nd4j.rand(5, 6);
+        INDArray l = Nd4j.zeros(5, 3);
+        for (int i = 0; i < 5; i++)
+            l.putScalar(i, i % 3, 1.0);
+        return new DataSet(f, l);
+    }
+
+    @Test
+    public void testLossScalerUpdate() {
+        LossScaler ls = new LossScaler(1024, 2.0, 0.5, 3);
+        assertEquals(1024, ls.getScale(), 0.0);
+
+        ls.update(false);
+        ls.update(false);
+        assertEquals(1024, ls.getScale(), 0.0);
+        ls.update(false);
+        assertEquals(2048, ls.getScale(), 0.0);
+
+        ls.update(false);
+        ls.update(true);
+        assertEquals(1024, ls.getScale(), 0.0);
+        assertEquals(0, ls.getStepsSinceOverflow());
+        assertEquals(1, ls.getSkippedSteps());
+
+        //Scale never goes below minimum
+        for (int i = 0; i < 20; i++)
+            ls.update(true);
+        assertEquals(1.0, ls.getScale(), 0.0);
+
+        ls.reset();
+        assertEquals(1024, ls.getScale(), 0.0);
+        assertEquals(0, ls.getSkippedSteps());
+    }
+
+    @Test
+    public void testSameResultAsWithoutScaling() {
+        DataSet ds = getData();
+        MultiLayerNetwork net = new MultiLayerNetwork(getConf(null));
+        net.init();
+        MultiLayerNetwork netScaled = new MultiLayerNetwork(getConf(new LossScaler(1024, 2.0, 0.5, 2)));
+        netScaled.init();
+
+        for (int i = 0; i < 5; i++) {
+            net.fit(ds);
+            netScaled.fit(ds);
+            assertEquals(net.score(), netScaled.score(), 1e-5);
+            assertTrue(net.params().equalsWithEps(netScaled.params(), 1e-5));
+        }
+
+        //Power of 2 scale, no overflow: 5 steps with growth interval of 2 -> 2 increases
+        LossScaler ls = netScaled.getLayerWiseConfigurations().getLossScaler();
+        assertEquals(4096, ls.getScale(), 0.0);
+        assertEquals(0, ls.getSkippedSteps());
+    }
+
+    @Test
+    public void testOverflowSkipsUpdate() {
+        //Scale overflows when cast to float, resulting in non-finite gradients
+        DataSet ds = getData();
+        MultiLayerNetwork net = new MultiLayerNetwork(getConf(new LossScaler(1e300, 2.0, 0.5, 2000)));
+        net.init();
+        INDArray paramsBefore = net.params().dup();
+
+        net.fit(ds);
+        assertEquals(paramsBefore, net.params());
+        LossScaler ls = net.getLayerWiseConfigurations().getLossScaler();
+        assertEquals(1, ls.getSkippedSteps());
+        assertEquals(0.5e300, ls.getScale(), 1e285);
+    }
+
+    @Test
+    public void testExternalErrors() {
+        //No output layer: gradients are calculated from external errors, and applied with the updater directly
+        DataSet ds = getData();
+        Nd4j.getRandom().setSeed(12345);
+        INDArray eps = Nd4j.rand(5, 8);
+
+        MultiLayerNetwork[] nets = new MultiLayerNetwork[2];
+        Pair<Gradient, INDArray>[] pairs = new Pair[2];
+        for (int i = 0; i < 2; i++) {
+            MultiLayerConfiguration conf = new NeuralNetConfiguration.Builder().seed(12345)
+                            .updater(new Adam(0.01))
+                            .list()
+                            .layer(new DenseLayer.Builder().nIn(6).nOut(8).activation(Activation.TANH).build())
+                            .layer(new DenseLayer.Builder().nIn(8).nOut(8).activation(Activation.SIGMOID).build())
+                            .lossScaler(i == 0 ? null : new LossScaler(1024, 2.0, 0.5, 100))
+                            .build();
+            nets[i] = new MultiLayerNetwork(conf);
+            nets[i].init();
+
+            nets[i].setInput(ds.getFeatures());
+            nets[i].feedForward(true, false);
+            pairs[i] = nets[i].backpropGradient(eps, LayerWorkspaceMgr.noWorkspaces());
+        }
+        //Input activation gradients are returned unscaled
+        assertTrue(pairs[0].getSecond().equalsWithEps(pairs[1].getSecond(), 1e-5));
+
+        for (int i = 0; i < 2; i++)
+            nets[i].getUpdater().update(nets[i], pairs[i].getFirst(), 0, 0, 5, LayerWorkspaceMgr.noWorkspaces());
+        assertTrue(nets[0].params().equalsWithEps(nets[1].params(), 1e-5));
+        assertEquals(0, nets[1].getLayerWiseConfigurations().getLossScaler().getSkippedSteps());
+    }
+
+    @Test
+    public void testComputationGraph() {
+        DataSet ds = getData();
+        ComputationGraph[] graphs = new ComputationGraph[2];
+        for (int i = 0; i < 2; i++) {
+            ComputationGraphConfiguration conf = new NeuralNetConfiguration.Builder().seed(12345)
+                            .updater(new Adam(0.01))
+                            .graphBuilder()
+                            .addInputs("in")
+                            .addLayer("d", new DenseLayer.Builder().nIn(6).nOut(8).activation(Activation.TANH).build(), "in")
+                            .addLayer("out", new OutputLayer.Builder().nIn(8).nOut(3).activation(Activation.SOFTMAX)
+                                            .lossFunction(LossFunctions.LossFunction.MCXENT).build(), "d")
+                            .setOutputs("out")
+                            .lossScaler(i == 0 ? null : new LossScaler(512, 2.0, 0.5, 100))
+                            .build();
+            graphs[i] = new ComputationGraph(conf);
+            graphs[i].init();
+        }
+
+        for (int i = 0; i < 3; i++) {
+            graphs[0].fit(ds);
+            graphs[1].fit(ds);
+            assertTrue(graphs[0].params().equalsWithEps(graphs[1].params(), 1e-5));
+        }
+        assertEquals(512, graphs[1].getConfiguration().getLossScaler().getScale(), 0.0);
+    }
+
+    @Test
+    public void testJsonRoundTrip() {
+        MultiLayerConfiguration conf = getConf(new LossScaler(1024, 2.0, 0.5, 100));
+        conf.getLossScaler().update(true);
+
+        MultiLayerConfiguration fromJson = MultiLayerConfiguration.fromJson(conf.toJson());
+        assertEquals(conf, fromJson);
+        assertEquals(512, fromJson.getLossScaler().getScale(), 0.0);
+        assertNull(MultiLayerConfiguration.fromJson(getConf(null).toJson()).getLossScaler());
+    }
+}
@@ -0,0 +1,147 @@
+package org.deeplearning4j.optimizer.listener;
+
+import org.deeplearning4j.BaseDL4JTest;
+import org.deeplearning4j.datasets.iterator.impl.IrisDataSetIterator;
+import org.deeplearning4j.nn.conf.ComputationGraphConfiguration;
+import org.deeplearning4j.nn.conf.MultiLayerConfiguration;
+import org.deeplearning4j.nn.conf.NeuralNetConfiguration;
+import org.deeplearning4j.nn.conf.layers.DenseLayer;
+import org.deeplearning4j.nn.conf.layers.OutputLayer;
+import org.deeplearning4j.nn.graph.ComputationGraph;
+import org.deeplearning4j.nn.multilayer.MultiLayerNetwork;
+import org.deeplearning4j.optimize.api.TimingTrainingListener.Phase;
+import org.deeplearning4j.optimize.listeners.LayerTimingListener;
+import org.junit.Test;
+import org.nd4j.linalg.activations.Activation;
+import org.nd4j.linalg.learning.config.Adam;
+import org.nd4j.linalg.lossfunctions.LossFunctions;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class TestLayerTimingListener extends BaseDL4JTest {
+
+    @Test
+    public void testMultiLayerNetwork() {
+        MultiLayerConfiguration conf = new NeuralNetConfiguration.Builder().updater(new Adam(0.01)).list()
+                        .layer(0, new DenseLayer.Builder().name("dense").nIn(4).nOut(5).activation(Activation.TANH).build())
+                        .layer(1, new OutputLayer.Builder().name("out").nIn(5).nOut(3).activation(Activation.SOFTMAX)
+                                        .lossFunction(LossFunctions.LossFunction.MCXENT).build())
+                        .build();
+        MultiLayerNetwork net = new MultiLayerNetwork(conf);
+        net.init();
+
+        LayerTimingListener listener = new LayerTimingListener(1, 3);
+        net.setListeners(listener);
+        net.fit(new IrisDataSetIterator(30, 150));
+
+        for (String name : new String[] {"dense", "out"}) {
+            for (Phase p : new Phase[] {Phase.FORWARD, Phase.BACKWARD, Phase.GRADIENT_NORMALIZATION}) {
+                LayerTimingListener.TimingStats s = listener.getStats(p, name);
+                assertNotNull(p + " - " + name, s);
+                //5 minibatches, but only the last 3 are kept
+                assertEquals(3, s.getCount());
+                assertTrue(s.getP50Nanos() <= s.getP99Nanos());
+                assertTrue(s.getP99Nanos() <= s.getMaxNanos());
+            }
+        }
+
+        //Activations: 30 examples, 5 and 3 outputs respectively
+        assertTrue(listener.getStats(Phase.FORWARD, "dense").getMeanBytes() >= 30 * 5 * 4);
+        assertTrue(listener.getStats(Phase.FORWARD, "out").getMeanBytes() >= 30 * 3 * 4);
+
+        //Both layers have the same updater config: single updater block
+        assertNotNull(listener.getStats(Phase.UPDATER, "dense-out"));
+
+        boolean dataLoading = false;
+        for (LayerTimingListener.TimingStats s : listener.getStats()) {
+            dataLoading |= s.getPhase() == Phase.DATA_LOADING;
+        }
+        assertTrue(dataLoading);
+
+        String str = listener.statsAsString();
+        assertTrue(str, str.contains("dense"));
+    }
+
+    @Test
+    public void testGradientCheckpointing() {
+        MultiLayerConfiguration conf = new NeuralNetConfiguration.Builder().updater(new Adam(0.01)).list()
+                        .layer(0, new DenseLayer.Builder().name("dense0").nIn(4).nOut(5).activation(Activation.TANH).build())
+                        .layer(1, new DenseLayer.Builder().name("dense1").nIn(5).nOut(5).activation(Activation.TANH).build())
+                        .layer(2, new DenseLayer.Builder().name("dense2").nIn(5).nOut(5).activation(Activation.TANH).build())
+                        .layer(3, new OutputLayer.Builder().name("out").nIn(5).nOut(3).activation(Activation.SOFTMAX)
+                                        .lossFunction(LossFunctions.LossFunction.MCXENT).build())
+                        .checkpointInterval(1)
+                        .build();
+        MultiLayerNetwork net = new MultiLayerNetwork(conf);
+        net.init();
+
+        LayerTimingListener listener = new LayerTimingListener(0);
+        net.setListeners(listener);
+        net.fit(new IrisDataSetIterator(30, 150));
+
+        //Layers 0 and 1 are in recomputed segments, layer 2 isn't: forward pass is timed for all of them, once
+        for (String name : new String[] {"dense0", "dense1", "dense2"}) {
+            for (Phase p : new Phase[] {Phase.FORWARD, Phase.BACKWARD}) {
+                LayerTimingListener.TimingStats s = listener.getStats(p, name);
+                assertNotNull(p + " - " + name, s);
+                assertEquals(p + " - " + name, 5, s.getCount());
+            }
+            assertTrue(listener.getStats(Phase.FORWARD, name).getMeanBytes() >= 30 * 5 * 4);
+        }
+    }
+
+    @Test
+    public void testComputationGraph() {
+        ComputationGraphConfiguration conf = new NeuralNetConfiguration.Builder().updater(new Adam(0.01))
+                        .graphBuilder().addInputs("in")
+                        .addLayer("dense", new DenseLayer.Builder().nIn(4).nOut(5).activation(Activation.TANH).build(), "in")
+                        .addLayer("out", new OutputLayer.Builder().nIn(5).nOut(3).activation(Activation.SOFTMAX)
+                                        .lossFunction(LossFunctions.LossFunction.MCXENT).build(), "dense")
+                        .setOutputs("out").build();
+        ComputationGraph net = new ComputationGraph(conf);
+        net.init();
+
+        LayerTimingListener listener = new LayerTimingListener(0);
+        net.setListeners(listener);
+        net.fit(new IrisDataSetIterator(30, 150));
+
+        for (String name : new String[] {"dense", "out"}) {
+            for (Phase p : new Phase[] {Phase.FORWARD, Phase.BACKWARD, Phase.GRADIENT_NORMALIZATION}) {
+                LayerTimingListener.TimingStats s = listener.getStats(p, name);
+                assertNotNull(p + " - " + name, s);
+                assertEquals(5, s.getCount());
+            }
+        }
+        assertNull(listener.getStats(Phase.FORWARD, "in"));
+        assertNotNull(listener.getStats(Phase.UPDATER, "dense-out"));
+
+        listener.reset();
+        assertTrue(listener.getStats().isEmpty());
+    }
+
+    @Test
+    public void testRollingPercentiles() {
+        LayerTimingListener listener = new LayerTimingListener(0, 10);
+        for (int i = 1; i <= 100; i++) {
+            listener.onTiming(null, Phase.FORWARD, "layer", i, 2 * i);
+        }
+
+        //Only values 91 to 100 are retained
+        LayerTimingListener.TimingStats s = listener.getStats(Phase.FORWARD, "layer");
+        assertEquals(10, s.getCount());
+        assertEquals(95.5, s.getMeanNanos(), 1e-9);
+        assertEquals(95, s.getP50Nanos());
+        assertEquals(99, s.getP90Nanos());
+        assertEquals(100, s.getP99Nanos());
+        assertEquals(100, s.getMaxNanos());
+        assertEquals(191.0, s.getMeanBytes(), 1e-9);
+
+        listener.onTiming(null, Phase.BACKWARD, "layer", 5, 0);
+        List<LayerTimingListener.TimingStats> all = listener.getStats();
+        assertEquals(2, all.size());
+        assertEquals(Phase.FORWARD, all.get(0).getPhase());
+        assertEquals(Phase.BACKWARD, all.get(1).getPhase());
+    }
+}
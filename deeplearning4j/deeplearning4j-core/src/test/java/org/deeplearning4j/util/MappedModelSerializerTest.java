@@ -0,0 +1,164 @@
+package org.deeplearning4j.util;
+
+import org.apache.commons.io.FileUtils;
+import org.deeplearning4j.BaseDL4JTest;
+import org.deeplearning4j.datasets.iterator.impl.IrisDataSetIterator;
+import org.deeplearning4j.nn.conf.ComputationGraphConfiguration;
+import org.deeplearning4j.nn.conf.MultiLayerConfiguration;
+import org.deeplearning4j.nn.conf.NeuralNetConfiguration;
+import org.deeplearning4j.nn.conf.layers.DenseLayer;
+import org.deeplearning4j.nn.conf.layers.OutputLayer;
+import org.deeplearning4j.nn.graph.ComputationGraph;
+import org.deeplearning4j.nn.multilayer.MultiLayerNetwork;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.nd4j.linalg.activations.Activation;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.dataset.DataSet;
+import org.nd4j.linalg.dataset.api.preprocessor.NormalizerStandardize;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.learning.config.Adam;
+import org.nd4j.linalg.lossfunctions.LossFunctions;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Properties;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import static org.junit.Assert.*;
+
+public class MappedModelSerializerTest extends BaseDL4JTest {
+
+    @Rule
+    public TemporaryFolder tempDir = new TemporaryFolder();
+
+    private static MultiLayerNetwork getNetwork() {
+        MultiLayerConfiguration conf = new NeuralNetConfiguration.Builder().seed(12345).updater(new Adam(0.01))
+                        .activation(Activation.TANH).list()
+                        .layer(new DenseLayer.Builder().nIn(4).nOut(10).build())
+                        .layer(new OutputLayer.Builder().lossFunction(LossFunctions.LossFunction.MCXENT)
+                                        .activation(Activation.SOFTMAX).nIn(10).nOut(3).build())
+                        .build();
+        MultiLayerNetwork net = new MultiLayerNetwork(conf);
+        net.init();
+        return net;
+    }
+
+    @Test
+    public void testWriteMLNModel() throws Exception {
+        MultiLayerNetwork net = getNetwork();
+        net.fit(new IrisDataSetIterator(50, 150));
+
+        File f = tempDir.newFile();
+        MappedModelSerializer.writeModel(net, f, true);
+
+        MultiLayerNetwork restored = MappedModelSerializer.restoreMultiLayerNetwork(f, true);
+        assertEquals(net.getLayerWiseConfigurations(), restored.getLayerWiseConfigurations());
+        assertEquals(net.params(), restored.params());
+        assertEquals(net.getUpdater().getStateViewArray(), restored.getUpdater().getStateViewArray());
+
+        DataSet ds = new IrisDataSetIterator(150, 150).next();
+        assertEquals(net.output(ds.getFeatures()), restored.output(ds.getFeatures()));
+
+        //Restoring with the standard serializer is also supported
+        MultiLayerNetwork restored2 = ModelSerializer.restoreMultiLayerNetwork(f, false);
+        assertEquals(net.params(), restored2.params());
+
+        //Continued training gives the same result, and does not modify the file
+        byte[] before = FileUtils.readFileToByteArray(f);
+        net.fit(ds);
+        restored.fit(ds);
+        assertEquals(net.params(), restored.params());
+        assertArrayEquals(before, FileUtils.readFileToByteArray(f));
+    }
+
+    @Test
+    public void testWriteCGModel() throws Exception {
+        ComputationGraphConfiguration conf = new NeuralNetConfiguration.Builder().seed(12345).updater(new Adam(0.01))
+                        .activation(Activation.TANH).graphBuilder()
+                        .addInputs("in")
+                        .addLayer("dense", new DenseLayer.Builder().nIn(4).nOut(10).build(), "in")
+                        .addLayer("out", new OutputLayer.Builder().lossFunction(LossFunctions.LossFunction.MCXENT)
+                                        .activation(Activation.SOFTMAX).nIn(10).nOut(3).build(), "dense")
+                        .setOutputs("out")
+                        .build();
+        ComputationGraph net = new ComputationGraph(conf);
+        net.init();
+        net.fit(new IrisDataSetIterator(50, 150));
+
+        DataSet ds = new IrisDataSetIterator(150, 150).next();
+        NormalizerStandardize normalizer = new NormalizerStandardize();
+        normalizer.fit(ds);
+
+        File f = tempDir.newFile();
+        MappedModelSerializer.writeModel(net, f, true, normalizer);
+
+        ComputationGraph restored = ModelSerializer.restoreComputationGraph(f, true);
+        assertEquals(net.getConfiguration().toJson(), restored.getConfiguration().toJson());
+        assertEquals(net.params(), restored.params());
+        assertEquals(net.getUpdater().getStateViewArray(), restored.getUpdater().getStateViewArray());
+        assertEquals(net.outputSingle(ds.getFeatures()), restored.outputSingle(ds.getFeatures()));
+        assertEquals(normalizer, ModelSerializer.restoreNormalizerFromFile(f));
+
+        //Updater state is not required
+        ComputationGraph noUpdater = MappedModelSerializer.restoreComputationGraph(f, false);
+        assertEquals(net.params(), noUpdater.params());
+    }
+
+    @Test
+    public void testAlignment() throws Exception {
+        MultiLayerNetwork net = getNetwork();
+        File f = tempDir.newFile();
+        MappedModelSerializer.writeModel(net, f, true);
+
+        Properties p = new Properties();
+        try (ZipFile zipFile = new ZipFile(f)) {
+            p.load(zipFile.getInputStream(zipFile.getEntry(MappedModelSerializer.MAPPED_ARRAYS_PROPERTIES)));
+            for (String s : new String[] {MappedModelSerializer.COEFFICIENTS_RAW, MappedModelSerializer.UPDATER_RAW}) {
+                ZipEntry e = zipFile.getEntry(s);
+                assertEquals(ZipEntry.STORED, e.getMethod());
+                long length = Long.parseLong(p.getProperty(s + ".length"));
+                assertEquals(length * Nd4j.sizeOfDataType(), e.getSize());
+                assertEquals(0, Long.parseLong(p.getProperty(s + ".offset")) % MappedModelSerializer.ALIGNMENT);
+            }
+        }
+
+        //Raw bytes in the file are the parameters
+        long offset = Long.parseLong(p.getProperty(MappedModelSerializer.COEFFICIENTS_RAW + ".offset"));
+        byte[] bytes = FileUtils.readFileToByteArray(f);
+        INDArray params = net.params();
+        ByteBuffer bb = ByteBuffer.wrap(bytes, (int) offset, (int) (params.length() * Nd4j.sizeOfDataType()))
+                        .order(ByteOrder.nativeOrder());
+        for (int i = 0; i < params.length(); i++) {
+            double d = Nd4j.sizeOfDataType() == 8 ? bb.getDouble() : bb.getFloat();
+            assertEquals(params.getDouble(i), d, 0.0);
+        }
+    }
+
+    @Test
+    public void testReadOnlyFile() throws Exception {
+        MultiLayerNetwork net = getNetwork();
+        File f = tempDir.newFile();
+        MappedModelSerializer.writeModel(net, f, true);
+        assertTrue(f.setWritable(false));
+        try {
+            //Arrays are copied instead of mapped
+            MultiLayerNetwork restored = MappedModelSerializer.restoreMultiLayerNetwork(f, true);
+            assertEquals(net.params(), restored.params());
+            assertEquals(net.getUpdater().getStateViewArray(), restored.getUpdater().getStateViewArray());
+        } finally {
+            f.setWritable(true);
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testNotMappedModel() throws Exception {
+        File f = tempDir.newFile();
+        ModelSerializer.writeModel(getNetwork(), f, true);
+        assertFalse(MappedModelSerializer.isMappedModel(f));
+        MappedModelSerializer.restoreMultiLayerNetwork(f, true);
+    }
+}
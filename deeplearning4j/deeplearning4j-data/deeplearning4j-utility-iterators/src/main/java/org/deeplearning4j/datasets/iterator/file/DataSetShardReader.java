@@ -0,0 +1,156 @@
+package org.deeplearning4j.datasets.iterator.file;
+
+import lombok.NonNull;
+import org.nd4j.linalg.dataset.DataSet;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Reads DataSet shard files written by {@link DataSetShardWriter}. The checksum of each record is verified when
+ * it is read.
+ */
+public class DataSetShardReader {
+
+    private DataSetShardReader() {}
+
+    /**
+     * Index of a shard file
+     */
+    public static class Index {
+        private final ShardCompression compression;
+        private final long[] offsets;
+        private final int[] numExamples;
+
+        private Index(ShardCompression compression, long[] offsets, int[] numExamples) {
+            this.compression = compression;
+            this.offsets = offsets;
+            this.numExamples = numExamples;
+        }
+
+        public ShardCompression getCompression() {
+            return compression;
+        }
+
+        /**
+         * @return Number of DataSets (minibatches) in the shard
+         */
+        public int numRecords() {
+            return offsets.length;
+        }
+
+        /**
+         * @return Number of examples in the given record
+         */
+        public int numExamples(int record) {
+            return numExamples[record];
+        }
+
+        /**
+         * @return Total number of examples in the shard
+         */
+        public long totalExamples() {
+            long sum = 0;
+            for (int n : numExamples)
+                sum += n;
+            return sum;
+        }
+    }
+
+    /**
+     * Read the index of a shard file, without reading any records
+     */
+    public static Index readIndex(@NonNull File file) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            return readIndex(raf, file);
+        }
+    }
+
+    /**
+     * Read all DataSets in a shard file, in order
+     */
+    public static List<DataSet> read(@NonNull File file) throws IOException {
+        Index index;
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            index = readIndex(raf, file);
+        }
+
+        List<DataSet> ret = new ArrayList<>(index.numRecords());
+        try (DataInputStream dis = new DataInputStream(
+                        new BufferedInputStream(new FileInputStream(file), 1024 * 1024))) {
+            dis.skipBytes(DataSetShardWriter.HEADER_LENGTH);
+            for (int i = 0; i < index.numRecords(); i++) {
+                ret.add(readRecord(dis, index.compression, file, i));
+            }
+        }
+        return ret;
+    }
+
+    /**
+     * Read a single DataSet from a shard file
+     *
+     * @param file   Shard file
+     * @param record Index of the record (DataSet) to read
+     */
+    public static DataSet read(@NonNull File file, int record) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            Index index = readIndex(raf, file);
+            if (record < 0 || record >= index.numRecords())
+                throw new IllegalArgumentException("Invalid record index " + record + ": shard " + file + " has "
+                                + index.numRecords() + " records");
+            raf.seek(index.offsets[record]);
+            return readRecord(raf, index.compression, file, record);
+        }
+    }
+
+    private static Index readIndex(RandomAccessFile raf, File file) throws IOException {
+        if (raf.length() < DataSetShardWriter.HEADER_LENGTH + DataSetShardWriter.FOOTER_LENGTH)
+            throw new IOException("Invalid shard file (too short): " + file);
+        if (raf.readInt() != DataSetShardWriter.MAGIC)
+            throw new IOException("Invalid shard file (no shard header found): " + file);
+        int version = raf.readInt();
+        if (version != DataSetShardWriter.VERSION)
+            throw new IOException("Unsupported shard format version " + version + ": " + file);
+        int compression = raf.readByte();
+        if (compression < 0 || compression >= ShardCompression.values().length)
+            throw new IOException("Invalid shard file (unknown compression " + compression + "): " + file);
+
+        raf.seek(raf.length() - DataSetShardWriter.FOOTER_LENGTH);
+        long indexOffset = raf.readLong();
+        int numRecords = raf.readInt();
+        if (raf.readInt() != DataSetShardWriter.MAGIC)
+            throw new IOException("Invalid shard file (no index found - file may be incomplete): " + file);
+
+        raf.seek(indexOffset);
+        if (raf.readInt() != numRecords)
+            throw new IOException("Invalid shard file (corrupt index): " + file);
+        long[] offsets = new long[numRecords];
+        int[] numExamples = new int[numRecords];
+        for (int i = 0; i < numRecords; i++) {
+            offsets[i] = raf.readLong();
+            numExamples[i] = raf.readInt();
+        }
+        return new Index(ShardCompression.values()[compression], offsets, numExamples);
+    }
+
+    private static DataSet readRecord(DataInput in, ShardCompression compression, File file, int record)
+                    throws IOException {
+        int rawLength = in.readInt();
+        int storedLength = in.readInt();
+        int checksum = in.readInt();
+        byte[] stored = new byte[storedLength];
+        in.readFully(stored);
+
+        CRC32 crc = new CRC32();
+        crc.update(stored);
+        if ((int) crc.getValue() != checksum)
+            throw new IOException("Checksum mismatch for record " + record + " of shard " + file
+                            + ": file is corrupt");
+
+        DataSet ds = new DataSet();
+        ds.load(new ByteArrayInputStream(compression.decompress(stored, rawLength)));
+        return ds;
+    }
+}
@@ -0,0 +1,160 @@
+package org.deeplearning4j.datasets.iterator.file;
+
+import lombok.NonNull;
+import org.apache.commons.io.output.CountingOutputStream;
+import org.nd4j.linalg.dataset.DataSet;
+import org.nd4j.linalg.dataset.api.iterator.DataSetIterator;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Writes many {@link DataSet} objects (i.e., minibatches) to a single shard file, instead of one file per DataSet.
+ * Shards can be read with {@link DataSetShardReader} and iterated over with {@link ShardedDataSetIterator}.<br>
+ * <br>
+ * Shard format (all values big endian):<br>
+ * - Header: magic number (int), format version (int), compression ordinal (byte)<br>
+ * - Records: for each DataSet: uncompressed length (int), stored length (int), CRC32 of the stored bytes (int),
+ * stored bytes. The uncompressed bytes are the DataSet in the {@link DataSet#save(OutputStream)} format<br>
+ * - Index: number of records (int), then for each record: offset of the record in the file (long) and number of
+ * examples (int)<br>
+ * - Footer: offset of the index (long), number of records (int), magic number (int)<br>
+ * <br>
+ * Use {@link #export(DataSetIterator, File, String, int, ShardCompression)} to write all DataSets of an iterator to
+ * a set of shards.
+ */
+public class DataSetShardWriter implements Closeable {
+    public static final String FILE_EXTENSION = "dsshard";
+
+    protected static final int MAGIC = 0x44534844;
+    protected static final int VERSION = 1;
+    protected static final int HEADER_LENGTH = 9;
+    protected static final int FOOTER_LENGTH = 16;
+
+    private final CountingOutputStream counting;
+    private final DataOutputStream out;
+    private final ShardCompression compression;
+    private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+    private final List<Long> offsets = new ArrayList<>();
+    private final List<Integer> numExamples = new ArrayList<>();
+    private boolean closed;
+
+    /**
+     * @param file        File to write the shard to
+     * @param compression Compression to use for the records
+     */
+    public DataSetShardWriter(@NonNull File file, @NonNull ShardCompression compression) throws IOException {
+        this(new FileOutputStream(file), compression);
+    }
+
+    /**
+     * @param os          Output stream to write the shard to. Closed when this writer is closed
+     * @param compression Compression to use for the records
+     */
+    public DataSetShardWriter(@NonNull OutputStream os, @NonNull ShardCompression compression) throws IOException {
+        this.compression = compression;
+        this.counting = new CountingOutputStream(new BufferedOutputStream(os, 1024 * 1024));
+        this.out = new DataOutputStream(counting);
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeByte(compression.ordinal());
+    }
+
+    /**
+     * Append a DataSet to the shard
+     */
+    public void write(@NonNull DataSet dataSet) throws IOException {
+        if (closed)
+            throw new IllegalStateException("Cannot write DataSet: writer has been closed");
+
+        buffer.reset();
+        dataSet.save(buffer);
+        byte[] raw = buffer.toByteArray();
+        byte[] stored = compression.compress(raw);
+        CRC32 crc = new CRC32();
+        crc.update(stored);
+
+        offsets.add(counting.getByteCount());
+        numExamples.add(dataSet.numExamples());
+        out.writeInt(raw.length);
+        out.writeInt(stored.length);
+        out.writeInt((int) crc.getValue());
+        out.write(stored);
+    }
+
+    /**
+     * @return Number of DataSets written so far
+     */
+    public int numRecords() {
+        return offsets.size();
+    }
+
+    /**
+     * @return Number of bytes written so far (excluding the index)
+     */
+    public long bytesWritten() {
+        return counting.getByteCount();
+    }
+
+    /**
+     * Write the index and close the underlying stream
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed)
+            return;
+        closed = true;
+
+        long indexOffset = counting.getByteCount();
+        out.writeInt(offsets.size());
+        for (int i = 0; i < offsets.size(); i++) {
+            out.writeLong(offsets.get(i));
+            out.writeInt(numExamples.get(i));
+        }
+        out.writeLong(indexOffset);
+        out.writeInt(offsets.size());
+        out.writeInt(MAGIC);
+        out.close();
+    }
+
+    /**
+     * Write all DataSets from the iterator to shard files in the given directory. A new shard is started once the
+     * current shard has the specified number of records. Shard files are named {@code prefix_<index>.dsshard}
+     *
+     * @param iterator          Iterator to export
+     * @param outputDir         Directory to write the shard files to
+     * @param prefix            Prefix for the shard file names
+     * @param recordsPerShard   Maximum number of DataSets (minibatches) per shard
+     * @param compression       Compression to use for the records
+     * @return The shard files that have been written
+     */
+    public static List<File> export(@NonNull DataSetIterator iterator, @NonNull File outputDir, @NonNull String prefix,
+                    int recordsPerShard, @NonNull ShardCompression compression) throws IOException {
+        if (recordsPerShard <= 0)
+            throw new IllegalArgumentException("Records per shard must be > 0, got " + recordsPerShard);
+        if (!outputDir.exists() && !outputDir.mkdirs())
+            throw new IOException("Could not create output directory: " + outputDir);
+
+        List<File> shards = new ArrayList<>();
+        DataSetShardWriter writer = null;
+        try {
+            while (iterator.hasNext()) {
+                DataSet ds = iterator.next();
+                if (writer == null || writer.numRecords() >= recordsPerShard) {
+                    if (writer != null)
+                        writer.close();
+                    File f = new File(outputDir, prefix + "_" + shards.size() + "." + FILE_EXTENSION);
+                    shards.add(f);
+                    writer = new DataSetShardWriter(f, compression);
+                }
+                writer.write(ds);
+            }
+        } finally {
+            if (writer != null)
+                writer.close();
+        }
+        return shards;
+    }
+}
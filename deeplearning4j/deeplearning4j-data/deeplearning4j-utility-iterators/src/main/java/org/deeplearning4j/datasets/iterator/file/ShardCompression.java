@@ -0,0 +1,81 @@
+package org.deeplearning4j.datasets.iterator.file;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Compression of the records of a DataSet shard file, as written by {@link DataSetShardWriter}.
+ * Each record (one serialized DataSet) is compressed independently, hence records can be decoded in parallel and
+ * read individually.<br>
+ * - NONE: no compression<br>
+ * - DEFLATE: deflate compression, using the fastest compression level
+ */
+public enum ShardCompression {
+    NONE, DEFLATE;
+
+    /**
+     * Compress a serialized record
+     */
+    public byte[] compress(byte[] data) {
+        switch (this) {
+            case NONE:
+                return data;
+            case DEFLATE:
+                Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+                try {
+                    deflater.setInput(data);
+                    deflater.finish();
+                    ByteArrayOutputStream baos = new ByteArrayOutputStream(Math.max(64, data.length / 2));
+                    byte[] buffer = new byte[64 * 1024];
+                    while (!deflater.finished()) {
+                        int n = deflater.deflate(buffer);
+                        baos.write(buffer, 0, n);
+                    }
+                    return baos.toByteArray();
+                } finally {
+                    deflater.end();
+                }
+            default:
+                throw new IllegalStateException("Unknown compression: " + this);
+        }
+    }
+
+    /**
+     * Decompress a record
+     *
+     * @param data               compressed data
+     * @param uncompressedLength length of the uncompressed record
+     */
+    public byte[] decompress(byte[] data, int uncompressedLength) throws IOException {
+        switch (this) {
+            case NONE:
+                return data;
+            case DEFLATE:
+                Inflater inflater = new Inflater();
+                try {
+                    inflater.setInput(data);
+                    byte[] out = new byte[uncompressedLength];
+                    int n = 0;
+                    while (n < uncompressedLength && !inflater.finished()) {
+                        int read = inflater.inflate(out, n, uncompressedLength - n);
+                        if (read == 0 && (inflater.needsInput() || inflater.needsDictionary()))
+                            break;
+                        n += read;
+                    }
+                    if (n != uncompressedLength)
+                        throw new IOException("Invalid compressed record: expected " + uncompressedLength
+                                        + " bytes, got " + n);
+                    return out;
+                } catch (DataFormatException e) {
+                    throw new IOException("Invalid compressed record", e);
+                } finally {
+                    inflater.end();
+                }
+            default:
+                throw new IllegalStateException("Unknown compression: " + this);
+        }
+    }
+}
@@ -0,0 +1,340 @@
+package org.deeplearning4j.datasets.iterator.file;
+
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.Setter;
+import org.apache.commons.io.FileUtils;
+import org.nd4j.linalg.dataset.DataSet;
+import org.nd4j.linalg.dataset.api.DataSetPreProcessor;
+import org.nd4j.linalg.dataset.api.iterator.DataSetIterator;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Iterate over the DataSets stored in shard files written by {@link DataSetShardWriter}.<br>
+ * Shards are read and decoded asynchronously by a set of background threads, so that up to {@code prefetchShards}
+ * shards are available before they are needed. The following (optional) features are supported:<br>
+ * - Randomization of shard order (if a {@link Random} instance is provided)<br>
+ * - A shuffle buffer: DataSets from multiple shards are held in a buffer, and returned in random order. This allows
+ * DataSets to be shuffled across shard boundaries, without loading all shards at once. Only used if a {@link Random}
+ * instance is provided<br>
+ * <br>
+ * Use {@link Builder} to create instances. Call {@link #shutdown()} once the iterator is no longer required, to stop
+ * the background threads.
+ */
+public class ShardedDataSetIterator implements DataSetIterator {
+
+    private final List<File> shards;
+    private final Random rng;
+    private final int shuffleBufferSize;
+    private final int prefetchShards;
+    private final int numThreads;
+
+    @Getter
+    @Setter
+    private DataSetPreProcessor preProcessor;
+    @Getter
+    @Setter
+    private List<String> labels;
+
+    private transient ExecutorService executor;
+    private final Deque<Future<List<DataSet>>> pending = new ArrayDeque<>();
+    private final List<DataSet> buffer = new ArrayList<>();
+    private List<File> order;
+    private int nextShard;
+    private int cursor;
+    private long totalExamples = -1;
+
+    protected ShardedDataSetIterator(Builder builder) {
+        this.shards = new ArrayList<>(builder.shards);
+        this.rng = builder.rng;
+        this.shuffleBufferSize = builder.shuffleBufferSize;
+        this.prefetchShards = builder.prefetchShards;
+        this.numThreads = builder.numThreads;
+        this.preProcessor = builder.preProcessor;
+        this.labels = builder.labels;
+        reset();
+    }
+
+    /**
+     * @return The shard files this iterator reads from
+     */
+    public List<File> getShards() {
+        return Collections.unmodifiableList(shards);
+    }
+
+    @Override
+    public boolean hasNext() {
+        fill();
+        return !buffer.isEmpty();
+    }
+
+    @Override
+    public DataSet next() {
+        if (!hasNext())
+            throw new NoSuchElementException("No next element");
+
+        DataSet ds;
+        if (rng != null && shuffleBufferSize > 0) {
+            //Swap-remove: O(1), order is random anyway
+            int idx = rng.nextInt(buffer.size());
+            int last = buffer.size() - 1;
+            ds = buffer.get(idx);
+            buffer.set(idx, buffer.get(last));
+            buffer.remove(last);
+        } else {
+            ds = buffer.remove(0);
+        }
+
+        cursor += ds.numExamples();
+        if (preProcessor != null)
+            preProcessor.preProcess(ds);
+        return ds;
+    }
+
+    /**
+     * Submit shards for loading until {@code prefetchShards} shards are pending, and move loaded shards into the
+     * buffer until the buffer holds enough DataSets (1, or the shuffle buffer size when shuffling)
+     */
+    private void fill() {
+        int target = (rng != null && shuffleBufferSize > 0) ? shuffleBufferSize : 1;
+        submit();
+        while (buffer.size() < target && !pending.isEmpty()) {
+            Future<List<DataSet>> f = pending.pollFirst();
+            try {
+                buffer.addAll(f.get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Interrupted while waiting for shard to be loaded", e);
+            } catch (ExecutionException e) {
+                throw new RuntimeException("Error loading shard", e.getCause());
+            }
+            submit();
+        }
+    }
+
+    private void submit() {
+        while (pending.size() < prefetchShards && nextShard < order.size()) {
+            final File f = order.get(nextShard++);
+            pending.addLast(executor().submit(new Callable<List<DataSet>>() {
+                @Override
+                public List<DataSet> call() throws Exception {
+                    try {
+                        return DataSetShardReader.read(f);
+                    } catch (IOException e) {
+                        throw new IOException("Error reading shard " + f, e);
+                    }
+                }
+            }));
+        }
+    }
+
+    private synchronized ExecutorService executor() {
+        if (executor == null) {
+            executor = Executors.newFixedThreadPool(numThreads, new ThreadFactory() {
+                private int count;
+
+                @Override
+                public Thread newThread(Runnable r) {
+                    Thread t = new Thread(r, "ShardedDataSetIterator-" + (count++));
+                    t.setDaemon(true);
+                    return t;
+                }
+            });
+        }
+        return executor;
+    }
+
+    /**
+     * Stop the background loading threads. The iterator can still be used after calling this method: threads will
+     * be restarted when required
+     */
+    public synchronized void shutdown() {
+        clearPending();
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    private void clearPending() {
+        for (Future<List<DataSet>> f : pending) {
+            f.cancel(true);
+        }
+        pending.clear();
+    }
+
+    @Override
+    public boolean resetSupported() {
+        return true;
+    }
+
+    @Override
+    public boolean asyncSupported() {
+        //Loading is already asynchronous
+        return false;
+    }
+
+    @Override
+    public void reset() {
+        clearPending();
+        buffer.clear();
+        order = new ArrayList<>(shards);
+        if (rng != null)
+            Collections.shuffle(order, rng);
+        nextShard = 0;
+        cursor = 0;
+    }
+
+    @Override
+    public DataSet next(int num) {
+        throw new UnsupportedOperationException("Not supported for this iterator");
+    }
+
+    @Override
+    public int totalExamples() {
+        return numExamples();
+    }
+
+    @Override
+    public int inputColumns() {
+        throw new UnsupportedOperationException("Not supported for this iterator");
+    }
+
+    @Override
+    public int totalOutcomes() {
+        throw new UnsupportedOperationException("Not supported for this iterator");
+    }
+
+    @Override
+    public int batch() {
+        throw new UnsupportedOperationException("Not supported for this iterator");
+    }
+
+    @Override
+    public int cursor() {
+        return cursor;
+    }
+
+    /**
+     * @return Total number of examples in all shards, as given by the shard indexes
+     */
+    @Override
+    public int numExamples() {
+        if (totalExamples < 0) {
+            long sum = 0;
+            for (File f : shards) {
+                try {
+                    sum += DataSetShardReader.readIndex(f).totalExamples();
+                } catch (IOException e) {
+                    throw new RuntimeException("Error reading index of shard " + f, e);
+                }
+            }
+            totalExamples = sum;
+        }
+        return (int) totalExamples;
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException("Not supported");
+    }
+
+    public static class Builder {
+        private List<File> shards = new ArrayList<>();
+        private Random rng;
+        private int shuffleBufferSize = 0;
+        private int prefetchShards = 2;
+        private int numThreads = 1;
+        private DataSetPreProcessor preProcessor;
+        private List<String> labels;
+
+        /**
+         * Add shard files to iterate over
+         */
+        public Builder shards(@NonNull File... shards) {
+            return shards(Arrays.asList(shards));
+        }
+
+        /**
+         * Add shard files to iterate over
+         */
+        public Builder shards(@NonNull Collection<File> shards) {
+            this.shards.addAll(shards);
+            return this;
+        }
+
+        /**
+         * Add all shard files (files with extension {@link DataSetShardWriter#FILE_EXTENSION}) in the specified
+         * directory and its subdirectories
+         */
+        public Builder rootDir(@NonNull File rootDir) {
+            if (!rootDir.isDirectory())
+                throw new IllegalArgumentException("Not a directory: " + rootDir);
+            List<File> files = new ArrayList<>(FileUtils.listFiles(rootDir,
+                            new String[] {DataSetShardWriter.FILE_EXTENSION}, true));
+            Collections.sort(files);
+            this.shards.addAll(files);
+            return this;
+        }
+
+        /**
+         * If set: randomize the order of shards on each reset, and (if {@link #shuffleBufferSize(int)} is set)
+         * randomize the order of DataSets within and across shards
+         */
+        public Builder rng(Random rng) {
+            this.rng = rng;
+            return this;
+        }
+
+        /**
+         * Number of DataSets to hold in memory for shuffling. Larger values give more randomization across shards, at
+         * the cost of memory. Only used if an RNG is set. Default: 0 (only shard order is randomized)
+         */
+        public Builder shuffleBufferSize(int shuffleBufferSize) {
+            if (shuffleBufferSize < 0)
+                throw new IllegalArgumentException("Shuffle buffer size must be >= 0, got " + shuffleBufferSize);
+            this.shuffleBufferSize = shuffleBufferSize;
+            return this;
+        }
+
+        /**
+         * Maximum number of shards to load ahead of time. Default: 2
+         */
+        public Builder prefetchShards(int prefetchShards) {
+            if (prefetchShards <= 0)
+                throw new IllegalArgumentException("Number of prefetch shards must be > 0, got " + prefetchShards);
+            this.prefetchShards = prefetchShards;
+            return this;
+        }
+
+        /**
+         * Number of threads to use to read and decode shards. Default: 1
+         */
+        public Builder numThreads(int numThreads) {
+            if (numThreads <= 0)
+                throw new IllegalArgumentException("Number of threads must be > 0, got " + numThreads);
+            this.numThreads = numThreads;
+            return this;
+        }
+
+        public Builder preProcessor(DataSetPreProcessor preProcessor) {
+            this.preProcessor = preProcessor;
+            return this;
+        }
+
+        public Builder labels(List<String> labels) {
+            this.labels = labels;
+            return this;
+        }
+
+        public ShardedDataSetIterator build() {
+            if (shards.isEmpty())
+                throw new IllegalStateException("No shard files were provided");
+            return new ShardedDataSetIterator(this);
+        }
+    }
+}
@@ -90,6 +90,10 @@ public class ComputationGraphConfiguration implements Serializable, Cloneable {
     protected BackpropType backpropType = BackpropType.Standard;
     protected int tbpttFwdLength = 20;
     protected int tbpttBackLength = 20;
+    /**
+     * Loss scaling for reduced precision training. May be null (no loss scaling)
+     */
+    protected LossScaler lossScaler;
 
     protected NeuralNetConfiguration defaultConfiguration;
 
@@ -256,6 +260,7 @@ public class ComputationGraphConfiguration implements Serializable, Cloneable {
         conf.backpropType = backpropType;
         conf.tbpttFwdLength = tbpttFwdLength;
         conf.tbpttBackLength = tbpttBackLength;
+        conf.lossScaler = (lossScaler == null ? null : lossScaler.clone());
         conf.defaultConfiguration = defaultConfiguration.clone();
         conf.trainingWorkspaceMode = trainingWorkspaceMode;
         conf.inferenceWorkspaceMode = inferenceWorkspaceMode;
@@ -601,6 +606,7 @@ public class ComputationGraphConfiguration implements Serializable, Cloneable {
         protected BackpropType backpropType = BackpropType.Standard;
         protected int tbpttFwdLength = DEFAULT_TBPTT_LENGTH;
         protected int tbpttBackLength = DEFAULT_TBPTT_LENGTH;
+        protected LossScaler lossScaler;
 
         protected Map<String, InputPreProcessor> inputPreProcessors = new LinkedHashMap<>();
 
@@ -628,6 +634,7 @@ public class ComputationGraphConfiguration implements Serializable, Cloneable {
             this.backpropType = clonedConf.getBackpropType();
             this.tbpttFwdLength = clonedConf.getTbpttFwdLength();
             this.tbpttBackLength = clonedConf.getTbpttBackLength();
+            this.lossScaler = clonedConf.getLossScaler();
             this.globalConfiguration = globalConfiguration;
             //this.getGlobalConfiguration().setSeed(clonedConf.getDefaultConfiguration().getSeed());
         }
@@ -719,6 +726,18 @@ public class ComputationGraphConfiguration implements Serializable, Cloneable {
             return tBPTTBackwardLength(tbpttLength);
         }
 
+        /**
+         * Enable loss scaling, for training with reduced precision data types (i.e., HALF). The loss gradient is
+         * multiplied by the current scale before backprop, and gradients are divided by it before the updater is applied.
+         * Updates with NaN or infinite gradients are skipped. See {@link LossScaler} for details.
+         *
+         * @param lossScaler Loss scaler to use. May be null (no loss scaling - default)
+         */
+        public GraphBuilder lossScaler(LossScaler lossScaler) {
+            this.lossScaler = lossScaler;
+            return this;
+        }
+
         /**
          * Add a layer, with no {@link InputPreProcessor}, with the specified name and specified inputs.
          *
@@ -983,6 +1002,7 @@ public class ComputationGraphConfiguration implements Serializable, Cloneable {
             conf.backpropType = backpropType;
             conf.tbpttBackLength = tbpttBackLength;
             conf.tbpttFwdLength = tbpttFwdLength;
+            conf.lossScaler = lossScaler;
 
             conf.networkInputs = networkInputs;
             conf.networkOutputs = networkOutputs;
@@ -0,0 +1,93 @@
+package org.deeplearning4j.nn.conf;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * Dynamic loss scaling, for training with reduced precision (i.e., {@code DataBuffer.Type.HALF}) data types.<br>
+ * Small activation gradients underflow to zero in half precision. To avoid this, the gradient of the loss is multiplied
+ * by a scale factor before backprop, and all gradients are divided by the same factor before the updater is applied.
+ * If any of the gradients is NaN or infinite after unscaling, the scale was too large: the parameter update is skipped
+ * and the scale is reduced by the backoff factor. After a number of consecutive steps without overflow, the scale is
+ * increased by the growth factor.<br>
+ * A static loss scale can be configured with growth interval of {@link Integer#MAX_VALUE} and backoff factor of 1.0<br>
+ * Current scale is part of the configuration (much like the iteration count), hence is persisted with the model.
+ */
+@Data
+@NoArgsConstructor
+public class LossScaler implements Serializable, Cloneable {
+    public static final double DEFAULT_INITIAL_SCALE = 65536.0;
+    public static final double DEFAULT_GROWTH_FACTOR = 2.0;
+    public static final double DEFAULT_BACKOFF_FACTOR = 0.5;
+    public static final int DEFAULT_GROWTH_INTERVAL = 2000;
+
+    private double initialScale = DEFAULT_INITIAL_SCALE;
+    private double growthFactor = DEFAULT_GROWTH_FACTOR;
+    private double backoffFactor = DEFAULT_BACKOFF_FACTOR;
+    private int growthInterval = DEFAULT_GROWTH_INTERVAL;
+    private double minScale = 1.0;
+
+    //Current state
+    private double scale = DEFAULT_INITIAL_SCALE;
+    private int stepsSinceOverflow = 0;
+    private long skippedSteps = 0;
+
+    /**
+     * @param initialScale   Loss scale used for the first iteration
+     * @param growthFactor   Scale is multiplied by this factor after growthInterval steps without overflow. Must be >= 1.0
+     * @param backoffFactor  Scale is multiplied by this factor on overflow. Must be in range (0, 1]
+     * @param growthInterval Number of consecutive steps without overflow, before scale is increased
+     */
+    public LossScaler(double initialScale, double growthFactor, double backoffFactor, int growthInterval) {
+        if (initialScale <= 0.0)
+            throw new IllegalArgumentException("Initial loss scale must be > 0, got " + initialScale);
+        if (growthFactor < 1.0)
+            throw new IllegalArgumentException("Growth factor must be >= 1.0, got " + growthFactor);
+        if (backoffFactor <= 0.0 || backoffFactor > 1.0)
+            throw new IllegalArgumentException("Backoff factor must be in range (0, 1], got " + backoffFactor);
+        if (growthInterval <= 0)
+            throw new IllegalArgumentException("Growth interval must be > 0, got " + growthInterval);
+
+        this.initialScale = initialScale;
+        this.growthFactor = growthFactor;
+        this.backoffFactor = backoffFactor;
+        this.growthInterval = growthInterval;
+        this.scale = initialScale;
+    }
+
+    /**
+     * This method updates loss scale after gradients of one step were checked
+     *
+     * @param overflow true if gradients contained NaN or infinite values, and the update was skipped
+     */
+    public void update(boolean overflow) {
+        if (overflow) {
+            scale = Math.max(minScale, scale * backoffFactor);
+            stepsSinceOverflow = 0;
+            skippedSteps++;
+        } else if (++stepsSinceOverflow >= growthInterval) {
+            scale *= growthFactor;
+            stepsSinceOverflow = 0;
+        }
+    }
+
+    /**
+     * This method resets loss scale to its initial value
+     */
+    public void reset() {
+        scale = initialScale;
+        stepsSinceOverflow = 0;
+        skippedSteps = 0;
+    }
+
+    @Override
+    public LossScaler clone() {
+        try {
+            return (LossScaler) super.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
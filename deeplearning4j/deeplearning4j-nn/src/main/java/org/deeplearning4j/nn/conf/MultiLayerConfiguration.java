@@ -62,6 +62,21 @@ public class MultiLayerConfiguration implements Serializable, Cloneable {
     protected BackpropType backpropType = BackpropType.Standard;
     protected int tbpttFwdLength = 20;
     protected int tbpttBackLength = 20;
+    /**
+     * Gradient checkpointing interval: if > 0, only every k-th layer activation is kept during the training forward
+     * pass, and remaining activations are recomputed segment by segment during the backward pass. 0 disables it.
+     */
+    protected int checkpointInterval = 0;
+    /**
+     * Gradient checkpointing layers: if not null, the output of these layers (indices, sorted) is kept during the
+     * training forward pass, and remaining activations are recomputed segment by segment during the backward pass.
+     * Alternative to checkpointInterval for segments of different sizes
+     */
+    protected int[] checkpointLayers;
+    /**
+     * Loss scaling for reduced precision training. May be null (no loss scaling)
+     */
+    protected LossScaler lossScaler;
 
     @Getter
     @Setter
@@ -317,6 +332,12 @@ public class MultiLayerConfiguration implements Serializable, Cloneable {
             clone.inferenceWorkspaceMode = this.inferenceWorkspaceMode;
             clone.trainingWorkspaceMode = this.trainingWorkspaceMode;
             clone.cacheMode = this.cacheMode;
+            if (this.checkpointLayers != null) {
+                clone.checkpointLayers = this.checkpointLayers.clone();
+            }
+            if (this.lossScaler != null) {
+                clone.lossScaler = this.lossScaler.clone();
+            }
 
             return clone;
 
@@ -396,6 +417,9 @@ public class MultiLayerConfiguration implements Serializable, Cloneable {
         protected BackpropType backpropType = BackpropType.Standard;
         protected int tbpttFwdLength = DEFAULT_TBPTT_LENGTH;
         protected int tbpttBackLength = DEFAULT_TBPTT_LENGTH;
+        protected int checkpointInterval = 0;
+        protected int[] checkpointLayers;
+        protected LossScaler lossScaler;
         protected InputType inputType;
 
         protected WorkspaceMode trainingWorkspaceMode = WorkspaceMode.ENABLED;
@@ -506,6 +530,68 @@ public class MultiLayerConfiguration implements Serializable, Cloneable {
             return this;
         }
 
+        /**
+         * Enable gradient checkpointing (activation recomputation) for standard backprop: layers are split into
+         * segments of {@code interval} layers, and only the input of each segment is kept in memory during the
+         * forward pass. Activations inside a segment are recomputed from that input when the backward pass reaches
+         * the segment, trading one extra forward pass for lower activation memory.<br>
+         * Layers in recomputed segments can't use dropout or weight noise, as recomputation would sample a different
+         * mask. The segment containing the last layers is never recomputed. Not used with truncated BPTT.<br>
+         * Limitations:
+         * {@link org.deeplearning4j.optimize.api.TrainingListener#onForwardPass(org.deeplearning4j.nn.api.Model, java.util.List)}
+         * is not called when checkpointing is used. Only MultiLayerNetwork is supported: ComputationGraph has no
+         * equivalent option yet, and {@link org.deeplearning4j.nn.multilayer.MultiLayerNetwork#toComputationGraph()}
+         * fails for networks with checkpointing enabled.<br>
+         * For segments of different sizes, use {@link #checkpointLayers(int...)} instead.
+         *
+         * @param interval Number of layers per segment. 0 (default) disables checkpointing
+         */
+        public Builder checkpointInterval(int interval) {
+            if (interval < 0)
+                throw new IllegalArgumentException("Checkpoint interval must be >= 0, got " + interval);
+            this.checkpointInterval = interval;
+            return this;
+        }
+
+        /**
+         * Enable gradient checkpointing with segments set per layer: same as {@link #checkpointInterval(int)}, but
+         * each of the specified layers ends a segment, and keeps its output in memory during the forward pass. Layers
+         * after the last of these are never recomputed. Can't be combined with a checkpoint interval.<br>
+         * For example, checkpoint layers 3 and 5 split layers 0 to 5 into the recomputed segments 0-3 and 4-5.
+         *
+         * @param layerIndices Indices of the layers ending a segment. No layers (default) disables checkpointing
+         */
+        public Builder checkpointLayers(int... layerIndices) {
+            if (layerIndices == null || layerIndices.length == 0) {
+                this.checkpointLayers = null;
+                return this;
+            }
+            TreeSet<Integer> sorted = new TreeSet<>();
+            for (int i : layerIndices) {
+                if (i < 0)
+                    throw new IllegalArgumentException("Checkpoint layer indices must be >= 0, got " + i);
+                sorted.add(i);
+            }
+            this.checkpointLayers = new int[sorted.size()];
+            int j = 0;
+            for (int i : sorted) {
+                this.checkpointLayers[j++] = i;
+            }
+            return this;
+        }
+
+        /**
+         * Enable loss scaling, for training with reduced precision data types (i.e., HALF). The loss gradient is
+         * multiplied by the current scale before backprop, and gradients are divided by it before the updater is applied.
+         * Updates with NaN or infinite gradients are skipped. See {@link LossScaler} for details.
+         *
+         * @param lossScaler Loss scaler to use. May be null (no loss scaling - default)
+         */
+        public Builder lossScaler(LossScaler lossScaler) {
+            this.lossScaler = lossScaler;
+            return this;
+        }
+
         /**
          * Whether to do pre train or not
          * @param pretrain whether to do pre train or not
@@ -534,6 +620,20 @@ public class MultiLayerConfiguration implements Serializable, Cloneable {
                         " settings will only take effect if backprop type is set to BackpropType.TruncatedBPTT");
             }
 
+            if(checkpointInterval > 0 && checkpointLayers != null){
+                throw new IllegalStateException("Gradient checkpointing has been configured with both interval "
+                        + checkpointInterval + " and checkpoint layers " + Arrays.toString(checkpointLayers)
+                        + ". Only one of these can be set");
+            }
+            if(checkpointLayers != null && checkpointLayers[checkpointLayers.length - 1] >= confs.size()){
+                throw new IllegalStateException("Invalid gradient checkpoint layer index "
+                        + checkpointLayers[checkpointLayers.length - 1] + ": network has " + confs.size() + " layers");
+            }
+            if((checkpointInterval > 0 || checkpointLayers != null) && backpropType == BackpropType.TruncatedBPTT){
+                log.warn("Gradient checkpointing has been configured but backprop type is set to " + backpropType
+                        + ". Checkpointing is only used for BackpropType.Standard");
+            }
+
 
             if (inputType == null && inputPreProcessors.get(0) == null) {
                 //User hasn't set the InputType. Sometimes we can infer it...
@@ -604,6 +704,9 @@ public class MultiLayerConfiguration implements Serializable, Cloneable {
             conf.backpropType = backpropType;
             conf.tbpttFwdLength = tbpttFwdLength;
             conf.tbpttBackLength = tbpttBackLength;
+            conf.checkpointInterval = checkpointInterval;
+            conf.checkpointLayers = checkpointLayers;
+            conf.lossScaler = lossScaler;
             conf.trainingWorkspaceMode = trainingWorkspaceMode;
             conf.inferenceWorkspaceMode = inferenceWorkspaceMode;
             conf.cacheMode = cacheMode;
@@ -296,7 +296,9 @@ public class NeuralNetConfiguration implements Serializable, Cloneable {
 
             return new MultiLayerConfiguration.Builder().backprop(backprop).inputPreProcessors(inputPreProcessors)
                             .pretrain(pretrain).backpropType(backpropType).tBPTTForwardLength(tbpttFwdLength)
-                            .tBPTTBackwardLength(tbpttBackLength).setInputType(this.inputType)
+                            .tBPTTBackwardLength(tbpttBackLength).checkpointInterval(checkpointInterval)
+                            .checkpointLayers(checkpointLayers)
+                            .lossScaler(lossScaler).setInputType(this.inputType)
                             .trainingWorkspaceMode(wsmTrain).cacheMode(globalConfig.cacheMode)
                             .inferenceWorkspaceMode(wsmTest).confs(list).build();
         }
@@ -0,0 +1,78 @@
+package org.deeplearning4j.nn.conf.preprocessor;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import org.deeplearning4j.nn.conf.inputs.InputType;
+import org.deeplearning4j.nn.workspace.ArrayType;
+import org.deeplearning4j.nn.workspace.LayerWorkspaceMgr;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.ops.transforms.Transforms;
+import org.nd4j.shade.jackson.annotation.JsonCreator;
+import org.nd4j.shade.jackson.annotation.JsonProperty;
+
+/**
+ * Symmetric linear quantization of layer inputs: each value is mapped to the nearest integer multiple of the scale,
+ * in range [-maxValue, maxValue] (i.e., [-127, 127] for int8), and then mapped back to floating point.<br>
+ * Output is exactly the input that an integer kernel would see, so layers using weights quantized the same way
+ * produce the same result as integer execution followed by dequantization. This is for accuracy simulation only:
+ * the following layer still runs in floating point, and this preprocessor adds to the inference cost.
+ * Backprop is a pass-through (straight-through estimator).
+ *
+ * @see org.deeplearning4j.nn.inference.QuantizationSimulator
+ */
+@Data
+@EqualsAndHashCode(callSuper = false)
+public class QuantizeDequantizePreProcessor extends BaseInputPreProcessor {
+    public static final int INT8_MAX_VALUE = 127;
+
+    private final double scale;
+    private final int maxValue;
+
+    /**
+     * @param scale Quantization step: value of one integer unit
+     */
+    public QuantizeDequantizePreProcessor(double scale) {
+        this(scale, INT8_MAX_VALUE);
+    }
+
+    /**
+     * @param scale    Quantization step: value of one integer unit
+     * @param maxValue Max absolute integer value. 127 for int8
+     */
+    @JsonCreator
+    public QuantizeDequantizePreProcessor(@JsonProperty("scale") double scale, @JsonProperty("maxValue") int maxValue) {
+        if (scale <= 0.0)
+            throw new IllegalArgumentException("Quantization scale must be > 0, got " + scale);
+        if (maxValue <= 0)
+            throw new IllegalArgumentException("Max quantized value must be > 0, got " + maxValue);
+        this.scale = scale;
+        this.maxValue = maxValue;
+    }
+
+    @Override
+    public INDArray preProcess(INDArray input, int miniBatchSize, LayerWorkspaceMgr workspaceMgr) {
+        INDArray ret = workspaceMgr.dup(ArrayType.ACTIVATIONS, input);
+        ret.divi(scale);
+        Transforms.round(ret, false);
+        Transforms.min(ret, maxValue, false);
+        Transforms.max(ret, -maxValue, false);
+        return ret.muli(scale);
+    }
+
+    @Override
+    public INDArray backprop(INDArray output, int miniBatchSize, LayerWorkspaceMgr workspaceMgr) {
+        if (output == null)
+            return null;
+        return workspaceMgr.leverageTo(ArrayType.ACTIVATION_GRAD, output);
+    }
+
+    @Override
+    public QuantizeDequantizePreProcessor clone() {
+        return (QuantizeDequantizePreProcessor) super.clone();
+    }
+
+    @Override
+    public InputType getOutputType(InputType inputType) {
+        return inputType;
+    }
+}
@@ -49,10 +49,12 @@ import org.deeplearning4j.nn.workspace.ArrayType;
 import org.deeplearning4j.nn.workspace.LayerWorkspaceMgr;
 import org.deeplearning4j.optimize.Solver;
 import org.deeplearning4j.optimize.api.ConvexOptimizer;
+import org.deeplearning4j.optimize.api.TimingTrainingListener;
 import org.deeplearning4j.optimize.api.TrainingListener;
 import org.deeplearning4j.optimize.solvers.accumulation.GradientsAccumulator;
 import org.deeplearning4j.util.ModelSerializer;
 import org.deeplearning4j.util.NetworkUtils;
+import org.deeplearning4j.util.TimingListenerUtils;
 import org.nd4j.base.Preconditions;
 import org.nd4j.linalg.api.memory.MemoryWorkspace;
 import org.nd4j.linalg.api.memory.conf.WorkspaceConfiguration;
@@ -1084,8 +1086,14 @@ public class ComputationGraph implements Serializable, Model, NeuralNetwork {
         } else
             multiDataSetIterator = multi;
 
+        List<TimingTrainingListener> timingListeners = TimingListenerUtils.timingListeners(trainingListeners);
         while(multiDataSetIterator.hasNext()){
+            long start = (timingListeners == null ? 0 : System.nanoTime());
             MultiDataSet mds = multiDataSetIterator.next();
+            if (timingListeners != null) {
+                TimingListenerUtils.notify(timingListeners, this, TimingTrainingListener.Phase.DATA_LOADING,
+                        multiDataSetIterator.getClass().getSimpleName(), start, 0);
+            }
             fit(mds.getFeatures(),mds.getLabels(), mds.getFeaturesMaskArrays(), mds.getLabelsMaskArrays());
         }
 
@@ -1375,7 +1383,8 @@ public class ComputationGraph implements Serializable, Model, NeuralNetwork {
                     }
                 }
             }
-            calcBackpropGradients(false,false);
+            LossScaler lossScaler = configuration.getLossScaler();
+            calcBackpropGradients(false, false, lossScaler == null ? 1.0 : lossScaler.getScale());
 
             workspaceMgr.assertCurrentWorkspace(ArrayType.ACTIVATIONS, null);
 
@@ -1984,6 +1993,7 @@ public class ComputationGraph implements Serializable, Model, NeuralNetwork {
         } else {
             stopIndex = topologicalOrder.length -1;
         }
+        List<TimingTrainingListener> timingListeners = (train ? TimingListenerUtils.timingListeners(trainingListeners) : null);
         for (int i = 0; i <= stopIndex; i++) {
             GraphVertex current = vertices[topologicalOrder[i]];
             String vName = current.getVertexName();
@@ -2000,6 +2010,7 @@ public class ComputationGraph implements Serializable, Model, NeuralNetwork {
                 if(current.isInputVertex()){
                     out = inputs[vIdx];
                 } else {
+                    long start = (timingListeners == null ? 0 : System.nanoTime());
 
                     if(fwdPassType == FwdPassType.STANDARD){
                         out = current.doForward(train, workspaceMgr);
@@ -2025,6 +2036,11 @@ public class ComputationGraph implements Serializable, Model, NeuralNetwork {
                     }
 
                     validateArrayWorkspaces(workspaceMgr, out, ArrayType.ACTIVATIONS, vName, false, "Feed forward (inference)");
+
+                    if (timingListeners != null) {
+                        TimingListenerUtils.notify(timingListeners, this, TimingTrainingListener.Phase.FORWARD, vName,
+                                start, TimingListenerUtils.bytes(out) + TimingListenerUtils.bytes(wsFFWorking));
+                    }
                 }
                 activations.put(current.getVertexName(), out);
 
@@ -2302,6 +2318,15 @@ public class ComputationGraph implements Serializable, Model, NeuralNetwork {
             throw new IllegalArgumentException(
                     "Invalid input: must have epsilons length equal to number of output arrays");
 
+        //Loss scaling: the updater unscales the gradients whenever a loss scaler is configured, hence the external
+        // errors are scaled as the loss would be
+        LossScaler lossScaler = configuration.getLossScaler();
+        if (lossScaler != null && lossScaler.getScale() != 1.0) {
+            INDArray[] scaled = new INDArray[epsilons.length];
+            for (int i = 0; i < epsilons.length; i++)
+                scaled[i] = (epsilons[i] == null ? null : epsilons[i].mul(lossScaler.getScale()));
+            epsilons = scaled;
+        }
 
         calcBackpropGradients(true, configuration.getBackpropType() == BackpropType.TruncatedBPTT, epsilons);
         return gradient;
@@ -2316,6 +2341,18 @@ public class ComputationGraph implements Serializable, Model, NeuralNetwork {
      *                         learning situations.
      */
     protected void calcBackpropGradients(boolean clearLayers, boolean truncatedBPTT, INDArray... externalEpsilons) {
+        calcBackpropGradients(clearLayers, truncatedBPTT, 1.0, externalEpsilons);
+    }
+
+    /**
+     * Do backprop (gradient calculation), as per {@link #calcBackpropGradients(boolean, boolean, INDArray...)}, with
+     * gradients of output layers multiplied by the specified loss scale: all resulting gradients are scaled
+     * accordingly, and are expected to be unscaled by the updater - see {@link LossScaler}
+     *
+     * @param lossScale Loss scale. 1.0 for no loss scaling
+     */
+    protected void calcBackpropGradients(boolean clearLayers, boolean truncatedBPTT, double lossScale,
+                                         INDArray... externalEpsilons) {
         if (flattenedGradients == null) {
             initGradientsView();
         }
@@ -2392,6 +2429,7 @@ public class ComputationGraph implements Serializable, Model, NeuralNetwork {
         LinkedList<Triple<String, INDArray, Character>> gradients = new LinkedList<>();
         boolean[] setVertexEpsilon = new boolean[topologicalOrder.length]; //If true: already set epsilon for this vertex; later epsilons should be *added* to the existing one, not set
         MemoryWorkspace initialWorkspace = Nd4j.getMemoryManager().getCurrentWorkspace();
+        List<TimingTrainingListener> timingListeners = TimingListenerUtils.timingListeners(trainingListeners);
         try{
             for(int i=topologicalOrder.length-1; i>= 0; i--){
                 boolean hitFrozen = false;
@@ -2496,9 +2534,26 @@ public class ComputationGraph implements Serializable, Model, NeuralNetwork {
                 Pair<Gradient, INDArray[]> pair;
                 INDArray[] epsilons;
                 try(MemoryWorkspace wsWorkingMem = workspaceMgr.notifyScopeEntered(ArrayType.BP_WORKING_MEM)){
+                    long start = (timingListeners == null ? 0 : System.nanoTime());
                     pair = current.doBackward(truncatedBPTT, workspaceMgr);
                     epsilons = pair.getSecond();
 
+                    Layer outputLayer = current.getLayer();
+                    if (outputLayer instanceof FrozenLayerWithBackprop) {
+                        outputLayer = ((FrozenLayerWithBackprop) outputLayer).getInsideLayer();
+                    }
+                    if (lossScale != 1.0 && current.isOutputVertex() && outputLayer instanceof IOutputLayer) {
+                        //Scaling output layer gradients is equivalent to scaling the loss
+                        for (INDArray g : pair.getFirst().gradientForVariable().values()) {
+                            g.muli(lossScale);
+                        }
+                        for (INDArray epsilon : epsilons) {
+                            if (epsilon != null) {
+                                epsilon.muli(lossScale);
+                            }
+                        }
+                    }
+
                     //Validate workspace location for the activation gradients:
                     //validateArrayWorkspaces(LayerWorkspaceMgr mgr, INDArray array, ArrayType arrayType, String vertexName, boolean isInputVertex, String op){
                     for (INDArray epsilon : epsilons) {
@@ -2507,6 +2562,15 @@ public class ComputationGraph implements Serializable, Model, NeuralNetwork {
                             validateArrayWorkspaces(workspaceMgr, epsilon, ArrayType.ACTIVATION_GRAD, vertexName, false, "Backprop");
                         }
                     }
+
+                    if (timingListeners != null) {
+                        long bytes = TimingListenerUtils.bytes(wsWorkingMem);
+                        for (INDArray epsilon : epsilons) {
+                            bytes += TimingListenerUtils.bytes(epsilon);
+                        }
+                        TimingListenerUtils.notify(timingListeners, this, TimingTrainingListener.Phase.BACKWARD, vertexName,
+                                start, bytes);
+                    }
                 }
 
                 //Inputs to the current GraphVertex:
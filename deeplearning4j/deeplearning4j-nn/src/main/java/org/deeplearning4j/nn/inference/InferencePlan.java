@@ -0,0 +1,586 @@
+package org.deeplearning4j.nn.inference;
+
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.deeplearning4j.nn.api.Layer;
+import org.deeplearning4j.nn.api.Model;
+import org.deeplearning4j.nn.conf.InputPreProcessor;
+import org.deeplearning4j.nn.graph.ComputationGraph;
+import org.deeplearning4j.nn.graph.vertex.GraphVertex;
+import org.deeplearning4j.nn.graph.vertex.VertexIndices;
+import org.deeplearning4j.nn.graph.vertex.impl.LayerVertex;
+import org.deeplearning4j.nn.layers.ActivationLayer;
+import org.deeplearning4j.nn.layers.DropoutLayer;
+import org.deeplearning4j.nn.multilayer.MultiLayerNetwork;
+import org.deeplearning4j.nn.workspace.ArrayType;
+import org.deeplearning4j.nn.workspace.LayerWorkspaceMgr;
+import org.nd4j.linalg.activations.IActivation;
+import org.nd4j.linalg.api.memory.MemoryWorkspace;
+import org.nd4j.linalg.api.memory.conf.WorkspaceConfiguration;
+import org.nd4j.linalg.api.memory.enums.AllocationPolicy;
+import org.nd4j.linalg.api.memory.enums.LearningPolicy;
+import org.nd4j.linalg.api.memory.enums.ResetPolicy;
+import org.nd4j.linalg.api.memory.enums.SpillPolicy;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.factory.Nd4j;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Inference-only execution plan for MultiLayerNetwork and ComputationGraph.
+ *
+ * Everything that doesn't depend on actual input is computed once, when plan is built:
+ * execution order (vertices that don't contribute to network outputs are dropped), wiring between steps,
+ * assignment of activations to workspaces (each workspace is released at the step where its activations are fully consumed),
+ * and elimination of steps that are no-op at inference time:
+ * - DropoutLayer is replaced with its input
+ * - ActivationLayer is fused into preceding layer: activation function is applied in place to the preceding layer output,
+ *   if that output has no other consumers
+ *
+ * If max batch shape is provided, plan does warm-up pass, and all activation workspaces are pre-sized for it,
+ * so subsequent calls with batch size up to max don't allocate memory, except for detached output arrays.
+ * Use {@link #output(INDArray[], INDArray[])} with preallocated output arrays to avoid those allocations as well.
+ *
+ * PLEASE NOTE: plan uses layers of the original model, so single plan shouldn't be used from multiple threads at once,
+ * and model shouldn't be used concurrently with its plan. Mask arrays are not supported.
+ */
+@Slf4j
+public class InferencePlan {
+    public static final String WS_PLAN_ACT_PREFIX = "WS_PLAN_ACT_";
+    public static final String WS_PLAN_WORKING_MEM = "WS_PLAN_WORKING_MEM";
+    public static final String WS_PLAN_RNN_LOOP_WORKING_MEM = "WS_PLAN_RNN_LOOP_WORKING_MEM";
+
+    protected enum StepType {
+        /**
+         * regular forward pass of the layer or vertex
+         */
+        FORWARD,
+        /**
+         * activation function applied in place to the input
+         */
+        FUSED_ACTIVATION,
+        /**
+         * input passed through as is
+         */
+        IDENTITY
+    }
+
+    private final Model model;
+    private final MultiLayerNetwork network;
+    private final ComputationGraph graph;
+    private final int numInputs;
+
+    // per-step state, indexed by step number
+    private StepType[] types;
+    private Layer[] layers;
+    private GraphVertex[] vertices;
+    private InputPreProcessor[] preProcessors;
+    private IActivation[] activations;
+    // source of each input: step number if >= 0, or -(networkInput + 1) for network inputs
+    private int[][] sources;
+    private int[] slots;
+    private int[][] releaseAfter;
+    private int[] outputSources;
+
+    private LayerWorkspaceMgr[] managers;
+    private MemoryWorkspace[] openWorkspaces;
+    private INDArray[] values;
+    private long[] workspaceSizes;
+
+    protected InferencePlan(@NonNull Model model) {
+        this.model = model;
+        if (model instanceof MultiLayerNetwork) {
+            this.network = (MultiLayerNetwork) model;
+            this.graph = null;
+            this.numInputs = 1;
+        } else if (model instanceof ComputationGraph) {
+            this.network = null;
+            this.graph = (ComputationGraph) model;
+            this.numInputs = graph.getNumInputArrays();
+        } else
+            throw new IllegalArgumentException("Unsupported model type: " + model.getClass().getSimpleName());
+    }
+
+    protected void compile() {
+        if (network != null)
+            compileNetwork();
+        else
+            compileGraph();
+
+        allocateSlots();
+
+        managers = new LayerWorkspaceMgr[workspaceSizes.length];
+        for (int i = 0; i < managers.length; i++)
+            managers[i] = buildWorkspaceMgr(i, 0);
+
+        openWorkspaces = new MemoryWorkspace[managers.length];
+        values = new INDArray[types.length];
+    }
+
+    protected void compileNetwork() {
+        Layer[] netLayers = network.getLayers();
+        int n = netLayers.length;
+
+        types = new StepType[n];
+        layers = netLayers.clone();
+        preProcessors = new InputPreProcessor[n];
+        activations = new IActivation[n];
+        sources = new int[n][];
+
+        for (int i = 0; i < n; i++) {
+            preProcessors[i] = network.getLayerWiseConfigurations().getInputPreProcess(i);
+            sources[i] = new int[] {i - 1};
+            types[i] = StepType.FORWARD;
+
+            if (preProcessors[i] != null)
+                continue;
+
+            if (layers[i] instanceof DropoutLayer) {
+                types[i] = StepType.IDENTITY;
+            } else if (layers[i] instanceof ActivationLayer && i > 0 && types[i - 1] != StepType.IDENTITY) {
+                // previous layer output is consumed only by this layer, so it's safe to modify it in place
+                types[i] = StepType.FUSED_ACTIVATION;
+                activations[i] = activationOf(layers[i]);
+            }
+        }
+
+        outputSources = new int[] {n - 1};
+        network.clearLayerMaskArrays();
+    }
+
+    protected void compileGraph() {
+        GraphVertex[] graphVertices = graph.getVertices();
+        List<String> networkInputs = graph.getConfiguration().getNetworkInputs();
+        List<String> networkOutputs = graph.getConfiguration().getNetworkOutputs();
+
+        // first of all we mark vertices that actually contribute to network outputs
+        boolean[] required = new boolean[graphVertices.length];
+        int[] order = graph.topologicalSortOrder();
+        for (String name : networkOutputs)
+            required[graph.getVertex(name).getVertexIndex()] = true;
+
+        for (int i = order.length - 1; i >= 0; i--) {
+            GraphVertex vertex = graphVertices[order[i]];
+            if (!required[vertex.getVertexIndex()] || vertex.getInputVertices() == null)
+                continue;
+
+            for (VertexIndices vi : vertex.getInputVertices())
+                required[vi.getVertexIndex()] = true;
+        }
+
+        // now we build steps for non-input vertices, in topological order
+        int[] stepOf = new int[graphVertices.length];
+        List<GraphVertex> steps = new ArrayList<>();
+        for (int idx : order) {
+            GraphVertex vertex = graphVertices[idx];
+            if (vertex.isInputVertex()) {
+                stepOf[idx] = -(networkInputs.indexOf(vertex.getVertexName()) + 1);
+            } else if (required[idx]) {
+                stepOf[idx] = steps.size();
+                steps.add(vertex);
+            }
+        }
+
+        int n = steps.size();
+        types = new StepType[n];
+        layers = new Layer[n];
+        vertices = steps.toArray(new GraphVertex[n]);
+        preProcessors = new InputPreProcessor[n];
+        activations = new IActivation[n];
+        sources = new int[n][];
+
+        int[] consumers = new int[n];
+        for (int s = 0; s < n; s++) {
+            VertexIndices[] inputs = vertices[s].getInputVertices();
+            sources[s] = new int[inputs.length];
+            for (VertexIndices vi : inputs) {
+                int source = stepOf[vi.getVertexIndex()];
+                sources[s][vi.getVertexEdgeNumber()] = source;
+                if (source >= 0)
+                    consumers[source]++;
+            }
+        }
+
+        outputSources = new int[networkOutputs.size()];
+        for (int i = 0; i < outputSources.length; i++) {
+            outputSources[i] = stepOf[graph.getVertex(networkOutputs.get(i)).getVertexIndex()];
+            if (outputSources[i] >= 0)
+                consumers[outputSources[i]]++;
+        }
+
+        for (int s = 0; s < n; s++) {
+            types[s] = StepType.FORWARD;
+            if (!vertices[s].hasLayer())
+                continue;
+
+            layers[s] = vertices[s].getLayer();
+            if (vertices[s] instanceof LayerVertex && ((LayerVertex) vertices[s]).getLayerPreProcessor() != null)
+                continue;
+
+            int source = sources[s][0];
+            if (layers[s] instanceof DropoutLayer) {
+                types[s] = StepType.IDENTITY;
+            } else if (layers[s] instanceof ActivationLayer && source >= 0 && consumers[source] == 1
+                            && types[source] != StepType.IDENTITY) {
+                types[s] = StepType.FUSED_ACTIVATION;
+                activations[s] = activationOf(layers[s]);
+            }
+        }
+
+        graph.clearLayerMaskArrays();
+    }
+
+    /**
+     * This method assigns activation workspaces to the steps.
+     * Steps that don't produce new arrays share workspace of their input, and workspace is released right after
+     * the last step that reads it. Network outputs are kept till the end of the pass.
+     */
+    protected void allocateSlots() {
+        int n = types.length;
+
+        // root is the step that actually owns the array produced by given step
+        int[] roots = new int[n];
+        for (int s = 0; s < n; s++)
+            roots[s] = types[s] == StepType.FORWARD ? s : rootOf(roots, sources[s][0]);
+
+        int[] lastUse = new int[n];
+        for (int s = 0; s < n; s++)
+            lastUse[s] = s;
+
+        for (int s = 0; s < n; s++)
+            for (int source : sources[s]) {
+                int root = rootOf(roots, source);
+                if (root >= 0)
+                    lastUse[root] = Math.max(lastUse[root], s);
+            }
+
+        for (int source : outputSources) {
+            int root = rootOf(roots, source);
+            if (root >= 0)
+                lastUse[root] = n;
+        }
+
+        slots = new int[n];
+        List<Integer> free = new ArrayList<>();
+        List<Integer>[] released = new List[n];
+        int numSlots = 0;
+        for (int s = 0; s < n; s++) {
+            if (types[s] == StepType.FORWARD) {
+                slots[s] = free.isEmpty() ? numSlots++ : free.remove(free.size() - 1);
+
+                if (lastUse[s] < n) {
+                    if (released[lastUse[s]] == null)
+                        released[lastUse[s]] = new ArrayList<>();
+                    released[lastUse[s]].add(slots[s]);
+                }
+            } else {
+                slots[s] = -1;
+            }
+
+            if (released[s] != null)
+                free.addAll(released[s]);
+        }
+
+        releaseAfter = new int[n][];
+        for (int s = 0; s < n; s++) {
+            releaseAfter[s] = new int[released[s] == null ? 0 : released[s].size()];
+            for (int i = 0; i < releaseAfter[s].length; i++)
+                releaseAfter[s][i] = released[s].get(i);
+        }
+
+        workspaceSizes = new long[numSlots];
+    }
+
+    private static int rootOf(int[] roots, int source) {
+        return source < 0 ? source : roots[source];
+    }
+
+    private static IActivation activationOf(Layer layer) {
+        return ((org.deeplearning4j.nn.conf.layers.ActivationLayer) layer.conf().getLayer()).getActivationFn();
+    }
+
+    protected LayerWorkspaceMgr buildWorkspaceMgr(int slot, long initialSize) {
+        WorkspaceConfiguration configuration = WorkspaceConfiguration.builder()
+                        .initialSize(initialSize)
+                        .overallocationLimit(0.05)
+                        .policyLearning(initialSize > 0 ? LearningPolicy.NONE : LearningPolicy.FIRST_LOOP)
+                        .policyReset(ResetPolicy.BLOCK_LEFT)
+                        .policySpill(SpillPolicy.REALLOCATE)
+                        .policyAllocation(AllocationPolicy.OVERALLOCATE)
+                        .build();
+
+        WorkspaceConfiguration workingConfiguration = WorkspaceConfiguration.builder()
+                        .initialSize(0)
+                        .overallocationLimit(0.02)
+                        .policyLearning(LearningPolicy.OVER_TIME)
+                        .cyclesBeforeInitialization(types.length)
+                        .policyReset(ResetPolicy.BLOCK_LEFT)
+                        .policySpill(SpillPolicy.REALLOCATE)
+                        .policyAllocation(AllocationPolicy.OVERALLOCATE)
+                        .build();
+
+        String wsName = WS_PLAN_ACT_PREFIX + slot;
+        return LayerWorkspaceMgr.builder()
+                        .with(ArrayType.INPUT, wsName, configuration)
+                        .with(ArrayType.ACTIVATIONS, wsName, configuration)
+                        .with(ArrayType.FF_WORKING_MEM, WS_PLAN_WORKING_MEM, workingConfiguration)
+                        .with(ArrayType.RNN_FF_LOOP_WORKING_MEM, WS_PLAN_RNN_LOOP_WORKING_MEM, workingConfiguration)
+                        .build();
+    }
+
+    /**
+     * This method does single pass with empty inputs of given shapes, and pre-sizes activation workspaces accordingly
+     *
+     * @param shapes full shapes of network inputs, including max batch size
+     */
+    protected void warmup(long[]... shapes) {
+        INDArray[] inputs = new INDArray[shapes.length];
+        for (int i = 0; i < shapes.length; i++)
+            inputs[i] = Nd4j.create(shapes[i]);
+
+        output(inputs);
+
+        for (int i = 0; i < workspaceSizes.length; i++) {
+            MemoryWorkspace workspace = Nd4j.getWorkspaceManager().getWorkspaceForCurrentThread(WS_PLAN_ACT_PREFIX + i);
+            workspaceSizes[i] = workspace.getMaxCycleAllocations();
+            managers[i] = buildWorkspaceMgr(i, workspaceSizes[i]);
+        }
+    }
+
+    /**
+     * This method returns model this plan was built for
+     *
+     * @return
+     */
+    public Model getModel() {
+        return model;
+    }
+
+    /**
+     * This method returns number of steps executed per call, after elimination of unused vertices
+     *
+     * @return
+     */
+    public int getNumSteps() {
+        return types.length;
+    }
+
+    /**
+     * This method returns number of steps fused into preceding layers or eliminated
+     *
+     * @return
+     */
+    public int getNumFusedSteps() {
+        int cnt = 0;
+        for (StepType type : types)
+            if (type != StepType.FORWARD)
+                cnt++;
+
+        return cnt;
+    }
+
+    /**
+     * This method returns number of activation workspaces used by this plan
+     *
+     * @return
+     */
+    public int getNumWorkspaces() {
+        return workspaceSizes.length;
+    }
+
+    /**
+     * This method returns sizes of activation workspaces, in bytes, as measured during warm-up.
+     * Zeros are returned if plan was built without max batch shape.
+     *
+     * @return
+     */
+    public long[] getWorkspaceSizes() {
+        return workspaceSizes.clone();
+    }
+
+    /**
+     * This method returns output of the single-output model
+     *
+     * @param inputs
+     * @return
+     */
+    public INDArray outputSingle(INDArray... inputs) {
+        if (outputSources.length != 1)
+            throw new IllegalStateException("Model has " + outputSources.length + " outputs, use output() method instead");
+
+        return output(inputs)[0];
+    }
+
+    /**
+     * This method returns network outputs for given inputs, detached from any workspace
+     *
+     * @param inputs network inputs
+     * @return
+     */
+    public INDArray[] output(@NonNull INDArray... inputs) {
+        INDArray[] result = new INDArray[outputSources.length];
+        execute(inputs, null, result);
+        return result;
+    }
+
+    /**
+     * This method stores network outputs for given inputs into provided arrays, so no memory is allocated
+     *
+     * @param inputs  network inputs
+     * @param outputs preallocated output arrays, of the shape of network outputs
+     */
+    public void output(@NonNull INDArray[] inputs, @NonNull INDArray[] outputs) {
+        if (outputs.length != outputSources.length)
+            throw new IllegalArgumentException("Invalid number of output arrays: network has " + outputSources.length
+                            + " outputs, got " + outputs.length + " output arrays");
+
+        execute(inputs, outputs, new INDArray[outputs.length]);
+    }
+
+    protected void execute(INDArray[] inputs, INDArray[] targets, INDArray[] result) {
+        if (inputs.length != numInputs)
+            throw new IllegalArgumentException("Invalid number of input arrays: network has " + numInputs
+                            + " inputs, got " + inputs.length + " input arrays");
+
+        //Minibatch size is an int in the layer and preprocessor API
+        long batchSize = inputs[0].size(0);
+        if (batchSize > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("Invalid minibatch size: " + batchSize + ", must be at most "
+                            + Integer.MAX_VALUE);
+        int miniBatch = (int) batchSize;
+        if (graph != null)
+            graph.setInputs(inputs);
+        else
+            network.setInputMiniBatchSize(miniBatch);
+
+        //Don't leverage out of async iterators workspaces. Only for this call: the input workspace differs between calls
+        String inputWorkspace = inputs[0].isAttached() ? inputs[0].data().getParentWorkspace().getId() : null;
+
+        MemoryWorkspace initialWorkspace = Nd4j.getMemoryManager().getCurrentWorkspace();
+        try {
+            if (inputWorkspace != null) {
+                for (LayerWorkspaceMgr mgr : managers)
+                    mgr.setNoLeverageOverride(inputWorkspace);
+            }
+
+            for (int s = 0; s < types.length; s++) {
+                switch (types[s]) {
+                    case IDENTITY:
+                        values[s] = valueOf(sources[s][0], inputs);
+                        break;
+                    case FUSED_ACTIVATION:
+                        values[s] = activations[s].getActivation(valueOf(sources[s][0], inputs), false);
+                        break;
+                    default:
+                        LayerWorkspaceMgr mgr = managers[slots[s]];
+                        MemoryWorkspace wsActivations = mgr.notifyScopeEntered(ArrayType.ACTIVATIONS);
+                        //Activation workspaces aren't nested, so previous workspace is overridden manually
+                        wsActivations.setPreviousWorkspace(initialWorkspace);
+                        openWorkspaces[slots[s]] = wsActivations;
+
+                        try (MemoryWorkspace wsWorking = mgr.notifyScopeEntered(ArrayType.FF_WORKING_MEM)) {
+                            values[s] = forward(s, inputs, miniBatch, mgr);
+                        }
+                }
+
+                for (int slot : releaseAfter[s]) {
+                    openWorkspaces[slot].close();
+                    openWorkspaces[slot] = null;
+                }
+            }
+
+            for (int i = 0; i < outputSources.length; i++) {
+                INDArray out = valueOf(outputSources[i], inputs);
+                result[i] = targets == null ? out.detach() : targets[i].assign(out);
+            }
+        } finally {
+            if (inputWorkspace != null) {
+                for (LayerWorkspaceMgr mgr : managers)
+                    mgr.removeNoLeverageOverride(inputWorkspace);
+            }
+
+            for (int i = 0; i < openWorkspaces.length; i++) {
+                if (openWorkspaces[i] != null) {
+                    while (openWorkspaces[i].isScopeActive())
+                        openWorkspaces[i].close();
+
+                    openWorkspaces[i] = null;
+                }
+            }
+
+            Arrays.fill(values, null);
+            Nd4j.getMemoryManager().setCurrentWorkspace(initialWorkspace);
+        }
+    }
+
+    private INDArray forward(int step, INDArray[] inputs, int miniBatch, LayerWorkspaceMgr mgr) {
+        INDArray out;
+        if (graph == null) {
+            INDArray input = valueOf(sources[step][0], inputs);
+            if (preProcessors[step] != null)
+                input = preProcessors[step].preProcess(input, miniBatch, mgr);
+
+            out = layers[step].activate(input, false, mgr);
+            layers[step].clear();
+        } else {
+            GraphVertex vertex = vertices[step];
+            for (int e = 0; e < sources[step].length; e++)
+                vertex.setInput(e, valueOf(sources[step][e], inputs), mgr);
+
+            out = vertex.doForward(false, mgr);
+            vertex.clear();
+        }
+
+        return out;
+    }
+
+    private INDArray valueOf(int source, INDArray[] inputs) {
+        return source < 0 ? inputs[-source - 1] : values[source];
+    }
+
+    public static class Builder {
+        private Model model;
+        private long[][] maxBatchShapes;
+
+        public Builder(@NonNull Model model) {
+            this.model = model;
+        }
+
+        /**
+         * This method defines max shapes of network inputs, including batch size.
+         * If defined, activation workspaces will be pre-sized for these shapes during plan build.
+         *
+         * @param shapes one shape per network input
+         * @return
+         */
+        public Builder maxBatchShape(@NonNull long[]... shapes) {
+            this.maxBatchShapes = shapes;
+            return this;
+        }
+
+        /**
+         * This method builds new InferencePlan instance
+         *
+         * @return
+         */
+        public InferencePlan build() {
+            InferencePlan plan = new InferencePlan(model);
+            plan.compile();
+
+            if (maxBatchShapes != null) {
+                if (maxBatchShapes.length != plan.numInputs)
+                    throw new IllegalStateException("Number of shapes should match number of network inputs: "
+                                    + plan.numInputs + " expected, got " + maxBatchShapes.length);
+
+                plan.warmup(maxBatchShapes);
+            }
+
+            log.debug("Inference plan built: {} steps, {} fused, {} activation workspaces", plan.getNumSteps(),
+                            plan.getNumFusedSteps(), plan.getNumWorkspaces());
+
+            return plan;
+        }
+    }
+}
@@ -0,0 +1,326 @@
+package org.deeplearning4j.nn.inference;
+
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.deeplearning4j.nn.conf.ComputationGraphConfiguration;
+import org.deeplearning4j.nn.conf.InputPreProcessor;
+import org.deeplearning4j.nn.conf.MultiLayerConfiguration;
+import org.deeplearning4j.nn.conf.graph.GraphVertex;
+import org.deeplearning4j.nn.conf.graph.LayerVertex;
+import org.deeplearning4j.nn.conf.layers.*;
+import org.deeplearning4j.nn.conf.preprocessor.ComposableInputPreProcessor;
+import org.deeplearning4j.nn.conf.preprocessor.QuantizeDequantizePreProcessor;
+import org.deeplearning4j.nn.graph.ComputationGraph;
+import org.deeplearning4j.nn.multilayer.MultiLayerNetwork;
+import org.deeplearning4j.nn.params.DefaultParamInitializer;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.dataset.DataSet;
+import org.nd4j.linalg.dataset.api.iterator.DataSetIterator;
+import org.nd4j.linalg.indexing.BooleanIndexing;
+import org.nd4j.linalg.indexing.conditions.Conditions;
+import org.nd4j.linalg.ops.transforms.Transforms;
+import org.nd4j.linalg.primitives.Pair;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Simulation of post-training int8 quantization of {@link DenseLayer}, {@link ConvolutionLayer} (including
+ * {@link Convolution1DLayer}) and {@link OutputLayer} layers, to evaluate the accuracy loss caused by int8
+ * quantization.<br>
+ * <br>
+ * Weights are quantized symmetrically to [-127, 127], with one scale per output channel (nOut): per column of the
+ * [nIn, nOut] weights of dense/output layers, per kernel of the [nOut, nIn, kH, kW] weights of convolution layers.
+ * Layer inputs are quantized with one scale per layer, calibrated as max absolute input value over the calibration
+ * data set, via {@link QuantizeDequantizePreProcessor}. Biases are kept in floating point, as they are added to the
+ * int32 accumulator after rescaling anyway.<br>
+ * <br>
+ * PLEASE NOTE: this is accuracy simulation only, not an int8 inference model. ND4J has no int8 GEMM or convolution
+ * kernels, so the simulated network is a regular floating point network: weights hold the dequantized int8 values
+ * (integer value times channel scale), and layers are executed in floating point. Layer output is the same as int8
+ * execution with int32 accumulation followed by dequantization, but the network is neither smaller nor faster than
+ * the original one - inference is slightly slower, due to the extra quantize/dequantize step on layer inputs (see
+ * QuantizationBenchmark in dl4j-benchmarks). Integer values and scales of the weights can be obtained via
+ * {@link #quantizeWeights(INDArray, boolean, boolean)}.
+ */
+@Slf4j
+public class QuantizationSimulator {
+    public static final int INT8_MAX_VALUE = QuantizeDequantizePreProcessor.INT8_MAX_VALUE;
+
+    private final int calibrationBatches;
+    private final boolean perChannel;
+    private final boolean quantizeActivations;
+
+    protected QuantizationSimulator(Builder builder) {
+        this.calibrationBatches = builder.calibrationBatches;
+        this.perChannel = builder.perChannel;
+        this.quantizeActivations = builder.quantizeActivations;
+    }
+
+    /**
+     * This method returns true if layer with specified configuration can be quantized
+     *
+     * @param layer Layer configuration
+     */
+    public static boolean isQuantizable(Layer layer) {
+        //Exact classes only: subclasses (deconvolution, depthwise/separable convolution etc) use other weight layouts
+        Class<?> c = layer.getClass();
+        return c == DenseLayer.class || c == OutputLayer.class || c == ConvolutionLayer.class
+                        || c == Convolution1DLayer.class;
+    }
+
+    /**
+     * This method returns a floating point copy of the network simulating int8 weights and inputs for all
+     * quantizable layers. Original network is not modified.
+     *
+     * @param network         Trained network
+     * @param calibrationData Data used for calibration of input scales. Labels aren't used
+     * @return Copy of the network with weights rounded to their int8 values (times channel scale)
+     */
+    public MultiLayerNetwork simulate(@NonNull MultiLayerNetwork network, DataSetIterator calibrationData) {
+        int nLayers = network.getnLayers();
+        double[] maxAbs = new double[nLayers];
+
+        if (quantizeActivations) {
+            if (calibrationData == null)
+                throw new IllegalArgumentException("Calibration data is required for quantization of layer inputs");
+
+            int batches = calibrate(calibrationData, new CalibrationStep() {
+                @Override
+                public void process(DataSet ds) {
+                    //Activations list: element i is the input to layer i
+                    List<INDArray> activations = network.feedForward(ds.getFeatures(), ds.getFeaturesMaskArray(), null);
+                    for (int i = 0; i < nLayers; i++) {
+                        if (isQuantizable(network.getLayer(i).conf().getLayer())) {
+                            maxAbs[i] = Math.max(maxAbs[i], activations.get(i).amaxNumber().doubleValue());
+                        }
+                    }
+                }
+            });
+            log.info("Calibrated input scales using {} minibatches", batches);
+        }
+
+        MultiLayerConfiguration conf = network.getLayerWiseConfigurations().clone();
+        for (int i = 0; i < nLayers; i++) {
+            if (maxAbs[i] > 0.0) {
+                conf.getInputPreProcessors().put(i, withQuantizedInput(conf.getInputPreProcess(i), maxAbs[i]));
+            }
+        }
+
+        MultiLayerNetwork ret = new MultiLayerNetwork(conf);
+        ret.init(network.params().dup(), false);
+        for (int i = 0; i < nLayers; i++) {
+            Layer l = ret.getLayer(i).conf().getLayer();
+            if (isQuantizable(l)) {
+                quantizeWeightsInPlace(ret.getLayer(i).getParam(DefaultParamInitializer.WEIGHT_KEY), isConvolution(l));
+            }
+        }
+
+        return ret;
+    }
+
+    /**
+     * This method returns a floating point copy of the graph simulating int8 weights and inputs for all
+     * quantizable layers. Original graph is not modified. Only graphs with a single input are supported.
+     *
+     * @param graph           Trained graph
+     * @param calibrationData Data used for calibration of input scales. Labels aren't used
+     * @return Copy of the graph with weights rounded to their int8 values (times channel scale)
+     */
+    public ComputationGraph simulate(@NonNull ComputationGraph graph, DataSetIterator calibrationData) {
+        ComputationGraphConfiguration conf = graph.getConfiguration().clone();
+        Map<String, Double> maxAbs = new HashMap<>();
+
+        if (quantizeActivations) {
+            if (calibrationData == null)
+                throw new IllegalArgumentException("Calibration data is required for quantization of layer inputs");
+            if (graph.getNumInputArrays() != 1)
+                throw new IllegalStateException("Calibration with DataSetIterator requires graph with exactly 1 input, got "
+                                + graph.getNumInputArrays() + " inputs");
+
+            int batches = calibrate(calibrationData, new CalibrationStep() {
+                @Override
+                public void process(DataSet ds) {
+                    graph.setLayerMaskArrays(ds.getFeaturesMaskArray() == null ? null
+                                    : new INDArray[] {ds.getFeaturesMaskArray()}, null);
+                    Map<String, INDArray> activations = graph.feedForward(new INDArray[] {ds.getFeatures()}, false);
+                    graph.clearLayerMaskArrays();
+
+                    for (Map.Entry<String, GraphVertex> e : conf.getVertices().entrySet()) {
+                        if (quantizableLayer(e.getValue()) == null)
+                            continue;
+
+                        //Layer vertices always have exactly one input
+                        String inputName = conf.getVertexInputs().get(e.getKey()).get(0);
+                        double m = activations.get(inputName).amaxNumber().doubleValue();
+                        Double current = maxAbs.get(e.getKey());
+                        maxAbs.put(e.getKey(), current == null ? m : Math.max(current, m));
+                    }
+                }
+            });
+            log.info("Calibrated input scales using {} minibatches", batches);
+        }
+
+        for (Map.Entry<String, Double> e : maxAbs.entrySet()) {
+            if (e.getValue() > 0.0) {
+                LayerVertex lv = (LayerVertex) conf.getVertices().get(e.getKey());
+                lv.setPreProcessor(withQuantizedInput(lv.getPreProcessor(), e.getValue()));
+            }
+        }
+
+        ComputationGraph ret = new ComputationGraph(conf);
+        ret.init(graph.params().dup(), false);
+        for (Map.Entry<String, GraphVertex> e : conf.getVertices().entrySet()) {
+            Layer l = quantizableLayer(e.getValue());
+            if (l != null) {
+                quantizeWeightsInPlace(ret.getLayer(e.getKey()).getParam(DefaultParamInitializer.WEIGHT_KEY),
+                                isConvolution(l));
+            }
+        }
+
+        return ret;
+    }
+
+    /**
+     * This method quantizes weights of a dense/output layer ([nIn, nOut]) or convolution layer ([nOut, nIn, kH, kW])
+     * to int8 values.
+     *
+     * @param weights     Weights to quantize. Not modified
+     * @param convolution True if weights are in convolution layout, false for dense layout
+     * @param perChannel  True for one scale per output channel, false for a single scale
+     * @return Pair of integer values (same shape as weights, in range [-127, 127]) and scales: row vector of
+     *         length nOut for dense layout, column vector of length nOut for convolution layout, or a scalar if
+     *         perChannel is false. Dequantized weights are integer values times scale of their channel
+     */
+    public static Pair<INDArray, INDArray> quantizeWeights(@NonNull INDArray weights, boolean convolution,
+                    boolean perChannel) {
+        //Convolution: one output channel per row. Dense: one output channel per column
+        INDArray w2d = convolution ? weights.dup('c').reshape('c', weights.size(0), weights.length() / weights.size(0))
+                        : weights.dup();
+
+        INDArray scales;
+        if (perChannel) {
+            scales = Transforms.abs(w2d, true).max(convolution ? 1 : 0);
+        } else {
+            scales = w2d.amax(Integer.MAX_VALUE);
+        }
+        scales.divi(INT8_MAX_VALUE);
+        //All-zero channels: any non-zero scale is fine
+        BooleanIndexing.replaceWhere(scales, 1.0, Conditions.equals(0.0));
+
+        if (!perChannel) {
+            w2d.divi(scales.getDouble(0));
+        } else if (convolution) {
+            w2d.diviColumnVector(scales);
+        } else {
+            w2d.diviRowVector(scales);
+        }
+        Transforms.round(w2d, false);
+        Transforms.min(w2d, INT8_MAX_VALUE, false);
+        Transforms.max(w2d, -INT8_MAX_VALUE, false);
+
+        return new Pair<>(convolution ? w2d.reshape('c', weights.shape()) : w2d, scales);
+    }
+
+    protected void quantizeWeightsInPlace(INDArray weights, boolean convolution) {
+        Pair<INDArray, INDArray> q = quantizeWeights(weights, convolution, perChannel);
+        INDArray values = q.getFirst();
+        INDArray scales = q.getSecond();
+
+        if (!perChannel) {
+            values.muli(scales.getDouble(0));
+        } else if (convolution) {
+            INDArray values2d = values.reshape('c', values.size(0), values.length() / values.size(0));
+            values2d.muliColumnVector(scales);
+            values = values2d.reshape('c', weights.shape());
+        } else {
+            values.muliRowVector(scales);
+        }
+        weights.assign(values);
+    }
+
+    protected static boolean isConvolution(Layer layer) {
+        return layer instanceof ConvolutionLayer;
+    }
+
+    protected static Layer quantizableLayer(GraphVertex vertex) {
+        if (!(vertex instanceof LayerVertex))
+            return null;
+        Layer l = ((LayerVertex) vertex).getLayerConf().getLayer();
+        return isQuantizable(l) ? l : null;
+    }
+
+    protected static InputPreProcessor withQuantizedInput(InputPreProcessor existing, double maxAbs) {
+        InputPreProcessor q = new QuantizeDequantizePreProcessor(maxAbs / INT8_MAX_VALUE);
+        return existing == null ? q : new ComposableInputPreProcessor(existing, q);
+    }
+
+    protected int calibrate(DataSetIterator iterator, CalibrationStep step) {
+        if (iterator.resetSupported())
+            iterator.reset();
+
+        int batches = 0;
+        while (iterator.hasNext() && batches < calibrationBatches) {
+            step.process(iterator.next());
+            batches++;
+        }
+
+        if (batches == 0)
+            throw new IllegalStateException("Calibration iterator didn't return any data");
+
+        return batches;
+    }
+
+    protected interface CalibrationStep {
+        void process(DataSet ds);
+    }
+
+    public static class Builder {
+        private int calibrationBatches = Integer.MAX_VALUE;
+        private boolean perChannel = true;
+        private boolean quantizeActivations = true;
+
+        /**
+         * This method defines max number of minibatches used for calibration.
+         * Default: all minibatches of the calibration iterator
+         *
+         * @param numBatches
+         * @return
+         */
+        public Builder calibrationBatches(int numBatches) {
+            if (numBatches < 1)
+                throw new IllegalArgumentException("Number of calibration batches must be positive, got " + numBatches);
+            this.calibrationBatches = numBatches;
+            return this;
+        }
+
+        /**
+         * This method defines if weights are quantized with one scale per output channel (default), or a single
+         * scale per layer
+         *
+         * @param reallyPerChannel
+         * @return
+         */
+        public Builder perChannel(boolean reallyPerChannel) {
+            this.perChannel = reallyPerChannel;
+            return this;
+        }
+
+        /**
+         * This method defines if layer inputs are quantized too. If false, only weights are quantized
+         * (and no calibration data is required). Default: true
+         *
+         * @param reallyQuantize
+         * @return
+         */
+        public Builder quantizeActivations(boolean reallyQuantize) {
+            this.quantizeActivations = reallyQuantize;
+            return this;
+        }
+
+        public QuantizationSimulator build() {
+            return new QuantizationSimulator(this);
+        }
+    }
+}
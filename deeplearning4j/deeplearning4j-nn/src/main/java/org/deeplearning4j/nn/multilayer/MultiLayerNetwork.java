@@ -37,22 +37,27 @@ import org.deeplearning4j.nn.api.layers.IOutputLayer;
 import org.deeplearning4j.nn.api.layers.RecurrentLayer;
 import org.deeplearning4j.nn.conf.*;
 import org.deeplearning4j.nn.conf.inputs.InputType;
+import org.deeplearning4j.nn.conf.layers.BaseLayer;
 import org.deeplearning4j.nn.conf.layers.FeedForwardLayer;
 import org.deeplearning4j.nn.gradient.DefaultGradient;
 import org.deeplearning4j.nn.gradient.Gradient;
 import org.deeplearning4j.nn.graph.ComputationGraph;
 import org.deeplearning4j.nn.layers.FrozenLayer;
 import org.deeplearning4j.nn.layers.FrozenLayerWithBackprop;
+import org.deeplearning4j.nn.layers.normalization.BatchNormalization;
+import org.deeplearning4j.nn.params.BatchNormalizationParamInitializer;
 import org.deeplearning4j.nn.updater.MultiLayerUpdater;
 import org.deeplearning4j.nn.updater.UpdaterCreator;
 import org.deeplearning4j.nn.workspace.ArrayType;
 import org.deeplearning4j.nn.workspace.LayerWorkspaceMgr;
 import org.deeplearning4j.optimize.Solver;
 import org.deeplearning4j.optimize.api.ConvexOptimizer;
+import org.deeplearning4j.optimize.api.TimingTrainingListener;
 import org.deeplearning4j.optimize.api.TrainingListener;
 import org.deeplearning4j.optimize.solvers.accumulation.GradientsAccumulator;
 import org.deeplearning4j.util.ModelSerializer;
 import org.deeplearning4j.util.NetworkUtils;
+import org.deeplearning4j.util.TimingListenerUtils;
 import org.nd4j.base.Preconditions;
 import org.nd4j.linalg.api.memory.MemoryWorkspace;
 import org.nd4j.linalg.api.memory.conf.WorkspaceConfiguration;
@@ -149,6 +154,11 @@ public class MultiLayerNetwork implements Serializable, Classifier, Layer, Neura
      * Workspace for working memory in RNNs - opened and closed once per RNN time step
      */
     protected static final String WS_RNN_LOOP_WORKING_MEM = "WS_RNN_LOOP_WORKING_MEM";
+    /**
+     * Workspace for activations of one gradient checkpointing segment - opened once per segment in the forward pass
+     * (discarded activations), and once per segment in the backward pass (recomputed activations)
+     */
+    protected static final String WS_CHECKPOINT_SEGMENT = "WS_CHECKPOINT_SEGMENT";
 
 
     protected final WorkspaceConfiguration WS_LAYER_WORKING_MEM_CONFIG;
@@ -965,8 +975,10 @@ public class MultiLayerNetwork implements Serializable, Classifier, Layer, Neura
         List<INDArray> out = new ArrayList<>();
         out.add(workspaceMgr.leverageTo(ArrayType.INPUT, input));    //Probably unnecessary usually
 
+        List<TimingTrainingListener> timingListeners = TimingListenerUtils.timingListeners(trainingListeners);
         for( int i=0; i<=layerIndex; i++ ){
             try(MemoryWorkspace wsFFWorking = workspaceMgr.notifyScopeEntered(ArrayType.FF_WORKING_MEM)){
+                long start = (timingListeners == null ? 0 : System.nanoTime());
                 if (getLayerWiseConfigurations().getInputPreProcess(i) != null) {
                     input = getLayerWiseConfigurations().getInputPreProcess(i).preProcess(input, getInputMiniBatchSize(), workspaceMgr);
                     //Validation: Exception if invalid (bad preprocessor implementation)
@@ -996,6 +1008,11 @@ public class MultiLayerNetwork implements Serializable, Classifier, Layer, Neura
                 validateArrayWorkspaces(workspaceMgr, input, ArrayType.ACTIVATIONS, i, false, "Feed forward to layer (training)");
                 validateArrayWorkspaces(workspaceMgr, layers[i].input(), ArrayType.INPUT, i, false, "Feed forward to layer (training)");
 
+                if (timingListeners != null) {
+                    TimingListenerUtils.notify(timingListeners, this, TimingTrainingListener.Phase.FORWARD, layerName(i),
+                            start, TimingListenerUtils.bytes(input) + TimingListenerUtils.bytes(wsFFWorking));
+                }
+
                 out.add(input);
             }
         }
@@ -1003,6 +1020,193 @@ public class MultiLayerNetwork implements Serializable, Classifier, Layer, Neura
         return out;
     }
 
+    /**
+     * Feed-forward through the network at training time with gradient checkpointing: same as
+     * {@link #ffToLayerActivationsInWs(int, FwdPassType, boolean, INDArray, INDArray, INDArray)} with STANDARD forward
+     * pass, but layers are split into segments at the checkpoints returned by {@link #checkpoints(int)}, and for all
+     * segments except the last one only the segment output is kept in WS_ALL_LAYERS_ACT. Activations inside
+     * these segments are allocated in WS_CHECKPOINT_SEGMENT, which is released at the end of each segment, and are
+     * recomputed during backprop - see {@link #calcBackpropGradients(INDArray, boolean, boolean, boolean, List)}.<br>
+     * Entries of the returned list for discarded activations are null, hence the list must not be passed to
+     * {@link TrainingListener#onForwardPass(Model, List)}.
+     *
+     * @param layerIndex Index (inclusive) to stop forward pass at. For all layers, use numLayers-1
+     * @param input      Input to network
+     * @param fMask      Feature mask array. May be null
+     * @param lMask      Label mask aray. May be null.
+     * @return
+     */
+    protected List<INDArray> ffToLayerActivationsCheckpointed(int layerIndex, @NonNull INDArray input, INDArray fMask,
+                                                              INDArray lMask){
+        boolean[] checkpoints = checkpoints(layerIndex);
+        int segmentsEnd = checkpointSegmentsEnd(layerIndex);
+        validateCheckpointing(segmentsEnd);
+
+        setInput(input);
+        setLayerMaskArrays(fMask, lMask);
+
+        LayerWorkspaceMgr workspaceMgr;
+        LayerWorkspaceMgr segmentMgr;
+        LayerWorkspaceMgr segmentOutputMgr;
+        if(layerWiseConfigurations.getTrainingWorkspaceMode() == WorkspaceMode.NONE){
+            WorkspaceUtils.assertNoWorkspacesOpen("Expected no workspace active in ffToLayerActivationsCheckpointed when training workspace is set to NONE");
+            workspaceMgr = LayerWorkspaceMgr.noWorkspaces();
+            segmentMgr = workspaceMgr;
+            segmentOutputMgr = workspaceMgr;
+        } else {
+            workspaceMgr = LayerWorkspaceMgr.builder()
+                    .with(ArrayType.INPUT, WS_ALL_LAYERS_ACT, WS_ALL_LAYERS_ACT_CONFIG)
+                    .with(ArrayType.ACTIVATIONS, WS_ALL_LAYERS_ACT, WS_ALL_LAYERS_ACT_CONFIG)
+                    .with(ArrayType.FF_WORKING_MEM, WS_LAYER_WORKING_MEM, WS_LAYER_WORKING_MEM_CONFIG)
+                    .with(ArrayType.RNN_FF_LOOP_WORKING_MEM, WS_RNN_LOOP_WORKING_MEM, WS_RNN_LOOP_WORKING_MEM_CONFIG)
+                    .build();
+            if(layerWiseConfigurations.getCacheMode() != CacheMode.NONE){
+                workspaceMgr.setWorkspace(ArrayType.FF_CACHE, WS_ALL_LAYERS_ACT, WS_ALL_LAYERS_ACT_CONFIG);
+                workspaceMgr.setWorkspace(ArrayType.BP_WORKING_MEM, WS_LAYER_WORKING_MEM, WS_LAYER_WORKING_MEM_CONFIG);
+            }
+            segmentMgr = checkpointSegmentWorkspaceMgr(false);
+            segmentOutputMgr = checkpointSegmentWorkspaceMgr(true);
+
+            if(input.isAttached()){
+                //Don't leverage out of async DataSetIterator workspaces
+                workspaceMgr.setNoLeverageOverride(input.data().getParentWorkspace().getId());
+                segmentMgr.setNoLeverageOverride(input.data().getParentWorkspace().getId());
+                segmentOutputMgr.setNoLeverageOverride(input.data().getParentWorkspace().getId());
+            }
+
+            WorkspaceUtils.assertOpenAndActive(WS_ALL_LAYERS_ACT, "ffToLayerActivationsCheckpointed method requires workspace WS_ALL_LAYERS_ACT to be open");
+        }
+
+        List<INDArray> out = new ArrayList<>();
+        out.add(workspaceMgr.leverageTo(ArrayType.INPUT, input));
+
+        List<TimingTrainingListener> timingListeners = TimingListenerUtils.timingListeners(trainingListeners);
+        MemoryWorkspace wsSegment = null;
+        try {
+            for (int i = 0; i <= layerIndex; i++) {
+                boolean recomputed = i < segmentsEnd;
+                boolean segmentOutput = checkpoints[i];
+                LayerWorkspaceMgr mgr = !recomputed ? workspaceMgr : (segmentOutput ? segmentOutputMgr : segmentMgr);
+
+                if (recomputed && (i == 0 || checkpoints[i - 1])) {
+                    wsSegment = segmentMgr.notifyScopeEntered(ArrayType.INPUT);
+                }
+
+                try (MemoryWorkspace wsFFWorking = mgr.notifyScopeEntered(ArrayType.FF_WORKING_MEM)) {
+                    long start = (timingListeners == null ? 0 : System.nanoTime());
+                    if (getLayerWiseConfigurations().getInputPreProcess(i) != null) {
+                        input = getLayerWiseConfigurations().getInputPreProcess(i).preProcess(input, getInputMiniBatchSize(), mgr);
+                        validateArrayWorkspaces(mgr, input, ArrayType.ACTIVATIONS, i, true, "Feed forward to layer (training, checkpointed)");
+                    }
+
+                    input = layers[i].activate(input, true, mgr);
+                    if (input == null) {
+                        throw new IllegalStateException("Layer " + i + " returned null activations");
+                    }
+
+                    validateArrayWorkspaces(mgr, input, ArrayType.ACTIVATIONS, i, false, "Feed forward to layer (training, checkpointed)");
+
+                    if (timingListeners != null) {
+                        TimingListenerUtils.notify(timingListeners, this, TimingTrainingListener.Phase.FORWARD, layerName(i),
+                                start, TimingListenerUtils.bytes(input) + TimingListenerUtils.bytes(wsFFWorking));
+                    }
+                }
+
+                out.add(recomputed && !segmentOutput ? null : input);
+
+                if (segmentOutput && wsSegment != null) {
+                    wsSegment.close();
+                    wsSegment = null;
+                }
+            }
+        } finally {
+            if (wsSegment != null) {
+                wsSegment.close();
+            }
+        }
+
+        return out;
+    }
+
+    /**
+     * Gradient checkpoints for a forward pass up to (and including) the specified layer: element i is true if layer i
+     * is the last layer of a segment that is recomputed during backprop. The output of these layers is kept, the
+     * activations of all other layers of their segments are not.<br>
+     * Checkpoints are every {@link MultiLayerConfiguration#getCheckpointInterval()}-th layer, or the layers listed in
+     * {@link MultiLayerConfiguration#getCheckpointLayers()}. Only checkpoints before the specified layer are used: the
+     * last segment is never recomputed, as it is the first one to be backpropagated.
+     *
+     * @param layerIndex Index (inclusive) of the last layer of the forward pass
+     */
+    protected boolean[] checkpoints(int layerIndex) {
+        boolean[] out = new boolean[layers.length];
+        int interval = layerWiseConfigurations.getCheckpointInterval();
+        if (interval > 0) {
+            for (int i = interval - 1; i < layerIndex; i += interval) {
+                out[i] = true;
+            }
+        }
+        int[] checkpointLayers = layerWiseConfigurations.getCheckpointLayers();
+        if (checkpointLayers != null) {
+            for (int i : checkpointLayers) {
+                if (i < layerIndex) {
+                    out[i] = true;
+                }
+            }
+        }
+        return out;
+    }
+
+    /**
+     * Index of the first layer that keeps its activations when gradient checkpointing is used for a forward pass up
+     * to (and including) the specified layer: all layers before it are in segments that are recomputed during
+     * backprop. 0 if no segment is recomputed.
+     *
+     * @param layerIndex Index (inclusive) of the last layer of the forward pass
+     */
+    protected int checkpointSegmentsEnd(int layerIndex) {
+        boolean[] checkpoints = checkpoints(layerIndex);
+        for (int i = checkpoints.length - 1; i >= 0; i--) {
+            if (checkpoints[i]) {
+                return i + 1;
+            }
+        }
+        return 0;
+    }
+
+    protected boolean useCheckpointing(boolean tbptt) {
+        return !tbptt && checkpointSegmentsEnd(layers.length - 2) > 0;
+    }
+
+    protected void validateCheckpointing(int segmentsEnd) {
+        for (int i = 0; i < segmentsEnd; i++) {
+            org.deeplearning4j.nn.conf.layers.Layer l = layers[i].conf().getLayer();
+            if (l.getIDropout() != null || (l instanceof BaseLayer && ((BaseLayer) l).getWeightNoise() != null)) {
+                throw new IllegalStateException("Gradient checkpointing can't be used with dropout or weight noise on" +
+                        " recomputed layers: layer " + i + " (" + layers[i].getClass().getSimpleName() + ") is in a" +
+                        " recomputed segment and has " + (l.getIDropout() != null ? "dropout" : "weight noise") +
+                        " configured. Only layers from index " + segmentsEnd + " onwards may use dropout/weight noise" +
+                        " with the configured checkpoints");
+            }
+        }
+    }
+
+    protected LayerWorkspaceMgr checkpointSegmentWorkspaceMgr(boolean segmentOutput) {
+        if (layerWiseConfigurations.getTrainingWorkspaceMode() == WorkspaceMode.NONE) {
+            return LayerWorkspaceMgr.noWorkspaces();
+        }
+
+        //Segment output is the input of the next segment, and hence has to survive closing of the segment workspace
+        return LayerWorkspaceMgr.builder()
+                .with(ArrayType.INPUT, WS_CHECKPOINT_SEGMENT, WS_ALL_LAYERS_ACT_CONFIG)
+                .with(ArrayType.ACTIVATIONS, segmentOutput ? WS_ALL_LAYERS_ACT : WS_CHECKPOINT_SEGMENT, WS_ALL_LAYERS_ACT_CONFIG)
+                .with(ArrayType.FF_CACHE, WS_CHECKPOINT_SEGMENT, WS_ALL_LAYERS_ACT_CONFIG)
+                .with(ArrayType.FF_WORKING_MEM, WS_LAYER_WORKING_MEM, WS_LAYER_WORKING_MEM_CONFIG)
+                .with(ArrayType.BP_WORKING_MEM, WS_LAYER_WORKING_MEM, WS_LAYER_WORKING_MEM_CONFIG)
+                .with(ArrayType.RNN_FF_LOOP_WORKING_MEM, WS_RNN_LOOP_WORKING_MEM, WS_RNN_LOOP_WORKING_MEM_CONFIG)
+                .build();
+    }
+
     /**
      * Provide the output of the specified layer, detached from any workspace. This is most commonly used at inference/test
      * time, and is more memory efficient than {@link #ffToLayerActivationsDetached(boolean, FwdPassType, boolean, int, INDArray, INDArray, INDArray, boolean)}
@@ -1433,13 +1637,19 @@ public class MultiLayerNetwork implements Serializable, Classifier, Layer, Neura
             if (!iter.hasNext() && iter.resetSupported()) {
                 iter.reset();
             }
+            List<TimingTrainingListener> timingListeners = TimingListenerUtils.timingListeners(trainingListeners);
             long time1 = System.currentTimeMillis();
             while (iter.hasNext()) {
 
+                long start = (timingListeners == null ? 0 : System.nanoTime());
                 DataSet next = iter.next();
                 long time2 = System.currentTimeMillis();
 
                 lastEtlTime.set((time2 - time1));
+                if (timingListeners != null) {
+                    TimingListenerUtils.notify(timingListeners, this, TimingTrainingListener.Phase.DATA_LOADING,
+                            iter.getClass().getSimpleName(), start, 0);
+                }
 
                 if (next.getFeatureMatrix() == null || next.getLabels() == null)
                     break;
@@ -1531,8 +1741,15 @@ public class MultiLayerNetwork implements Serializable, Classifier, Layer, Neura
             //First: do a feed-forward through the network
             //Note that we don't actually need to do the full forward pass through the output layer right now; but we do
             // need the input to the output layer to be set (such that backprop can be done)
-            List<INDArray> activations = ffToLayerActivationsInWs(layers.length - 2, FwdPassType.STANDARD, false, input, mask, fMask);
-            if (!trainingListeners.isEmpty()) {
+            boolean checkpointing = useCheckpointing(false);
+            List<INDArray> activations;
+            if (checkpointing) {
+                activations = ffToLayerActivationsCheckpointed(layers.length - 2, input, mask, fMask);
+            } else {
+                activations = ffToLayerActivationsInWs(layers.length - 2, FwdPassType.STANDARD, false, input, mask, fMask);
+            }
+            //With checkpointing, most activations have been discarded: listeners aren't notified
+            if (!trainingListeners.isEmpty() && !checkpointing) {
                 //TODO: We possibly do want output layer activations in some cases here...
                 for (TrainingListener tl : trainingListeners) {
                     tl.onForwardPass(this, activations);
@@ -1546,7 +1763,7 @@ public class MultiLayerNetwork implements Serializable, Classifier, Layer, Neura
             }
             getOutputLayer().setInput(inputToOutputLayer, mgr);
 
-            Pair<Gradient,INDArray> p = calcBackpropGradients(null, true, false, true);
+            Pair<Gradient,INDArray> p = calcBackpropGradients(null, true, false, true, checkpointing ? activations : null, 1.0);
             if(p.getSecond() != null){
                 p.setSecond( p.getSecond().detach());
             }
@@ -1566,6 +1783,25 @@ public class MultiLayerNetwork implements Serializable, Classifier, Layer, Neura
      */
     protected Pair<Gradient, INDArray> calcBackpropGradients(INDArray epsilon, boolean withOutputLayer, boolean tbptt,
                                                              boolean returnInputActGrad) {
+        return calcBackpropGradients(epsilon, withOutputLayer, tbptt, returnInputActGrad, null, 1.0);
+    }
+
+    /**
+     * Calculate gradients and errors, as per {@link #calcBackpropGradients(INDArray, boolean, boolean, boolean)}.
+     * If checkpoint activations are provided, activations of recomputed segments (see
+     * {@link #ffToLayerActivationsCheckpointed(int, INDArray, INDArray, INDArray)}) are recomputed from the segment
+     * input when backprop reaches the last layer of the segment, and released once the first layer of the segment is done.
+     *
+     * Output layer gradients are multiplied by the specified loss scale: all resulting gradients are scaled
+     * accordingly, and are expected to be unscaled by the updater - see {@link LossScaler}
+     *
+     * @param checkpointActivations Activations as returned by ffToLayerActivationsCheckpointed. May be null (no recomputation)
+     * @param lossScale             Loss scale. 1.0 for no loss scaling. Not used if withOutputLayer = false: external
+     *                              errors are scaled by the caller instead - see {@link #backpropGradient(INDArray, LayerWorkspaceMgr)}
+     */
+    protected Pair<Gradient, INDArray> calcBackpropGradients(INDArray epsilon, boolean withOutputLayer, boolean tbptt,
+                                                             boolean returnInputActGrad, List<INDArray> checkpointActivations,
+                                                             double lossScale) {
         if (flattenedGradients == null) {
             initGradientsView();
         }
@@ -1640,10 +1876,15 @@ public class MultiLayerNetwork implements Serializable, Classifier, Layer, Neura
         LinkedList<Triple<String, INDArray, Character>> gradientList = new LinkedList<>();
 
 
+        boolean[] checkpoints = (checkpointActivations == null ? new boolean[layers.length] : checkpoints(layers.length - 2));
+        LayerWorkspaceMgr recomputeMgr = (checkpointActivations != null ? checkpointSegmentWorkspaceMgr(false) : null);
+
         Pair<Gradient, INDArray> currPair = null;
         MemoryWorkspace wsActGradCloseNext = null;
         MemoryWorkspace wsActGradTemp = null;
+        MemoryWorkspace wsRecompute = null;
         MemoryWorkspace initialWorkspace = Nd4j.getMemoryManager().getCurrentWorkspace();
+        List<TimingTrainingListener> timingListeners = TimingListenerUtils.timingListeners(trainingListeners);
         try {
             for (int i = layers.length - 1; i >= 0; i--) {
                 if (layers[i] instanceof FrozenLayer) {
@@ -1652,6 +1893,37 @@ public class MultiLayerNetwork implements Serializable, Classifier, Layer, Neura
 
                 LayerWorkspaceMgr workspaceMgr = (i % 2 == 0 ? mgrEven : mgrOdd);
 
+                if (checkpoints[i]) {
+                    //Last layer of a checkpointed segment: recompute activations of the whole segment from its input,
+                    // so that layer inputs (and any other state required for backprop) are set again
+                    int segmentStart = i;
+                    while (segmentStart > 0 && !checkpoints[segmentStart - 1]) {
+                        segmentStart--;
+                    }
+                    wsRecompute = recomputeMgr.notifyScopeEntered(ArrayType.INPUT);
+                    wsRecompute.setPreviousWorkspace(initialWorkspace);
+                    INDArray segmentIn = checkpointActivations.get(segmentStart);
+                    for (int j = segmentStart; j <= i; j++) {
+                        try (MemoryWorkspace wsFFWorking = recomputeMgr.notifyScopeEntered(ArrayType.FF_WORKING_MEM)) {
+                            if (getLayerWiseConfigurations().getInputPreProcess(j) != null) {
+                                segmentIn = getLayerWiseConfigurations().getInputPreProcess(j)
+                                        .preProcess(segmentIn, getInputMiniBatchSize(), recomputeMgr);
+                            }
+                            if (layers[j] instanceof BatchNormalization) {
+                                //Running mean/variance were already updated by the original forward pass: don't update twice
+                                INDArray globalMean = layers[j].getParam(BatchNormalizationParamInitializer.GLOBAL_MEAN).dup();
+                                INDArray globalVar = layers[j].getParam(BatchNormalizationParamInitializer.GLOBAL_VAR).dup();
+                                segmentIn = layers[j].activate(segmentIn, true, recomputeMgr);
+                                layers[j].getParam(BatchNormalizationParamInitializer.GLOBAL_MEAN).assign(globalMean);
+                                layers[j].getParam(BatchNormalizationParamInitializer.GLOBAL_VAR).assign(globalVar);
+                            } else {
+                                segmentIn = layers[j].activate(segmentIn, true, recomputeMgr);
+                            }
+                        }
+                    }
+                }
+
+                long start = (timingListeners == null ? 0 : System.nanoTime());
                 if (withOutputLayer && i == layers.length - 1) {
                     if (!(getOutputLayer() instanceof IOutputLayer)) {
                         log.warn("Warning: final layer isn't output layer. You cannot use backprop without an output layer.");
@@ -1689,6 +1961,16 @@ public class MultiLayerNetwork implements Serializable, Classifier, Layer, Neura
                         }
                     }
 
+                    if (withOutputLayer && i == layers.length - 1 && lossScale != 1.0) {
+                        //Scaling output layer gradients is equivalent to scaling the loss
+                        for (INDArray g : currPair.getFirst().gradientForVariable().values()) {
+                            g.muli(lossScale);
+                        }
+                        if (currPair.getSecond() != null) {
+                            currPair.getSecond().muli(lossScale);
+                        }
+                    }
+
                     if(currPair.getSecond() != null) {
                         //Edge case: may be null for Embedding layer, for example
                         validateArrayWorkspaces(workspaceMgr, currPair.getSecond(), ArrayType.ACTIVATION_GRAD, numLayers - 1,
@@ -1711,6 +1993,11 @@ public class MultiLayerNetwork implements Serializable, Classifier, Layer, Neura
                         }
                     }
 
+                    if (timingListeners != null) {
+                        TimingListenerUtils.notify(timingListeners, this, TimingTrainingListener.Phase.BACKWARD, layerName(i),
+                                start, TimingListenerUtils.bytes(currPair.getSecond()) + TimingListenerUtils.bytes(wsBPWorking));
+                    }
+
                     if(i == 0 ){
                         if(returnInputActGrad && currPair.getSecond() != null){
                             currPair.setSecond(currPair.getSecond().detach());
@@ -1725,11 +2012,21 @@ public class MultiLayerNetwork implements Serializable, Classifier, Layer, Neura
                     wsActGradCloseNext = wsActGradTemp;
                     wsActGradTemp = null;
                 }
+
+                if (wsRecompute != null && (i == 0 || checkpoints[i - 1])) {
+                    //First layer of the segment is done: recomputed activations are no longer required
+                    wsRecompute.close();
+                    wsRecompute = null;
+                }
             }
         } finally {
             if(wsActGradCloseNext != null){
                 wsActGradCloseNext.close();
             }
+            if(wsRecompute != null){
+                //Should only be non-null on exception, or if a frozen layer is reached
+                wsRecompute.close();
+            }
             if(wsActGradTemp != null){
                 //Should only be non-null on exception
                 wsActGradTemp.close();
@@ -1829,6 +2126,11 @@ public class MultiLayerNetwork implements Serializable, Classifier, Layer, Neura
         return out;
     }
 
+    private String layerName(int layerIdx) {
+        String name = layers[layerIdx].conf().getLayer().getLayerName();
+        return name == null ? String.valueOf(layerIdx) : name;
+    }
+
     public void updateRnnStateWithTBPTTState() {
         for (int i = 0; i < layers.length; i++) {
             if (layers[i] instanceof RecurrentLayer) {
@@ -2449,8 +2751,15 @@ public class MultiLayerNetwork implements Serializable, Classifier, Layer, Neura
             //First: do a feed-forward through the network
             //Note that we don't actually need to do the full forward pass through the output layer right now; but we do
             // need the input to the output layer to be set (such that backprop can be done)
-            List<INDArray> activations = ffToLayerActivationsInWs(layers.length - 2, fwdType, tbptt, input, mask, null);
-            if (!trainingListeners.isEmpty()) {
+            boolean checkpointing = useCheckpointing(tbptt);
+            List<INDArray> activations;
+            if (checkpointing) {
+                activations = ffToLayerActivationsCheckpointed(layers.length - 2, input, mask, null);
+            } else {
+                activations = ffToLayerActivationsInWs(layers.length - 2, fwdType, tbptt, input, mask, null);
+            }
+            //With checkpointing, most activations have been discarded: listeners aren't notified
+            if (!trainingListeners.isEmpty() && !checkpointing) {
                 //TODO: We possibly do want output layer activations in some cases here...
                 for (TrainingListener tl : trainingListeners) {
                     tl.onForwardPass(this, activations);
@@ -2464,7 +2773,9 @@ public class MultiLayerNetwork implements Serializable, Classifier, Layer, Neura
             }
             getOutputLayer().setInput(inputToOutputLayer, mgr);
             //Then: compute gradients
-            Pair<Gradient, INDArray> pair = calcBackpropGradients(null, true, false, false);
+            LossScaler lossScaler = layerWiseConfigurations.getLossScaler();
+            Pair<Gradient, INDArray> pair = calcBackpropGradients(null, true, false, false,
+                    checkpointing ? activations : null, lossScaler == null ? 1.0 : lossScaler.getScale());
             this.gradient = (pair == null ? null : pair.getFirst());
 
             //Calculate score
@@ -2718,7 +3029,17 @@ public class MultiLayerNetwork implements Serializable, Classifier, Layer, Neura
         if (getOutputLayer() instanceof IOutputLayer)
             throw new UnsupportedOperationException("Cannot calculate gradients based on epsilon with OutputLayer");
 
-        return calcBackpropGradients(epsilon, false, false, true);
+        //Loss scaling: the updater unscales the gradients whenever a loss scaler is configured, hence the external
+        // errors are scaled as the loss would be. Input activation gradients are returned unscaled
+        LossScaler lossScaler = layerWiseConfigurations.getLossScaler();
+        if (lossScaler == null || lossScaler.getScale() == 1.0 || epsilon == null)
+            return calcBackpropGradients(epsilon, false, false, true);
+
+        double lossScale = lossScaler.getScale();
+        Pair<Gradient, INDArray> p = calcBackpropGradients(epsilon.mul(lossScale), false, false, true);
+        if (p != null && p.getSecond() != null)
+            p.getSecond().divi(lossScale);
+        return p;
     }
 
     @Override
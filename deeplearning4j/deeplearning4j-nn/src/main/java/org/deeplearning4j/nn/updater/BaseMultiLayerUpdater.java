@@ -5,6 +5,7 @@ import org.deeplearning4j.nn.api.Layer;
 import org.deeplearning4j.nn.api.Model;
 import org.deeplearning4j.nn.api.Updater;
 import org.deeplearning4j.nn.conf.GradientNormalization;
+import org.deeplearning4j.nn.conf.LossScaler;
 import org.deeplearning4j.nn.conf.layers.BaseLayer;
 import org.deeplearning4j.nn.gradient.DefaultGradient;
 import org.deeplearning4j.nn.gradient.Gradient;
@@ -14,11 +15,17 @@ import org.nd4j.linalg.api.ops.CustomOp;
 import org.nd4j.linalg.api.ops.DynamicCustomOp;
 import org.nd4j.linalg.api.ops.impl.accum.Norm2;
 import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.indexing.BooleanIndexing;
 import org.nd4j.linalg.indexing.NDArrayIndex;
+import org.nd4j.linalg.indexing.conditions.Conditions;
 import org.deeplearning4j.nn.workspace.ArrayType;
 import org.deeplearning4j.nn.workspace.LayerWorkspaceMgr;
+import org.deeplearning4j.optimize.api.TimingTrainingListener;
+import org.deeplearning4j.optimize.api.TrainingListener;
+import org.deeplearning4j.util.TimingListenerUtils;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -186,6 +193,20 @@ public abstract class BaseMultiLayerUpdater<T extends Model> implements Updater
      */
     protected abstract boolean isMiniBatch();
 
+    /**
+     * @return Loss scaler for the model, or null if loss scaling isn't used
+     */
+    protected LossScaler getLossScaler() {
+        return null;
+    }
+
+    /**
+     * @return Training listeners of the model, used to notify {@link TimingTrainingListener}s. May be null
+     */
+    protected Collection<TrainingListener> getTrainingListeners() {
+        return network instanceof Layer ? ((Layer) network).getListeners() : null;
+    }
+
     /**
      * Set the view array. Note that this does an assign operation - the provided array is not stored internally.
      *
@@ -231,6 +252,24 @@ public abstract class BaseMultiLayerUpdater<T extends Model> implements Updater
         // hence should be the same object under normal circumstances
         boolean isExternal = gradient.gradient() != getFlattenedGradientsView();
 
+        //Loss scaling: gradients were computed for the scaled loss, hence need to be unscaled before anything else
+        // (gradient clipping etc) is applied. Non-finite gradients mean the scale was too large: skip this update
+        LossScaler lossScaler = getLossScaler();
+        if (lossScaler != null) {
+            INDArray grad = isExternal ? gradient.gradient() : getFlattenedGradientsView();
+            if (grad != null) {
+                grad.divi(lossScaler.getScale());
+                boolean overflow = BooleanIndexing.or(grad, Conditions.isNan())
+                                || BooleanIndexing.or(grad, Conditions.isInfinite());
+                lossScaler.update(overflow);
+                if (overflow) {
+                    //Zero update: parameters and updater state are left unchanged
+                    grad.assign(0);
+                    return;
+                }
+            }
+        }
+
         //Split up the gradients on a per-layer basis, for pre-apply
         Map<String, Gradient> layerGradients = new HashMap<>();
 
@@ -257,12 +296,19 @@ public abstract class BaseMultiLayerUpdater<T extends Model> implements Updater
             }
         }
 
+        List<TimingTrainingListener> timingListeners = TimingListenerUtils.timingListeners(getTrainingListeners());
+
         //PRE apply (gradient clipping, etc): done on a per-layer basis
         for (Map.Entry<String, Gradient> entry : layerGradients.entrySet()) {
             String layerName = entry.getKey();
             Layer layer = layersByName.get(layerName);
 
+            long start = (timingListeners == null ? 0 : System.nanoTime());
             preApply(layer, layerGradients.get(layerName), iteration);
+            if (timingListeners != null) {
+                TimingListenerUtils.notify(timingListeners, network, TimingTrainingListener.Phase.GRADIENT_NORMALIZATION,
+                                timingName(layer), start, 0);
+            }
         }
 
 
@@ -276,6 +322,7 @@ public abstract class BaseMultiLayerUpdater<T extends Model> implements Updater
                 continue;
             }
             try(MemoryWorkspace ws = workspaceMgr.notifyScopeEntered(ArrayType.UPDATER_WORKING_MEM)){
+                long start = (timingListeners == null ? 0 : System.nanoTime());
                 if (isExternal) {
                     //RL4J etc type case: calculate gradients in 1 net, update them in another
                     ub.updateExternalGradient(iteration, epoch, gradient.gradient(), getParams());
@@ -283,6 +330,10 @@ public abstract class BaseMultiLayerUpdater<T extends Model> implements Updater
                     //Standard case
                     ub.update(iteration, epoch);
                 }
+                if (timingListeners != null) {
+                    TimingListenerUtils.notify(timingListeners, network, TimingTrainingListener.Phase.UPDATER,
+                                    blockName(ub), start, TimingListenerUtils.bytes(ws));
+                }
             }
         }
 
@@ -302,6 +353,21 @@ public abstract class BaseMultiLayerUpdater<T extends Model> implements Updater
         }
     }
 
+    /**
+     * @return Name of the updater block: the name of its layer, or "first-last" if the block spans multiple layers
+     */
+    protected static String blockName(UpdaterBlock block) {
+        List<UpdaterBlock.ParamState> params = block.getLayersAndVariablesInBlock();
+        String first = timingName(params.get(0).getLayer());
+        String last = timingName(params.get(params.size() - 1).getLayer());
+        return first.equals(last) ? first : first + "-" + last;
+    }
+
+    private static String timingName(Layer layer) {
+        String name = layer.conf().getLayer().getLayerName();
+        return name == null ? String.valueOf(layer.getIndex()) : name;
+    }
+
     protected boolean isSingleLayerUpdater() {
         return false;
     }
@@ -1,11 +1,14 @@
 package org.deeplearning4j.nn.updater.graph;
 
 import org.deeplearning4j.nn.api.Layer;
+import org.deeplearning4j.nn.conf.LossScaler;
 import org.deeplearning4j.nn.graph.ComputationGraph;
 import org.deeplearning4j.nn.graph.vertex.GraphVertex;
 import org.deeplearning4j.nn.updater.BaseMultiLayerUpdater;
+import org.deeplearning4j.optimize.api.TrainingListener;
 import org.nd4j.linalg.api.ndarray.INDArray;
 
+import java.util.Collection;
 import java.util.HashMap;
 
 /**
@@ -75,4 +78,14 @@ public class ComputationGraphUpdater extends BaseMultiLayerUpdater<ComputationGr
     protected boolean isMiniBatch() {
         return network.conf().isMiniBatch();
     }
+
+    @Override
+    protected LossScaler getLossScaler() {
+        return network.getConfiguration().getLossScaler();
+    }
+
+    @Override
+    protected Collection<TrainingListener> getTrainingListeners() {
+        return network.getListeners();
+    }
 }
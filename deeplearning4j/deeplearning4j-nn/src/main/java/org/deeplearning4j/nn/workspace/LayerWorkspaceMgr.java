@@ -50,6 +50,12 @@ public class LayerWorkspaceMgr extends BaseWorkspaceMgr<ArrayType> {
         noLeverageOverride.add(wsName);
     }
 
+    public void removeNoLeverageOverride(String wsName){
+        if(noLeverageOverride != null){
+            noLeverageOverride.remove(wsName);
+        }
+    }
+
     @Override
     public INDArray leverageTo(ArrayType arrayType, INDArray array){
         if(noLeverageOverride != null && array.isAttached() && noLeverageOverride.contains(array.data().getParentWorkspace().getId())){
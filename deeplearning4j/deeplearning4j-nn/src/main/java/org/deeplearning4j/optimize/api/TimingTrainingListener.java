@@ -0,0 +1,51 @@
+package org.deeplearning4j.optimize.api;
+
+import org.deeplearning4j.nn.api.Model;
+
+/**
+ * A {@link TrainingListener} that is also notified of the time spent in the individual phases of each training
+ * iteration: forward and backward pass of each layer (or vertex for ComputationGraph), gradient normalization, updater
+ * and waiting for the next minibatch from the iterator.<br>
+ * Timings are only measured if at least one TimingTrainingListener is registered with the network, hence there is no
+ * overhead otherwise.<br>
+ * Note that on CUDA, ops are executed asynchronously: unless the device is synchronized, timings are attributed to the
+ * phase that waits for the results, rather than the phase that launched the ops.
+ */
+public interface TimingTrainingListener extends TrainingListener {
+
+    enum Phase {
+        /**
+         * Forward pass (activate) of a single layer or vertex, during training
+         */
+        FORWARD,
+        /**
+         * Backward pass (backpropGradient) of a single layer or vertex
+         */
+        BACKWARD,
+        /**
+         * Gradient normalization/clipping of a single layer
+         */
+        GRADIENT_NORMALIZATION,
+        /**
+         * Updater (Adam, Nesterov, etc) for a block of layers that share the same updater configuration
+         */
+        UPDATER,
+        /**
+         * Waiting for the next DataSet/MultiDataSet from the iterator
+         */
+        DATA_LOADING
+    }
+
+    /**
+     * Called after each timed phase has completed
+     *
+     * @param model         Model being trained
+     * @param phase         Phase that was timed
+     * @param name          Name of the layer, vertex or updater block the time was spent in. For {@link Phase#DATA_LOADING},
+     *                      the iterator class
+     * @param durationNanos Wall time spent in the phase, in nanoseconds
+     * @param bytes         Number of bytes allocated in the phase: output arrays (activations or activation gradients)
+     *                      plus working memory workspace allocations, where available. 0 if not known
+     */
+    void onTiming(Model model, Phase phase, String name, long durationNanos, long bytes);
+}
@@ -0,0 +1,200 @@
+package org.deeplearning4j.optimize.listeners;
+
+import com.google.common.base.Preconditions;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.deeplearning4j.nn.api.Model;
+import org.deeplearning4j.optimize.api.BaseTrainingListener;
+import org.deeplearning4j.optimize.api.TimingTrainingListener;
+
+import java.io.Serializable;
+import java.util.*;
+
+/**
+ * A listener that breaks down the time of each training iteration: forward and backward pass per layer (or per
+ * GraphVertex for ComputationGraph), gradient normalization per layer, updater per updater block, and time spent
+ * waiting for data from the iterator.<br>
+ * For each of these, the last {@code windowSize} measurements are kept, and reported as rolling percentiles, along
+ * with the mean number of bytes allocated (output arrays plus working memory workspace allocations).<br>
+ * Statistics are logged every {@code frequency} iterations, and can be retrieved with {@link #getStats()}.
+ * <br>
+ * Note that on CUDA, ops are executed asynchronously: timings are only accurate per layer if the device is
+ * synchronized (for example, by using {@link org.nd4j.linalg.api.ops.executioner.OpExecutioner.ProfilingMode#ALL})
+ */
+@Slf4j
+public class LayerTimingListener extends BaseTrainingListener implements TimingTrainingListener, Serializable {
+    public static final int DEFAULT_WINDOW_SIZE = 100;
+
+    private final int frequency;
+    private final int windowSize;
+    private final Map<Key, Window> windows = new LinkedHashMap<>();
+
+    /**
+     * Statistics for a single layer and phase, over the last (up to) windowSize iterations
+     */
+    @Data
+    @AllArgsConstructor
+    public static class TimingStats implements Serializable {
+        private Phase phase;
+        private String name;
+        private int count;
+        private double meanNanos;
+        private long p50Nanos;
+        private long p90Nanos;
+        private long p99Nanos;
+        private long maxNanos;
+        private double meanBytes;
+    }
+
+    /**
+     * @param frequency Frequency (in iterations) to log the statistics. Use 0 to never log the statistics
+     */
+    public LayerTimingListener(int frequency) {
+        this(frequency, DEFAULT_WINDOW_SIZE);
+    }
+
+    /**
+     * @param frequency  Frequency (in iterations) to log the statistics. Use 0 to never log the statistics
+     * @param windowSize Number of most recent measurements to compute the percentiles over
+     */
+    public LayerTimingListener(int frequency, int windowSize) {
+        Preconditions.checkArgument(frequency >= 0, "Invalid frequency, must be >= 0: Got " + frequency);
+        Preconditions.checkArgument(windowSize > 0, "Invalid window size, must be > 0: Got " + windowSize);
+        this.frequency = frequency;
+        this.windowSize = windowSize;
+    }
+
+    @Override
+    public synchronized void onTiming(Model model, Phase phase, String name, long durationNanos, long bytes) {
+        Key key = new Key(phase, name);
+        Window w = windows.get(key);
+        if (w == null) {
+            w = new Window(windowSize);
+            windows.put(key, w);
+        }
+        w.add(durationNanos, bytes);
+    }
+
+    @Override
+    public void iterationDone(Model model, int iteration, int epoch) {
+        if (frequency > 0 && iteration % frequency == 0) {
+            log.info("Layer timings at iteration {}:\n{}", iteration, statsAsString());
+        }
+    }
+
+    /**
+     * @return Statistics for all layers and phases, ordered by phase and then by mean time (descending)
+     */
+    public synchronized List<TimingStats> getStats() {
+        List<TimingStats> out = new ArrayList<>(windows.size());
+        for (Map.Entry<Key, Window> e : windows.entrySet()) {
+            Window w = e.getValue();
+            long[] sorted = Arrays.copyOf(w.durations, w.count);
+            Arrays.sort(sorted);
+            out.add(new TimingStats(e.getKey().phase, e.getKey().name, w.count, w.meanDuration(),
+                            percentile(sorted, 50), percentile(sorted, 90), percentile(sorted, 99),
+                            sorted[sorted.length - 1], w.meanBytes()));
+        }
+        Collections.sort(out, new Comparator<TimingStats>() {
+            @Override
+            public int compare(TimingStats o1, TimingStats o2) {
+                int c = o1.getPhase().compareTo(o2.getPhase());
+                return c != 0 ? c : Double.compare(o2.getMeanNanos(), o1.getMeanNanos());
+            }
+        });
+        return out;
+    }
+
+    /**
+     * @return Statistics for the given phase and layer/vertex/updater block name, or null if no measurements exist
+     */
+    public TimingStats getStats(Phase phase, String name) {
+        for (TimingStats s : getStats()) {
+            if (s.getPhase() == phase && s.getName().equals(name))
+                return s;
+        }
+        return null;
+    }
+
+    /**
+     * Clear all measurements
+     */
+    public synchronized void reset() {
+        windows.clear();
+    }
+
+    /**
+     * @return Statistics as a table, one line per layer and phase. Times are in milliseconds
+     */
+    public String statsAsString() {
+        List<TimingStats> stats = getStats();
+        Map<Phase, Double> phaseTotals = new EnumMap<>(Phase.class);
+        for (TimingStats s : stats) {
+            Double d = phaseTotals.get(s.getPhase());
+            phaseTotals.put(s.getPhase(), (d == null ? 0.0 : d) + s.getMeanNanos());
+        }
+
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%-24s %-30s %10s %10s %10s %10s %8s %12s%n", "Phase", "Name", "Mean", "p50", "p90",
+                        "p99", "% phase", "Mean bytes"));
+        for (TimingStats s : stats) {
+            double total = phaseTotals.get(s.getPhase());
+            sb.append(String.format("%-24s %-30s %10.3f %10.3f %10.3f %10.3f %8.1f %12.0f%n", s.getPhase(), s.getName(),
+                            s.getMeanNanos() / 1e6, s.getP50Nanos() / 1e6, s.getP90Nanos() / 1e6,
+                            s.getP99Nanos() / 1e6, total == 0 ? 0.0 : 100.0 * s.getMeanNanos() / total,
+                            s.getMeanBytes()));
+        }
+        return sb.toString();
+    }
+
+    private static long percentile(long[] sorted, double percentile) {
+        int idx = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, idx))];
+    }
+
+    @Data
+    @AllArgsConstructor
+    private static class Key implements Serializable {
+        private Phase phase;
+        private String name;
+    }
+
+    /**
+     * Ring buffer of the most recent measurements
+     */
+    private static class Window implements Serializable {
+        private final long[] durations;
+        private final long[] bytes;
+        private int count;
+        private int next;
+
+        private Window(int size) {
+            this.durations = new long[size];
+            this.bytes = new long[size];
+        }
+
+        private void add(long duration, long numBytes) {
+            durations[next] = duration;
+            bytes[next] = numBytes;
+            next = (next + 1) % durations.length;
+            if (count < durations.length)
+                count++;
+        }
+
+        private double meanDuration() {
+            return mean(durations);
+        }
+
+        private double meanBytes() {
+            return mean(bytes);
+        }
+
+        private double mean(long[] values) {
+            double sum = 0.0;
+            for (int i = 0; i < count; i++)
+                sum += values[i];
+            return sum / count;
+        }
+    }
+}
@@ -0,0 +1,393 @@
+package org.deeplearning4j.util;
+
+import com.google.common.collect.MapMaker;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.output.CloseShieldOutputStream;
+import org.apache.commons.io.output.CountingOutputStream;
+import org.deeplearning4j.nn.api.Model;
+import org.deeplearning4j.nn.conf.ComputationGraphConfiguration;
+import org.deeplearning4j.nn.conf.MultiLayerConfiguration;
+import org.deeplearning4j.nn.graph.ComputationGraph;
+import org.deeplearning4j.nn.multilayer.MultiLayerNetwork;
+import org.deeplearning4j.nn.updater.MultiLayerUpdater;
+import org.deeplearning4j.nn.updater.graph.ComputationGraphUpdater;
+import org.nd4j.linalg.api.buffer.DataBuffer;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.dataset.api.preprocessor.DataNormalization;
+import org.nd4j.linalg.dataset.api.preprocessor.serializer.NormalizerSerializer;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.indexing.NDArrayIndex;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.Properties;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Model serialization in an uncompressed, memory mappable format, for fast model loading.<br>
+ * The model is stored as a standard zip file (hence it can still be inspected with any zip tool, and the normalizer
+ * can be restored with {@link ModelSerializer#restoreNormalizerFromFile(File)}), but unlike {@link ModelSerializer}
+ * the parameters and updater state are stored as uncompressed (STORED) entries in native byte order, with the
+ * data of each entry aligned to {@link #ALIGNMENT} bytes.<br>
+ * On restore, the parameters are memory mapped directly into the flattened parameters view of the network, without
+ * decompression or copying: pages are read from disk (or the OS page cache) only when they are first used.
+ * The updater state (if loaded) is mapped the same way, hence no I/O occurs for it until training is started.<br>
+ * Mappings are private (copy on write): the network may be trained after loading, without modifying the file.
+ * <br>
+ * Arrays are loaded with a copying read instead of a mapping if the file is not writable (private mappings require
+ * read/write access), if the stored data type or byte order differs from the current ND4J data type or the native
+ * byte order, or if the array is larger than 2GB (the limit of a single mapping).<br>
+ * Note that the file must not be modified or deleted while a network restored from it is in use.
+ *
+ * @see ModelSerializer
+ */
+@Slf4j
+public class MappedModelSerializer {
+    public static final String COEFFICIENTS_RAW = "coefficients.raw";
+    public static final String UPDATER_RAW = "updaterState.raw";
+    public static final String MAPPED_ARRAYS_PROPERTIES = "mappedArrays.properties";
+    /**
+     * Alignment, in bytes, of the data of the parameters and updater state entries in the file
+     */
+    public static final int ALIGNMENT = 64;
+
+    private static final int ALIGNMENT_EXTRA_FIELD_ID = 0xD935;
+    private static final int EXTRA_FIELD_HEADER_LENGTH = 4;
+    private static final int LOCAL_HEADER_SIGNATURE = 0x04034b50;
+    private static final int LOCAL_HEADER_LENGTH = 30;
+    private static final int CHUNK_SIZE = 1 << 20;
+
+    //Keeps the mapped buffers reachable for as long as the data buffers using them
+    private static final Map<DataBuffer, MappedByteBuffer> MAPPED_BUFFERS = new MapMaker().weakKeys().makeMap();
+
+    private MappedModelSerializer() {}
+
+    /**
+     * Write a model to a file, in the memory mappable format
+     *
+     * @param model       the model to write
+     * @param file        the file to write to
+     * @param saveUpdater whether to save the updater state
+     * @throws IOException
+     */
+    public static void writeModel(@NonNull Model model, @NonNull File file, boolean saveUpdater) throws IOException {
+        writeModel(model, file, saveUpdater, null);
+    }
+
+    /**
+     * Write a model to a file, in the memory mappable format
+     *
+     * @param model             the model to write
+     * @param file              the file to write to
+     * @param saveUpdater       whether to save the updater state
+     * @param dataNormalization the normalizer to save (may be null)
+     * @throws IOException
+     */
+    public static void writeModel(@NonNull Model model, @NonNull File file, boolean saveUpdater,
+                    DataNormalization dataNormalization) throws IOException {
+        String json;
+        INDArray updaterState = null;
+        if (model instanceof MultiLayerNetwork) {
+            MultiLayerNetwork network = (MultiLayerNetwork) model;
+            json = network.getLayerWiseConfigurations().toJson();
+            if (saveUpdater && network.getUpdater() != null)
+                updaterState = network.getUpdater().getStateViewArray();
+        } else if (model instanceof ComputationGraph) {
+            ComputationGraph graph = (ComputationGraph) model;
+            json = graph.getConfiguration().toJson();
+            if (saveUpdater && graph.getUpdater() != null)
+                updaterState = graph.getUpdater().getStateViewArray();
+        } else {
+            throw new IllegalArgumentException("Unsupported model type: " + model.getClass().getName());
+        }
+
+        Properties properties = new Properties();
+        try (CountingOutputStream cos = new CountingOutputStream(new BufferedOutputStream(new FileOutputStream(file)));
+             ZipOutputStream zos = new ZipOutputStream(cos)) {
+            zos.putNextEntry(new ZipEntry(ModelSerializer.CONFIGURATION_JSON));
+            zos.write(json.getBytes());
+
+            INDArray params = model.params();
+            if (params != null && params.length() > 0) {
+                writeArray(zos, cos, COEFFICIENTS_RAW, params, properties);
+            } else {
+                zos.putNextEntry(new ZipEntry(ModelSerializer.NO_PARAMS_MARKER));
+            }
+
+            if (updaterState != null && updaterState.length() > 0)
+                writeArray(zos, cos, UPDATER_RAW, updaterState, properties);
+
+            zos.putNextEntry(new ZipEntry(MAPPED_ARRAYS_PROPERTIES));
+            properties.store(zos, null);
+
+            if (dataNormalization != null) {
+                zos.putNextEntry(new ZipEntry(ModelSerializer.NORMALIZER_BIN));
+                NormalizerSerializer.getDefault().write(dataNormalization, new CloseShieldOutputStream(zos));
+            }
+            zos.closeEntry();
+        }
+    }
+
+    /**
+     * Load a multi layer network from a file written by {@link #writeModel(Model, File, boolean)}.
+     * The parameters (and updater state) are memory mapped where possible.
+     *
+     * @param file        the file to load from
+     * @param loadUpdater whether to load the updater state
+     * @return the loaded multi layer network
+     * @throws IOException
+     */
+    public static MultiLayerNetwork restoreMultiLayerNetwork(@NonNull File file, boolean loadUpdater)
+                    throws IOException {
+        MappedModel m = read(file, loadUpdater);
+        MultiLayerNetwork network = new MultiLayerNetwork(MultiLayerConfiguration.fromJson(m.json));
+        network.init(m.params, false);
+        if (m.updaterState != null)
+            network.setUpdater(new MultiLayerUpdater(network, m.updaterState));
+        return network;
+    }
+
+    /**
+     * Load a computation graph from a file written by {@link #writeModel(Model, File, boolean)}.
+     * The parameters (and updater state) are memory mapped where possible.
+     *
+     * @param file        the file to load from
+     * @param loadUpdater whether to load the updater state
+     * @return the loaded computation graph
+     * @throws IOException
+     */
+    public static ComputationGraph restoreComputationGraph(@NonNull File file, boolean loadUpdater)
+                    throws IOException {
+        MappedModel m = read(file, loadUpdater);
+        ComputationGraph graph = new ComputationGraph(ComputationGraphConfiguration.fromJson(m.json));
+        graph.init(m.params, false);
+        if (m.updaterState != null)
+            graph.setUpdater(new ComputationGraphUpdater(graph, m.updaterState));
+        return graph;
+    }
+
+    /**
+     * @return true if the given file is a model written in the memory mappable format
+     */
+    public static boolean isMappedModel(@NonNull File file) throws IOException {
+        try (ZipFile zipFile = new ZipFile(file)) {
+            return isMappedModel(zipFile);
+        }
+    }
+
+    protected static boolean isMappedModel(ZipFile zipFile) {
+        return zipFile.getEntry(MAPPED_ARRAYS_PROPERTIES) != null;
+    }
+
+    private static class MappedModel {
+        private String json;
+        private INDArray params;
+        private INDArray updaterState;
+    }
+
+    private static MappedModel read(File file, boolean loadUpdater) throws IOException {
+        MappedModel ret = new MappedModel();
+        Properties properties = new Properties();
+        try (ZipFile zipFile = new ZipFile(file)) {
+            ZipEntry config = zipFile.getEntry(ModelSerializer.CONFIGURATION_JSON);
+            if (config == null || !isMappedModel(zipFile))
+                throw new IllegalStateException("File is not a model in memory mappable format: " + file);
+            try (InputStream is = zipFile.getInputStream(config)) {
+                ret.json = IOUtils.toString(is);
+            }
+            try (InputStream is = zipFile.getInputStream(zipFile.getEntry(MAPPED_ARRAYS_PROPERTIES))) {
+                properties.load(is);
+            }
+            if (properties.getProperty(COEFFICIENTS_RAW + ".offset") == null
+                            && zipFile.getEntry(ModelSerializer.NO_PARAMS_MARKER) == null) {
+                throw new IllegalStateException("No parameters found in file: " + file);
+            }
+        }
+
+        //Private mappings require read/write access to the file, even though the file is never modified
+        boolean writable = file.canWrite();
+        try (FileChannel channel = writable
+                        ? FileChannel.open(file.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE)
+                        : FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            if (!writable)
+                log.warn("File {} is not writable: model arrays will be copied instead of memory mapped", file);
+            if (properties.getProperty(COEFFICIENTS_RAW + ".offset") != null)
+                ret.params = readArray(channel, COEFFICIENTS_RAW, properties, writable);
+            if (loadUpdater && properties.getProperty(UPDATER_RAW + ".offset") != null)
+                ret.updaterState = readArray(channel, UPDATER_RAW, properties, writable);
+        }
+        //Mappings remain valid after the channel is closed
+        return ret;
+    }
+
+    private static void writeArray(ZipOutputStream zos, CountingOutputStream cos, String name, INDArray array,
+                    Properties properties) throws IOException {
+        DataBuffer.Type type = array.data().dataType();
+        if (type != DataBuffer.Type.FLOAT && type != DataBuffer.Type.DOUBLE)
+            throw new UnsupportedOperationException("Unable to write array \"" + name + "\" of type " + type
+                            + ": only FLOAT and DOUBLE arrays are supported");
+        long length = array.length();
+        INDArray flat = array.isRowVectorOrScalar() ? array : array.reshape('c', 1, length);
+        long numBytes = length * elementSize(type);
+
+        //Stored entries require size and CRC before the entry data is written
+        CRC32 crc = new CRC32();
+        writeData(flat, type, null, crc);
+
+        ZipEntry entry = new ZipEntry(name);
+        entry.setMethod(ZipEntry.STORED);
+        entry.setSize(numBytes);
+        entry.setCompressedSize(numBytes);
+        entry.setCrc(crc.getValue());
+
+        //Close the previous entry first, so that the position of the local header is known
+        zos.closeEntry();
+        long headerOffset = cos.getByteCount();
+        int nameLength = name.getBytes(StandardCharsets.UTF_8).length;
+        int padding = (int) ((ALIGNMENT - (headerOffset + LOCAL_HEADER_LENGTH + nameLength) % ALIGNMENT) % ALIGNMENT);
+        if (padding > 0 && padding < EXTRA_FIELD_HEADER_LENGTH)
+            padding += ALIGNMENT;
+        if (padding > 0) {
+            //Padding is an extra field with unknown ID, which zip readers ignore
+            ByteBuffer extra = ByteBuffer.allocate(padding).order(ByteOrder.LITTLE_ENDIAN);
+            extra.putShort((short) ALIGNMENT_EXTRA_FIELD_ID);
+            extra.putShort((short) (padding - EXTRA_FIELD_HEADER_LENGTH));
+            entry.setExtra(extra.array());
+        }
+        zos.putNextEntry(entry);
+        long dataOffset = cos.getByteCount();
+        writeData(flat, type, zos, null);
+        zos.closeEntry();
+
+        properties.setProperty(name + ".dataType", type.name());
+        properties.setProperty(name + ".byteOrder", ByteOrder.nativeOrder().toString());
+        properties.setProperty(name + ".length", String.valueOf(length));
+        properties.setProperty(name + ".headerOffset", String.valueOf(headerOffset));
+        properties.setProperty(name + ".offset", String.valueOf(dataOffset));
+    }
+
+    /**
+     * Write the array data in native byte order to the output stream (if not null), and update the CRC (if not null)
+     */
+    private static void writeData(INDArray flat, DataBuffer.Type type, OutputStream os, CRC32 crc)
+                    throws IOException {
+        long length = flat.length();
+        ByteBuffer bb = ByteBuffer.allocate((int) Math.min(length, CHUNK_SIZE) * elementSize(type))
+                        .order(ByteOrder.nativeOrder());
+        for (long i = 0; i < length; i += CHUNK_SIZE) {
+            long end = Math.min(length, i + CHUNK_SIZE);
+            //dup: data() of a view is the full underlying buffer
+            DataBuffer chunk = flat.get(NDArrayIndex.point(0), NDArrayIndex.interval(i, end)).dup().data();
+            bb.clear();
+            if (type == DataBuffer.Type.FLOAT) {
+                bb.asFloatBuffer().put(chunk.asFloat());
+            } else {
+                bb.asDoubleBuffer().put(chunk.asDouble());
+            }
+            bb.limit((int) (end - i) * elementSize(type));
+            if (crc != null)
+                crc.update(bb.array(), 0, bb.limit());
+            if (os != null)
+                os.write(bb.array(), 0, bb.limit());
+        }
+    }
+
+    private static INDArray readArray(FileChannel channel, String name, Properties properties, boolean canMap)
+                    throws IOException {
+        DataBuffer.Type type = DataBuffer.Type.valueOf(properties.getProperty(name + ".dataType"));
+        ByteOrder order = ByteOrder.BIG_ENDIAN.toString().equals(properties.getProperty(name + ".byteOrder"))
+                        ? ByteOrder.BIG_ENDIAN : ByteOrder.LITTLE_ENDIAN;
+        long length = Long.parseLong(properties.getProperty(name + ".length"));
+        long headerOffset = Long.parseLong(properties.getProperty(name + ".headerOffset"));
+        long offset = Long.parseLong(properties.getProperty(name + ".offset"));
+        long numBytes = length * elementSize(type);
+
+        validateLocalHeader(channel, name, headerOffset, offset);
+        if (offset + numBytes > channel.size())
+            throw new IllegalStateException("Invalid file: data for entry \"" + name + "\" exceeds file size");
+
+        if (canMap && type == Nd4j.dataType() && order == ByteOrder.nativeOrder() && numBytes <= Integer.MAX_VALUE) {
+            MappedByteBuffer bb = channel.map(FileChannel.MapMode.PRIVATE, offset, numBytes);
+            bb.order(ByteOrder.nativeOrder());
+            DataBuffer buffer = Nd4j.createBuffer(bb, type, (int) length);
+            MAPPED_BUFFERS.put(buffer, bb);
+            return Nd4j.create(buffer, new long[] {1, length});
+        }
+
+        if (canMap)
+            log.warn("Unable to memory map entry \"{}\" (type {}, byte order {}, {} bytes): data will be copied",
+                            name, type, order, numBytes);
+        INDArray ret = Nd4j.create(1, length);
+        ByteBuffer bb = ByteBuffer.allocate((int) Math.min(length, CHUNK_SIZE) * elementSize(type)).order(order);
+        for (long i = 0; i < length; i += CHUNK_SIZE) {
+            long end = Math.min(length, i + CHUNK_SIZE);
+            bb.clear();
+            bb.limit((int) (end - i) * elementSize(type));
+            readFully(channel, bb, offset + i * elementSize(type));
+            bb.flip();
+            INDArray chunk;
+            if (type == DataBuffer.Type.FLOAT) {
+                float[] f = new float[(int) (end - i)];
+                bb.asFloatBuffer().get(f);
+                chunk = Nd4j.create(f);
+            } else {
+                double[] d = new double[(int) (end - i)];
+                bb.asDoubleBuffer().get(d);
+                chunk = Nd4j.create(d);
+            }
+            ret.get(NDArrayIndex.point(0), NDArrayIndex.interval(i, end)).assign(chunk);
+        }
+        return ret;
+    }
+
+    /**
+     * Check that the zip local file header at the given position is the (uncompressed) entry for the given name,
+     * and that its data starts at the given offset
+     */
+    private static void validateLocalHeader(FileChannel channel, String name, long headerOffset, long offset)
+                    throws IOException {
+        byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer header = ByteBuffer.allocate(LOCAL_HEADER_LENGTH + nameBytes.length).order(ByteOrder.LITTLE_ENDIAN);
+        readFully(channel, header, headerOffset);
+        header.flip();
+
+        int signature = header.getInt(0);
+        int method = header.getShort(8) & 0xFFFF;
+        int nameLength = header.getShort(26) & 0xFFFF;
+        int extraLength = header.getShort(28) & 0xFFFF;
+        byte[] storedName = new byte[nameBytes.length];
+        header.position(LOCAL_HEADER_LENGTH);
+        header.get(storedName);
+
+        if (signature != LOCAL_HEADER_SIGNATURE || method != ZipEntry.STORED || nameLength != nameBytes.length
+                        || !name.equals(new String(storedName, StandardCharsets.UTF_8))
+                        || headerOffset + LOCAL_HEADER_LENGTH + nameLength + extraLength != offset) {
+            throw new IllegalStateException("Invalid file: no uncompressed entry \"" + name + "\" found at offset "
+                            + headerOffset + ". File may have been modified after it was written");
+        }
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer bb, long position) throws IOException {
+        while (bb.hasRemaining()) {
+            int read = channel.read(bb, position);
+            if (read < 0)
+                throw new EOFException("Unexpected end of file at position " + position);
+            position += read;
+        }
+    }
+
+    private static int elementSize(DataBuffer.Type type) {
+        return type == DataBuffer.Type.DOUBLE ? 8 : 4;
+    }
+}
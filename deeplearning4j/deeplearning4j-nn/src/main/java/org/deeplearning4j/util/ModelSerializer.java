@@ -198,6 +198,10 @@ public class ModelSerializer {
     public static MultiLayerNetwork restoreMultiLayerNetwork(@NonNull File file, boolean loadUpdater)
             throws IOException {
         ZipFile zipFile = new ZipFile(file);
+        if (MappedModelSerializer.isMappedModel(zipFile)) {
+            zipFile.close();
+            return MappedModelSerializer.restoreMultiLayerNetwork(file, loadUpdater);
+        }
 
         boolean gotConfig = false;
         boolean gotCoefficients = false;
@@ -524,6 +528,10 @@ public class ModelSerializer {
      */
     public static ComputationGraph restoreComputationGraph(@NonNull File file, boolean loadUpdater) throws IOException {
         ZipFile zipFile = new ZipFile(file);
+        if (MappedModelSerializer.isMappedModel(zipFile)) {
+            zipFile.close();
+            return MappedModelSerializer.restoreComputationGraph(file, loadUpdater);
+        }
 
         boolean gotConfig = false;
         boolean gotCoefficients = false;
@@ -35,7 +35,11 @@ public class NetworkUtils {
                 .graphBuilder();
 
         MultiLayerConfiguration origConf = net.getLayerWiseConfigurations().clone();
-
+        if (origConf.getCheckpointInterval() > 0 || origConf.getCheckpointLayers() != null) {
+            throw new UnsupportedOperationException("Cannot convert network to ComputationGraph: gradient checkpointing "
+                    + "is supported for MultiLayerNetwork only. Set checkpointInterval to 0 and checkpointLayers to "
+                    + "none before converting");
+        }
 
         int layerIdx = 0;
         String lastLayer = "in";
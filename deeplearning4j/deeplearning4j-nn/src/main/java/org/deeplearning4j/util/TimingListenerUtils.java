@@ -0,0 +1,64 @@
+package org.deeplearning4j.util;
+
+import org.deeplearning4j.nn.api.Model;
+import org.deeplearning4j.optimize.api.TimingTrainingListener;
+import org.deeplearning4j.optimize.api.TrainingListener;
+import org.nd4j.linalg.api.memory.MemoryWorkspace;
+import org.nd4j.linalg.api.ndarray.INDArray;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Utilities for notifying {@link TimingTrainingListener}s from the network implementations
+ */
+public class TimingListenerUtils {
+
+    private TimingListenerUtils() {}
+
+    /**
+     * @return The timing listeners in the given collection, or null if there are none (in which case no timing
+     * should be done at all)
+     */
+    public static List<TimingTrainingListener> timingListeners(Collection<TrainingListener> listeners) {
+        if (listeners == null || listeners.isEmpty())
+            return null;
+        List<TimingTrainingListener> out = null;
+        for (TrainingListener l : listeners) {
+            if (l instanceof TimingTrainingListener) {
+                if (out == null)
+                    out = new ArrayList<>(1);
+                out.add((TimingTrainingListener) l);
+            }
+        }
+        return out;
+    }
+
+    /**
+     * Notify all timing listeners. Duration is measured from startNanos (as per {@link System#nanoTime()}) until now
+     */
+    public static void notify(List<TimingTrainingListener> listeners, Model model, TimingTrainingListener.Phase phase,
+                    String name, long startNanos, long bytes) {
+        long duration = System.nanoTime() - startNanos;
+        for (TimingTrainingListener l : listeners) {
+            l.onTiming(model, phase, name, duration, bytes);
+        }
+    }
+
+    /**
+     * @return Number of bytes of the given array, or 0 if null
+     */
+    public static long bytes(INDArray array) {
+        if (array == null || array.data() == null)
+            return 0;
+        return array.length() * array.data().getElementSize();
+    }
+
+    /**
+     * @return Number of bytes allocated in the given workspace during its current cycle, or 0 if null
+     */
+    public static long bytes(MemoryWorkspace workspace) {
+        return workspace == null ? 0 : workspace.getThisCycleAllocations();
+    }
+}
@@ -0,0 +1,684 @@
+package org.deeplearning4j.parallelism;
+
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.deeplearning4j.nn.api.Model;
+import org.deeplearning4j.nn.graph.ComputationGraph;
+import org.deeplearning4j.nn.multilayer.MultiLayerNetwork;
+import org.deeplearning4j.parallelism.inference.InferenceObservable;
+import org.deeplearning4j.parallelism.inference.observers.BasicInferenceObserver;
+import org.deeplearning4j.parallelism.inference.observers.BatchedInferenceObservable;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.exception.ND4JIllegalStateException;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.primitives.Pair;
+
+import java.util.*;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * This class hosts multiple models on top of single pool of inference workers.
+ *
+ * Requests for each model are batched the same way as in BATCHED mode of ParallelInference, and workers pick
+ * batches using weighted fair scheduling: each model gets share of workers time proportional to its weight.
+ * Only batches of models that have idle replica (or can create new one) are picked, so model that has all
+ * replicas busy doesn't hold workers that could serve other models.
+ * Model replicas are created lazily, only when all existing replicas of the model are busy, and only while
+ * total size of parameters of all replicas fits into memory budget.
+ *
+ * Models can be replaced at runtime via deploy(): batches already being processed are finished by the previous
+ * version, queued batches are served by the new one, and replicas of the previous version are released as soon
+ * as they are returned to the pool.
+ *
+ * PLEASE NOTE: Only MultiLayerNetwork and ComputationGraph models are supported
+ */
+@Slf4j
+public class InferenceHost {
+    public final static int DEFAULT_NUM_WORKERS = Runtime.getRuntime().availableProcessors();
+    public final static long DEFAULT_MEMORY_BUDGET = Long.MAX_VALUE;
+    public final static double DEFAULT_WEIGHT = 1.0;
+
+    private int workers;
+    private int batchLimit;
+    private int queueLimit;
+    private long memoryBudget;
+    private boolean shareParameters;
+
+    private final Map<String, HostedModel> models = new ConcurrentHashMap<>();
+    private final AtomicLong usedMemory = new AtomicLong(0);
+    private final Object locker = new Object();
+
+    // scheduler state, guarded by schedulerLock
+    private final ReentrantLock schedulerLock = new ReentrantLock();
+    private final Condition workAvailable = schedulerLock.newCondition();
+    private int pendingBatches = 0;
+    private double virtualTime = 0.0;
+
+    private HostWorker[] zoo;
+
+    protected InferenceHost() {
+        //
+    }
+
+    protected void init() {
+        zoo = new HostWorker[workers];
+        for (int i = 0; i < workers; i++) {
+            zoo[i] = new HostWorker(i);
+            zoo[i].start();
+        }
+    }
+
+    /**
+     * This method deploys model with default weight, replacing previous version of the model with the same name, if any
+     *
+     * @param name  model name
+     * @param model MultiLayerNetwork or ComputationGraph
+     */
+    public void deploy(@NonNull String name, @NonNull Model model) {
+        HostedModel hosted = models.get(name);
+        deploy(name, model, hosted == null ? DEFAULT_WEIGHT : hosted.weight);
+    }
+
+    /**
+     * This method deploys model, replacing previous version of the model with the same name, if any.
+     * Requests already accepted for previous version will be served, while new requests will use new version.
+     *
+     * @param name   model name
+     * @param model  MultiLayerNetwork or ComputationGraph
+     * @param weight scheduling weight of this model, relative to other hosted models
+     */
+    public void deploy(@NonNull String name, @NonNull Model model, double weight) {
+        if (!(model instanceof MultiLayerNetwork) && !(model instanceof ComputationGraph))
+            throw new ND4JIllegalStateException("Unsupported model type: " + model.getClass().getSimpleName());
+
+        if (weight <= 0.0)
+            throw new ND4JIllegalStateException("Model weight should be positive value");
+
+        // first replica is always accounted, even if it doesn't fit into budget
+        ModelVersion version = new ModelVersion(model);
+        reserveMemory(version.bytes, true);
+        if (usedMemory.get() > memoryBudget)
+            log.warn("Memory budget of {} bytes exceeded after deployment of model [{}]", memoryBudget, name);
+
+        synchronized (models) {
+            HostedModel hosted = models.get(name);
+            if (hosted == null) {
+                models.put(name, new HostedModel(name, weight, version));
+                log.info("Model [{}] deployed", name);
+            } else {
+                ModelVersion previous = hosted.current;
+                hosted.weight = weight;
+                hosted.current = version;
+                previous.retire();
+                log.info("Model [{}] replaced", name);
+            }
+        }
+    }
+
+    /**
+     * This method removes model from this host. Requests that weren't processed yet will fail
+     *
+     * @param name model name
+     */
+    public void undeploy(@NonNull String name) {
+        HostedModel hosted;
+        synchronized (models) {
+            hosted = models.remove(name);
+        }
+
+        if (hosted == null)
+            return;
+
+        hosted.undeployed = true;
+
+        List<InferenceObservable> dropped = new ArrayList<>();
+        schedulerLock.lock();
+        try {
+            hosted.queue.drainTo(dropped);
+            pendingBatches -= dropped.size();
+        } finally {
+            schedulerLock.unlock();
+        }
+
+        for (InferenceObservable observable : dropped)
+            hosted.reject(observable);
+
+        hosted.current.retire();
+        log.info("Model [{}] undeployed", name);
+    }
+
+    /**
+     * This method returns names of models deployed to this host
+     *
+     * @return
+     */
+    public Set<String> getModels() {
+        return Collections.unmodifiableSet(models.keySet());
+    }
+
+    /**
+     * This method returns amount of memory currently used by parameters of all replicas of all hosted models, in bytes
+     *
+     * @return
+     */
+    public long getUsedMemory() {
+        return usedMemory.get();
+    }
+
+    /**
+     * This method returns number of requests served by given model so far
+     *
+     * @param name model name
+     * @return
+     */
+    public long getServedRequests(@NonNull String name) {
+        HostedModel hosted = models.get(name);
+        if (hosted == null)
+            throw new ND4JIllegalStateException("Model [" + name + "] isn't deployed");
+
+        return hosted.served.get();
+    }
+
+    public INDArray output(@NonNull String name, INDArray input) {
+        return output(name, input, null);
+    }
+
+    public INDArray output(@NonNull String name, INDArray input, INDArray inputMask) {
+        INDArray[] out = output(name, new INDArray[]{input}, (inputMask == null ? null : new INDArray[]{inputMask}));
+        if (out.length != 1) {
+            throw new IllegalArgumentException("Network has multiple (" + out.length + ") output arrays, but only a"
+                            + " single output can be returned using this method. Use for output(String name, INDArray[] "
+                            + "input, INDArray[] inputMasks) for multi-output nets");
+        }
+        return out[0];
+    }
+
+    /**
+     * Generate predictions/outputs from the given hosted model, optionally using input masks for predictions
+     *
+     * @param name       model name
+     * @param input      Input to the network
+     * @param inputMasks Input masks for the network. May be null.
+     * @return Output from the network
+     */
+    public INDArray[] output(@NonNull String name, INDArray[] input, INDArray[] inputMasks) {
+        HostedModel hosted = models.get(name);
+        if (hosted == null)
+            throw new ND4JIllegalStateException("Model [" + name + "] isn't deployed");
+
+        BasicInferenceObserver observer = new BasicInferenceObserver();
+        InferenceObservable observable = hosted.provider.setInput(observer, input, inputMasks);
+
+        try {
+            observer.waitTillDone();
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+
+        return observable.getOutput();
+    }
+
+    /**
+     * This method gracefully shuts down this host
+     */
+    public synchronized void shutdown() {
+        if (zoo == null)
+            return;
+
+        for (HostWorker worker : zoo)
+            worker.shutdown();
+
+        zoo = null;
+
+        for (String name : new ArrayList<>(models.keySet()))
+            undeploy(name);
+    }
+
+    protected boolean reserveMemory(long bytes, boolean force) {
+        long used;
+        do {
+            used = usedMemory.get();
+            if (!force && used + bytes > memoryBudget)
+                return false;
+        } while (!usedMemory.compareAndSet(used, used + bytes));
+
+        return true;
+    }
+
+    protected void releaseMemory(long bytes) {
+        usedMemory.addAndGet(-bytes);
+        signalReplicas();
+    }
+
+    protected void signalWork() {
+        schedulerLock.lock();
+        try {
+            pendingBatches++;
+            workAvailable.signal();
+        } finally {
+            schedulerLock.unlock();
+        }
+    }
+
+    /**
+     * This method wakes up workers waiting for replicas: replica was returned to the pool, or memory was released
+     */
+    protected void signalReplicas() {
+        schedulerLock.lock();
+        try {
+            workAvailable.signalAll();
+        } finally {
+            schedulerLock.unlock();
+        }
+    }
+
+    /**
+     * This method picks next batch to be processed: among models with pending batches and idle (or creatable)
+     * replicas we pick one with the smallest virtual start time, and then advance its virtual time by batch size
+     * divided by model weight. Replica is acquired here as well, so worker never waits for replica of busy model.
+     *
+     * @return batch along with replica to run it on, or null if there's nothing to process
+     */
+    protected Dispatch nextBatch(long timeout, TimeUnit timeUnit) throws InterruptedException {
+        schedulerLock.lockInterruptibly();
+        try {
+            long nanos = timeUnit.toNanos(timeout);
+            while (true) {
+                if (pendingBatches > 0) {
+                    Dispatch dispatch = dispatch();
+                    if (dispatch != null)
+                        return dispatch;
+                }
+
+                if (nanos <= 0)
+                    return null;
+
+                nanos = workAvailable.awaitNanos(nanos);
+            }
+        } finally {
+            schedulerLock.unlock();
+        }
+    }
+
+    // guarded by schedulerLock
+    private Dispatch dispatch() {
+        Set<HostedModel> busy = new HashSet<>();
+        while (true) {
+            HostedModel best = null;
+            double bestStart = 0.0;
+            boolean queued = false;
+            for (HostedModel hosted : models.values()) {
+                if (hosted.queue.peek() == null)
+                    continue;
+
+                queued = true;
+                if (busy.contains(hosted) || !hosted.current.isAvailable())
+                    continue;
+
+                double start = Math.max(hosted.virtualStart, virtualTime);
+                if (best == null || start < bestStart) {
+                    best = hosted;
+                    bestStart = start;
+                }
+            }
+
+            // all pending batches belonged to undeployed models
+            if (!queued)
+                pendingBatches = 0;
+
+            // all models with pending batches have their replicas busy
+            if (best == null)
+                return null;
+
+            // version is resolved at dispatch time, so requests queued before hot-swap will use new version
+            ModelVersion version = best.current;
+            Model replica = version.tryBorrow();
+            if (replica == null && !version.tryReserve()) {
+                // availability changed since the check above, i.e. memory was taken by another deployment
+                busy.add(best);
+                continue;
+            }
+
+            InferenceObservable observable = best.queue.poll();
+            pendingBatches--;
+
+            int cost = observable instanceof BatchedInferenceObservable
+                            ? Math.max(1, ((BatchedInferenceObservable) observable).getCounter()) : 1;
+            virtualTime = bestStart;
+            best.virtualStart = bestStart + cost / best.weight;
+
+            return new Dispatch(best, version, replica, observable);
+        }
+    }
+
+    public static class Builder {
+        private int workers = DEFAULT_NUM_WORKERS;
+        private int batchLimit = ParallelInference.DEFAULT_BATCH_LIMIT;
+        private int queueLimit = ParallelInference.DEFAULT_QUEUE_LIMIT;
+        private long memoryBudget = DEFAULT_MEMORY_BUDGET;
+        private boolean shareParameters = false;
+
+        public Builder() {
+            //
+        }
+
+        /**
+         * This method defines, how many worker threads will be shared by all hosted models.
+         * This value also limits number of replicas of any single model.
+         *
+         * @param workers
+         * @return
+         */
+        public Builder workers(int workers) {
+            if (workers < 1)
+                throw new IllegalStateException("Workers should be positive value");
+
+            this.workers = workers;
+            return this;
+        }
+
+        /**
+         * This method defines, how many requests can be batched together for single model
+         *
+         * @param limit
+         * @return
+         */
+        public Builder batchLimit(int limit) {
+            if (limit < 1)
+                throw new IllegalStateException("Batch limit should be positive value");
+
+            this.batchLimit = limit;
+            return this;
+        }
+
+        /**
+         * This method defines buffer queue size, per model
+         *
+         * @param limit
+         * @return
+         */
+        public Builder queueLimit(int limit) {
+            if (limit < 1)
+                throw new IllegalStateException("Queue limit should be positive value");
+
+            this.queueLimit = limit;
+            return this;
+        }
+
+        /**
+         * This method defines memory budget for parameters of all models and their replicas, in bytes.
+         * Once budget is exhausted, no more replicas will be created, and requests will wait for existing replicas.
+         *
+         * PLEASE NOTE: each deployed model always has at least one replica, even if it doesn't fit into budget
+         *
+         * @param bytes
+         * @return
+         */
+        public Builder memoryBudget(long bytes) {
+            if (bytes < 1)
+                throw new IllegalStateException("Memory budget should be positive value");
+
+            this.memoryBudget = bytes;
+            return this;
+        }
+
+        /**
+         * This method enables parameters sharing between replicas of the same model version: replicas use
+         * parameters array of the deployed model directly, so only original parameters are accounted in memory budget.
+         *
+         * PLEASE NOTE: deployed models shouldn't be trained or otherwise modified while they are hosted.
+         *
+         * Default value: false
+         *
+         * @param reallyShare
+         * @return
+         */
+        public Builder shareParameters(boolean reallyShare) {
+            this.shareParameters = reallyShare;
+            return this;
+        }
+
+        /**
+         * This method builds new InferenceHost instance
+         *
+         * @return
+         */
+        public InferenceHost build() {
+            InferenceHost host = new InferenceHost();
+            host.workers = this.workers;
+            host.batchLimit = this.batchLimit;
+            host.queueLimit = this.queueLimit;
+            host.memoryBudget = this.memoryBudget;
+            host.shareParameters = this.shareParameters;
+
+            host.init();
+
+            return host;
+        }
+    }
+
+    /**
+     * This class holds per-model state: requests queue, scheduling state and current version of the model
+     */
+    protected class HostedModel {
+        private final String name;
+        private final BlockingQueue<InferenceObservable> queue;
+        private final ParallelInference.ObservablesProvider provider;
+        private final AtomicLong served = new AtomicLong(0);
+
+        private volatile double weight;
+        private volatile ModelVersion current;
+        private volatile boolean undeployed = false;
+
+        // guarded by schedulerLock
+        private double virtualStart = 0.0;
+
+        protected HostedModel(String name, double weight, ModelVersion version) {
+            this.name = name;
+            this.weight = weight;
+            this.current = version;
+            this.queue = new LinkedBlockingQueue<InferenceObservable>(queueLimit) {
+                @Override
+                public void put(InferenceObservable observable) throws InterruptedException {
+                    super.put(observable);
+
+                    if (undeployed && remove(observable))
+                        reject(observable);
+                    else
+                        signalWork();
+                }
+            };
+            this.provider = new ParallelInference.ObservablesProvider(0L, batchLimit, queue);
+        }
+
+        protected void reject(InferenceObservable observable) {
+            // seal batch, so no more requests will join it
+            observable.getInputBatches();
+            observable.setOutputException(new ND4JIllegalStateException("Model [" + name + "] was undeployed"));
+        }
+    }
+
+    /**
+     * This class holds single version of the model, along with pool of its replicas
+     */
+    protected class ModelVersion {
+        private final Model model;
+        private final long bytes;
+        private final long replicaBytes;
+        private final BlockingQueue<Model> idle = new LinkedBlockingQueue<>();
+        private final AtomicInteger replicas = new AtomicInteger(1);
+        private boolean retired = false;
+
+        protected ModelVersion(Model model) {
+            this.model = model;
+            this.bytes = model.params() == null ? 0 : model.params().length() * Nd4j.sizeOfDataType();
+            this.replicaBytes = shareParameters ? 0 : bytes;
+            this.idle.add(model);
+        }
+
+        /**
+         * This method returns true if this version has idle replica, or new replica can be created
+         *
+         * @return
+         */
+        protected boolean isAvailable() {
+            return !idle.isEmpty()
+                            || (replicas.get() < workers && usedMemory.get() + replicaBytes <= memoryBudget);
+        }
+
+        /**
+         * This method returns idle replica of the model, without waiting
+         *
+         * @return replica, or null if all replicas are busy
+         */
+        protected Model tryBorrow() {
+            return idle.poll();
+        }
+
+        /**
+         * This method reserves replica slot and memory for new replica, which should be created via createReplica()
+         *
+         * @return true if new replica can be created, false otherwise
+         */
+        protected boolean tryReserve() {
+            int cnt;
+            while ((cnt = replicas.get()) < workers) {
+                if (replicas.compareAndSet(cnt, cnt + 1)) {
+                    if (reserveMemory(replicaBytes, false))
+                        return true;
+
+                    replicas.decrementAndGet();
+                    return false;
+                }
+            }
+
+            return false;
+        }
+
+        /**
+         * This method creates new replica of the model. Replica slot should be reserved via tryReserve() first
+         *
+         * @return
+         */
+        protected Model createReplica() {
+            try {
+                return ParallelInference.replicateModel(model, locker, shareParameters);
+            } catch (RuntimeException e) {
+                replicas.decrementAndGet();
+                releaseMemory(replicaBytes);
+                throw e;
+            }
+        }
+
+        protected void release(@NonNull Model replica) {
+            synchronized (this) {
+                if (retired) {
+                    replicas.decrementAndGet();
+                    releaseMemory(replica == model ? bytes : replicaBytes);
+                    return;
+                }
+
+                idle.add(replica);
+            }
+
+            signalReplicas();
+        }
+
+        protected synchronized void retire() {
+            retired = true;
+
+            Model replica;
+            while ((replica = idle.poll()) != null) {
+                replicas.decrementAndGet();
+                releaseMemory(replica == model ? bytes : replicaBytes);
+            }
+        }
+    }
+
+    /**
+     * This class holds batch picked by scheduler, along with model version and replica it should be processed with
+     */
+    protected class Dispatch {
+        private final HostedModel hosted;
+        private final ModelVersion version;
+        private final InferenceObservable request;
+        // null if replica slot was reserved, and new replica should be created
+        private final Model replica;
+
+        protected Dispatch(HostedModel hosted, ModelVersion version, Model replica, InferenceObservable request) {
+            this.hosted = hosted;
+            this.version = version;
+            this.replica = replica;
+            this.request = request;
+        }
+    }
+
+    /**
+     * This class picks batches of all hosted models, and runs them on replicas of corresponding models
+     */
+    private class HostWorker extends Thread implements Runnable {
+        private AtomicBoolean shouldWork = new AtomicBoolean(true);
+
+        private HostWorker(int id) {
+            this.setDaemon(true);
+            this.setName("InferenceHostThread-" + id);
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (shouldWork.get()) {
+                    Dispatch next = nextBatch(100, TimeUnit.MILLISECONDS);
+                    if (next == null)
+                        continue;
+
+                    HostedModel hosted = next.hosted;
+                    ModelVersion version = next.version;
+                    InferenceObservable request = next.request;
+
+                    Model replica = next.replica;
+                    if (replica == null) {
+                        try {
+                            replica = version.createReplica();
+                        } catch (Exception e) {
+                            request.setOutputException(e);
+                            continue;
+                        }
+                    }
+
+                    try {
+                        List<Pair<INDArray[], INDArray[]>> batches = request.getInputBatches();
+                        List<INDArray[]> out = ParallelInference.output(replica, batches);
+                        hosted.served.addAndGet(request instanceof BatchedInferenceObservable
+                                        ? ((BatchedInferenceObservable) request).getCounter() : 1);
+                        request.setOutputBatches(out);
+                    } catch (Exception e) {
+                        request.setOutputException(e);
+                    } finally {
+                        version.release(replica);
+                    }
+                }
+            } catch (InterruptedException e) {
+                // do nothing, we're shutting down
+            }
+        }
+
+        protected void shutdown() {
+            // no interrupt here: worker checks this flag at least every 100ms, and won't drop request it's working on
+            shouldWork.set(false);
+            try {
+                this.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
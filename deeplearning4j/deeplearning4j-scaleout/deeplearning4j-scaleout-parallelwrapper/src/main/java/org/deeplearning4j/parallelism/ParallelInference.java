@@ -13,8 +13,10 @@ import org.deeplearning4j.parallelism.inference.InferenceObservable;
 import org.deeplearning4j.parallelism.inference.observers.BasicInferenceObservable;
 import org.deeplearning4j.parallelism.inference.observers.BasicInferenceObserver;
 import org.deeplearning4j.parallelism.inference.observers.BatchedInferenceObservable;
+import org.deeplearning4j.parallelism.inference.stats.InferenceStats;
 import org.nd4j.linalg.api.ndarray.INDArray;
 import org.nd4j.linalg.dataset.DataSet;
+import org.nd4j.linalg.exception.ND4JIllegalStateException;
 import org.nd4j.linalg.factory.Nd4j;
 import org.nd4j.linalg.primitives.Pair;
 
@@ -23,9 +25,11 @@ import java.util.List;
 import java.util.Observer;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * This class is simple wrapper for
@@ -41,6 +45,9 @@ public class ParallelInference {
     private int batchLimit;
     private InferenceMode inferenceMode;
     private int queueLimit;
+    private long maxLatency;
+    private int targetBatchSize;
+    private boolean shareParameters;
 
     // this queue
     private BlockingQueue<InferenceObservable> observables;
@@ -49,6 +56,8 @@ public class ParallelInference {
 
     private InferenceWorker[] zoo;
     private ObservablesProvider provider;
+    private AdaptiveObservablesProvider adaptiveProvider;
+    private final InferenceStats stats = new InferenceStats();
 
 
 
@@ -56,6 +65,7 @@ public class ParallelInference {
     public final static int DEFAULT_BATCH_LIMIT = 32;
     public final static InferenceMode DEFAULT_INFERENCE_MODE = InferenceMode.BATCHED;
     public final static int DEFAULT_QUEUE_LIMIT = 64;
+    public final static long DEFAULT_MAX_LATENCY_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
 
 
 
@@ -70,13 +80,18 @@ public class ParallelInference {
         int currentDevice = Nd4j.getAffinityManager().getDeviceForCurrentThread();
         AtomicBoolean assignedRoot = new AtomicBoolean(false);
 
+        if (shareParameters && numDevices > 1) {
+            log.warn("Parameters sharing isn't possible across {} devices, falling back to per-worker parameters copies", numDevices);
+            shareParameters = false;
+        }
+
         zoo = new InferenceWorker[workers];
         for (int i = 0; i < workers; i++) {
             int cDevice = i % numDevices;
             boolean cRoot = !assignedRoot.get() && cDevice == currentDevice;
             assignedRoot.compareAndSet(false, cRoot);
 
-            zoo[i] = new InferenceWorker(i, model, observables, cRoot);
+            zoo[i] = new InferenceWorker(i, model, observables, cRoot, shareParameters);
 
             Nd4j.getAffinityManager().attachThreadToDevice(zoo[i], cDevice);
             zoo[i].setDaemon(true);
@@ -87,6 +102,10 @@ public class ParallelInference {
         if (inferenceMode == InferenceMode.BATCHED) {
             log.info("Initializing ObservablesProvider...");
             provider = new ObservablesProvider(nanos, batchLimit, observables);
+        } else if (inferenceMode == InferenceMode.ADAPTIVE) {
+            log.info("Initializing AdaptiveObservablesProvider...");
+            adaptiveProvider = new AdaptiveObservablesProvider(maxLatency, targetBatchSize, workers, observables, stats);
+            adaptiveProvider.start();
         }
     }
 
@@ -94,13 +113,44 @@ public class ParallelInference {
         return zoo[workerIdx].getCounterValue();
     }
 
+    /**
+     * This method returns runtime statistics for this ParallelInference instance:
+     * achieved batch sizes, queue depth, wait time and model latency histograms.
+     *
+     * PLEASE NOTE: batch-related histograms are populated in ADAPTIVE inference mode only
+     *
+     * @return
+     */
+    public InferenceStats getInferenceStats() {
+        return stats;
+    }
+
+    /**
+     * This method is called by workers once batch is processed
+     *
+     * @param nanos time spent by model on single batch
+     */
+    protected void reportModelLatency(long nanos) {
+        stats.recordModelLatency(nanos);
+
+        if (adaptiveProvider != null)
+            adaptiveProvider.reportLatency(nanos);
+    }
+
     /**
      * This method gracefully shuts down ParallelInference instance
+     *
+     * PLEASE NOTE: in ADAPTIVE inference mode, requests of the batch that wasn't dispatched yet fail with exception
      */
     public synchronized void shutdown() {
         if (zoo == null)
             return;
 
+        if (adaptiveProvider != null) {
+            adaptiveProvider.shutdown();
+            adaptiveProvider = null;
+        }
+
         for (int e = 0; e < zoo.length; e++) {
             if (zoo[e] == null)
                 continue;
@@ -175,6 +225,22 @@ public class ParallelInference {
      * @return Output from the network
      */
     public INDArray[] output(INDArray[] input, INDArray[] inputMasks){
+        return output(input, inputMasks, maxLatency, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Generate predictions/outputs from the network, using custom latency budget for this request.
+     *
+     * PLEASE NOTE: latency budget is used in ADAPTIVE inference mode only, and it's a soft limit:
+     * request will be dispatched as soon as its budget minus expected model latency expires
+     *
+     * @param input      Input to the network
+     * @param inputMasks Input masks for the network. May be null.
+     * @param maxLatency Latency budget for this request
+     * @param timeUnit   Time unit for latency budget
+     * @return Output from the network
+     */
+    public INDArray[] output(INDArray[] input, INDArray[] inputMasks, long maxLatency, @NonNull TimeUnit timeUnit) {
         // basically, depending on model type we either throw stuff to specific model, or wait for batch
 
         BasicInferenceObserver observer = new BasicInferenceObserver();
@@ -189,6 +255,8 @@ public class ParallelInference {
                 Thread.currentThread().interrupt();
                 throw new RuntimeException(e);
             }
+        } else if (inferenceMode == InferenceMode.ADAPTIVE) {
+            observable = adaptiveProvider.setInput(observer, input, inputMasks, timeUnit.toNanos(maxLatency));
         } else {
             observable = provider.setInput(observer, input, inputMasks);
         }
@@ -213,6 +281,9 @@ public class ParallelInference {
         private int batchLimit = DEFAULT_BATCH_LIMIT;
         private InferenceMode inferenceMode = DEFAULT_INFERENCE_MODE;
         private int queueLimit = DEFAULT_QUEUE_LIMIT;
+        private long maxLatency = DEFAULT_MAX_LATENCY_NANOS;
+        private int targetBatchSize = 0;
+        private boolean shareParameters = false;
 
         public Builder(@NonNull Model model) {
             this.model = model;
@@ -225,6 +296,9 @@ public class ParallelInference {
          * SEQUENTIAL: Input will be sent to last-used worker unmodified.
          * BATCHED: Multiple inputs will be packed into single batch, and
          * sent to last-used device.
+         * ADAPTIVE: Multiple inputs will be packed into single batch, which is
+         * sent to last-used device once it reaches target batch size, or once
+         * latency budget of its requests (minus expected model latency) expires.
          *
          * @param inferenceMode
          * @return
@@ -270,6 +344,45 @@ public class ParallelInference {
             return this;
         }
 
+        /**
+         * This method defines latency budget for a single request: time since request arrival,
+         * after which its batch will be sent to workers even if it's not full yet.
+         * Coalescing window is derived from this value minus observed model latency.
+         *
+         * PLEASE NOTE: This value has effect in ADAPTIVE inference mode only
+         *
+         * Default value: 10 milliseconds
+         *
+         * @param maxLatency
+         * @param timeUnit
+         * @return
+         */
+        public Builder maxLatency(long maxLatency, @NonNull TimeUnit timeUnit) {
+            if (maxLatency < 0)
+                throw new IllegalStateException("Max latency should be non-negative value");
+
+            this.maxLatency = timeUnit.toNanos(maxLatency);
+            return this;
+        }
+
+        /**
+         * This method defines batch size, which triggers immediate dispatch of batch to workers.
+         *
+         * PLEASE NOTE: This value has effect in ADAPTIVE inference mode only
+         *
+         * Default value: equal to batchLimit
+         *
+         * @param targetBatchSize
+         * @return
+         */
+        public Builder targetBatchSize(int targetBatchSize) {
+            if (targetBatchSize < 1)
+                throw new IllegalStateException("Target batch size should be positive value");
+
+            this.targetBatchSize = targetBatchSize;
+            return this;
+        }
+
         /**
          * This method defines buffer queue size.
          *
@@ -286,6 +399,24 @@ public class ParallelInference {
             return this;
         }
 
+        /**
+         * This method enables parameters sharing between workers: instead of holding own copy of parameters,
+         * each worker replica uses parameters array of the original model directly, and only keeps its own activations.
+         * That's useful for big models, since N workers won't need N copies of parameters.
+         *
+         * PLEASE NOTE: original model shouldn't be trained or otherwise modified while ParallelInference is used.
+         * PLEASE NOTE: this option is ignored if more than one device is available, since each device needs own copy.
+         *
+         * Default value: false
+         *
+         * @param reallyShare
+         * @return
+         */
+        public Builder shareParameters(boolean reallyShare) {
+            this.shareParameters = reallyShare;
+            return this;
+        }
+
         /**
          * This method builds new ParallelInference instance
          *
@@ -298,6 +429,9 @@ public class ParallelInference {
             inference.inferenceMode = this.inferenceMode;
             inference.model = this.model;
             inference.workers = this.workers;
+            inference.maxLatency = this.maxLatency;
+            inference.targetBatchSize = this.targetBatchSize > 0 ? this.targetBatchSize : this.batchLimit;
+            inference.shareParameters = this.shareParameters;
 
             inference.init();
 
@@ -306,6 +440,89 @@ public class ParallelInference {
     }
 
 
+    /**
+     * This method creates copy of given model, suitable for concurrent use alongside with the original one
+     *
+     * @param protoModel model to be replicated
+     * @param locker     lock object, params duplication will be synchronized on
+     * @return
+     */
+    protected static Model replicateModel(@NonNull Model protoModel, @NonNull Object locker) {
+        return replicateModel(protoModel, locker, false);
+    }
+
+    /**
+     * This method creates copy of given model, suitable for concurrent use alongside with the original one.
+     * If parameters sharing is requested, replica will use parameters array of the original model directly,
+     * so only layers state & activations are held per replica. Original model must not be modified afterwards.
+     *
+     * @param protoModel      model to be replicated
+     * @param locker          lock object, params duplication will be synchronized on
+     * @param shareParameters if true, replica will share parameters with original model instead of copying them
+     * @return
+     */
+    protected static Model replicateModel(@NonNull Model protoModel, @NonNull Object locker, boolean shareParameters) {
+        Model replicatedModel;
+        if (protoModel instanceof ComputationGraph) {
+            replicatedModel = new ComputationGraph(ComputationGraphConfiguration
+                            .fromJson(((ComputationGraph) protoModel).getConfiguration().toJson()));
+        } else if (protoModel instanceof MultiLayerNetwork) {
+            replicatedModel = new MultiLayerNetwork(MultiLayerConfiguration
+                            .fromJson(((MultiLayerNetwork) protoModel).getLayerWiseConfigurations().toJson()));
+        } else {
+            throw new ND4JIllegalStateException("Unsupported model type: " + protoModel.getClass().getSimpleName());
+        }
+
+        if (shareParameters) {
+            // params view is used as is, so there's no random init and no copy here
+            if (replicatedModel instanceof ComputationGraph)
+                ((ComputationGraph) replicatedModel).init(protoModel.params(), false);
+            else
+                ((MultiLayerNetwork) replicatedModel).init(protoModel.params(), false);
+
+            return replicatedModel;
+        }
+
+        replicatedModel.init();
+
+        synchronized (locker) {
+            replicatedModel.setParams(protoModel.params().unsafeDuplication(true));
+
+            Nd4j.getExecutioner().commit();
+        }
+
+        return replicatedModel;
+    }
+
+    /**
+     * This method runs inference for given input batches
+     *
+     * @param model   model to be used
+     * @param batches input batches, as returned by InferenceObservable.getInputBatches()
+     * @return output for each input batch
+     */
+    protected static List<INDArray[]> output(@NonNull Model model, @NonNull List<Pair<INDArray[], INDArray[]>> batches) {
+        List<INDArray[]> out = new ArrayList<>(batches.size());
+        if (model instanceof ComputationGraph) {
+            for (Pair<INDArray[],INDArray[]> inBatch : batches) {
+                INDArray[] output = ((ComputationGraph) model).output(false, inBatch.getFirst(), inBatch.getSecond());
+                out.add(output);
+            }
+        } else if (model instanceof MultiLayerNetwork) {
+            for (Pair<INDArray[],INDArray[]> inBatch : batches) {
+                INDArray f = inBatch.getFirst()[0];
+                INDArray fm = (inBatch.getSecond() == null ? null : inBatch.getSecond()[0]);
+                INDArray output = ((MultiLayerNetwork) model).output(f, false, fm, null);
+                out.add(new INDArray[]{output});
+            }
+        } else {
+            throw new ND4JIllegalStateException("Unsupported model type: " + model.getClass().getSimpleName());
+        }
+
+        return out;
+    }
+
+
     /**
      * This class actually does inference with respect to device affinity
      *
@@ -318,11 +535,14 @@ public class ParallelInference {
         private Model replicatedModel;
         private AtomicLong counter = new AtomicLong(0);
         private boolean rootDevice;
+        private boolean shareParameters;
 
-        private InferenceWorker(int id, @NonNull Model model, @NonNull BlockingQueue inputQueue, boolean rootDevice) {
+        private InferenceWorker(int id, @NonNull Model model, @NonNull BlockingQueue inputQueue, boolean rootDevice,
+                        boolean shareParameters) {
             this.inputQueue = inputQueue;
             this.protoModel = model;
             this.rootDevice = rootDevice;
+            this.shareParameters = shareParameters;
 
             this.setDaemon(true);
             this.setName("InferenceThread-" + id);
@@ -337,34 +557,10 @@ public class ParallelInference {
         public void run() {
             try {
                 // model should be replicated & initialized here
-                if (protoModel instanceof ComputationGraph) {
-                    if (!rootDevice) {
-                        this.replicatedModel = new ComputationGraph(ComputationGraphConfiguration
-                                        .fromJson(((ComputationGraph) protoModel).getConfiguration().toJson()));
-                        this.replicatedModel.init();
-
-                        synchronized (locker) {
-                            this.replicatedModel.setParams(protoModel.params().unsafeDuplication(true));
-
-                            Nd4j.getExecutioner().commit();
-                        }
-                    } else {
-                        this.replicatedModel = protoModel;
-                    }
-                } else if (protoModel instanceof MultiLayerNetwork) {
-                    if (!rootDevice) {
-                        this.replicatedModel = new MultiLayerNetwork(MultiLayerConfiguration.fromJson(
-                                        ((MultiLayerNetwork) protoModel).getLayerWiseConfigurations().toJson()));
-                        this.replicatedModel.init();
-
-                        synchronized (locker) {
-                            this.replicatedModel.setParams(protoModel.params().unsafeDuplication(true));
-
-                            Nd4j.getExecutioner().commit();
-                        }
-                    } else {
-                        this.replicatedModel = protoModel;
-                    }
+                if (!rootDevice) {
+                    this.replicatedModel = replicateModel(protoModel, locker, shareParameters);
+                } else {
+                    this.replicatedModel = protoModel;
                 }
 
                 while (shouldWork.get()) {
@@ -372,37 +568,15 @@ public class ParallelInference {
 
                     if (request != null) {
                         counter.incrementAndGet();
-
-                        // FIXME: get rid of instanceof here, model won't change during runtime anyway
-                        if (replicatedModel instanceof ComputationGraph) {
-                            List<Pair<INDArray[],INDArray[]>> batches = request.getInputBatches();
-                            List<INDArray[]> out = new ArrayList<>(batches.size());
-                            try {
-                                for (Pair<INDArray[],INDArray[]> inBatch : batches) {
-                                    INDArray[] output = ((ComputationGraph) replicatedModel).output(false, inBatch.getFirst(), inBatch.getSecond());
-                                    out.add(output);
-                                }
-                                request.setOutputBatches(out);
-                            } catch (Exception e){
-                                request.setOutputException(e);
-                            }
-                        } else if (replicatedModel instanceof MultiLayerNetwork) {
-                            List<Pair<INDArray[],INDArray[]>> batches = request.getInputBatches();
-                            List<INDArray[]> out = new ArrayList<>(batches.size());
-                            try {
-                                for (Pair<INDArray[],INDArray[]> inBatch : batches) {
-                                    INDArray f = inBatch.getFirst()[0];
-                                    INDArray fm = (inBatch.getSecond() == null ? null : inBatch.getSecond()[0]);
-                                    INDArray output = ((MultiLayerNetwork) replicatedModel).output(f, false, fm, null);
-                                    out.add(new INDArray[]{output});
-                                }
-                                request.setOutputBatches(out);
-                            } catch (Exception e){
-                                request.setOutputException(e);
-                            }
+                        long timeStart = System.nanoTime();
+
+                        try {
+                            List<INDArray[]> out = output(replicatedModel, request.getInputBatches());
+                            reportModelLatency(System.nanoTime() - timeStart);
+                            request.setOutputBatches(out);
+                        } catch (Exception e){
+                            request.setOutputException(e);
                         }
-
-
                     } else {
                         // just do nothing, i guess and hope for next round?
                     }
@@ -426,13 +600,18 @@ public class ParallelInference {
     }
 
 
+    /**
+     * This class coalesces incoming requests into batches for BATCHED inference mode.
+     *
+     * Current batch is published via CAS, and callers claim slots in it without locking. Once worker takes batch
+     * from the queue it gets sealed, and the next caller publishes a fresh one.
+     */
     protected static class ObservablesProvider {
         private BlockingQueue<InferenceObservable> targetQueue;
         private long nanos;
         private int batchLimit;
 
-        private volatile BatchedInferenceObservable currentObservable;
-        private final Object locker = new Object();
+        private final AtomicReference<BatchedInferenceObservable> currentObservable = new AtomicReference<>();
 
         protected ObservablesProvider(long nanos, int batchLimit, @NonNull BlockingQueue<InferenceObservable> queue) {
             this.targetQueue = queue;
@@ -449,27 +628,195 @@ public class ParallelInference {
         }
 
         protected InferenceObservable setInput(@NonNull Observer observer, INDArray[] input, INDArray[] inputMask) {
+            while (true) {
+                BatchedInferenceObservable observable = currentObservable.get();
+                if (observable != null && observable.addInput(observer, input, inputMask) >= 0)
+                    return observable;
+
+                // current batch is either full or taken by worker, so we'll try to publish new one.
+                // our input goes first, so worker never gets empty batch
+                BatchedInferenceObservable fresh = new BatchedInferenceObservable(batchLimit);
+                fresh.addInput(observer, input, inputMask);
+
+                if (currentObservable.compareAndSet(observable, fresh)) {
+                    try {
+                        targetQueue.put(fresh);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new RuntimeException(e);
+                    }
+
+                    return fresh;
+                }
+            }
+        }
+    }
+
+
+    /**
+     * This class coalesces incoming requests into batches for ADAPTIVE inference mode.
+     *
+     * Unlike ObservablesProvider, batch isn't visible to workers until it's either full, or its deadline is reached,
+     * so no locking is required between callers and workers. Deadline of each batch is the earliest deadline of the
+     * requests within it: request arrival time plus its latency budget, minus expected model latency and expected
+     * time spent in workers queue. Expected model latency is tracked as moving average of latencies reported by workers.
+     */
+    protected static class AdaptiveObservablesProvider extends Thread {
+        private static final double LATENCY_DECAY = 0.2;
+
+        private BlockingQueue<InferenceObservable> targetQueue;
+        private InferenceStats stats;
+        private long maxLatency;
+        private int targetBatchSize;
+        private int workers;
+
+        private final Object locker = new Object();
+        private AtomicBoolean shouldWork = new AtomicBoolean(true);
+
+        private BatchedInferenceObservable currentObservable;
+        private long currentDeadline;
+        private long currentCreated;
+
+        // moving average of model latency, in nanoseconds. negative value means we have no observations yet
+        private volatile double expectedLatency = -1.0;
+
+        protected AdaptiveObservablesProvider(long maxLatency, int targetBatchSize, int workers,
+                        @NonNull BlockingQueue<InferenceObservable> queue, @NonNull InferenceStats stats) {
+            this.maxLatency = maxLatency;
+            this.targetBatchSize = targetBatchSize;
+            this.workers = Math.max(1, workers);
+            this.targetQueue = queue;
+            this.stats = stats;
+
+            this.setDaemon(true);
+            this.setName("AdaptiveObservablesProvider");
+        }
+
+        protected InferenceObservable setInput(@NonNull Observer observer, INDArray... input) {
+            return setInput(observer, input, null, maxLatency);
+        }
+
+        protected InferenceObservable setInput(@NonNull Observer observer, INDArray[] input, INDArray[] inputMask,
+                        long budget) {
             synchronized (locker) {
-                boolean isNew = false;
-                if (currentObservable == null || currentObservable.getCounter() >= batchLimit
-                                || currentObservable.isLocked()) {
-                    isNew = true;
-                    currentObservable = new BatchedInferenceObservable();
+                if (!shouldWork.get())
+                    throw new ND4JIllegalStateException("ParallelInference was shut down");
+
+                long now = System.nanoTime();
+                long window = coalescingWindow(budget);
+                stats.setCoalescingWindow(window);
+
+                if (currentObservable == null) {
+                    currentObservable = new BatchedInferenceObservable(targetBatchSize);
+                    currentCreated = now;
+                    currentDeadline = now + window;
+                    locker.notifyAll();
+                } else if (now + window < currentDeadline) {
+                    currentDeadline = now + window;
+                    locker.notifyAll();
                 }
 
-                currentObservable.addInput(input, inputMask);
-                currentObservable.addObserver(observer);
+                BatchedInferenceObservable observable = currentObservable;
+                observable.addInput(observer, input, inputMask);
 
-                try {
-                    if (isNew)
-                        targetQueue.put(currentObservable);
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                    throw new RuntimeException(e);
+                if (observable.getCounter() >= targetBatchSize || currentDeadline <= now)
+                    dispatch(now);
+
+                return observable;
+            }
+        }
+
+        /**
+         * This method returns time current request can spend waiting for other requests to join its batch
+         *
+         * @param budget latency budget of the request
+         * @return
+         */
+        protected long coalescingWindow(long budget) {
+            double latency = expectedLatency;
+            if (latency < 0)
+                return budget;
+
+            // batches already queued will be processed before ours
+            double queued = latency * targetQueue.size() / workers;
+            return Math.max(0L, budget - (long) (latency + queued));
+        }
+
+        /**
+         * This method is called once batch is processed by one of workers
+         *
+         * @param nanos
+         */
+        protected synchronized void reportLatency(long nanos) {
+            if (expectedLatency < 0)
+                expectedLatency = nanos;
+            else
+                expectedLatency = expectedLatency * (1.0 - LATENCY_DECAY) + nanos * LATENCY_DECAY;
+        }
+
+        protected long getExpectedLatency() {
+            return (long) Math.max(0.0, expectedLatency);
+        }
+
+        // PLEASE NOTE: this method should be called under locker only
+        private void dispatch(long now) {
+            BatchedInferenceObservable observable = currentObservable;
+            currentObservable = null;
+
+            stats.recordBatch(observable.getCounter(), targetQueue.size(), now - currentCreated);
+
+            try {
+                targetQueue.put(observable);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException(e);
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (shouldWork.get()) {
+                    synchronized (locker) {
+                        if (currentObservable == null) {
+                            locker.wait();
+                            continue;
+                        }
+
+                        long now = System.nanoTime();
+                        long remaining = currentDeadline - now;
+                        if (remaining <= 0)
+                            dispatch(now);
+                        else
+                            locker.wait(remaining / 1000000L, (int) (remaining % 1000000L));
+                    }
                 }
+            } catch (InterruptedException e) {
+                // do nothing, we're shutting down
+            } catch (RuntimeException e) {
+                if (shouldWork.get())
+                    throw e;
+            }
+        }
+
+        /**
+         * This method stops dispatching. Requests of the batch being collected, if any, are completed with exception,
+         * since there's no one left to dispatch them
+         */
+        protected void shutdown() {
+            synchronized (locker) {
+                shouldWork.set(false);
 
-                return currentObservable;
+                if (currentObservable != null) {
+                    BatchedInferenceObservable observable = currentObservable;
+                    currentObservable = null;
+
+                    // seal batch, so no more requests will join it
+                    observable.getInputBatches();
+                    observable.setOutputException(new ND4JIllegalStateException("ParallelInference was shut down"));
+                }
             }
+            this.interrupt();
         }
     }
 }
@@ -1,12 +1,11 @@
 package org.deeplearning4j.parallelism.inference.observers;
 
+import lombok.Getter;
+import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
-import lombok.val;
 import org.deeplearning4j.parallelism.inference.InferenceObservable;
 import org.nd4j.linalg.api.ndarray.INDArray;
 import org.nd4j.linalg.dataset.api.DataSetUtil;
-import org.nd4j.linalg.exception.ND4JIllegalStateException;
-import org.nd4j.linalg.factory.Nd4j;
 import org.nd4j.linalg.indexing.INDArrayIndex;
 import org.nd4j.linalg.indexing.NDArrayIndex;
 import org.nd4j.linalg.primitives.Pair;
@@ -15,65 +14,126 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
-import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.Observer;
 import java.util.concurrent.atomic.AtomicInteger;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
 
 /**
  * This class holds reference input, and implements second use case: BATCHED inference
  *
+ * Inputs are stored in a bounded multi-producer/single-consumer slot buffer: callers claim slots with a single CAS,
+ * and the worker seals the buffer before building the batch, so no locks are involved on either side.
+ * Once output is available, each caller gets a view of the batched output, without copies.
+ *
  * @author raver119@gmail.com
  */
 @Slf4j
 public class BatchedInferenceObservable extends BasicInferenceObservable implements InferenceObservable {
-    private List<INDArray[]> inputs = new ArrayList<>();
-    private List<INDArray[]> inputMasks = new ArrayList<>();
-    private List<INDArray[]> outputs = new ArrayList<>();
-    private AtomicInteger counter = new AtomicInteger(0);
-    private ThreadLocal<Integer> position = new ThreadLocal<>();
-    private List<int[]> outputBatchInputArrays = new ArrayList<>();
+    public static final int DEFAULT_CAPACITY = 256;
+
+    // highest bit of the state marks buffer as sealed, the rest holds number of claimed slots
+    private static final int SEALED = 1 << 30;
 
-    private final Object locker = new Object();
+    @Getter
+    private final int capacity;
+    private final AtomicInteger state = new AtomicInteger(0);
+    private final AtomicInteger published = new AtomicInteger(0);
 
-    private ReentrantReadWriteLock realLocker = new ReentrantReadWriteLock();
-    private AtomicBoolean isLocked = new AtomicBoolean(false);
-    private AtomicBoolean isReadLocked = new AtomicBoolean(false);
+    private final AtomicReferenceArray<INDArray[]> inputs;
+    private final AtomicReferenceArray<INDArray[]> inputMasks;
+    private final AtomicReferenceArray<Observer> observers;
+    private final long[] exampleCounts;
+
+    private INDArray[][] outputs;
+    private ThreadLocal<Integer> position = new ThreadLocal<>();
+    private List<int[]> outputBatchInputArrays = new ArrayList<>();
 
     public BatchedInferenceObservable() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public BatchedInferenceObservable(int capacity) {
+        if (capacity < 1 || capacity >= SEALED)
+            throw new IllegalArgumentException("Capacity should be positive value, got " + capacity);
 
+        this.capacity = capacity;
+        this.inputs = new AtomicReferenceArray<>(capacity);
+        this.inputMasks = new AtomicReferenceArray<>(capacity);
+        this.observers = new AtomicReferenceArray<>(capacity);
+        this.exampleCounts = new long[capacity];
     }
 
     @Override
     public void addInput(INDArray[] input, INDArray[] inputMasks) {
-        synchronized (locker) {
-            inputs.add(input);
-            this.inputMasks.add(inputMasks);
-            position.set(counter.getAndIncrement());
+        if (addInput(null, input, inputMasks) < 0)
+            throw new IllegalStateException("Can't add input: observable is either full or sealed");
+    }
 
-            if (isReadLocked.get())
-                realLocker.readLock().unlock();
-        }
+    /**
+     * This method tries to add input to this batch.
+     *
+     * @param observer observer to be notified once output is available, may be null
+     * @param input
+     * @param inputMasks
+     * @return slot assigned to this input, or -1 if this observable is full or already taken by worker
+     */
+    public int addInput(Observer observer, @NonNull INDArray[] input, INDArray[] inputMasks) {
+        int slot;
+        int cState;
+        do {
+            cState = state.get();
+            if ((cState & SEALED) != 0 || cState >= capacity)
+                return -1;
+        } while (!state.compareAndSet(cState, cState + 1));
+
+        slot = cState;
+        exampleCounts[slot] = input[0].size(0);
+        this.inputMasks.lazySet(slot, inputMasks);
+        this.observers.lazySet(slot, observer);
+        inputs.set(slot, input);
+        published.incrementAndGet();
+
+        position.set(slot);
+        return slot;
+    }
+
+    /**
+     * This method marks this observable as taken by worker: no more inputs can be added after this call.
+     * Method blocks until all slots claimed so far are filled in
+     *
+     * @return number of inputs in this batch
+     */
+    protected int seal() {
+        int cState;
+        do {
+            cState = state.get();
+        } while ((cState & SEALED) == 0 && !state.compareAndSet(cState, cState | SEALED));
+
+        int count = cState & ~SEALED;
+        while (published.get() < count)
+            LockSupport.parkNanos(100);
+
+        return count;
     }
 
     @Override
     public List<Pair<INDArray[],INDArray[]>> getInputBatches() {
-        realLocker.writeLock().lock();
-        isLocked.set(true);
+        int count = seal();
 
         outputBatchInputArrays.clear();
 
         // this method should pile individual examples into single batch
 
-        if (counter.get() > 1) {
+        if (count > 1) {
 
             int pos = 0;
             List<Pair<INDArray[],INDArray[]>> out = new ArrayList<>();
-            int numArrays = inputs.get(0).length;
-            while(pos < inputs.size()) {
+            while(pos < count) {
 
                 //First: determine which we can actually batch...
                 int lastPossible = pos;
-                for (int i = pos+1; i < inputs.size(); i++) {
+                for (int i = pos+1; i < count; i++) {
                     if (canBatch(inputs.get(pos), inputs.get(i))) {
                         lastPossible = i;
                     } else {
@@ -106,11 +166,9 @@ public class BatchedInferenceObservable extends BasicInferenceObservable impleme
                 outputBatchInputArrays.add(new int[]{pos, lastPossible});
                 pos = lastPossible+1;
             }
-            realLocker.writeLock().unlock();
             return out;
         } else {
             outputBatchInputArrays.add(new int[]{0,0});
-            realLocker.writeLock().unlock();
             return Collections.singletonList(new Pair<>(inputs.get(0), inputMasks.get(0)));
         }
     }
@@ -133,55 +191,63 @@ public class BatchedInferenceObservable extends BasicInferenceObservable impleme
     @Override
     public void setOutputBatches(List<INDArray[]> output) {
         //this method should split batched output INDArray[] into multiple separate INDArrays
-        int countNumInputBatches = 0;   //Counter for total number of input batches processed
+        int count = getCounter();
+        INDArray[][] result = new INDArray[count][];
         for( int outBatchNum=0; outBatchNum<output.size(); outBatchNum++ ){ //Iterate over output batch
             INDArray[] currBatchOutputs = output.get(outBatchNum);
             int[] inputBatchIdxs = outputBatchInputArrays.get(outBatchNum);
-            int inputBatchCount = inputBatchIdxs[1] - inputBatchIdxs[0] + 1;
-            for (int i = 0; i < inputBatchCount; i++) {
-                outputs.add(new INDArray[currBatchOutputs.length]);
+            for (int i = inputBatchIdxs[0]; i <= inputBatchIdxs[1]; i++) {
+                result[i] = new INDArray[currBatchOutputs.length];
             }
 
-            // pull back results for individual input batches
-            int firstInputBatch = countNumInputBatches;
+            // pull back results for individual input batches, as views of the batched output
             for (int outputNumber = 0; outputNumber < currBatchOutputs.length; outputNumber++) {    //Iterate over net outputs
-                INDArray[] split = splitExamples(currBatchOutputs[outputNumber], inputBatchIdxs[0], inputBatchIdxs[1]);
-
-                int currentInputBatch = firstInputBatch;
-                //Iterate over input batch (examples) - note that each output batch is made up of 1 or more input batches
-                for (int inputInBatch = 0; inputInBatch < inputBatchCount; inputInBatch++) {
-                    outputs.get(currentInputBatch++)[outputNumber] = split[inputInBatch];
-
-                    if(outputNumber == 0){
-                        countNumInputBatches++;
-                    }
-                }
+                splitExamples(currBatchOutputs[outputNumber], inputBatchIdxs[0], inputBatchIdxs[1], outputNumber, result);
             }
         }
 
-        this.setChanged();
-        notifyObservers();
+        this.outputs = result;
+        notifyAllObservers(count);
     }
 
-    private INDArray[] splitExamples(INDArray netOutput, int firstInputComponent, int lastInputComponent){
+    @Override
+    public void setOutputException(Exception exception) {
+        this.exception = exception;
+        notifyAllObservers(getCounter());
+    }
+
+    private void notifyAllObservers(int count) {
+        for (int i = 0; i < count; i++) {
+            Observer observer = observers.get(i);
+            if (observer != null)
+                observer.update(this, i);
+        }
+
+        // observers registered via addObserver(), if any
+        if (countObservers() > 0) {
+            this.setChanged();
+            notifyObservers();
+        }
+    }
 
+    private void splitExamples(INDArray netOutput, int firstInputComponent, int lastInputComponent, int outputNumber,
+                    INDArray[][] result) {
         int numSplits = lastInputComponent - firstInputComponent + 1;
         if(numSplits == 1){
-            return new INDArray[]{netOutput};
+            result[firstInputComponent][outputNumber] = netOutput;
         } else {
-            INDArray[] out = new INDArray[numSplits];
             INDArrayIndex[] indices = new INDArrayIndex[netOutput.rank()];
             for(int i=1; i<indices.length; i++ ){
                 indices[i] = NDArrayIndex.all();
             }
-            int examplesSoFar = 0;
+            long examplesSoFar = 0;
             for( int inNum = 0; inNum < numSplits; inNum++ ){
-                val inSizeEx = inputs.get(firstInputComponent + inNum)[0].size(0);
+                long inSizeEx = exampleCounts[firstInputComponent + inNum];
+                // interval along dimension 0 gives us view of batched output, not a copy
                 indices[0] = NDArrayIndex.interval(examplesSoFar, examplesSoFar+inSizeEx);
-                out[inNum] = netOutput.get(indices);
+                result[firstInputComponent + inNum][outputNumber] = netOutput.get(indices);
                 examplesSoFar += inSizeEx;
             }
-            return out;
         }
     }
 
@@ -191,11 +257,12 @@ public class BatchedInferenceObservable extends BasicInferenceObservable impleme
      * @return
      */
     protected List<INDArray[]> getOutputs() {
-        return outputs;
+        return outputs == null ? Collections.<INDArray[]>emptyList() : Arrays.asList(outputs);
     }
 
     protected void setCounter(int value) {
-        counter.set(value);
+        state.set(value);
+        published.set(value);
     }
 
     public void setPosition(int pos) {
@@ -203,27 +270,33 @@ public class BatchedInferenceObservable extends BasicInferenceObservable impleme
     }
 
     public int getCounter() {
-        return counter.get();
+        return state.get() & ~SEALED;
     }
 
-
-
+    /**
+     * This method checks, if this observable was already taken by worker, or reached its capacity
+     *
+     * @return
+     */
     public boolean isLocked() {
-        boolean lck = !realLocker.readLock().tryLock();
-
-        boolean result = lck || isLocked.get();
-
-        if (!result)
-            isReadLocked.set(true);
-
-        return result;
+        int cState = state.get();
+        return (cState & SEALED) != 0 || cState >= capacity;
     }
 
+    /**
+     * This method returns output for given slot
+     *
+     * @param position slot, as returned by addInput()
+     * @return
+     */
+    public INDArray[] getOutput(int position) {
+        checkOutputException();
+        return outputs[position];
+    }
 
     @Override
     public INDArray[] getOutput() {
         // basically we should take care of splits here: each client should get its own part of output, wrt order number
-        checkOutputException();
-        return outputs.get(position.get());
+        return getOutput(position.get());
     }
 }
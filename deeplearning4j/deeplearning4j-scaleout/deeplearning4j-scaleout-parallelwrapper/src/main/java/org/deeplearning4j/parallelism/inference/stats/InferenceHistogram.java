@@ -0,0 +1,113 @@
+package org.deeplearning4j.parallelism.inference.stats;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free histogram for non-negative long values (latencies in nanoseconds, batch sizes, queue depths).
+ *
+ * Values are grouped into log-linear buckets: every power of two range is split into 8 sub-buckets,
+ * so reported percentiles are within 12.5% of real values, while recording is just a couple of atomic increments.
+ */
+public class InferenceHistogram {
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int NUM_BUCKETS = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(NUM_BUCKETS);
+    private final AtomicLong count = new AtomicLong(0);
+    private final AtomicLong sum = new AtomicLong(0);
+    private final AtomicLong max = new AtomicLong(0);
+
+    /**
+     * This method records single value. Negative values are recorded as 0
+     *
+     * @param value
+     */
+    public void record(long value) {
+        if (value < 0)
+            value = 0;
+
+        buckets.incrementAndGet(bucketFor(value));
+        count.incrementAndGet();
+        sum.addAndGet(value);
+
+        long cMax;
+        while ((cMax = max.get()) < value && !max.compareAndSet(cMax, value));
+    }
+
+    protected static int bucketFor(long value) {
+        if (value < SUB_BUCKETS)
+            return (int) value;
+
+        int exp = 63 - Long.numberOfLeadingZeros(value);
+        int sub = (int) ((value >>> (exp - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1));
+        return (exp - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + sub;
+    }
+
+    protected static long upperBound(int bucket) {
+        if (bucket < SUB_BUCKETS)
+            return bucket;
+
+        int exp = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        int sub = bucket % SUB_BUCKETS;
+        long lower = ((long) (SUB_BUCKETS + sub)) << (exp - SUB_BUCKET_BITS);
+        return lower + (1L << (exp - SUB_BUCKET_BITS)) - 1;
+    }
+
+    /**
+     * This method returns estimated value at given percentile
+     *
+     * @param percentile percentile, in range [0, 100]
+     * @return estimated value, or 0 if nothing was recorded yet
+     */
+    public long getPercentile(double percentile) {
+        if (percentile < 0.0 || percentile > 100.0)
+            throw new IllegalArgumentException("Percentile should be in range [0, 100], got " + percentile);
+
+        long total = count.get();
+        if (total == 0)
+            return 0;
+
+        long target = Math.max(1, (long) Math.ceil(percentile / 100.0 * total));
+        long cnt = 0;
+        for (int i = 0; i < NUM_BUCKETS; i++) {
+            cnt += buckets.get(i);
+            if (cnt >= target)
+                return Math.min(upperBound(i), max.get());
+        }
+
+        return max.get();
+    }
+
+    public long getCount() {
+        return count.get();
+    }
+
+    public long getMax() {
+        return max.get();
+    }
+
+    public double getMean() {
+        long total = count.get();
+        return total == 0 ? 0.0 : sum.get() / (double) total;
+    }
+
+    /**
+     * This method resets all recorded values
+     */
+    public void reset() {
+        for (int i = 0; i < NUM_BUCKETS; i++)
+            buckets.set(i, 0);
+
+        count.set(0);
+        sum.set(0);
+        max.set(0);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("count=%d, mean=%.1f, p50=%d, p90=%d, p99=%d, max=%d", getCount(), getMean(),
+                        getPercentile(50), getPercentile(90), getPercentile(99), getMax());
+    }
+}
@@ -0,0 +1,83 @@
+package org.deeplearning4j.parallelism.inference.stats;
+
+import lombok.Getter;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This class holds runtime statistics of ParallelInference instance:
+ * queue depth and achieved batch size at dispatch time, time spent by requests waiting for batch to be formed,
+ * and model latency observed by workers.
+ *
+ * All latencies are recorded in nanoseconds.
+ */
+public class InferenceStats {
+    @Getter
+    private final InferenceHistogram queueDepth = new InferenceHistogram();
+    @Getter
+    private final InferenceHistogram batchSize = new InferenceHistogram();
+    @Getter
+    private final InferenceHistogram waitTime = new InferenceHistogram();
+    @Getter
+    private final InferenceHistogram modelLatency = new InferenceHistogram();
+
+    private final AtomicLong coalescingWindow = new AtomicLong(0);
+
+    /**
+     * This method records batch dispatched to the workers queue
+     *
+     * @param size number of requests within batch
+     * @param depth number of batches queued at dispatch time
+     * @param waitNanos time since oldest request in the batch has arrived
+     */
+    public void recordBatch(int size, int depth, long waitNanos) {
+        batchSize.record(size);
+        queueDepth.record(depth);
+        waitTime.record(waitNanos);
+    }
+
+    /**
+     * This method records time spent by worker on single batch
+     *
+     * @param nanos
+     */
+    public void recordModelLatency(long nanos) {
+        modelLatency.record(nanos);
+    }
+
+    /**
+     * This method updates current coalescing window, as calculated by adaptive scheduler
+     *
+     * @param nanos
+     */
+    public void setCoalescingWindow(long nanos) {
+        coalescingWindow.set(nanos);
+    }
+
+    /**
+     * This method returns last coalescing window used by adaptive scheduler, in nanoseconds
+     *
+     * @return
+     */
+    public long getCoalescingWindowNanos() {
+        return coalescingWindow.get();
+    }
+
+    /**
+     * This method resets all histograms
+     */
+    public void reset() {
+        queueDepth.reset();
+        batchSize.reset();
+        waitTime.reset();
+        modelLatency.reset();
+    }
+
+    @Override
+    public String toString() {
+        long window = TimeUnit.NANOSECONDS.toMicros(coalescingWindow.get());
+        return "InferenceStats{" + "batchSize=[" + batchSize + "], queueDepth=[" + queueDepth + "], waitTimeNs=["
+                        + waitTime + "], modelLatencyNs=[" + modelLatency + "], coalescingWindowUs=" + window + "}";
+    }
+}
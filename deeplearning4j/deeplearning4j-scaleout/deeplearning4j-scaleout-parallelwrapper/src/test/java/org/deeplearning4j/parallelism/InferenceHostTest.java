@@ -0,0 +1,270 @@
+package org.deeplearning4j.parallelism;
+
+import lombok.extern.slf4j.Slf4j;
+import org.deeplearning4j.nn.conf.ComputationGraphConfiguration;
+import org.deeplearning4j.nn.conf.MultiLayerConfiguration;
+import org.deeplearning4j.nn.conf.NeuralNetConfiguration;
+import org.deeplearning4j.nn.conf.layers.DenseLayer;
+import org.deeplearning4j.nn.conf.layers.OutputLayer;
+import org.deeplearning4j.nn.graph.ComputationGraph;
+import org.deeplearning4j.nn.multilayer.MultiLayerNetwork;
+import org.junit.Test;
+import org.nd4j.linalg.activations.Activation;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.exception.ND4JIllegalStateException;
+import org.nd4j.linalg.factory.Nd4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+@Slf4j
+public class InferenceHostTest {
+
+    private static MultiLayerNetwork getNetwork(int nIn, int nOut, long seed) {
+        MultiLayerConfiguration conf = new NeuralNetConfiguration.Builder()
+                .activation(Activation.TANH)
+                .seed(seed)
+                .list()
+                .layer(new DenseLayer.Builder().nIn(nIn).nOut(8).build())
+                .layer(new OutputLayer.Builder().nIn(8).nOut(nOut).activation(Activation.SOFTMAX).build())
+                .build();
+
+        MultiLayerNetwork net = new MultiLayerNetwork(conf);
+        net.init();
+        return net;
+    }
+
+    private static ComputationGraph getGraph(int nIn, int nOut, long seed) {
+        ComputationGraphConfiguration conf = new NeuralNetConfiguration.Builder()
+                .activation(Activation.TANH)
+                .seed(seed)
+                .graphBuilder()
+                .addInputs("in")
+                .layer("dense", new DenseLayer.Builder().nIn(nIn).nOut(8).build(), "in")
+                .layer("out", new OutputLayer.Builder().nIn(8).nOut(nOut).activation(Activation.SOFTMAX).build(), "dense")
+                .setOutputs("out")
+                .build();
+
+        ComputationGraph net = new ComputationGraph(conf);
+        net.init();
+        return net;
+    }
+
+    @Test(timeout = 60000L)
+    public void testMultipleModels1() throws Exception {
+        final MultiLayerNetwork net1 = getNetwork(10, 3, 12345);
+        final ComputationGraph net2 = getGraph(5, 4, 12345);
+
+        final InferenceHost host = new InferenceHost.Builder().workers(2).batchLimit(8).build();
+        host.deploy("first", net1);
+        host.deploy("second", net2, 2.0);
+
+        assertEquals(2, host.getModels().size());
+
+        final List<INDArray> in1 = new ArrayList<>();
+        final List<INDArray> in2 = new ArrayList<>();
+        final List<INDArray> exp1 = new ArrayList<>();
+        final List<INDArray> exp2 = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            in1.add(Nd4j.rand(1, 10));
+            in2.add(Nd4j.rand(1, 5));
+            exp1.add(net1.output(in1.get(i)));
+            exp2.add(net2.outputSingle(in2.get(i)));
+        }
+
+        final AtomicInteger failures = new AtomicInteger(0);
+        Thread[] threads = new Thread[8];
+        for (int t = 0; t < threads.length; t++) {
+            final int thread = t;
+            threads[t] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int i = 0; i < in1.size(); i++) {
+                        boolean first = (i + thread) % 2 == 0;
+                        INDArray out = first ? host.output("first", in1.get(i)) : host.output("second", in2.get(i));
+                        INDArray exp = first ? exp1.get(i) : exp2.get(i);
+                        if (!exp.equalsWithEps(out, 1e-5))
+                            failures.incrementAndGet();
+                    }
+                }
+            });
+            threads[t].start();
+        }
+
+        for (Thread thread : threads)
+            thread.join();
+
+        assertEquals(0, failures.get());
+        assertEquals(threads.length * in1.size(), host.getServedRequests("first") + host.getServedRequests("second"));
+
+        host.shutdown();
+        assertEquals(0, host.getUsedMemory());
+    }
+
+    @Test(timeout = 30000L)
+    public void testHotSwap1() throws Exception {
+        MultiLayerNetwork net1 = getNetwork(10, 3, 12345);
+        MultiLayerNetwork net2 = getNetwork(10, 3, 54321);
+
+        InferenceHost host = new InferenceHost.Builder().workers(2).build();
+        host.deploy("model", net1);
+
+        INDArray input = Nd4j.rand(1, 10);
+        assertEquals(net1.output(input), host.output("model", input));
+
+        host.deploy("model", net2);
+        assertEquals(net2.output(input), host.output("model", input));
+
+        host.undeploy("model");
+        try {
+            host.output("model", input);
+            fail("Expected exception");
+        } catch (ND4JIllegalStateException e) {
+            //OK
+        }
+
+        host.shutdown();
+    }
+
+    @Test(timeout = 30000L)
+    public void testMemoryBudget1() throws Exception {
+        MultiLayerNetwork net = getNetwork(10, 3, 12345);
+        long bytes = net.params().length() * Nd4j.sizeOfDataType();
+
+        // budget allows single replica only, so all workers have to share it
+        final InferenceHost host = new InferenceHost.Builder().workers(4).memoryBudget(bytes).build();
+        host.deploy("model", net);
+        assertEquals(bytes, host.getUsedMemory());
+
+        final INDArray input = Nd4j.rand(1, 10);
+        final INDArray exp = net.output(input);
+
+        Thread[] threads = new Thread[4];
+        final AtomicInteger failures = new AtomicInteger(0);
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int i = 0; i < 50; i++) {
+                        if (!exp.equalsWithEps(host.output("model", input), 1e-5))
+                            failures.incrementAndGet();
+                    }
+                }
+            });
+            threads[t].start();
+        }
+
+        for (Thread thread : threads)
+            thread.join();
+
+        assertEquals(0, failures.get());
+        assertEquals(bytes, host.getUsedMemory());
+
+        host.shutdown();
+    }
+
+    @Test(timeout = 30000L)
+    public void testSharedParams1() throws Exception {
+        MultiLayerNetwork net = getNetwork(10, 3, 12345);
+        long bytes = net.params().length() * Nd4j.sizeOfDataType();
+
+        // replicas are sharing parameters, so they aren't limited by budget, and aren't accounted
+        final InferenceHost host = new InferenceHost.Builder().workers(4).memoryBudget(bytes).shareParameters(true).build();
+        host.deploy("model", net);
+
+        final INDArray input = Nd4j.rand(1, 10);
+        final INDArray exp = net.output(input);
+
+        Thread[] threads = new Thread[4];
+        final AtomicInteger failures = new AtomicInteger(0);
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int i = 0; i < 50; i++) {
+                        if (!exp.equalsWithEps(host.output("model", input), 1e-5))
+                            failures.incrementAndGet();
+                    }
+                }
+            });
+            threads[t].start();
+        }
+
+        for (Thread thread : threads)
+            thread.join();
+
+        assertEquals(0, failures.get());
+        assertEquals(bytes, host.getUsedMemory());
+
+        host.undeploy("model");
+        assertEquals(0, host.getUsedMemory());
+
+        host.shutdown();
+    }
+
+    @Test(timeout = 60000L)
+    public void testSaturatedModel1() throws Exception {
+        final CountDownLatch blocked = new CountDownLatch(1);
+        final CountDownLatch unblock = new CountDownLatch(1);
+        MultiLayerNetwork template = getNetwork(10, 3, 12345);
+
+        // this model blocks inside inference until it's released
+        MultiLayerNetwork slow = new MultiLayerNetwork(template.getLayerWiseConfigurations()) {
+            @Override
+            public INDArray output(INDArray input, boolean train, INDArray featuresMask, INDArray labelsMask) {
+                blocked.countDown();
+                try {
+                    unblock.await();
+                } catch (InterruptedException e) {
+                    throw new RuntimeException(e);
+                }
+                return super.output(input, train, featuresMask, labelsMask);
+            }
+        };
+        slow.init();
+        MultiLayerNetwork fast = getNetwork(10, 3, 54321);
+        long bytes = slow.params().length() * Nd4j.sizeOfDataType();
+
+        // budget doesn't allow extra replicas, so slow model has single busy replica
+        final InferenceHost host = new InferenceHost.Builder().workers(2).batchLimit(1).memoryBudget(2 * bytes).build();
+        host.deploy("slow", slow);
+        host.deploy("fast", fast);
+
+        final INDArray input = Nd4j.rand(1, 10);
+        final AtomicInteger served = new AtomicInteger(0);
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    host.output("slow", input);
+                    served.incrementAndGet();
+                }
+            });
+            threads[t].start();
+        }
+
+        blocked.await();
+        // let the rest of slow requests get queued
+        Thread.sleep(200);
+
+        // idle model is served while all workers but one could be waiting for slow model
+        for (int i = 0; i < 10; i++)
+            assertEquals(fast.output(input), host.output("fast", input));
+
+        assertEquals(0, served.get());
+        unblock.countDown();
+
+        for (Thread thread : threads)
+            thread.join();
+
+        assertEquals(threads.length, served.get());
+        assertEquals(threads.length, host.getServedRequests("slow"));
+
+        host.shutdown();
+    }
+}
@@ -19,6 +19,7 @@ import org.deeplearning4j.parallelism.inference.InferenceMode;
 import org.deeplearning4j.parallelism.inference.InferenceObservable;
 import org.deeplearning4j.parallelism.inference.observers.BasicInferenceObserver;
 import org.deeplearning4j.parallelism.inference.observers.BatchedInferenceObservable;
+import org.deeplearning4j.parallelism.inference.stats.InferenceStats;
 import org.deeplearning4j.util.ModelSerializer;
 import org.junit.After;
 import org.junit.Before;
@@ -33,7 +34,9 @@ import java.io.File;
 import java.lang.reflect.Field;
 import java.util.*;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.junit.Assert.*;
 
@@ -183,6 +186,148 @@ public class ParallelInferenceTest {
     }
 
 
+    @Test(timeout = 30000L)
+    public void testInferenceAdaptive1() throws Exception {
+        ParallelInference inf = new ParallelInference.Builder(model).inferenceMode(InferenceMode.ADAPTIVE).batchLimit(8)
+                .maxLatency(50, TimeUnit.MILLISECONDS).workers(2).build();
+
+        iterator = new MnistDataSetIterator(1, false, 12345);
+
+        INDArray array1 = inf.output(iterator.next().getFeatureMatrix());
+        assertFalse(array1.isAttached());
+
+        iterator.reset();
+
+        evalClassifcationMultipleThreads(inf, iterator, 20);
+
+        InferenceStats stats = inf.getInferenceStats();
+        log.info("Stats: {}", stats);
+
+        assertTrue(stats.getBatchSize().getCount() > 0);
+        assertTrue(stats.getBatchSize().getMax() <= 8);
+        assertTrue(stats.getModelLatency().getCount() > 0);
+
+        // 20 threads are hammering the model, so at least some batches should be bigger than 1
+        assertTrue(stats.getBatchSize().getMax() > 1);
+
+        inf.shutdown();
+    }
+
+    @Test(timeout = 30000L)
+    public void testInferenceSharedParams1() throws Exception {
+        ParallelInference inf = new ParallelInference.Builder(model).inferenceMode(InferenceMode.BATCHED).batchLimit(8)
+                .workers(2).shareParameters(true).build();
+
+        iterator = new MnistDataSetIterator(1, false, 12345);
+
+        INDArray array1 = inf.output(iterator.next().getFeatureMatrix());
+        assertFalse(array1.isAttached());
+
+        iterator.reset();
+
+        evalClassifcationMultipleThreads(inf, iterator, 10);
+
+        inf.shutdown();
+    }
+
+    @Test
+    public void testReplicateSharedParams1() throws Exception {
+        Object locker = new Object();
+        INDArray input = Nd4j.rand(3, 784);
+        INDArray exp = model.output(input);
+
+        MultiLayerNetwork shared = (MultiLayerNetwork) ParallelInference.replicateModel(model, locker, true);
+        assertTrue(shared.params().data() == model.params().data());
+        assertEquals(exp, shared.output(input));
+
+        MultiLayerNetwork copy = (MultiLayerNetwork) ParallelInference.replicateModel(model, locker, false);
+        assertTrue(copy.params().data() != model.params().data());
+        assertEquals(exp, copy.output(input));
+    }
+
+    @Test
+    public void testAdaptiveProvider1() throws Exception {
+        LinkedBlockingQueue<InferenceObservable> queue = new LinkedBlockingQueue<>();
+        BasicInferenceObserver observer = new BasicInferenceObserver();
+        InferenceStats stats = new InferenceStats();
+
+        // dispatcher thread isn't started here, so batches can only be dispatched once they're full
+        ParallelInference.AdaptiveObservablesProvider provider = new ParallelInference.AdaptiveObservablesProvider(
+                TimeUnit.SECONDS.toNanos(10), 2, 1, queue, stats);
+
+        InferenceObservable observable1 = provider.setInput(observer, Nd4j.create(100).assign(1.0));
+        assertEquals(0, queue.size());
+
+        InferenceObservable observable2 = provider.setInput(observer, Nd4j.create(100).assign(2.0));
+        assertTrue(observable1 == observable2);
+        assertEquals(1, queue.size());
+        assertTrue(observable1 == queue.poll());
+
+        InferenceObservable observable3 = provider.setInput(observer, Nd4j.create(100).assign(3.0));
+        assertTrue(observable1 != observable3);
+        assertEquals(0, queue.size());
+
+        assertEquals(1, stats.getBatchSize().getCount());
+        assertEquals(2, stats.getBatchSize().getMax());
+    }
+
+    @Test(timeout = 20000L)
+    public void testAdaptiveProvider2() throws Exception {
+        LinkedBlockingQueue<InferenceObservable> queue = new LinkedBlockingQueue<>();
+        BasicInferenceObserver observer = new BasicInferenceObserver();
+        InferenceStats stats = new InferenceStats();
+
+        ParallelInference.AdaptiveObservablesProvider provider = new ParallelInference.AdaptiveObservablesProvider(
+                TimeUnit.MILLISECONDS.toNanos(20), 100, 1, queue, stats);
+        provider.start();
+
+        InferenceObservable observable1 = provider.setInput(observer, Nd4j.create(100).assign(1.0));
+
+        // batch isn't full, so it should be dispatched once its deadline is reached
+        InferenceObservable dispatched = queue.poll(10, TimeUnit.SECONDS);
+        assertTrue(observable1 == dispatched);
+        assertEquals(1, stats.getBatchSize().getMax());
+        assertTrue(stats.getWaitTime().getMax() >= TimeUnit.MILLISECONDS.toNanos(10));
+
+        // once model latency exceeds budget, requests should be dispatched immediately
+        provider.reportLatency(TimeUnit.MILLISECONDS.toNanos(50));
+        assertEquals(0, provider.coalescingWindow(TimeUnit.MILLISECONDS.toNanos(20)));
+
+        InferenceObservable observable2 = provider.setInput(observer, Nd4j.create(100).assign(2.0));
+        assertTrue(observable2 == queue.poll());
+
+        provider.shutdown();
+    }
+
+    @Test(timeout = 20000L)
+    public void testAdaptiveShutdown1() throws Exception {
+        // budget is large enough, so pending request is never dispatched on its own
+        final ParallelInference inf = new ParallelInference.Builder(model).inferenceMode(InferenceMode.ADAPTIVE)
+                .batchLimit(64).maxLatency(1, TimeUnit.HOURS).workers(1).build();
+
+        final AtomicReference<Exception> exception = new AtomicReference<>();
+        Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    inf.output(Nd4j.rand(1, 784));
+                } catch (Exception e) {
+                    exception.set(e);
+                }
+            }
+        });
+        thread.start();
+
+        // let the request join the batch
+        Thread.sleep(500);
+        assertTrue(thread.isAlive());
+
+        inf.shutdown();
+        thread.join();
+
+        assertNotNull(exception.get());
+    }
+
     @Test
     public void testProvider1() throws Exception {
         LinkedBlockingQueue queue = new LinkedBlockingQueue();
@@ -282,11 +427,6 @@ public class ParallelInferenceTest {
         l.add(new int[]{0,2});
         f.set(observable3, l);
 
-        f = BatchedInferenceObservable.class.getDeclaredField("inputs");
-        f.setAccessible(true);
-        f.set(observable3, Arrays.asList(new INDArray[]{bigOutput.getRow(0)},
-                new INDArray[]{bigOutput.getRow(1)}, new INDArray[]{bigOutput.getRow(2)}));
-
 
         observable3.setOutputBatches(Collections.singletonList(new INDArray[]{bigOutput}));
         INDArray out = null;
@@ -305,6 +445,45 @@ public class ParallelInferenceTest {
         out = observable3.getOutput()[0];
         assertArrayEquals(new long[] {1, 10}, out.shape());
         assertEquals(2.0f, out.meanNumber().floatValue(), 0.01f);
+
+        // each caller should get view of batched output, not a copy
+        assertTrue(out.isView());
+        assertTrue(out.data() == bigOutput.data());
+    }
+
+    @Test(timeout = 30000L)
+    public void testProviderConcurrent1() throws Exception {
+        final LinkedBlockingQueue<InferenceObservable> queue = new LinkedBlockingQueue<>();
+        final ParallelInference.ObservablesProvider provider =
+                        new ParallelInference.ObservablesProvider(10000000L, 8, queue);
+
+        final int numThreads = 8;
+        final int numRequests = 1000;
+        Thread[] threads = new Thread[numThreads];
+        for (int t = 0; t < numThreads; t++) {
+            threads[t] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    BasicInferenceObserver observer = new BasicInferenceObserver();
+                    for (int i = 0; i < numRequests; i++)
+                        provider.setInput(observer, Nd4j.create(10));
+                }
+            });
+            threads[t].start();
+        }
+
+        for (int t = 0; t < numThreads; t++)
+            threads[t].join();
+
+        // every request should be stored exactly once, and no batch should exceed its limit
+        int total = 0;
+        for (InferenceObservable observable : queue) {
+            int counter = ((BatchedInferenceObservable) observable).getCounter();
+            assertTrue(counter > 0 && counter <= 8);
+            total += counter;
+        }
+
+        assertEquals(numThreads * numRequests, total);
     }
 
 
@@ -6,6 +6,7 @@ import org.junit.Before;
 import org.junit.Test;
 import org.nd4j.linalg.api.ndarray.INDArray;
 import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.primitives.Pair;
 
 import java.lang.reflect.Field;
 import java.util.ArrayList;
@@ -13,8 +14,7 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
-import static org.junit.Assert.assertArrayEquals;
-import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.*;
 
 /**
  * @author raver119@gmail.com
@@ -124,4 +124,58 @@ public class BatchedInferenceObservableTest {
             assertEquals((float) i, outputs.get(i)[1].meanNumber().floatValue(), 0.001f);
         }
     }
+
+    @Test
+    public void testSlots1() throws Exception {
+        BatchedInferenceObservable observable = new BatchedInferenceObservable(2);
+
+        assertEquals(0, observable.addInput(null, new INDArray[]{Nd4j.create(1, 10)}, null));
+        assertFalse(observable.isLocked());
+        assertEquals(1, observable.addInput(null, new INDArray[]{Nd4j.create(1, 10)}, null));
+        assertTrue(observable.isLocked());
+
+        // observable is full at this point
+        assertEquals(-1, observable.addInput(null, new INDArray[]{Nd4j.create(1, 10)}, null));
+        assertEquals(2, observable.getCounter());
+    }
+
+    @Test
+    public void testSealed1() throws Exception {
+        BatchedInferenceObservable observable = new BatchedInferenceObservable(8);
+        observable.addInput(null, new INDArray[]{Nd4j.create(1, 10).assign(1.0)}, null);
+        observable.addInput(null, new INDArray[]{Nd4j.create(1, 10).assign(2.0)}, null);
+
+        List<Pair<INDArray[], INDArray[]>> batches = observable.getInputBatches();
+        assertEquals(1, batches.size());
+        assertArrayEquals(new long[] {2, 10}, batches.get(0).getFirst()[0].shape());
+
+        // once worker took inputs, no more inputs can be added
+        assertTrue(observable.isLocked());
+        assertEquals(-1, observable.addInput(null, new INDArray[]{Nd4j.create(1, 10)}, null));
+        assertEquals(2, observable.getCounter());
+    }
+
+    @Test
+    public void testObserversNotified1() throws Exception {
+        BatchedInferenceObservable observable = new BatchedInferenceObservable(4);
+        BasicInferenceObserver[] observers = new BasicInferenceObserver[3];
+        for (int i = 0; i < observers.length; i++) {
+            observers[i] = new BasicInferenceObserver();
+            observable.addInput(observers[i], new INDArray[]{Nd4j.create(2, 10).assign(i)}, null);
+        }
+
+        INDArray batch = observable.getInputBatches().get(0).getFirst()[0];
+        assertArrayEquals(new long[] {6, 10}, batch.shape());
+
+        observable.setOutputBatches(Collections.singletonList(new INDArray[]{batch}));
+
+        for (int i = 0; i < observers.length; i++) {
+            // will block forever if observer wasn't notified
+            observers[i].waitTillDone();
+
+            INDArray out = observable.getOutput(i)[0];
+            assertArrayEquals(new long[] {2, 10}, out.shape());
+            assertEquals((float) i, out.meanNumber().floatValue(), 0.001f);
+        }
+    }
 }
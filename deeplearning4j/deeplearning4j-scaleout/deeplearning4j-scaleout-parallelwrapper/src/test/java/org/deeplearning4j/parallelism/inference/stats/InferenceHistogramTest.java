@@ -0,0 +1,44 @@
+package org.deeplearning4j.parallelism.inference.stats;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class InferenceHistogramTest {
+
+    @Test
+    public void testBuckets1() {
+        long[] values = new long[] {0, 1, 7, 8, 9, 15, 16, 17, 1000, 123456789L, Long.MAX_VALUE};
+        for (long v : values) {
+            int bucket = InferenceHistogram.bucketFor(v);
+            assertTrue("Value " + v + " is above upper bound of its bucket", v <= InferenceHistogram.upperBound(bucket));
+            if (bucket > 0)
+                assertTrue("Value " + v + " fits previous bucket", v > InferenceHistogram.upperBound(bucket - 1));
+        }
+    }
+
+    @Test
+    public void testPercentiles1() {
+        InferenceHistogram histogram = new InferenceHistogram();
+        assertEquals(0, histogram.getPercentile(99));
+
+        for (int i = 1; i <= 1000; i++)
+            histogram.record(i);
+
+        assertEquals(1000, histogram.getCount());
+        assertEquals(1000, histogram.getMax());
+        assertEquals(500.5, histogram.getMean(), 1e-5);
+
+        long p50 = histogram.getPercentile(50);
+        assertTrue(p50 >= 500 && p50 <= 500 * 1.125);
+
+        long p99 = histogram.getPercentile(99);
+        assertTrue(p99 >= 990 && p99 <= 1000);
+
+        assertEquals(1000, histogram.getPercentile(100));
+
+        histogram.reset();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMax());
+    }
+}
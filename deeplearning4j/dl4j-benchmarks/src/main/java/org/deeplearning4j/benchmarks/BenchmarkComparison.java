@@ -0,0 +1,152 @@
+package org.deeplearning4j.benchmarks;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import org.nd4j.shade.jackson.databind.JsonNode;
+import org.nd4j.shade.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * Compares two JMH JSON result files (as written by {@link BenchmarkRunner}), and reports the benchmarks that got
+ * slower.<br>
+ * A benchmark is reported as a regression if it is slower than the baseline by more than the threshold percentage,
+ * and the difference is larger than the combined error of both measurements.<br>
+ * Usage: {@code BenchmarkComparison <baseline.json> <current.json> [thresholdPercent]}. The exit code is 1 if any
+ * regression was found, so this can be used in CI.
+ */
+public class BenchmarkComparison {
+    public static final double DEFAULT_THRESHOLD_PERCENT = 10.0;
+
+    /**
+     * A single benchmark result: benchmark method, with a specific set of parameters
+     */
+    @Data
+    @AllArgsConstructor
+    public static class Result {
+        private String key;
+        private String mode;
+        private double score;
+        private double scoreError;
+        private String unit;
+
+        /**
+         * @return True if higher scores are better (throughput), false otherwise (time per op)
+         */
+        public boolean isHigherBetter() {
+            return "thrpt".equals(mode);
+        }
+    }
+
+    /**
+     * Change of a single benchmark, relative to the baseline
+     */
+    @Data
+    @AllArgsConstructor
+    public static class Change {
+        private String key;
+        private double baseline;
+        private double current;
+        private String unit;
+        /**
+         * Slowdown in percent: positive values mean the current result is slower than the baseline
+         */
+        private double slowdownPercent;
+        private boolean regression;
+    }
+
+    private BenchmarkComparison() {}
+
+    /**
+     * Read the results from a JMH JSON result file
+     *
+     * @return Results, keyed by benchmark name and parameters
+     */
+    public static Map<String, Result> read(File file) throws IOException {
+        JsonNode root = new ObjectMapper().readTree(file);
+        if (!root.isArray())
+            throw new IllegalArgumentException("Not a JMH JSON result file: " + file);
+
+        Map<String, Result> out = new LinkedHashMap<>();
+        for (JsonNode n : root) {
+            StringBuilder key = new StringBuilder(n.get("benchmark").asText());
+            JsonNode params = n.get("params");
+            if (params != null) {
+                //Sort parameters, so the key doesn't depend on the parameter order in the file
+                Map<String, String> sorted = new TreeMap<>();
+                Iterator<Map.Entry<String, JsonNode>> iter = params.fields();
+                while (iter.hasNext()) {
+                    Map.Entry<String, JsonNode> e = iter.next();
+                    sorted.put(e.getKey(), e.getValue().asText());
+                }
+                key.append(sorted);
+            }
+
+            JsonNode metric = n.get("primaryMetric");
+            double error = metric.get("scoreError").asDouble();
+            out.put(key.toString(), new Result(key.toString(), n.get("mode").asText(), metric.get("score").asDouble(),
+                            Double.isNaN(error) ? 0.0 : error, metric.get("scoreUnit").asText()));
+        }
+        return out;
+    }
+
+    /**
+     * Compare the current results against the baseline. Benchmarks that are missing in either are ignored
+     *
+     * @param thresholdPercent Minimum slowdown (in percent) to report a benchmark as a regression
+     * @return Changes of all benchmarks present in both, sorted by slowdown (largest first)
+     */
+    public static List<Change> compare(Map<String, Result> baseline, Map<String, Result> current,
+                    double thresholdPercent) {
+        List<Change> out = new ArrayList<>();
+        for (Result b : baseline.values()) {
+            Result c = current.get(b.getKey());
+            if (c == null)
+                continue;
+            if (!b.getMode().equals(c.getMode()) || !b.getUnit().equals(c.getUnit())) {
+                throw new IllegalStateException("Cannot compare results for " + b.getKey() + ": baseline is "
+                                + b.getMode() + " in " + b.getUnit() + ", current is " + c.getMode() + " in "
+                                + c.getUnit());
+            }
+
+            double ratio = b.isHigherBetter() ? b.getScore() / c.getScore() : c.getScore() / b.getScore();
+            double slowdown = 100.0 * (ratio - 1.0);
+            boolean significant = Math.abs(c.getScore() - b.getScore()) > b.getScoreError() + c.getScoreError();
+            out.add(new Change(b.getKey(), b.getScore(), c.getScore(), b.getUnit(), slowdown,
+                            significant && slowdown > thresholdPercent));
+        }
+
+        Collections.sort(out, new Comparator<Change>() {
+            @Override
+            public int compare(Change o1, Change o2) {
+                return Double.compare(o2.getSlowdownPercent(), o1.getSlowdownPercent());
+            }
+        });
+        return out;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2 || args.length > 3) {
+            System.err.println("Usage: BenchmarkComparison <baseline.json> <current.json> [thresholdPercent]");
+            System.exit(2);
+        }
+        double threshold = args.length == 3 ? Double.parseDouble(args[2]) : DEFAULT_THRESHOLD_PERCENT;
+
+        List<Change> changes = compare(read(new File(args[0])), read(new File(args[1])), threshold);
+        int regressions = 0;
+        System.out.println(String.format("%-100s %14s %14s %-10s %10s", "Benchmark", "Baseline", "Current", "Unit",
+                        "Slowdown"));
+        for (Change c : changes) {
+            System.out.println(String.format("%-100s %14.3f %14.3f %-10s %9.1f%%%s", c.getKey(), c.getBaseline(),
+                            c.getCurrent(), c.getUnit(), c.getSlowdownPercent(), c.isRegression() ? "  REGRESSION" : ""));
+            if (c.isRegression())
+                regressions++;
+        }
+        System.out.println(regressions + " regression(s) of more than " + threshold + "% in " + changes.size()
+                        + " benchmarks");
+        if (regressions > 0)
+            System.exit(1);
+    }
+}
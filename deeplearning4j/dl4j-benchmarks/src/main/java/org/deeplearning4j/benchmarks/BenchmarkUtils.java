@@ -0,0 +1,20 @@
+package org.deeplearning4j.benchmarks;
+
+/**
+ * Utilities for benchmark parameters
+ */
+public class BenchmarkUtils {
+
+    private BenchmarkUtils() {}
+
+    /**
+     * Parse a shape parameter such as "128x1024"
+     */
+    public static int[] parseShape(String shape) {
+        String[] split = shape.split("x");
+        int[] out = new int[split.length];
+        for (int i = 0; i < split.length; i++)
+            out[i] = Integer.parseInt(split[i].trim());
+        return out;
+    }
+}
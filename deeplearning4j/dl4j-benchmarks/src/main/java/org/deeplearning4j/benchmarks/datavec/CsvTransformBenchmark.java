@@ -0,0 +1,113 @@
+package org.deeplearning4j.benchmarks.datavec;
+
+import org.datavec.api.records.reader.impl.csv.CSVRecordReader;
+import org.datavec.api.split.FileSplit;
+import org.datavec.api.transform.MathOp;
+import org.datavec.api.transform.TransformProcess;
+import org.datavec.api.transform.schema.Schema;
+import org.datavec.api.util.ndarray.RecordConverter;
+import org.datavec.api.writable.Writable;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of a typical tabular ETL pipeline: reading a CSV file with {@link CSVRecordReader}, applying a
+ * {@link TransformProcess} and converting the records to an INDArray. Each benchmark op processes the whole file.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CsvTransformBenchmark {
+    private static final int NUM_DOUBLE_COLUMNS = 8;
+    private static final String[] CATEGORIES = {"a", "b", "c", "d", "e"};
+
+    @Param({"10000"})
+    public int numRecords;
+
+    private File csvFile;
+    private TransformProcess transformProcess;
+    private List<List<Writable>> records;
+
+    @Setup
+    public void setup() throws Exception {
+        csvFile = File.createTempFile("CsvTransformBenchmark", ".csv");
+        csvFile.deleteOnExit();
+
+        Random r = new Random(12345);
+        try (Writer w = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(csvFile),
+                        StandardCharsets.UTF_8))) {
+            for (int i = 0; i < numRecords; i++) {
+                w.write(String.valueOf(i));
+                for (int j = 0; j < NUM_DOUBLE_COLUMNS; j++) {
+                    w.write(',');
+                    w.write(String.valueOf(r.nextDouble()));
+                }
+                w.write(',');
+                w.write(CATEGORIES[r.nextInt(CATEGORIES.length)]);
+                w.write(',');
+                w.write(String.valueOf(r.nextInt(10)));
+                w.write('\n');
+            }
+        }
+
+        Schema schema = new Schema.Builder().addColumnInteger("id")
+                        .addColumnsDouble("d_%d", 0, NUM_DOUBLE_COLUMNS - 1)
+                        .addColumnCategorical("category", CATEGORIES).addColumnInteger("label").build();
+
+        transformProcess = new TransformProcess.Builder(schema).removeColumns("id")
+                        .doubleMathOp("d_0", MathOp.Multiply, 10.0).doubleMathOp("d_1", MathOp.Add, -0.5)
+                        .categoricalToOneHot("category").build();
+
+        records = readAll();
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (!csvFile.delete())
+            csvFile.deleteOnExit();
+    }
+
+    private List<List<Writable>> readAll() throws IOException, InterruptedException {
+        List<List<Writable>> out = new ArrayList<>(numRecords);
+        CSVRecordReader rr = new CSVRecordReader();
+        rr.initialize(new FileSplit(csvFile));
+        while (rr.hasNext())
+            out.add(rr.next());
+        rr.close();
+        return out;
+    }
+
+    @Benchmark
+    public void read(Blackhole bh) throws Exception {
+        CSVRecordReader rr = new CSVRecordReader();
+        rr.initialize(new FileSplit(csvFile));
+        while (rr.hasNext())
+            bh.consume(rr.next());
+        rr.close();
+    }
+
+    @Benchmark
+    public void transform(Blackhole bh) {
+        for (List<Writable> record : records)
+            bh.consume(transformProcess.execute(record));
+    }
+
+    @Benchmark
+    public void readTransformToArray(Blackhole bh) throws Exception {
+        CSVRecordReader rr = new CSVRecordReader();
+        rr.initialize(new FileSplit(csvFile));
+        while (rr.hasNext())
+            bh.consume(RecordConverter.toArray(transformProcess.execute(rr.next())));
+        rr.close();
+    }
+}
@@ -0,0 +1,89 @@
+package org.deeplearning4j.benchmarks.inference;
+
+import org.deeplearning4j.datasets.iterator.ExistingDataSetIterator;
+import org.deeplearning4j.nn.conf.MultiLayerConfiguration;
+import org.deeplearning4j.nn.conf.NeuralNetConfiguration;
+import org.deeplearning4j.nn.conf.inputs.InputType;
+import org.deeplearning4j.nn.conf.layers.ConvolutionLayer;
+import org.deeplearning4j.nn.conf.layers.DenseLayer;
+import org.deeplearning4j.nn.conf.layers.OutputLayer;
+import org.deeplearning4j.nn.inference.QuantizationSimulator;
+import org.deeplearning4j.nn.multilayer.MultiLayerNetwork;
+import org.nd4j.linalg.activations.Activation;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.dataset.DataSet;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.lossfunctions.LossFunctions;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Inference throughput of a network before and after {@link QuantizationSimulator}. As the simulated network is
+ * still executed in floating point, with an extra quantize/dequantize step on the input of each quantized layer,
+ * throughput of the simulated network is expected to be the same or slightly lower - never higher.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QuantizationBenchmark {
+
+    public enum NetworkType {
+        /**
+         * 3 dense layers: 784 in, 1024 and 1024 hidden, 10 out
+         */
+        MLP,
+        /**
+         * 2 3x3 convolutions (32 and 64 channels) on 28x28x1 input, then 10 out
+         */
+        CNN
+    }
+
+    @Param({"MLP", "CNN"})
+    public NetworkType networkType;
+
+    @Param({"false", "true"})
+    public boolean simulated;
+
+    @Param({"32"})
+    public int minibatch;
+
+    private MultiLayerNetwork net;
+    private INDArray input;
+
+    @Setup
+    public void setup() {
+        Nd4j.getRandom().setSeed(12345);
+
+        NeuralNetConfiguration.ListBuilder builder = new NeuralNetConfiguration.Builder().seed(12345).list();
+        if (networkType == NetworkType.MLP) {
+            builder.layer(new DenseLayer.Builder().nOut(1024).activation(Activation.RELU).build())
+                            .layer(new DenseLayer.Builder().nOut(1024).activation(Activation.RELU).build());
+        } else {
+            builder.layer(new ConvolutionLayer.Builder().kernelSize(3, 3).nOut(32).activation(Activation.RELU).build())
+                            .layer(new ConvolutionLayer.Builder().kernelSize(3, 3).nOut(64).activation(Activation.RELU)
+                                            .build());
+        }
+        MultiLayerConfiguration conf = builder
+                        .layer(new OutputLayer.Builder().nOut(10).activation(Activation.SOFTMAX)
+                                        .lossFunction(LossFunctions.LossFunction.MCXENT).build())
+                        .setInputType(InputType.convolutionalFlat(28, 28, 1)).build();
+        net = new MultiLayerNetwork(conf);
+        net.init();
+
+        input = Nd4j.rand(minibatch, 784);
+        if (simulated) {
+            net = new QuantizationSimulator.Builder().build().simulate(net,
+                            new ExistingDataSetIterator(Collections.singletonList(new DataSet(input, null))));
+        }
+    }
+
+    @Benchmark
+    public INDArray output() {
+        return net.output(input);
+    }
+}
@@ -0,0 +1,108 @@
+package org.deeplearning4j.benchmarks.layers;
+
+import org.deeplearning4j.nn.api.Layer;
+import org.deeplearning4j.nn.conf.NeuralNetConfiguration;
+import org.deeplearning4j.nn.conf.layers.BatchNormalization;
+import org.deeplearning4j.nn.conf.layers.ConvolutionLayer;
+import org.deeplearning4j.nn.conf.layers.DenseLayer;
+import org.deeplearning4j.nn.conf.layers.LSTM;
+import org.deeplearning4j.nn.gradient.Gradient;
+import org.deeplearning4j.nn.workspace.LayerWorkspaceMgr;
+import org.nd4j.linalg.activations.Activation;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.primitives.Pair;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Forward and backward pass of single layers, in training mode. Layers are used as they would be in a network, so
+ * helpers (MKL-DNN, cuDNN) are used when available.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LayerBenchmark {
+
+    public enum LayerType {
+        /**
+         * Dense layer, 1024 in, 1024 out
+         */
+        DENSE,
+        /**
+         * 3x3 convolution, 32 channels in, 64 out, 28x28 input
+         */
+        CONVOLUTION,
+        /**
+         * LSTM, 256 in, 256 out, 50 time steps
+         */
+        LSTM,
+        /**
+         * Batch normalization, 64 channels, 28x28 input
+         */
+        BATCH_NORMALIZATION
+    }
+
+    @Param({"DENSE", "CONVOLUTION", "LSTM", "BATCH_NORMALIZATION"})
+    public LayerType layerType;
+
+    @Param({"32"})
+    public int minibatch;
+
+    private Layer layer;
+    private INDArray input;
+    private INDArray epsilon;
+    private final LayerWorkspaceMgr workspaceMgr = LayerWorkspaceMgr.noWorkspaces();
+
+    @Setup
+    public void setup() {
+        Nd4j.getRandom().setSeed(12345);
+
+        org.deeplearning4j.nn.conf.layers.Layer layerConf;
+        switch (layerType) {
+            case DENSE:
+                layerConf = new DenseLayer.Builder().nIn(1024).nOut(1024).activation(Activation.RELU).build();
+                input = Nd4j.rand(minibatch, 1024);
+                break;
+            case CONVOLUTION:
+                layerConf = new ConvolutionLayer.Builder(new int[] {3, 3}, new int[] {1, 1}, new int[] {1, 1}).nIn(32)
+                                .nOut(64).activation(Activation.RELU).build();
+                input = Nd4j.rand(new int[] {minibatch, 32, 28, 28});
+                break;
+            case LSTM:
+                layerConf = new LSTM.Builder().nIn(256).nOut(256).activation(Activation.TANH).build();
+                input = Nd4j.rand(new int[] {minibatch, 256, 50});
+                break;
+            case BATCH_NORMALIZATION:
+                layerConf = new BatchNormalization.Builder().nIn(64).nOut(64).build();
+                input = Nd4j.rand(new int[] {minibatch, 64, 28, 28});
+                break;
+            default:
+                throw new IllegalStateException("Unknown layer type: " + layerType);
+        }
+
+        NeuralNetConfiguration conf = new NeuralNetConfiguration.Builder().layer(layerConf).build();
+        long numParams = conf.getLayer().initializer().numParams(conf);
+        INDArray params = Nd4j.create(1, numParams);
+        layer = conf.getLayer().instantiate(conf, null, 0, params, true);
+        layer.setBackpropGradientsViewArray(Nd4j.create(1, numParams));
+
+        INDArray out = layer.activate(input, true, workspaceMgr);
+        epsilon = Nd4j.rand(out.shape());
+    }
+
+    @Benchmark
+    public INDArray forward() {
+        return layer.activate(input, true, workspaceMgr);
+    }
+
+    @Benchmark
+    public Pair<Gradient, INDArray> forwardBackward() {
+        layer.activate(input, true, workspaceMgr);
+        return layer.backpropGradient(epsilon, workspaceMgr);
+    }
+}
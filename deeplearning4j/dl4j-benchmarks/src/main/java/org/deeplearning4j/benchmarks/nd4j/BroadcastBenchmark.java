@@ -0,0 +1,68 @@
+package org.deeplearning4j.benchmarks.nd4j;
+
+import org.deeplearning4j.benchmarks.BenchmarkUtils;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.api.ops.impl.broadcast.BroadcastAddOp;
+import org.nd4j.linalg.api.ops.impl.broadcast.BroadcastMulOp;
+import org.nd4j.linalg.factory.Nd4j;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Broadcast ops, as used for bias addition (row vector, and per-channel for 4d activations) and per-example scaling
+ * (column vector). Outputs are preallocated.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BroadcastBenchmark {
+
+    @Param({"128x1024", "1024x1024"})
+    public String shape;
+
+    @Param({"c", "f"})
+    public char order;
+
+    private INDArray x;
+    private INDArray z;
+    private INDArray row;
+    private INDArray column;
+
+    private INDArray x4d;
+    private INDArray z4d;
+    private INDArray channels;
+
+    @Setup
+    public void setup() {
+        int[] s = BenchmarkUtils.parseShape(shape);
+        x = Nd4j.rand(order, s);
+        z = Nd4j.create(s, order);
+        row = Nd4j.rand(1, s[1]);
+        column = Nd4j.rand(s[0], 1);
+
+        //Same number of elements as x, as [minibatch, channels, height, width]
+        int[] s4d = new int[] {s[0] / 16, 64, 16, s[1] / 64};
+        x4d = Nd4j.rand(order, s4d);
+        z4d = Nd4j.create(s4d, order);
+        channels = Nd4j.rand(1, 64);
+    }
+
+    @Benchmark
+    public INDArray addRowVector() {
+        return Nd4j.getExecutioner().execAndReturn(new BroadcastAddOp(x, row, z, 1));
+    }
+
+    @Benchmark
+    public INDArray mulColumnVector() {
+        return Nd4j.getExecutioner().execAndReturn(new BroadcastMulOp(x, column, z, 0));
+    }
+
+    @Benchmark
+    public INDArray addChannels4d() {
+        return Nd4j.getExecutioner().execAndReturn(new BroadcastAddOp(x4d, channels, z4d, 1));
+    }
+}
@@ -0,0 +1,64 @@
+package org.deeplearning4j.benchmarks.nd4j;
+
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.factory.Nd4j;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lossless compression of INDArrays. Each call processes arrayLength elements of the current data type, so
+ * throughput in bytes per second is arrayLength * element size / average time.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CompressionBenchmark {
+
+    public enum DataType {
+        /**
+         * Uniform random values: close to incompressible
+         */
+        RANDOM,
+        /**
+         * Slowly varying values, as for sorted or smooth data: compresses well, especially with byte shuffling
+         */
+        SMOOTH
+    }
+
+    @Param({"LZ4", "SHUFFLE_LZ4", "SHUFFLE_DEFLATE"})
+    public String algorithm;
+
+    @Param({"RANDOM", "SMOOTH"})
+    public DataType data;
+
+    @Param({"1000000"})
+    public int arrayLength;
+
+    private INDArray array;
+    private INDArray compressed;
+
+    @Setup
+    public void setup() {
+        Nd4j.getRandom().setSeed(12345);
+        if (data == DataType.RANDOM) {
+            array = Nd4j.rand(1, arrayLength);
+        } else {
+            array = Nd4j.linspace(0, 1, arrayLength).muli(100).addi(1000);
+        }
+        compressed = Nd4j.getCompressor().compress(array, algorithm);
+    }
+
+    @Benchmark
+    public INDArray compress() {
+        return Nd4j.getCompressor().compress(array, algorithm);
+    }
+
+    @Benchmark
+    public INDArray decompress() {
+        return Nd4j.getCompressor().decompress(compressed);
+    }
+}
@@ -0,0 +1,61 @@
+package org.deeplearning4j.benchmarks.nd4j;
+
+import org.deeplearning4j.benchmarks.BenchmarkUtils;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.factory.Nd4j;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Matrix multiplication: [M,K] x [K,N]. Shapes are given as "MxKxN". Different input orders exercise the
+ * transpose handling (and any copies) before the BLAS call.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GemmBenchmark {
+
+    @Param({"64x256x256", "128x1024x1024", "1024x1024x1024", "32x4096x1000"})
+    public String shape;
+
+    @Param({"c", "f"})
+    public char orderA;
+
+    @Param({"c", "f"})
+    public char orderB;
+
+    private INDArray a;
+    private INDArray b;
+    private INDArray bTransposed;
+    private INDArray c;
+
+    @Setup
+    public void setup() {
+        int[] mkn = BenchmarkUtils.parseShape(shape);
+        if (mkn.length != 3)
+            throw new IllegalArgumentException("Expected shape MxKxN, got " + shape);
+        a = Nd4j.rand(orderA, new int[] {mkn[0], mkn[1]});
+        b = Nd4j.rand(orderB, new int[] {mkn[1], mkn[2]});
+        bTransposed = Nd4j.rand(orderB, new int[] {mkn[2], mkn[1]});
+        c = Nd4j.create(new int[] {mkn[0], mkn[2]}, 'f');
+    }
+
+    @Benchmark
+    public INDArray mmul() {
+        return a.mmul(b);
+    }
+
+    @Benchmark
+    public INDArray gemm() {
+        return Nd4j.gemm(a, b, c, false, false, 1.0, 0.0);
+    }
+
+    @Benchmark
+    public INDArray gemmTransposeB() {
+        return Nd4j.gemm(a, bTransposed, c, false, true, 1.0, 0.0);
+    }
+}
@@ -0,0 +1,69 @@
+package org.deeplearning4j.benchmarks.nd4j;
+
+import org.deeplearning4j.benchmarks.BenchmarkUtils;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.factory.Nd4j;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full array and along-dimension reductions. Reductions along dimension 0 and 1 exercise both the contiguous and the
+ * strided TAD (tensor along dimension) code paths, depending on the array order.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReductionBenchmark {
+
+    @Param({"128x1024", "1024x128", "1024x1024"})
+    public String shape;
+
+    @Param({"c", "f"})
+    public char order;
+
+    private INDArray x;
+
+    @Setup
+    public void setup() {
+        x = Nd4j.rand(order, BenchmarkUtils.parseShape(shape));
+    }
+
+    @Benchmark
+    public Number sumAll() {
+        return x.sumNumber();
+    }
+
+    @Benchmark
+    public INDArray sumDim0() {
+        return x.sum(0);
+    }
+
+    @Benchmark
+    public INDArray sumDim1() {
+        return x.sum(1);
+    }
+
+    @Benchmark
+    public INDArray maxDim1() {
+        return x.max(1);
+    }
+
+    @Benchmark
+    public INDArray argMaxDim1() {
+        return Nd4j.argMax(x, 1);
+    }
+
+    @Benchmark
+    public INDArray norm2Dim1() {
+        return x.norm2(1);
+    }
+
+    @Benchmark
+    public Number stdAll() {
+        return x.stdNumber();
+    }
+}
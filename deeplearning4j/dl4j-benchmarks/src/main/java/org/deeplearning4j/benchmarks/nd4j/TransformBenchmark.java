@@ -0,0 +1,74 @@
+package org.deeplearning4j.benchmarks.nd4j;
+
+import org.deeplearning4j.benchmarks.BenchmarkUtils;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.api.ops.impl.transforms.Sigmoid;
+import org.nd4j.linalg.api.ops.impl.transforms.Tanh;
+import org.nd4j.linalg.factory.Nd4j;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Element-wise transforms, scalar and pairwise ops. Outputs are preallocated, so only the op execution is measured.
+ * The "f" order with a "c" order output (and vice versa) covers the non-matching order (non-EWS) code paths.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TransformBenchmark {
+
+    @Param({"1000", "128x1024", "1024x1024", "32x64x28x28"})
+    public String shape;
+
+    @Param({"c", "f"})
+    public char order;
+
+    @Param({"c", "f"})
+    public char outputOrder;
+
+    private INDArray x;
+    private INDArray y;
+    private INDArray z;
+
+    @Setup
+    public void setup() {
+        int[] s = BenchmarkUtils.parseShape(shape);
+        x = Nd4j.rand(order, s);
+        y = Nd4j.rand(order, s);
+        z = Nd4j.create(s, outputOrder);
+    }
+
+    @Benchmark
+    public INDArray tanh() {
+        return Nd4j.getExecutioner().execAndReturn(new Tanh(x, z));
+    }
+
+    @Benchmark
+    public INDArray sigmoid() {
+        return Nd4j.getExecutioner().execAndReturn(new Sigmoid(x, z));
+    }
+
+    @Benchmark
+    public INDArray scalarMul() {
+        return x.mul(2.0, z);
+    }
+
+    @Benchmark
+    public INDArray pairwiseAdd() {
+        return x.add(y, z);
+    }
+
+    @Benchmark
+    public INDArray assign() {
+        return z.assign(x);
+    }
+
+    @Benchmark
+    public INDArray dup() {
+        return x.dup(outputOrder);
+    }
+}
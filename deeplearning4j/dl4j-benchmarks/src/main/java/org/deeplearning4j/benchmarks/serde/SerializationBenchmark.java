@@ -0,0 +1,127 @@
+package org.deeplearning4j.benchmarks.serde;
+
+import org.datavec.api.transform.MathOp;
+import org.datavec.api.transform.TransformProcess;
+import org.datavec.api.transform.schema.Schema;
+import org.deeplearning4j.nn.conf.MultiLayerConfiguration;
+import org.deeplearning4j.nn.conf.NeuralNetConfiguration;
+import org.deeplearning4j.nn.conf.layers.DenseLayer;
+import org.deeplearning4j.nn.conf.layers.OutputLayer;
+import org.deeplearning4j.nn.multilayer.MultiLayerNetwork;
+import org.deeplearning4j.util.ModelSerializer;
+import org.nd4j.linalg.activations.Activation;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.learning.config.Adam;
+import org.nd4j.linalg.lossfunctions.LossFunctions;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialization paths: INDArray binary format, model zip files (with updater state), and JSON for network
+ * configurations and TransformProcesses.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+
+    /**
+     * Arrays are in a separate state, so that the other benchmarks aren't repeated for each array length
+     */
+    @State(Scope.Thread)
+    public static class ArrayState {
+        @Param({"1000", "1000000"})
+        public int arrayLength;
+
+        private INDArray array;
+        private byte[] arrayBytes;
+
+        @Setup
+        public void setup() throws IOException {
+            array = Nd4j.rand(1, arrayLength);
+            arrayBytes = write(array);
+        }
+    }
+
+    private MultiLayerNetwork network;
+    private byte[] networkBytes;
+    private String networkJson;
+
+    private TransformProcess transformProcess;
+    private String transformProcessJson;
+
+    @Setup
+    public void setup() throws IOException {
+        MultiLayerConfiguration conf = new NeuralNetConfiguration.Builder().updater(new Adam(1e-3)).list()
+                        .layer(0, new DenseLayer.Builder().nIn(784).nOut(256).activation(Activation.RELU).build())
+                        .layer(1, new DenseLayer.Builder().nIn(256).nOut(256).activation(Activation.RELU).build())
+                        .layer(2, new OutputLayer.Builder().nIn(256).nOut(10).activation(Activation.SOFTMAX)
+                                        .lossFunction(LossFunctions.LossFunction.MCXENT).build())
+                        .build();
+        network = new MultiLayerNetwork(conf);
+        network.init();
+        //Initialize the updater, so the updater state is included in the model file
+        network.getUpdater();
+        networkBytes = writeNetwork();
+        networkJson = conf.toJson();
+
+        Schema schema = new Schema.Builder().addColumnInteger("id").addColumnsDouble("d_%d", 0, 19)
+                        .addColumnCategorical("category", "a", "b", "c").build();
+        transformProcess = new TransformProcess.Builder(schema).removeColumns("id")
+                        .doubleMathOp("d_0", MathOp.Multiply, 10.0).categoricalToOneHot("category").build();
+        transformProcessJson = transformProcess.toJson();
+    }
+
+    private static byte[] write(INDArray array) throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (DataOutputStream dos = new DataOutputStream(baos)) {
+            Nd4j.write(array, dos);
+        }
+        return baos.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] writeArray(ArrayState state) throws IOException {
+        return write(state.array);
+    }
+
+    @Benchmark
+    public INDArray readArray(ArrayState state) throws IOException {
+        try (DataInputStream dis = new DataInputStream(new ByteArrayInputStream(state.arrayBytes))) {
+            return Nd4j.read(dis);
+        }
+    }
+
+    @Benchmark
+    public byte[] writeNetwork() throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        ModelSerializer.writeModel(network, baos, true);
+        return baos.toByteArray();
+    }
+
+    @Benchmark
+    public MultiLayerNetwork readNetwork() throws IOException {
+        return ModelSerializer.restoreMultiLayerNetwork(new ByteArrayInputStream(networkBytes), true);
+    }
+
+    @Benchmark
+    public MultiLayerConfiguration networkConfigurationFromJson() {
+        return MultiLayerConfiguration.fromJson(networkJson);
+    }
+
+    @Benchmark
+    public String transformProcessToJson() {
+        return transformProcess.toJson();
+    }
+
+    @Benchmark
+    public TransformProcess transformProcessFromJson() {
+        return TransformProcess.fromJson(transformProcessJson);
+    }
+}
@@ -0,0 +1,56 @@
+package org.deeplearning4j.benchmarks;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class TestBenchmarkComparison {
+
+    @Rule
+    public TemporaryFolder testDir = new TemporaryFolder();
+
+    private File write(String name, double avgScore, double thrptScore) throws Exception {
+        String json = "[\n"
+                        + "  {\"benchmark\": \"a.B.avg\", \"mode\": \"avgt\", \"params\": {\"order\": \"c\", \"shape\": \"10x10\"},"
+                        + "   \"primaryMetric\": {\"score\": " + avgScore + ", \"scoreError\": 0.5, \"scoreUnit\": \"us/op\"}},\n"
+                        + "  {\"benchmark\": \"a.B.thrpt\", \"mode\": \"thrpt\","
+                        + "   \"primaryMetric\": {\"score\": " + thrptScore + ", \"scoreError\": \"NaN\", \"scoreUnit\": \"ops/s\"}}\n"
+                        + "]";
+        File f = testDir.newFile(name);
+        FileUtils.writeStringToFile(f, json, StandardCharsets.UTF_8);
+        return f;
+    }
+
+    @Test
+    public void testCompare() throws Exception {
+        Map<String, BenchmarkComparison.Result> baseline = BenchmarkComparison.read(write("baseline.json", 10.0, 100.0));
+        assertEquals(2, baseline.size());
+        assertTrue(baseline.containsKey("a.B.avg{order=c, shape=10x10}"));
+        assertEquals(0.0, baseline.get("a.B.thrpt").getScoreError(), 0.0);
+
+        //Time per op: 10 -> 10.5 is within the error. Throughput: 100 -> 50 is a 100% slowdown
+        Map<String, BenchmarkComparison.Result> current = BenchmarkComparison.read(write("current.json", 10.5, 50.0));
+        List<BenchmarkComparison.Change> changes = BenchmarkComparison.compare(baseline, current, 10.0);
+        assertEquals(2, changes.size());
+        assertEquals("a.B.thrpt", changes.get(0).getKey());
+        assertEquals(100.0, changes.get(0).getSlowdownPercent(), 1e-6);
+        assertTrue(changes.get(0).isRegression());
+        assertFalse(changes.get(1).isRegression());
+
+        //Time per op: 10 -> 20 is a regression; throughput improved
+        current = BenchmarkComparison.read(write("current2.json", 20.0, 200.0));
+        changes = BenchmarkComparison.compare(baseline, current, 10.0);
+        assertEquals("a.B.avg{order=c, shape=10x10}", changes.get(0).getKey());
+        assertTrue(changes.get(0).isRegression());
+        assertEquals(-50.0, changes.get(1).getSlowdownPercent(), 1e-6);
+        assertFalse(changes.get(1).isRegression());
+    }
+}
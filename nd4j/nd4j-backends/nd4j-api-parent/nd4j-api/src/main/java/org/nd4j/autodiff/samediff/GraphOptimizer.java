@@ -0,0 +1,300 @@
+package org.nd4j.autodiff.samediff;
+
+import lombok.Builder;
+import lombok.Data;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.nd4j.autodiff.functions.DifferentialFunction;
+import org.nd4j.base.Preconditions;
+import org.nd4j.linalg.api.ops.RandomOp;
+import org.nd4j.linalg.api.ops.impl.accum.Mmul;
+import org.nd4j.linalg.api.ops.impl.broadcast.BiasAdd;
+import org.nd4j.linalg.api.ops.impl.controlflow.If;
+import org.nd4j.linalg.api.ops.impl.controlflow.While;
+import org.nd4j.linalg.api.ops.impl.controlflow.compat.BaseCompatOp;
+import org.nd4j.linalg.api.ops.impl.shape.tensorops.BaseTensorOp;
+import org.nd4j.linalg.api.ops.impl.transforms.RectifedLinear;
+import org.nd4j.linalg.api.ops.impl.transforms.ReluLayer;
+import org.nd4j.linalg.api.ops.impl.transforms.XwPlusB;
+import org.nd4j.linalg.api.ops.impl.transforms.gradient.GradientBackwardsMarker;
+import org.nd4j.linalg.api.ops.random.compat.RandomStandardNormal;
+import org.nd4j.linalg.api.ops.random.custom.DistributionUniform;
+
+import java.util.*;
+
+/**
+ * Inference optimizations for a {@link SameDiff} graph. The graph is modified in place; the optimized graph
+ * (including its {@link SameDiff#asFlatBuffers()} representation) computes the same outputs with fewer ops and
+ * fewer intermediate arrays.<br>
+ * The following passes are available:<br>
+ * - Constant folding: ops where all inputs are non-placeholder variables that are not the output of any op are
+ * executed once, and their outputs are replaced by variables holding the result<br>
+ * - Op fusion: mmul -> biasAdd -> relu sequences are replaced by the composed relu_layer op, and mmul -> biasAdd
+ * sequences by the composed xw_plus_b op. Intermediate results must not be used elsewhere<br>
+ * - Dead code elimination: ops and variables that are not required to compute the graph outputs are removed<br>
+ * <br>
+ * Note that constant folding treats all (non placeholder) variables as constants, hence the optimized graph is
+ * suited to inference only (i.e., imported TF graphs): the folded values are no longer linked to the variables
+ * they were computed from, and gradients can no longer be calculated for them.
+ * Control flow ops (and their inputs) are never folded or removed.
+ */
+@Slf4j
+@Data
+@Builder
+public class GraphOptimizer {
+    @Builder.Default private boolean foldConstants = true;
+    @Builder.Default private boolean fuseOps = true;
+    @Builder.Default private boolean eliminateDeadCode = true;
+
+    /**
+     * Optimize the given graph, in place
+     *
+     * @param sameDiff the graph to optimize
+     * @param outputs  the names of the variables required as outputs. If none are specified, all variables that are
+     *                 the output of an op but are not used as input by any other op are used
+     */
+    public void optimize(@NonNull SameDiff sameDiff, String... outputs) {
+        if (sameDiff.getFunction("grad") != null) {
+            throw new IllegalStateException("Unable to optimize graph: gradient function has already been defined. "
+                    + "Graph must be optimized before execBackwards() is called");
+        }
+
+        Set<String> outputSet;
+        if (outputs == null || outputs.length == 0) {
+            outputSet = graphOutputs(sameDiff);
+        } else {
+            outputSet = new LinkedHashSet<>(Arrays.asList(outputs));
+            for (String s : outputSet) {
+                if (sameDiff.getVariable(s) == null)
+                    throw new IllegalArgumentException("No variable found for output \"" + s + "\"");
+            }
+        }
+
+        int numFunctions = sameDiff.functions().length;
+        int removed = 0;
+        int folded = 0;
+        int fused = 0;
+        if (eliminateDeadCode)
+            removed += eliminateDeadCode(sameDiff, outputSet);
+        if (foldConstants)
+            folded = foldConstants(sameDiff);
+        if (fuseOps)
+            fused = fuseOps(sameDiff, outputSet);
+        if (eliminateDeadCode && (folded > 0 || fused > 0))
+            removed += eliminateDeadCode(sameDiff, outputSet);
+
+        log.info("Optimized graph: {} ops before, {} ops after. Folded {} ops, fused {} op sequences, removed {} unused ops",
+                numFunctions, sameDiff.functions().length, folded, fused, removed);
+    }
+
+    /**
+     * Remove all ops and variables that are not required to compute the given outputs.
+     * Placeholders, control flow ops, and their inputs are kept.
+     *
+     * @return the number of removed ops
+     */
+    protected int eliminateDeadCode(SameDiff sameDiff, Set<String> outputs) {
+        Set<String> liveFunctions = new HashSet<>();
+        Set<String> liveVariables = new HashSet<>(outputs);
+        Deque<String> toProcess = new ArrayDeque<>(outputs);
+        for (DifferentialFunction df : sameDiff.functions()) {
+            if (isControlFlow(df)) {
+                liveFunctions.add(df.getOwnName());
+                for (String in : inputs(sameDiff, df)) {
+                    if (liveVariables.add(in))
+                        toProcess.add(in);
+                }
+            }
+        }
+
+        while (!toProcess.isEmpty()) {
+            DifferentialFunction df = sameDiff.getVariableOutputFunction(toProcess.remove());
+            if (df != null && liveFunctions.add(df.getOwnName())) {
+                for (String in : inputs(sameDiff, df)) {
+                    if (liveVariables.add(in))
+                        toProcess.add(in);
+                }
+            }
+        }
+
+        int removed = 0;
+        for (DifferentialFunction df : sameDiff.functions()) {
+            if (!liveFunctions.contains(df.getOwnName())) {
+                sameDiff.removeFunction(df);
+                removed++;
+            }
+        }
+
+        //Unused outputs of live ops are kept, as they are still computed
+        for (SDVariable v : sameDiff.variables()) {
+            String name = v.getVarName();
+            if (!liveVariables.contains(name) && !sameDiff.isPlaceHolder(name)
+                    && sameDiff.getVariableOutputFunction(name) == null && isUnused(sameDiff, name)) {
+                sameDiff.removeVariable(name);
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Execute all ops that have only constant inputs, and replace their outputs with constants.
+     * Ops are processed in execution order, hence sequences of ops with constant inputs are folded completely.
+     *
+     * @return the number of folded ops
+     */
+    protected int foldConstants(SameDiff sameDiff) {
+        int folded = 0;
+        for (DifferentialFunction df : sameDiff.functions()) {
+            if (!canFold(sameDiff, df))
+                continue;
+
+            String[] outNames = sameDiff.getOutputsForFunction(df);
+            sameDiff.execOp(df);
+
+            //Output variables keep the computed arrays once the op is removed
+            boolean computed = true;
+            for (String s : outNames) {
+                if (sameDiff.getArrForVarName(s) == null) {
+                    log.debug("Not folding op {}: no array for output {}", df.getOwnName(), s);
+                    computed = false;
+                    break;
+                }
+            }
+            if (!computed)
+                continue;
+
+            sameDiff.removeFunction(df);
+            folded++;
+        }
+        return folded;
+    }
+
+    /**
+     * Replace mmul -> biasAdd [-> relu] sequences with the equivalent composed op
+     *
+     * @return the number of fused sequences
+     */
+    protected int fuseOps(SameDiff sameDiff, Set<String> outputs) {
+        int fused = 0;
+        for (DifferentialFunction df : sameDiff.functions()) {
+            if (!(df instanceof BiasAdd) || !sameDiff.functionExists(df.getOwnName()))
+                continue;
+
+            String[] biasAddIn = inputs(sameDiff, df);
+            String[] biasAddOut = sameDiff.getOutputsForFunction(df);
+            if (biasAddIn.length != 2 || biasAddOut == null || biasAddOut.length != 1)
+                continue;
+
+            DifferentialFunction mmul = sameDiff.getVariableOutputFunction(biasAddIn[0]);
+            if (!(mmul instanceof Mmul) || !isSingleUse(sameDiff, biasAddIn[0], outputs))
+                continue;
+            val transpose = ((Mmul) mmul).getMMulTranspose();
+            if (transpose.isTransposeA() || transpose.isTransposeB() || transpose.isTransposeResult())
+                continue;
+
+            String[] mmulIn = inputs(sameDiff, mmul);
+            if (mmulIn.length != 2 || !hasRank(sameDiff, mmulIn[0], 2) || !hasRank(sameDiff, mmulIn[1], 2))
+                continue;
+            long[] biasShape = shape(sameDiff, biasAddIn[1]);
+            if (biasShape == null || !(biasShape.length == 1 || (biasShape.length == 2 && biasShape[0] == 1)))
+                continue;
+
+            DifferentialFunction relu = null;
+            if (isSingleUse(sameDiff, biasAddOut[0], outputs)) {
+                DifferentialFunction next = sameDiff.getVariableArgOfFunctions(biasAddOut[0]).get(0);
+                if (next instanceof RectifedLinear && ((RectifedLinear) next).getCutoff() == 0.0
+                        && sameDiff.getOutputsForFunction(next) != null) {
+                    relu = next;
+                }
+            }
+
+            SDVariable x = sameDiff.getVariable(mmulIn[0]);
+            SDVariable w = sameDiff.getVariable(mmulIn[1]);
+            SDVariable b = sameDiff.getVariable(biasAddIn[1]);
+            if (relu != null) {
+                sameDiff.replaceFunction(relu, new ReluLayer(sameDiff, x, w, b));
+                sameDiff.removeFunction(df);
+                sameDiff.removeVariable(biasAddOut[0]);
+            } else {
+                sameDiff.replaceFunction(df, new XwPlusB(sameDiff, x, w, b));
+            }
+            sameDiff.removeFunction(mmul);
+            sameDiff.removeVariable(biasAddIn[0]);
+            fused++;
+        }
+        return fused;
+    }
+
+    /**
+     * @return true if the op only has constant inputs, and is deterministic
+     */
+    protected boolean canFold(SameDiff sameDiff, DifferentialFunction df) {
+        if (isControlFlow(df) || df.isInPlace() || df instanceof RandomOp || df instanceof RandomStandardNormal
+                || df instanceof DistributionUniform) {
+            return false;
+        }
+
+        String[] in = inputs(sameDiff, df);
+        String[] out = sameDiff.getOutputsForFunction(df);
+        if (in.length == 0 || out == null || out.length == 0)
+            return false;
+
+        for (String s : in) {
+            if (sameDiff.isPlaceHolder(s) || sameDiff.getVariableOutputFunction(s) != null
+                    || sameDiff.getVariable(s).getArr() == null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    protected static boolean isControlFlow(DifferentialFunction df) {
+        return df instanceof BaseCompatOp || df instanceof If || df instanceof While || df instanceof BaseTensorOp
+                || df instanceof GradientBackwardsMarker;
+    }
+
+    /**
+     * @return variables that are the output of an op, but are not used as input by any other op
+     */
+    protected static Set<String> graphOutputs(SameDiff sameDiff) {
+        Set<String> ret = new LinkedHashSet<>();
+        for (DifferentialFunction df : sameDiff.functions()) {
+            String[] out = sameDiff.getOutputsForFunction(df);
+            if (out == null)
+                continue;
+            for (String s : out) {
+                if (isUnused(sameDiff, s))
+                    ret.add(s);
+            }
+        }
+        Preconditions.checkState(!ret.isEmpty(), "Unable to determine graph outputs: graph has no ops");
+        return ret;
+    }
+
+    private static String[] inputs(SameDiff sameDiff, DifferentialFunction df) {
+        return sameDiff.hasArgs(df) ? sameDiff.getInputsForFunction(df) : new String[0];
+    }
+
+    private static boolean isUnused(SameDiff sameDiff, String varName) {
+        List<DifferentialFunction> argOf = sameDiff.getVariableArgOfFunctions(varName);
+        return argOf == null || argOf.isEmpty();
+    }
+
+    private static boolean isSingleUse(SameDiff sameDiff, String varName, Set<String> outputs) {
+        List<DifferentialFunction> argOf = sameDiff.getVariableArgOfFunctions(varName);
+        return !outputs.contains(varName) && argOf != null && argOf.size() == 1;
+    }
+
+    private static long[] shape(SameDiff sameDiff, String varName) {
+        long[] shape = sameDiff.getShapeForVarName(varName);
+        if (shape == null && sameDiff.isPlaceHolder(varName))
+            shape = sameDiff.getOriginalShapeForPlaceHolder(varName);
+        return shape;
+    }
+
+    private static boolean hasRank(SameDiff sameDiff, String varName, int rank) {
+        long[] shape = shape(sameDiff, varName);
+        return shape != null && shape.length == rank;
+    }
+}
@@ -1656,6 +1656,145 @@ public class SameDiff {
         }
     }
 
+    /**
+     * Remove a function from the graph. All references to the function are removed, including its
+     * input and output edges. Its input and output variables are not removed: see {@link #removeVariable(String)}
+     *
+     * @param function the function to remove
+     */
+    public void removeFunction(@NonNull DifferentialFunction function) {
+        val ownName = function.getOwnName();
+        if (!functionInstancesById.containsKey(ownName)) {
+            throw new ND4JIllegalStateException("No function with id " + ownName + " found!");
+        }
+
+        functionInstancesById.remove(ownName);
+        val args = incomingArgsReverse.remove(ownName);
+        if (args != null) {
+            for (val arg : args) {
+                val funcs = functionsArgsFor.get(arg);
+                if (funcs != null) {
+                    funcs.remove(function);
+                    if (funcs.isEmpty())
+                        functionsArgsFor.remove(arg);
+                }
+            }
+        }
+
+        val outputs = outgoingArgsReverse.remove(ownName);
+        if (outputs != null) {
+            for (val output : outputs) {
+                val funcs = functionOutputFor.get(output);
+                if (funcs != null) {
+                    funcs.remove(function);
+                    if (funcs.isEmpty())
+                        functionOutputFor.remove(output);
+                }
+
+                val variable = getVariable(output);
+                if (variable != null && variable.getCreator() == function)
+                    variable.setCreator(null);
+            }
+        }
+
+        placeHolderFunctions.remove(ownName);
+        propertiesToResolve.remove(ownName);
+        propertiesForFunction.remove(ownName);
+        baseNameForFunctionInstanceId.remove(ownName);
+    }
+
+    /**
+     * Remove a variable, and its array, shape and gradient, from the graph.
+     * The variable must not be an input or output of any function.
+     *
+     * @param varName the name of the variable to remove
+     */
+    public void removeVariable(@NonNull String varName) {
+        if (!variableMap.containsKey(varName)) {
+            throw new ND4JIllegalStateException("No variable found for " + varName);
+        }
+
+        val argOf = functionsArgsFor.get(varName);
+        if (argOf != null && !argOf.isEmpty()) {
+            throw new ND4JIllegalStateException("Unable to remove variable " + varName + ": variable is an input to " + argOf.size()
+                    + " function(s)");
+        }
+
+        if (getVariableOutputFunction(varName) != null) {
+            throw new ND4JIllegalStateException("Unable to remove variable " + varName + ": variable is the output of function "
+                    + getVariableOutputFunction(varName).getOwnName());
+        }
+
+        variableMap.remove(varName);
+        val arr = variableNameToArr.remove(varName);
+        if (arr != null)
+            reverseArrayLookup.remove(arr);
+        variableNameToShape.remove(varName);
+        gradients.remove(varName);
+        forwardVarForGrad.remove(varName);
+        placeHolderMap.remove(varName);
+        placeHolderVarNames.remove(varName);
+        placeHolderOriginalShapes.remove(varName);
+        importedVarName.remove(varName);
+        functionsArgsFor.remove(varName);
+        functionOutputFor.remove(varName);
+    }
+
+    /**
+     * Replace a function by another function that computes the same outputs.
+     * The replacement takes the position of the replaced function in the execution order, and the output variables
+     * of the replaced function become the outputs of the replacement. Variables that are inputs to the replaced
+     * function only are not removed.
+     *
+     * @param function    the function to replace
+     * @param replacement the replacement function. Must already be part of this graph, with no outputs defined
+     */
+    public void replaceFunction(@NonNull DifferentialFunction function, @NonNull DifferentialFunction replacement) {
+        if (!functionInstancesById.containsKey(function.getOwnName())) {
+            throw new ND4JIllegalStateException("No function with id " + function.getOwnName() + " found!");
+        }
+        if (functionInstancesById.get(replacement.getOwnName()) != replacement) {
+            throw new ND4JIllegalStateException("Replacement function " + replacement.getOwnName() + " is not defined in this graph");
+        }
+        if (outgoingArgsReverse.containsKey(replacement.getOwnName())) {
+            throw new ND4JIllegalStateException("Outgoing arguments already declared for " + replacement.getOwnName());
+        }
+
+        //Execution order is the iteration order of the function map
+        Map<String, DifferentialFunction> reordered = new LinkedHashMap<>();
+        for (val entry : functionInstancesById.entrySet()) {
+            if (entry.getKey().equals(function.getOwnName())) {
+                reordered.put(replacement.getOwnName(), replacement);
+            } else if (!entry.getKey().equals(replacement.getOwnName())) {
+                reordered.put(entry.getKey(), entry.getValue());
+            }
+        }
+
+        val outputs = getOutputsForFunction(function);
+        removeFunction(function);
+        functionInstancesById = reordered;
+
+        if (outputs != null) {
+            addOutgoingFor(outputs, replacement);
+            for (val output : outputs) {
+                getVariable(output).setCreator(replacement);
+            }
+        }
+    }
+
+    /**
+     * Optimize this graph for inference, with the default {@link GraphOptimizer} configuration:
+     * constant folding, fusion of op sequences that have a composed op, and removal of ops that are not required to
+     * compute the given outputs.<br>
+     * Note that the graph is modified in place, and should not be used for training afterwards.
+     *
+     * @param outputs the names of the variables required as outputs. If none are specified, all variables that are
+     *                the output of an op but are not used as input by any other op are used
+     */
+    public void optimize(String... outputs) {
+        GraphOptimizer.builder().build().optimize(this, outputs);
+    }
+
 
     /**
      * @param name
@@ -6388,17 +6527,7 @@ public class SameDiff {
                     log.trace("Starting execution of CustomOp op");
 
                 DynamicCustomOp customOp = (DynamicCustomOp) differentialFunction;
-                try {
-                    customOp.populateInputsAndOutputsFromSameDiff();
-                } catch (Throwable t){
-                    throw new RuntimeException("Error populating inputs and outputs for function \"" + differentialFunction.getOwnName()
-                            + "\" of type " + differentialFunction.getClass().getName(), t);
-                }
-                customOp.assertValidForExecution();
-
-                customOp.updateInputsFromSameDiff();
-
-                Nd4j.getExecutioner().exec(customOp);
+                execOp(customOp);
 
                 /*
                 if (customOp instanceof LessThanOrEqual) {
@@ -6415,45 +6544,7 @@ public class SameDiff {
                 if(log.isTraceEnabled())
                     log.trace("Starting execution of Op op");
 
-                val inputs = getInputVariablesForFunction(differentialFunction);
-
-                Op op = (Op) differentialFunction;
-
-                // ops in differential function might have stale NDArrays used. we should renew them
-                op.setX(inputs[0].getArr());
-                if (inputs.length == 2)
-                    op.setY(inputs[1].getArr());
-
-                if (differentialFunction.getDimensions() == null)
-                    Nd4j.getExecutioner().exec(op);
-                else if (op.isExecSpecial()) {
-                    op.exec();
-                } else {
-                    int[] axes = differentialFunction.getDimensions();
-                    if (differentialFunction instanceof Accumulation) {
-                        Accumulation accumulation = (Accumulation) differentialFunction;
-
-                        Nd4j.getExecutioner().exec(accumulation, axes);
-
-                        if (differentialFunction.outputVariables()[0].getArr() == null) {
-                            val var = differentialFunction.outputVariables()[0];
-                            updateVariable(var.getVarName(), accumulation.z());
-                            updateShapeForVarName(var.getVarName(), accumulation.z().shape());
-                        }
-                    } else if (differentialFunction instanceof BroadcastOp) {
-                        BroadcastOp broadcastOp = (BroadcastOp) differentialFunction;
-                        Nd4j.getExecutioner().exec(broadcastOp, axes);
-                    } else if (differentialFunction instanceof GradientOp) {
-                        Nd4j.getExecutioner().exec(op);
-                    } else if (differentialFunction instanceof IndexAccumulation) {
-                        IndexAccumulation indexAccumulation = (IndexAccumulation) differentialFunction;
-                        Nd4j.getExecutioner().exec(indexAccumulation, axes);
-
-                    } else if (differentialFunction instanceof TransformOp) {
-                        TransformOp t = (TransformOp) differentialFunction;
-                        Nd4j.getExecutioner().exec(t, axes);
-                    }
-                }
+                execOp(differentialFunction);
 
 
                 flowPath.markExecuted(differentialFunction.getOwnName(), true);
@@ -6490,6 +6581,71 @@ public class SameDiff {
     }
 
 
+    /**
+     * This method executes a single (non control flow) function, using the arrays currently
+     * associated with its input and output variables
+     *
+     * @param differentialFunction the custom op or legacy op to execute
+     */
+    protected void execOp(DifferentialFunction differentialFunction) {
+        if (differentialFunction instanceof CustomOp) {
+            DynamicCustomOp customOp = (DynamicCustomOp) differentialFunction;
+            try {
+                customOp.populateInputsAndOutputsFromSameDiff();
+            } catch (Throwable t){
+                throw new RuntimeException("Error populating inputs and outputs for function \"" + differentialFunction.getOwnName()
+                        + "\" of type " + differentialFunction.getClass().getName(), t);
+            }
+            customOp.assertValidForExecution();
+
+            customOp.updateInputsFromSameDiff();
+
+            Nd4j.getExecutioner().exec(customOp);
+            return;
+        }
+
+        val inputs = getInputVariablesForFunction(differentialFunction);
+
+        Op op = (Op) differentialFunction;
+
+        // ops in differential function might have stale NDArrays used. we should renew them
+        op.setX(inputs[0].getArr());
+        if (inputs.length == 2)
+            op.setY(inputs[1].getArr());
+
+        if (differentialFunction.getDimensions() == null)
+            Nd4j.getExecutioner().exec(op);
+        else if (op.isExecSpecial()) {
+            op.exec();
+        } else {
+            int[] axes = differentialFunction.getDimensions();
+            if (differentialFunction instanceof Accumulation) {
+                Accumulation accumulation = (Accumulation) differentialFunction;
+
+                Nd4j.getExecutioner().exec(accumulation, axes);
+
+                if (differentialFunction.outputVariables()[0].getArr() == null) {
+                    val var = differentialFunction.outputVariables()[0];
+                    updateVariable(var.getVarName(), accumulation.z());
+                    updateShapeForVarName(var.getVarName(), accumulation.z().shape());
+                }
+            } else if (differentialFunction instanceof BroadcastOp) {
+                BroadcastOp broadcastOp = (BroadcastOp) differentialFunction;
+                Nd4j.getExecutioner().exec(broadcastOp, axes);
+            } else if (differentialFunction instanceof GradientOp) {
+                Nd4j.getExecutioner().exec(op);
+            } else if (differentialFunction instanceof IndexAccumulation) {
+                IndexAccumulation indexAccumulation = (IndexAccumulation) differentialFunction;
+                Nd4j.getExecutioner().exec(indexAccumulation, axes);
+
+            } else if (differentialFunction instanceof TransformOp) {
+                TransformOp t = (TransformOp) differentialFunction;
+                Nd4j.getExecutioner().exec(t, axes);
+            }
+        }
+    }
+
+
     /**
      * Print the given function for debugging (will not print functions)
      *
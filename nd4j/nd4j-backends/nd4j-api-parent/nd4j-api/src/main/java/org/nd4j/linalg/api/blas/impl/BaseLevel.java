@@ -1,5 +1,11 @@
 package org.nd4j.linalg.api.blas.impl;
 
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.api.ops.executioner.OpExecutioner;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.profiler.OpLatencyProfiler;
+import org.nd4j.linalg.profiler.OpProfiler;
+
 /**
  * Provides auxillary methods for
  * blas to databuffer interactions
@@ -7,5 +13,40 @@ package org.nd4j.linalg.api.blas.impl;
  */
 public abstract class BaseLevel {
 
-}
+    /**
+     * Profiling hook, called before each BLAS call
+     *
+     * @param isGemm   true for gemm calls
+     * @param operands BLAS call operands
+     * @return start time of the call, as used by profilingHookOut
+     */
+    protected long profilingHookIn(boolean isGemm, INDArray... operands) {
+        OpExecutioner.ProfilingMode mode = Nd4j.getExecutioner().getProfilingMode();
+        if (mode == OpExecutioner.ProfilingMode.ALL)
+            OpProfiler.getInstance().processBlasCall(isGemm, operands);
+
+        return mode == OpExecutioner.ProfilingMode.LATENCY ? System.nanoTime() : 0L;
+    }
 
+    /**
+     * Profiling hook, called after each BLAS call: records call duration in LATENCY profiling mode
+     *
+     * @param opName    BLAS call name
+     * @param timeStart value returned by profilingHookIn
+     * @param output    array written by the call
+     */
+    protected void profilingHookOut(String opName, long timeStart, INDArray output) {
+        if (Nd4j.getExecutioner().getProfilingMode() == OpExecutioner.ProfilingMode.LATENCY)
+            OpLatencyProfiler.getInstance().timeBlasCall(opName, timeStart, output);
+    }
+
+    protected double profilingHookOut(String opName, long timeStart, double result) {
+        profilingHookOut(opName, timeStart, (INDArray) null);
+        return result;
+    }
+
+    protected int profilingHookOut(String opName, long timeStart, int result) {
+        profilingHookOut(opName, timeStart, (INDArray) null);
+        return result;
+    }
+}
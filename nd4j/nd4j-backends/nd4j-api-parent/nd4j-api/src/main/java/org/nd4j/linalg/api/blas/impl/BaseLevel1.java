@@ -10,11 +10,9 @@ import org.nd4j.linalg.api.complex.IComplexNDArray;
 import org.nd4j.linalg.api.complex.IComplexNumber;
 import org.nd4j.linalg.api.ndarray.INDArray;
 import org.nd4j.linalg.api.ops.executioner.DefaultOpExecutioner;
-import org.nd4j.linalg.api.ops.executioner.OpExecutioner;
 import org.nd4j.linalg.api.ops.executioner.OpExecutionerUtil;
 import org.nd4j.linalg.api.ops.impl.scalar.ScalarMultiplication;
 import org.nd4j.linalg.factory.Nd4j;
-import org.nd4j.linalg.profiler.OpProfiler;
 
 /**
  * Base class for level 1 functions, abstract headers pulled from:
@@ -34,27 +32,29 @@ public abstract class BaseLevel1 extends BaseLevel implements Level1 {
      */
     @Override
     public double dot(long n, double alpha, INDArray X, INDArray Y) {
-        if (Nd4j.getExecutioner().getProfilingMode() == OpExecutioner.ProfilingMode.ALL)
-            OpProfiler.getInstance().processBlasCall(false, X, Y);
+        long profilingStart = profilingHookIn(false, X, Y);
 
         if (X.isSparse() && !Y.isSparse()) {
-            return Nd4j.getSparseBlasWrapper().level1().dot(n, alpha, X, Y);
+            return profilingHookOut("dot", profilingStart, Nd4j.getSparseBlasWrapper().level1().dot(n, alpha, X, Y));
         } else if (!X.isSparse() && Y.isSparse()) {
-            return Nd4j.getSparseBlasWrapper().level1().dot(n, alpha, Y, X);
+            return profilingHookOut("dot", profilingStart, Nd4j.getSparseBlasWrapper().level1().dot(n, alpha, Y, X));
         } else if (X.isSparse() && Y.isSparse()) {
             // TODO - MKL doesn't contain such routines
-            return 0;
+            return profilingHookOut("dot", profilingStart, 0);
         }
 
         if (X.data().dataType() == DataBuffer.Type.DOUBLE) {
             DefaultOpExecutioner.validateDataType(DataBuffer.Type.DOUBLE, X, Y);
-            return ddot(n, X, BlasBufferUtil.getBlasStride(X), Y, BlasBufferUtil.getBlasStride(Y));
+            return profilingHookOut("dot", profilingStart,
+                            ddot(n, X, BlasBufferUtil.getBlasStride(X), Y, BlasBufferUtil.getBlasStride(Y)));
         } else if (X.data().dataType() == DataBuffer.Type.FLOAT) {
             DefaultOpExecutioner.validateDataType(DataBuffer.Type.FLOAT, X, Y);
-            return sdot(n, X, BlasBufferUtil.getBlasStride(X), Y, BlasBufferUtil.getBlasStride(Y));
+            return profilingHookOut("dot", profilingStart,
+                            sdot(n, X, BlasBufferUtil.getBlasStride(X), Y, BlasBufferUtil.getBlasStride(Y)));
         } else {
             DefaultOpExecutioner.validateDataType(DataBuffer.Type.HALF, X, Y);
-            return hdot(n, X, BlasBufferUtil.getBlasStride(X), Y, BlasBufferUtil.getBlasStride(Y));
+            return profilingHookOut("dot", profilingStart,
+                            hdot(n, X, BlasBufferUtil.getBlasStride(X), Y, BlasBufferUtil.getBlasStride(Y)));
         }
 
     }
@@ -106,17 +106,18 @@ public abstract class BaseLevel1 extends BaseLevel implements Level1 {
         if (arr.isSparse()) {
             return Nd4j.getSparseBlasWrapper().level1().nrm2(arr);
         }
-        if (Nd4j.getExecutioner().getProfilingMode() == OpExecutioner.ProfilingMode.ALL)
-            OpProfiler.getInstance().processBlasCall(false, arr);
+        long profilingStart = profilingHookIn(false, arr);
         if (arr.isSparse()) {
-            return Nd4j.getSparseBlasWrapper().level1().nrm2(arr);
+            return profilingHookOut("nrm2", profilingStart, Nd4j.getSparseBlasWrapper().level1().nrm2(arr));
         }
         if (arr.data().dataType() == DataBuffer.Type.DOUBLE) {
             DefaultOpExecutioner.validateDataType(DataBuffer.Type.DOUBLE, arr);
-            return dnrm2(arr.length(), arr, BlasBufferUtil.getBlasStride(arr));
+            return profilingHookOut("nrm2", profilingStart,
+                            dnrm2(arr.length(), arr, BlasBufferUtil.getBlasStride(arr)));
         } else {
             DefaultOpExecutioner.validateDataType(DataBuffer.Type.FLOAT, arr);
-            return snrm2(arr.length(), arr, BlasBufferUtil.getBlasStride(arr));
+            return profilingHookOut("nrm2", profilingStart,
+                            snrm2(arr.length(), arr, BlasBufferUtil.getBlasStride(arr)));
         }
         // TODO: add nrm2 for half, as call to appropriate NativeOp<HALF>
     }
@@ -144,18 +145,20 @@ public abstract class BaseLevel1 extends BaseLevel implements Level1 {
         if (arr.isSparse()) {
             return Nd4j.getSparseBlasWrapper().level1().asum(arr);
         }
-        if (Nd4j.getExecutioner().getProfilingMode() == OpExecutioner.ProfilingMode.ALL)
-            OpProfiler.getInstance().processBlasCall(false, arr);
+        long profilingStart = profilingHookIn(false, arr);
 
         if (arr.data().dataType() == DataBuffer.Type.DOUBLE) {
             DefaultOpExecutioner.validateDataType(DataBuffer.Type.DOUBLE, arr);
-            return dasum(arr.length(), arr, BlasBufferUtil.getBlasStride(arr));
+            return profilingHookOut("asum", profilingStart,
+                            dasum(arr.length(), arr, BlasBufferUtil.getBlasStride(arr)));
         } else if (arr.data().dataType() == DataBuffer.Type.FLOAT) {
             DefaultOpExecutioner.validateDataType(DataBuffer.Type.FLOAT, arr);
-            return sasum(arr.length(), arr, BlasBufferUtil.getBlasStride(arr));
+            return profilingHookOut("asum", profilingStart,
+                            sasum(arr.length(), arr, BlasBufferUtil.getBlasStride(arr)));
         } else {
             DefaultOpExecutioner.validateDataType(DataBuffer.Type.HALF, arr);
-            return hasum(arr.length(), arr, BlasBufferUtil.getBlasStride(arr));
+            return profilingHookOut("asum", profilingStart,
+                            hasum(arr.length(), arr, BlasBufferUtil.getBlasStride(arr)));
         }
     }
 
@@ -193,15 +196,14 @@ public abstract class BaseLevel1 extends BaseLevel implements Level1 {
 
     @Override
     public int iamax(long n, INDArray arr, int stride) {
-        if (Nd4j.getExecutioner().getProfilingMode() == OpExecutioner.ProfilingMode.ALL)
-            OpProfiler.getInstance().processBlasCall(false, arr);
+        long profilingStart = profilingHookIn(false, arr);
 
         if (arr.data().dataType() == DataBuffer.Type.DOUBLE) {
             DefaultOpExecutioner.validateDataType(DataBuffer.Type.DOUBLE, arr);
-            return idamax(n, arr, stride);
+            return profilingHookOut("iamax", profilingStart, idamax(n, arr, stride));
         } else {
             DefaultOpExecutioner.validateDataType(DataBuffer.Type.FLOAT, arr);
-            return isamax(n, arr, stride);
+            return profilingHookOut("iamax", profilingStart, isamax(n, arr, stride));
         }
     }
 
@@ -233,15 +235,16 @@ public abstract class BaseLevel1 extends BaseLevel implements Level1 {
         if (arr.isSparse()) {
             return Nd4j.getSparseBlasWrapper().level1().iamax(arr);
         }
-        if (Nd4j.getExecutioner().getProfilingMode() == OpExecutioner.ProfilingMode.ALL)
-            OpProfiler.getInstance().processBlasCall(false, arr);
+        long profilingStart = profilingHookIn(false, arr);
 
         if (arr.data().dataType() == DataBuffer.Type.DOUBLE) {
             DefaultOpExecutioner.validateDataType(DataBuffer.Type.DOUBLE, arr);
-            return idamax(arr.length(), arr, BlasBufferUtil.getBlasStride(arr));
+            return profilingHookOut("iamax", profilingStart,
+                            idamax(arr.length(), arr, BlasBufferUtil.getBlasStride(arr)));
         } else {
             DefaultOpExecutioner.validateDataType(DataBuffer.Type.FLOAT, arr);
-            return isamax(arr.length(), arr, BlasBufferUtil.getBlasStride(arr));
+            return profilingHookOut("iamax", profilingStart,
+                            isamax(arr.length(), arr, BlasBufferUtil.getBlasStride(arr)));
         }
     }
 
@@ -293,11 +296,11 @@ public abstract class BaseLevel1 extends BaseLevel implements Level1 {
      */
     @Override
     public void swap(INDArray x, INDArray y) {
-        if (Nd4j.getExecutioner().getProfilingMode() == OpExecutioner.ProfilingMode.ALL)
-            OpProfiler.getInstance().processBlasCall(false, x, y);
+        long profilingStart = profilingHookIn(false, x, y);
 
         if (x.isSparse() || y.isSparse()) {
             Nd4j.getSparseBlasWrapper().level1().swap(x, y);
+            profilingHookOut("swap", profilingStart, y);
             return;
         }
 
@@ -308,6 +311,8 @@ public abstract class BaseLevel1 extends BaseLevel implements Level1 {
             DefaultOpExecutioner.validateDataType(DataBuffer.Type.FLOAT, x, y);
             sswap(x.length(), x, BlasBufferUtil.getBlasStride(x), y, BlasBufferUtil.getBlasStride(y));
         }
+
+        profilingHookOut("swap", profilingStart, y);
     }
 
     @Override
@@ -327,11 +332,11 @@ public abstract class BaseLevel1 extends BaseLevel implements Level1 {
      */
     @Override
     public void copy(INDArray x, INDArray y) {
-        if (Nd4j.getExecutioner().getProfilingMode() == OpExecutioner.ProfilingMode.ALL)
-            OpProfiler.getInstance().processBlasCall(false, x, y);
+        long profilingStart = profilingHookIn(false, x, y);
 
         if (x.isSparse() || y.isSparse()) {
             Nd4j.getSparseBlasWrapper().level1().copy(x, y);
+            profilingHookOut("copy", profilingStart, y);
             return;
         }
         if (x.data().dataType() == DataBuffer.Type.DOUBLE) {
@@ -341,6 +346,8 @@ public abstract class BaseLevel1 extends BaseLevel implements Level1 {
             DefaultOpExecutioner.validateDataType(DataBuffer.Type.FLOAT, x, y);
             scopy(x.length(), x, BlasBufferUtil.getBlasStride(x), y, BlasBufferUtil.getBlasStride(y));
         }
+
+        profilingHookOut("copy", profilingStart, y);
     }
 
     /**copy a vector to another vector.
@@ -395,8 +402,7 @@ public abstract class BaseLevel1 extends BaseLevel implements Level1 {
     @Override
     public void axpy(long n, double alpha, INDArray x, INDArray y) {
 
-        if (Nd4j.getExecutioner().getProfilingMode() == OpExecutioner.ProfilingMode.ALL)
-            OpProfiler.getInstance().processBlasCall(false, x, y);
+        long profilingStart = profilingHookIn(false, x, y);
 
         if (x.isSparse() && !y.isSparse()) {
             Nd4j.getSparseBlasWrapper().level1().axpy(n, alpha, x, y);
@@ -410,6 +416,8 @@ public abstract class BaseLevel1 extends BaseLevel implements Level1 {
             DefaultOpExecutioner.validateDataType(DataBuffer.Type.HALF, x, y);
             haxpy(n, (float) alpha, x, BlasBufferUtil.getBlasStride(x), y, BlasBufferUtil.getBlasStride(y));
         }
+
+        profilingHookOut("axpy", profilingStart, y);
     }
 
     @Override
@@ -474,8 +482,7 @@ public abstract class BaseLevel1 extends BaseLevel implements Level1 {
     @Override
     public void rot(long N, INDArray X, INDArray Y, double c, double s) {
 
-        if (Nd4j.getExecutioner().getProfilingMode() == OpExecutioner.ProfilingMode.ALL)
-            OpProfiler.getInstance().processBlasCall(false, X, Y);
+        long profilingStart = profilingHookIn(false, X, Y);
 
         if (X.isSparse() && !Y.isSparse()) {
             Nd4j.getSparseBlasWrapper().level1().rot(N, X, Y, c, s);
@@ -486,6 +493,8 @@ public abstract class BaseLevel1 extends BaseLevel implements Level1 {
             DefaultOpExecutioner.validateDataType(DataBuffer.Type.FLOAT, X, Y);
             srot(N, X, BlasBufferUtil.getBlasStride(X), Y, BlasBufferUtil.getBlasStride(X), (float) c, (float) s);
         }
+
+        profilingHookOut("rot", profilingStart, Y);
     }
 
     /**
@@ -540,8 +549,7 @@ public abstract class BaseLevel1 extends BaseLevel implements Level1 {
      */
     @Override
     public void scal(long N, double alpha, INDArray X) {
-        if (Nd4j.getExecutioner().getProfilingMode() == OpExecutioner.ProfilingMode.ALL)
-            OpProfiler.getInstance().processBlasCall(false, X);
+        long profilingStart = profilingHookIn(false, X);
 
         if (X.isSparse()) {
             Nd4j.getSparseBlasWrapper().level1().scal(N, alpha, X);
@@ -551,6 +559,8 @@ public abstract class BaseLevel1 extends BaseLevel implements Level1 {
             sscal(N, (float) alpha, X, BlasBufferUtil.getBlasStride(X));
         else if (X.data().dataType() == DataBuffer.Type.HALF)
             Nd4j.getExecutioner().exec(new ScalarMultiplication(X, alpha));
+
+        profilingHookOut("scal", profilingStart, X);
     }
 
     /**
@@ -9,10 +9,8 @@ import org.nd4j.linalg.api.complex.IComplexNDArray;
 import org.nd4j.linalg.api.complex.IComplexNumber;
 import org.nd4j.linalg.api.ndarray.INDArray;
 import org.nd4j.linalg.api.ops.executioner.DefaultOpExecutioner;
-import org.nd4j.linalg.api.ops.executioner.OpExecutioner;
 import org.nd4j.linalg.api.ops.executioner.OpExecutionerUtil;
 import org.nd4j.linalg.factory.Nd4j;
-import org.nd4j.linalg.profiler.OpProfiler;
 
 /**
  * Base class for level 2 functions, abstract headers pulled from:
@@ -38,11 +36,11 @@ public abstract class BaseLevel2 extends BaseLevel implements Level2 {
      */
     @Override
     public void gemv(char order, char transA, double alpha, INDArray A, INDArray X, double beta, INDArray Y) {
-        if (Nd4j.getExecutioner().getProfilingMode() == OpExecutioner.ProfilingMode.ALL)
-            OpProfiler.getInstance().processBlasCall(false, A, X, Y);
+        long profilingStart = profilingHookIn(false, A, X, Y);
 
         if (A.isSparse() && !X.isSparse()) {
             Nd4j.getSparseBlasWrapper().level2().gemv(order, transA, alpha, A, X, beta, Y);
+            profilingHookOut("gemv", profilingStart, Y);
             return;
         }
 
@@ -62,6 +60,8 @@ public abstract class BaseLevel2 extends BaseLevel implements Level2 {
         }
 
         OpExecutionerUtil.checkForAny(Y);
+
+        profilingHookOut("gemv", profilingStart, Y);
     }
 
     /**
@@ -82,8 +82,7 @@ public abstract class BaseLevel2 extends BaseLevel implements Level2 {
     @Override
     public void gemv(char order, char transA, IComplexNumber alpha, IComplexNDArray A, IComplexNDArray X,
                     IComplexNumber beta, IComplexNDArray Y) {
-        if (Nd4j.getExecutioner().getProfilingMode() == OpExecutioner.ProfilingMode.ALL)
-            OpProfiler.getInstance().processBlasCall(false, A, X, Y);
+        long profilingStart = profilingHookIn(false, A, X, Y);
 
         GemvParameters parameters = new GemvParameters(A, X, Y);
 
@@ -94,6 +93,7 @@ public abstract class BaseLevel2 extends BaseLevel implements Level2 {
             cgemv(order, transA, parameters.getM(), parameters.getN(), alpha.asFloat(), A, parameters.getLda(), X,
                             parameters.getIncx(), beta.asFloat(), Y, parameters.getIncy());
 
+        profilingHookOut("gemv", profilingStart, Y);
     }
 
     /**
@@ -116,8 +116,7 @@ public abstract class BaseLevel2 extends BaseLevel implements Level2 {
     @Override
     public void gbmv(char order, char TransA, int KL, int KU, double alpha, INDArray A, INDArray X, double beta,
                     INDArray Y) {
-        if (Nd4j.getExecutioner().getProfilingMode() == OpExecutioner.ProfilingMode.ALL)
-            OpProfiler.getInstance().processBlasCall(false, A, X, Y);
+        long profilingStart = profilingHookIn(false, A, X, Y);
 
         // FIXME: int cast
 
@@ -131,6 +130,8 @@ public abstract class BaseLevel2 extends BaseLevel implements Level2 {
         }
 
         OpExecutionerUtil.checkForAny(Y);
+
+        profilingHookOut("gbmv", profilingStart, Y);
     }
 
     /**
@@ -178,8 +179,7 @@ public abstract class BaseLevel2 extends BaseLevel implements Level2 {
      */
     @Override
     public void ger(char order, double alpha, INDArray X, INDArray Y, INDArray A) {
-        if (Nd4j.getExecutioner().getProfilingMode() == OpExecutioner.ProfilingMode.ALL)
-            OpProfiler.getInstance().processBlasCall(false, A, X, Y);
+        long profilingStart = profilingHookIn(false, A, X, Y);
 
         // FIXME: int cast
 
@@ -192,6 +192,8 @@ public abstract class BaseLevel2 extends BaseLevel implements Level2 {
         }
 
         OpExecutionerUtil.checkForAny(A);
+
+        profilingHookOut("ger", profilingStart, A);
     }
 
 
@@ -361,8 +363,7 @@ public abstract class BaseLevel2 extends BaseLevel implements Level2 {
      */
     @Override
     public void sbmv(char order, char Uplo, double alpha, INDArray A, INDArray X, double beta, INDArray Y) {
-        if (Nd4j.getExecutioner().getProfilingMode() == OpExecutioner.ProfilingMode.ALL)
-            OpProfiler.getInstance().processBlasCall(false, A, X, Y);
+        long profilingStart = profilingHookIn(false, A, X, Y);
 
         // FIXME: int cast
 
@@ -377,6 +378,8 @@ public abstract class BaseLevel2 extends BaseLevel implements Level2 {
         }
 
         OpExecutionerUtil.checkForAny(Y);
+
+        profilingHookOut("sbmv", profilingStart, Y);
     }
 
     /**
@@ -390,8 +393,7 @@ public abstract class BaseLevel2 extends BaseLevel implements Level2 {
      */
     @Override
     public void spmv(char order, char Uplo, double alpha, INDArray Ap, INDArray X, double beta, INDArray Y) {
-        if (Nd4j.getExecutioner().getProfilingMode() == OpExecutioner.ProfilingMode.ALL)
-            OpProfiler.getInstance().processBlasCall(false, Ap, X, Y);
+        long profilingStart = profilingHookIn(false, Ap, X, Y);
 
         // FIXME: int cast
 
@@ -404,6 +406,8 @@ public abstract class BaseLevel2 extends BaseLevel implements Level2 {
         }
 
         OpExecutionerUtil.checkForAny(Y);
+
+        profilingHookOut("spmv", profilingStart, Y);
     }
 
     /**
@@ -418,8 +422,7 @@ public abstract class BaseLevel2 extends BaseLevel implements Level2 {
      */
     @Override
     public void spr(char order, char Uplo, double alpha, INDArray X, INDArray Ap) {
-        if (Nd4j.getExecutioner().getProfilingMode() == OpExecutioner.ProfilingMode.ALL)
-            OpProfiler.getInstance().processBlasCall(false, Ap, X);
+        long profilingStart = profilingHookIn(false, Ap, X);
 
 
         // FIXME: int cast
@@ -433,6 +436,8 @@ public abstract class BaseLevel2 extends BaseLevel implements Level2 {
         }
 
         OpExecutionerUtil.checkForAny(Ap);
+
+        profilingHookOut("spr", profilingStart, Ap);
     }
 
     /**
@@ -448,8 +453,7 @@ public abstract class BaseLevel2 extends BaseLevel implements Level2 {
      */
     @Override
     public void spr2(char order, char Uplo, double alpha, INDArray X, INDArray Y, INDArray A) {
-        if (Nd4j.getExecutioner().getProfilingMode() == OpExecutioner.ProfilingMode.ALL)
-            OpProfiler.getInstance().processBlasCall(false, A, X, Y);
+        long profilingStart = profilingHookIn(false, A, X, Y);
 
         // FIXME int cast
 
@@ -462,6 +466,8 @@ public abstract class BaseLevel2 extends BaseLevel implements Level2 {
         }
 
         OpExecutionerUtil.checkForAny(A);
+
+        profilingHookOut("spr2", profilingStart, A);
     }
 
     /**
@@ -479,8 +485,7 @@ public abstract class BaseLevel2 extends BaseLevel implements Level2 {
      */
     @Override
     public void symv(char order, char Uplo, double alpha, INDArray A, INDArray X, double beta, INDArray Y) {
-        if (Nd4j.getExecutioner().getProfilingMode() == OpExecutioner.ProfilingMode.ALL)
-            OpProfiler.getInstance().processBlasCall(false, A, X, Y);
+        long profilingStart = profilingHookIn(false, A, X, Y);
 
         // FIXME: int cast
 
@@ -494,6 +499,8 @@ public abstract class BaseLevel2 extends BaseLevel implements Level2 {
         }
 
         OpExecutionerUtil.checkForAny(Y);
+
+        profilingHookOut("symv", profilingStart, Y);
     }
 
     /**
@@ -509,8 +516,7 @@ public abstract class BaseLevel2 extends BaseLevel implements Level2 {
      */
     @Override
     public void syr(char order, char Uplo, int N, double alpha, INDArray X, INDArray A) {
-        if (Nd4j.getExecutioner().getProfilingMode() == OpExecutioner.ProfilingMode.ALL)
-            OpProfiler.getInstance().processBlasCall(false, A, X);
+        long profilingStart = profilingHookIn(false, A, X);
 
         // FIXME: int cast
 
@@ -523,6 +529,8 @@ public abstract class BaseLevel2 extends BaseLevel implements Level2 {
         }
 
         OpExecutionerUtil.checkForAny(A);
+
+        profilingHookOut("syr", profilingStart, A);
     }
 
     /**
@@ -535,8 +543,7 @@ public abstract class BaseLevel2 extends BaseLevel implements Level2 {
      */
     @Override
     public void syr2(char order, char Uplo, double alpha, INDArray X, INDArray Y, INDArray A) {
-        if (Nd4j.getExecutioner().getProfilingMode() == OpExecutioner.ProfilingMode.ALL)
-            OpProfiler.getInstance().processBlasCall(false, A, X, Y);
+        long profilingStart = profilingHookIn(false, A, X, Y);
 
         // FIXME: int cast
 
@@ -549,6 +556,8 @@ public abstract class BaseLevel2 extends BaseLevel implements Level2 {
         }
 
         OpExecutionerUtil.checkForAny(A);
+
+        profilingHookOut("syr2", profilingStart, A);
     }
 
     /**
@@ -564,8 +573,7 @@ public abstract class BaseLevel2 extends BaseLevel implements Level2 {
      */
     @Override
     public void tbmv(char order, char Uplo, char TransA, char Diag, INDArray A, INDArray X) {
-        if (Nd4j.getExecutioner().getProfilingMode() == OpExecutioner.ProfilingMode.ALL)
-            OpProfiler.getInstance().processBlasCall(false, A, X);
+        long profilingStart = profilingHookIn(false, A, X);
 
         // FIXME: int cast
 
@@ -576,6 +584,8 @@ public abstract class BaseLevel2 extends BaseLevel implements Level2 {
             DefaultOpExecutioner.validateDataType(DataBuffer.Type.FLOAT, A, X);
             stbmv(order, Uplo, TransA, Diag, (int) X.length(), (int) A.columns(), A, (int) A.size(0), X, X.majorStride());
         }
+
+        profilingHookOut("tbmv", profilingStart, X);
     }
 
     /**
@@ -590,8 +600,7 @@ public abstract class BaseLevel2 extends BaseLevel implements Level2 {
      */
     @Override
     public void tbsv(char order, char Uplo, char TransA, char Diag, INDArray A, INDArray X) {
-        if (Nd4j.getExecutioner().getProfilingMode() == OpExecutioner.ProfilingMode.ALL)
-            OpProfiler.getInstance().processBlasCall(false, A, X);
+        long profilingStart = profilingHookIn(false, A, X);
 
         // FIXME: int cast
 
@@ -603,6 +612,7 @@ public abstract class BaseLevel2 extends BaseLevel implements Level2 {
             stbsv(order, Uplo, TransA, Diag, (int) X.length(), (int) A.columns(), A, (int) A.size(0), X, X.majorStride());
         }
 
+        profilingHookOut("tbsv", profilingStart, X);
     }
 
     /**
@@ -617,8 +627,7 @@ public abstract class BaseLevel2 extends BaseLevel implements Level2 {
      */
     @Override
     public void tpmv(char order, char Uplo, char TransA, char Diag, INDArray Ap, INDArray X) {
-        if (Nd4j.getExecutioner().getProfilingMode() == OpExecutioner.ProfilingMode.ALL)
-            OpProfiler.getInstance().processBlasCall(false, Ap, X);
+        long profilingStart = profilingHookIn(false, Ap, X);
 
         // FIXME: int cast
 
@@ -631,6 +640,8 @@ public abstract class BaseLevel2 extends BaseLevel implements Level2 {
         }
 
         OpExecutionerUtil.checkForAny(X);
+
+        profilingHookOut("tpmv", profilingStart, X);
     }
 
     /**
@@ -645,8 +656,7 @@ public abstract class BaseLevel2 extends BaseLevel implements Level2 {
      */
     @Override
     public void tpsv(char order, char Uplo, char TransA, char Diag, INDArray Ap, INDArray X) {
-        if (Nd4j.getExecutioner().getProfilingMode() == OpExecutioner.ProfilingMode.ALL)
-            OpProfiler.getInstance().processBlasCall(false, Ap, X);
+        long profilingStart = profilingHookIn(false, Ap, X);
 
         // FIXME: int cast
 
@@ -659,6 +669,8 @@ public abstract class BaseLevel2 extends BaseLevel implements Level2 {
         }
 
         OpExecutionerUtil.checkForAny(X);
+
+        profilingHookOut("tpsv", profilingStart, X);
     }
 
     /**
@@ -673,8 +685,7 @@ public abstract class BaseLevel2 extends BaseLevel implements Level2 {
      */
     @Override
     public void trmv(char order, char Uplo, char TransA, char Diag, INDArray A, INDArray X) {
-        if (Nd4j.getExecutioner().getProfilingMode() == OpExecutioner.ProfilingMode.ALL)
-            OpProfiler.getInstance().processBlasCall(false, A, X);
+        long profilingStart = profilingHookIn(false, A, X);
 
         // FIXME: int cast
 
@@ -687,6 +698,8 @@ public abstract class BaseLevel2 extends BaseLevel implements Level2 {
         }
 
         OpExecutionerUtil.checkForAny(X);
+
+        profilingHookOut("trmv", profilingStart, X);
     }
 
     /**
@@ -701,8 +714,7 @@ public abstract class BaseLevel2 extends BaseLevel implements Level2 {
      */
     @Override
     public void trsv(char order, char Uplo, char TransA, char Diag, INDArray A, INDArray X) {
-        if (Nd4j.getExecutioner().getProfilingMode() == OpExecutioner.ProfilingMode.ALL)
-            OpProfiler.getInstance().processBlasCall(false, A, X);
+        long profilingStart = profilingHookIn(false, A, X);
 
         // FIXME: int cast
 
@@ -715,6 +727,8 @@ public abstract class BaseLevel2 extends BaseLevel implements Level2 {
         }
 
         OpExecutionerUtil.checkForAny(X);
+
+        profilingHookOut("trsv", profilingStart, X);
     }
 
     /*
@@ -10,11 +10,9 @@ import org.nd4j.linalg.api.complex.IComplexNDArray;
 import org.nd4j.linalg.api.complex.IComplexNumber;
 import org.nd4j.linalg.api.ndarray.INDArray;
 import org.nd4j.linalg.api.ops.executioner.DefaultOpExecutioner;
-import org.nd4j.linalg.api.ops.executioner.OpExecutioner;
 import org.nd4j.linalg.api.ops.executioner.OpExecutionerUtil;
 import org.nd4j.linalg.factory.NDArrayFactory;
 import org.nd4j.linalg.factory.Nd4j;
-import org.nd4j.linalg.profiler.OpProfiler;
 
 /**
  * Base class for level 3 functions, abstract headers pulled from:
@@ -42,8 +40,7 @@ public abstract class BaseLevel3 extends BaseLevel implements Level3 {
     @Override
     public void gemm(char Order, char TransA, char TransB, double alpha, INDArray A, INDArray B, double beta,
                     INDArray C) {
-        if (Nd4j.getExecutioner().getProfilingMode() == OpExecutioner.ProfilingMode.ALL)
-            OpProfiler.getInstance().processBlasCall(true, A, B, C);
+        long profilingStart = profilingHookIn(true, A, B, C);
 
         GemmParams params = new GemmParams(A, B, C);
 
@@ -63,6 +60,8 @@ public abstract class BaseLevel3 extends BaseLevel implements Level3 {
         }
 
         OpExecutionerUtil.checkForAny(C);
+
+        profilingHookOut("gemm", profilingStart, C);
     }
 
     /**{@inheritDoc}
@@ -70,8 +69,7 @@ public abstract class BaseLevel3 extends BaseLevel implements Level3 {
     @Override
     public void gemm(INDArray A, INDArray B, INDArray C, boolean transposeA, boolean transposeB, double alpha,
                     double beta) {
-        if (Nd4j.getExecutioner().getProfilingMode() == OpExecutioner.ProfilingMode.ALL)
-            OpProfiler.getInstance().processBlasCall(true, A, B, C);
+        long profilingStart = profilingHookIn(true, A, B, C);
 
         GemmParams params = new GemmParams(A, B, C, transposeA, transposeB);
         if (A.data().dataType() == DataBuffer.Type.DOUBLE) {
@@ -92,6 +90,8 @@ public abstract class BaseLevel3 extends BaseLevel implements Level3 {
         }
 
         OpExecutionerUtil.checkForAny(C);
+
+        profilingHookOut("gemm", profilingStart, C);
     }
 
 
@@ -113,8 +113,7 @@ public abstract class BaseLevel3 extends BaseLevel implements Level3 {
      */
     @Override
     public void symm(char Order, char Side, char Uplo, double alpha, INDArray A, INDArray B, double beta, INDArray C) {
-        if (Nd4j.getExecutioner().getProfilingMode() == OpExecutioner.ProfilingMode.ALL)
-            OpProfiler.getInstance().processBlasCall(false, A, B, C);
+        long profilingStart = profilingHookIn(false, A, B, C);
 
         // FIXME: int cast
 
@@ -128,6 +127,8 @@ public abstract class BaseLevel3 extends BaseLevel implements Level3 {
         }
 
         OpExecutionerUtil.checkForAny(C);
+
+        profilingHookOut("symm", profilingStart, C);
     }
 
     /**
@@ -147,8 +148,7 @@ public abstract class BaseLevel3 extends BaseLevel implements Level3 {
      */
     @Override
     public void syrk(char Order, char Uplo, char Trans, double alpha, INDArray A, double beta, INDArray C) {
-        if (Nd4j.getExecutioner().getProfilingMode() == OpExecutioner.ProfilingMode.ALL)
-            OpProfiler.getInstance().processBlasCall(false, A, C);
+        long profilingStart = profilingHookIn(false, A, C);
 
         // FIXME: int cast
 
@@ -161,6 +161,8 @@ public abstract class BaseLevel3 extends BaseLevel implements Level3 {
         }
 
         OpExecutionerUtil.checkForAny(C);
+
+        profilingHookOut("syrk", profilingStart, C);
     }
 
     /**
@@ -182,8 +184,7 @@ public abstract class BaseLevel3 extends BaseLevel implements Level3 {
     @Override
     public void syr2k(char Order, char Uplo, char Trans, double alpha, INDArray A, INDArray B, double beta,
                     INDArray C) {
-        if (Nd4j.getExecutioner().getProfilingMode() == OpExecutioner.ProfilingMode.ALL)
-            OpProfiler.getInstance().processBlasCall(false, A, B, C);
+        long profilingStart = profilingHookIn(false, A, B, C);
 
         // FIXME: int cast
 
@@ -196,6 +197,8 @@ public abstract class BaseLevel3 extends BaseLevel implements Level3 {
         }
 
         OpExecutionerUtil.checkForAny(C);
+
+        profilingHookOut("syr2k", profilingStart, C);
     }
 
     /**
@@ -218,8 +221,7 @@ public abstract class BaseLevel3 extends BaseLevel implements Level3 {
     @Override
     public void trmm(char Order, char Side, char Uplo, char TransA, char Diag, double alpha, INDArray A, INDArray B,
                     INDArray C) {
-        if (Nd4j.getExecutioner().getProfilingMode() == OpExecutioner.ProfilingMode.ALL)
-            OpProfiler.getInstance().processBlasCall(false, A, B, C);
+        long profilingStart = profilingHookIn(false, A, B, C);
 
         // FIXME: int cast
 
@@ -232,6 +234,8 @@ public abstract class BaseLevel3 extends BaseLevel implements Level3 {
         }
 
         OpExecutionerUtil.checkForAny(C);
+
+        profilingHookOut("trmm", profilingStart, C);
     }
 
     /**
@@ -253,8 +257,7 @@ public abstract class BaseLevel3 extends BaseLevel implements Level3 {
      */
     @Override
     public void trsm(char Order, char Side, char Uplo, char TransA, char Diag, double alpha, INDArray A, INDArray B) {
-        if (Nd4j.getExecutioner().getProfilingMode() == OpExecutioner.ProfilingMode.ALL)
-            OpProfiler.getInstance().processBlasCall(false, A, B);
+        long profilingStart = profilingHookIn(false, A, B);
 
         // FIXME: int cast
 
@@ -267,6 +270,8 @@ public abstract class BaseLevel3 extends BaseLevel implements Level3 {
         }
 
         OpExecutionerUtil.checkForAny(B);
+
+        profilingHookOut("trsm", profilingStart, B);
     }
 
     /**
@@ -287,8 +292,7 @@ public abstract class BaseLevel3 extends BaseLevel implements Level3 {
     @Override
     public void gemm(char Order, char TransA, char TransB, IComplexNumber alpha, IComplexNDArray A, IComplexNDArray B,
                     IComplexNumber beta, IComplexNDArray C) {
-        if (Nd4j.getExecutioner().getProfilingMode() == OpExecutioner.ProfilingMode.ALL)
-            OpProfiler.getInstance().processBlasCall(true, A, B, C);
+        long profilingStart = profilingHookIn(true, A, B, C);
 
         GemmParams params = new GemmParams(A, B, C);
 
@@ -303,6 +307,7 @@ public abstract class BaseLevel3 extends BaseLevel implements Level3 {
                             B.ordering() == NDArrayFactory.C ? A : B, params.getLdb(), beta.asFloat(), C,
                             params.getLdc());
 
+        profilingHookOut("gemm", profilingStart, C);
     }
 
     /**
@@ -35,6 +35,7 @@ import org.nd4j.linalg.api.rng.Random;
 import org.nd4j.linalg.cache.TADManager;
 import org.nd4j.linalg.exception.ND4JIllegalStateException;
 import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.profiler.OpLatencyProfiler;
 import org.nd4j.linalg.profiler.OpProfiler;
 
 import java.util.ArrayList;
@@ -417,6 +418,8 @@ public class DefaultOpExecutioner implements OpExecutioner {
             case OPERATIONS:
                 OpProfiler.getInstance().processOpCall(op, tadBuffers);
                 break;
+            case LATENCY:
+                break;
             case DISABLED:
             default:
                 return 0L;
@@ -486,6 +489,8 @@ public class DefaultOpExecutioner implements OpExecutioner {
             case OPERATIONS:
                 OpProfiler.getInstance().processOpCall(op);
                 break;
+            case LATENCY:
+                break;
             case SCOPE_PANIC:
                 checkForWorkspaces(op);
                 return 0L;
@@ -507,6 +512,8 @@ public class DefaultOpExecutioner implements OpExecutioner {
             case OPERATIONS:
                 OpProfiler.getInstance().processOpCall(op);
                 break;
+            case LATENCY:
+                break;
             case SCOPE_PANIC:
                 checkForWorkspaces(op);
                 return 0L;
@@ -530,6 +537,9 @@ public class DefaultOpExecutioner implements OpExecutioner {
             case OPERATIONS:
                 OpProfiler.getInstance().timeOpCall(op, timeStart);
                 break;
+            case LATENCY:
+                OpLatencyProfiler.getInstance().timeOpCall(op, timeStart);
+                break;
             case NAN_PANIC:
                 OpExecutionerUtil.checkForNaN(op);
                 break;
@@ -559,6 +569,9 @@ public class DefaultOpExecutioner implements OpExecutioner {
             case OPERATIONS:
                 OpProfiler.getInstance().timeOpCall(op, timeStart);
                 break;
+            case LATENCY:
+                OpLatencyProfiler.getInstance().timeOpCall(op, timeStart);
+                break;
             case NAN_PANIC:
                 OpExecutionerUtil.checkForNaN(op);
                 break;
@@ -54,6 +54,11 @@ public interface OpExecutioner {
         ALL,
         SCOPE_PANIC,
         BANDWIDTH,
+        /**
+         * Low-overhead mode: per-op latency histograms and output bytes only.
+         * See {@link org.nd4j.linalg.profiler.OpLatencyProfiler}
+         */
+        LATENCY,
     }
 
     /**
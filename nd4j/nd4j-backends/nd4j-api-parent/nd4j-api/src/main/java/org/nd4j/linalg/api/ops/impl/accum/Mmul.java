@@ -95,6 +95,13 @@ public class Mmul extends DynamicCustomOp {
 
     public Mmul() {}
 
+    /**
+     * @return transpose configuration of this op (all false if not set)
+     */
+    public MMulTranspose getMMulTranspose() {
+        return mMulTranspose == null ? MMulTranspose.allFalse() : mMulTranspose;
+    }
+
 
     @Override
     public List<long[]> calculateOutputShape() {
@@ -107,6 +107,13 @@ public class RectifedLinear extends BaseTransformOp {
         return 33;
     }
 
+    /**
+     * @return the threshold below which output is 0
+     */
+    public double getCutoff() {
+        return cutoff;
+    }
+
     @Override
     public String opName() {
         return "relu";
@@ -6,7 +6,7 @@ package org.nd4j.linalg.compression;
  * @author Adam Gibson
  */
 public enum CompressionAlgorithm {
-    FLOAT8, FLOAT16, GZIP, INT8, INT16, NOOP, UNIT8, CUSTOM;
+    FLOAT8, FLOAT16, GZIP, INT8, INT16, NOOP, UNIT8, CUSTOM, LZ4, SHUFFLE_LZ4, SHUFFLE_DEFLATE;
 
     /**
      * Return the appropriate compression algorithm
@@ -37,6 +37,12 @@ public enum CompressionAlgorithm {
                 return UNIT8;
             case "CUSTOM":
                 return CUSTOM;
+            case "LZ4":
+                return LZ4;
+            case "SHUFFLE_LZ4":
+                return SHUFFLE_LZ4;
+            case "SHUFFLE_DEFLATE":
+                return SHUFFLE_DEFLATE;
             default:
                 throw new IllegalArgumentException("Wrong algorithm " + algorithm);
         }
@@ -78,6 +78,7 @@ public class CachingDataSetIterator implements DataSetIterator {
     public void reset() {
         sourceIterator.reset();
         currentIndex = 0;
+        usingCache = cache.isComplete(namespace);
     }
 
     @Override
@@ -113,15 +114,31 @@ public class CachingDataSetIterator implements DataSetIterator {
     @Override
     public boolean hasNext() {
         if (usingCache) {
-            return cache.contains(makeKey(currentIndex));
-        } else {
-            if (sourceIterator.hasNext()) {
+            if (cache.contains(makeKey(currentIndex))) {
                 return true;
-            } else {
-                usingCache = true;
-                cache.setComplete(namespace, true);
+            } else if (cache.isComplete(namespace)) {
                 return false;
             }
+            //DataSets were dropped from the cache: continue with the source iterator
+            switchToSource();
+        }
+
+        if (sourceIterator.hasNext()) {
+            return true;
+        } else {
+            cache.setComplete(namespace, true);
+            usingCache = cache.isComplete(namespace);
+            return false;
+        }
+    }
+
+    private void switchToSource() {
+        log.debug("Cache for namespace {} is incomplete, reading from source iterator at index {}", namespace,
+                        currentIndex);
+        usingCache = false;
+        sourceIterator.reset();
+        for (int i = 0; i < currentIndex && sourceIterator.hasNext(); i++) {
+            sourceIterator.next();
         }
     }
 
@@ -0,0 +1,354 @@
+package org.nd4j.linalg.dataset.api.iterator.cache;
+
+import org.nd4j.linalg.api.buffer.DataBuffer;
+import org.nd4j.linalg.api.memory.MemoryWorkspace;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.compression.CompressedDataBuffer;
+import org.nd4j.linalg.dataset.DataSet;
+import org.nd4j.linalg.factory.Nd4j;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.util.*;
+
+/**
+ * DataSet cache with a memory budget.<br>
+ * DataSets are kept in memory, optionally compressed with one of the {@link org.nd4j.linalg.compression.NDArrayCompressor}
+ * algorithms (for example "SHUFFLE_LZ4" or "GZIP" - see {@link Nd4j#getCompressor()}). Once the compressed size of all
+ * cached DataSets exceeds the specified number of bytes, the least recently used DataSets are evicted: they are moved
+ * to the spill directory if one was provided, or are dropped from the cache otherwise. DataSets that are read back
+ * from disk are moved into memory again.<br>
+ * A dropped DataSet can belong to any namespace, so none of the namespaces is complete anymore once a DataSet has been
+ * dropped, and namespaces can't be marked as complete until all dropped keys have been put again.<br>
+ * Hit, miss and eviction counts are available to tune the memory budget.
+ */
+public class CompressedLruDataSetCache implements DataSetCache {
+
+    private static final Logger log = LoggerFactory.getLogger(CompressedLruDataSetCache.class);
+
+    private final long maxBytes;
+    private final File spillDirectory;
+    private final String compressionAlgorithm;
+
+    private final LinkedHashMap<String, Entry> memory = new LinkedHashMap<>(16, 0.75f, true);
+    private final Set<String> onDisk = new HashSet<>();
+    private final Set<String> completeNamespaces = new HashSet<>();
+    private final Set<String> droppedKeys = new HashSet<>();
+    private long memoryBytes;
+
+    private long memoryHits;
+    private long diskHits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * Create a memory-only cache. Least recently used DataSets are dropped once the memory budget is exceeded
+     *
+     * @param maxBytes             Maximum number of bytes (after compression) of the cached DataSets
+     * @param compressionAlgorithm Compression algorithm to use for the arrays. May be null: no compression
+     */
+    public CompressedLruDataSetCache(long maxBytes, String compressionAlgorithm) {
+        this(maxBytes, compressionAlgorithm, null);
+    }
+
+    /**
+     * @param maxBytes             Maximum number of bytes (after compression) of the cached DataSets
+     * @param compressionAlgorithm Compression algorithm to use for the arrays. May be null: no compression
+     * @param spillDirectory       Directory to move least recently used DataSets to. May be null: DataSets are dropped
+     */
+    public CompressedLruDataSetCache(long maxBytes, String compressionAlgorithm, File spillDirectory) {
+        if (maxBytes <= 0)
+            throw new IllegalArgumentException("Maximum number of bytes must be > 0, got " + maxBytes);
+        if (spillDirectory != null && spillDirectory.exists() && !spillDirectory.isDirectory()) {
+            throw new IllegalArgumentException("can't use path " + spillDirectory + " as spill directory "
+                            + "because it already exists, but is not a directory");
+        }
+        if (compressionAlgorithm != null
+                        && !Nd4j.getCompressor().getAvailableCompressors().contains(compressionAlgorithm.toUpperCase())) {
+            throw new IllegalArgumentException("Unknown compression algorithm: " + compressionAlgorithm
+                            + ". Available: " + Nd4j.getCompressor().getAvailableCompressors());
+        }
+
+        this.maxBytes = maxBytes;
+        this.compressionAlgorithm = compressionAlgorithm == null ? null : compressionAlgorithm.toUpperCase();
+        this.spillDirectory = spillDirectory;
+    }
+
+    @Override
+    public synchronized boolean isComplete(String namespace) {
+        return completeNamespaces.contains(namespace);
+    }
+
+    @Override
+    public synchronized void setComplete(String namespace, boolean value) {
+        if (value) {
+            if (!droppedKeys.isEmpty()) {
+                log.debug("Not marking namespace {} as complete: {} DataSets were dropped from the cache", namespace,
+                                droppedKeys.size());
+                return;
+            }
+            completeNamespaces.add(namespace);
+        } else {
+            completeNamespaces.remove(namespace);
+        }
+    }
+
+    @Override
+    public synchronized DataSet get(String key) {
+        Entry entry = memory.get(key);
+        if (entry != null) {
+            memoryHits++;
+            return entry.toDataSet();
+        }
+
+        if (onDisk.contains(key)) {
+            diskHits++;
+            try {
+                entry = readEntry(spillFile(key));
+            } catch (IOException e) {
+                throw new RuntimeException("Error reading cached DataSet from " + spillFile(key), e);
+            }
+            //Spill file is kept: no need to write it again if the entry is evicted later
+            insert(key, entry);
+            return entry.toDataSet();
+        }
+
+        misses++;
+        return null;
+    }
+
+    @Override
+    public synchronized void put(String key, DataSet dataSet) {
+        remove(key);
+        insert(key, new Entry(dataSet, compressionAlgorithm));
+    }
+
+    @Override
+    public synchronized boolean contains(String key) {
+        return memory.containsKey(key) || onDisk.contains(key);
+    }
+
+    /**
+     * Remove the given key from the cache (memory and disk)
+     */
+    public synchronized void remove(String key) {
+        droppedKeys.remove(key);
+        Entry entry = memory.remove(key);
+        if (entry != null)
+            memoryBytes -= entry.bytes;
+        if (onDisk.remove(key)) {
+            File f = spillFile(key);
+            if (!f.delete())
+                log.warn("Could not delete cache file {}", f);
+        }
+    }
+
+    private void insert(String key, Entry entry) {
+        while (memoryBytes + entry.bytes > maxBytes && !memory.isEmpty()) {
+            Map.Entry<String, Entry> eldest = memory.entrySet().iterator().next();
+            memory.remove(eldest.getKey());
+            memoryBytes -= eldest.getValue().bytes;
+            evict(eldest.getKey(), eldest.getValue());
+        }
+
+        if (entry.bytes > maxBytes) {
+            //Doesn't fit even into an empty cache
+            evict(key, entry);
+            return;
+        }
+
+        memory.put(key, entry);
+        memoryBytes += entry.bytes;
+    }
+
+    private void evict(String key, Entry entry) {
+        evictions++;
+        if (spillDirectory == null) {
+            log.debug("Dropping key {} from DataSet cache: memory budget of {} bytes exceeded", key, maxBytes);
+            droppedKeys.add(key);
+            completeNamespaces.clear();
+            return;
+        }
+        if (onDisk.contains(key))
+            return;
+
+        if (!spillDirectory.exists() && !spillDirectory.mkdirs())
+            throw new IllegalStateException("ERROR: cannot create spill directory: " + spillDirectory);
+        File f = spillFile(key);
+        try (DataOutputStream dos = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(f)))) {
+            entry.write(dos);
+        } catch (IOException e) {
+            throw new RuntimeException("Error writing cached DataSet to " + f, e);
+        }
+        onDisk.add(key);
+    }
+
+    private File spillFile(String key) {
+        //Hash suffix: keys that only differ in replaced characters must not map to the same file
+        String filename = key.replaceAll("[^a-zA-Z0-9.-]", "_") + "_" + Integer.toHexString(key.hashCode()) + ".bin";
+        return new File(spillDirectory, filename);
+    }
+
+    private static Entry readEntry(File f) throws IOException {
+        try (DataInputStream dis = new DataInputStream(new BufferedInputStream(new FileInputStream(f)))) {
+            return Entry.read(dis);
+        }
+    }
+
+    /**
+     * @return Maximum number of bytes of the DataSets held in memory
+     */
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    /**
+     * @return Number of bytes (after compression) of the DataSets currently held in memory
+     */
+    public synchronized long getMemoryBytes() {
+        return memoryBytes;
+    }
+
+    /**
+     * @return Number of DataSets currently held in memory
+     */
+    public synchronized int getMemoryCount() {
+        return memory.size();
+    }
+
+    /**
+     * @return Number of DataSets currently only held on disk
+     */
+    public synchronized int getDiskCount() {
+        int count = 0;
+        for (String s : onDisk) {
+            if (!memory.containsKey(s))
+                count++;
+        }
+        return count;
+    }
+
+    /**
+     * @return Number of calls to {@link #get(String)} served from memory
+     */
+    public synchronized long getMemoryHits() {
+        return memoryHits;
+    }
+
+    /**
+     * @return Number of calls to {@link #get(String)} served from the spill directory
+     */
+    public synchronized long getDiskHits() {
+        return diskHits;
+    }
+
+    /**
+     * @return Number of calls to {@link #get(String)} for keys that were not in the cache
+     */
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    /**
+     * @return Number of DataSets that have been evicted from memory
+     */
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * Reset the hit, miss and eviction counts
+     */
+    public synchronized void resetStats() {
+        memoryHits = 0;
+        diskHits = 0;
+        misses = 0;
+        evictions = 0;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "CompressedLruDataSetCache(compression=" + compressionAlgorithm + ", memoryBytes=" + memoryBytes
+                        + "/" + maxBytes + ", memoryHits=" + memoryHits + ", diskHits=" + diskHits + ", misses="
+                        + misses + ", evictions=" + evictions + ")";
+    }
+
+    /**
+     * Cached DataSet: features, labels, features mask and labels mask (possibly compressed, possibly null)
+     */
+    private static class Entry {
+        private final INDArray[] arrays;
+        private final long bytes;
+
+        private Entry(INDArray[] arrays) {
+            this.arrays = arrays;
+            long sum = 0;
+            for (INDArray arr : arrays) {
+                if (arr == null)
+                    continue;
+                if (arr.data().dataType() == DataBuffer.Type.COMPRESSED) {
+                    sum += ((CompressedDataBuffer) arr.data()).getCompressionDescriptor().getCompressedLength();
+                } else {
+                    sum += arr.length() * arr.data().getElementSize();
+                }
+            }
+            this.bytes = sum;
+        }
+
+        private Entry(DataSet ds, String compressionAlgorithm) {
+            this(store(new INDArray[] {ds.getFeatures(), ds.getLabels(), ds.getFeaturesMaskArray(),
+                            ds.getLabelsMaskArray()}, compressionAlgorithm));
+        }
+
+        private static INDArray[] store(INDArray[] arrays, String compressionAlgorithm) {
+            INDArray[] out = new INDArray[arrays.length];
+            //Cached arrays must not be attached to any workspace
+            try (MemoryWorkspace ws = Nd4j.getMemoryManager().scopeOutOfWorkspaces()) {
+                for (int i = 0; i < arrays.length; i++) {
+                    if (arrays[i] == null)
+                        continue;
+                    if (compressionAlgorithm == null) {
+                        out[i] = arrays[i].dup(arrays[i].ordering());
+                    } else {
+                        out[i] = Nd4j.getCompressor().compress(arrays[i], compressionAlgorithm);
+                    }
+                }
+            }
+            return out;
+        }
+
+        private DataSet toDataSet() {
+            INDArray[] out = new INDArray[arrays.length];
+            for (int i = 0; i < arrays.length; i++) {
+                if (arrays[i] == null)
+                    continue;
+                if (arrays[i].data().dataType() == DataBuffer.Type.COMPRESSED) {
+                    out[i] = Nd4j.getCompressor().decompress(arrays[i]);
+                } else {
+                    out[i] = arrays[i].dup(arrays[i].ordering());
+                }
+            }
+            return new DataSet(out[0], out[1], out[2], out[3]);
+        }
+
+        private void write(DataOutputStream dos) throws IOException {
+            for (INDArray arr : arrays) {
+                dos.writeBoolean(arr != null);
+                if (arr != null)
+                    Nd4j.write(arr, dos);
+            }
+        }
+
+        private static Entry read(DataInputStream dis) throws IOException {
+            INDArray[] arrays = new INDArray[4];
+            try (MemoryWorkspace ws = Nd4j.getMemoryManager().scopeOutOfWorkspaces()) {
+                for (int i = 0; i < arrays.length; i++) {
+                    if (dis.readBoolean())
+                        arrays[i] = Nd4j.read(dis);
+                }
+            }
+            return new Entry(arrays);
+        }
+    }
+}
@@ -88,6 +88,7 @@ import org.nd4j.linalg.ops.transforms.Transforms;
 import org.nd4j.linalg.primitives.Pair;
 import org.nd4j.linalg.string.NDArrayStrings;
 import org.nd4j.linalg.util.ArrayUtil;
+import org.nd4j.serde.binary.NumpySerde;
 import org.nd4j.tools.PropertyParser;
 import org.nd4j.versioncheck.VersionCheck;
 
@@ -96,6 +97,7 @@ import java.lang.ref.ReferenceQueue;
 import java.lang.reflect.Constructor;
 import java.math.BigDecimal;
 import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
 import java.text.DecimalFormat;
 import java.text.NumberFormat;
 import java.text.ParseException;
@@ -7338,6 +7340,64 @@ public class Nd4j {
         return createFromNpyPointer(pointer);
     }
 
+    /**
+     * Write an array to a file in NumPy .npy format, readable with numpy.load
+     *
+     * @param arr  the array to write
+     * @param file the file to write to
+     * @throws IOException
+     */
+    public static void writeAsNumpy(INDArray arr, File file) throws IOException {
+        NumpySerde.write(arr, file);
+    }
+
+    /**
+     * Write an array to an output stream in NumPy .npy format. The stream is not closed.
+     *
+     * @param arr the array to write
+     * @param os  the output stream to write to
+     * @throws IOException
+     */
+    public static void writeAsNumpy(INDArray arr, OutputStream os) throws IOException {
+        NumpySerde.write(arr, Channels.newChannel(os));
+    }
+
+    /**
+     * Open a NumPy .npy file as a memory mapped array, without reading it: pages are only read when used.
+     * The array has the ordering of the file, and must be treated as read-only.
+     * See {@link NumpySerde#map(File)} for details and limitations.
+     *
+     * @param file the file to map
+     * @return the memory mapped array
+     * @throws IOException
+     */
+    public static INDArray createFromNpyFileMapped(File file) throws IOException {
+        return NumpySerde.map(file);
+    }
+
+    /**
+     * Read all arrays of a NumPy .npz archive (as written by numpy.savez or numpy.savez_compressed)
+     *
+     * @param file the file to read from
+     * @return the arrays, by name
+     * @throws IOException
+     */
+    public static Map<String, INDArray> createFromNpzFile(File file) throws IOException {
+        return NumpySerde.readNpz(file);
+    }
+
+    /**
+     * Write arrays to a NumPy .npz archive, readable with numpy.load
+     *
+     * @param arrays   the arrays to write, by name
+     * @param file     the file to write to
+     * @param compress whether to compress the entries (as numpy.savez_compressed)
+     * @throws IOException
+     */
+    public static void writeAsNpz(Map<String, INDArray> arrays, File file, boolean compress) throws IOException {
+        NumpySerde.writeNpz(arrays, file, compress);
+    }
+
 
 
 
@@ -0,0 +1,45 @@
+package org.nd4j.linalg.profiler;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@link OpMetricsSink} that logs the statistics of the most expensive ops
+ */
+@Slf4j
+public class LoggingOpMetricsSink implements OpMetricsSink {
+    private final int maxOps;
+
+    public LoggingOpMetricsSink() {
+        this(20);
+    }
+
+    /**
+     * @param maxOps Maximum number of ops to log
+     */
+    public LoggingOpMetricsSink(int maxOps) {
+        this.maxOps = maxOps;
+    }
+
+    @Override
+    public void publish(List<OpLatencyProfiler.OpStats> opStats, Map<String, Long> workspaceBytes) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%-40s %-14s %10s %12s %10s %10s %10s %10s %14s%n", "Op", "Class", "Calls",
+                        "Total (ms)", "Mean (us)", "p50 (us)", "p99 (us)", "Max (us)", "Output bytes"));
+        int count = 0;
+        for (OpLatencyProfiler.OpStats s : opStats) {
+            if (count++ >= maxOps)
+                break;
+            sb.append(String.format("%-40s %-14s %10d %12.2f %10.1f %10.1f %10.1f %10.1f %14d%n", s.getOpName(),
+                            s.getOpClass(), s.getCount(), s.getTotalNanos() / 1e6, s.getMeanNanos() / 1e3,
+                            s.getP50Nanos() / 1e3, s.getP99Nanos() / 1e3, s.getMaxNanos() / 1e3,
+                            s.getOutputBytes()));
+        }
+        for (Map.Entry<String, Long> e : workspaceBytes.entrySet()) {
+            sb.append(String.format("Workspace %-30s %14d bytes%n", e.getKey(), e.getValue()));
+        }
+        log.info("Op latency statistics:\n{}", sb.toString());
+    }
+}
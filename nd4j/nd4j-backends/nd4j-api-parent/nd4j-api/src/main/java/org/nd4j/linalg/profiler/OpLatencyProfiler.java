@@ -0,0 +1,266 @@
+package org.nd4j.linalg.profiler;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.api.ops.CustomOp;
+import org.nd4j.linalg.api.ops.Op;
+import org.nd4j.linalg.profiler.data.LatencyHistogram;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Low-overhead op profiler, used with {@link org.nd4j.linalg.api.ops.executioner.OpExecutioner.ProfilingMode#LATENCY}.<br>
+ * Unlike {@link OpProfiler}, no stack traces or operand layouts are collected: for every op call only the
+ * duration is recorded into a per-op {@link LatencyHistogram}, together with the number of bytes of the op outputs
+ * (per op and per workspace). This is cheap enough to be left enabled in production, to find ops that regress
+ * between releases.<br>
+ * Statistics can be retrieved with {@link #getStats()}, or pushed periodically to one or more {@link OpMetricsSink}s.
+ * Unlike OpProfiler, this class is thread-safe.
+ */
+@Slf4j
+public class OpLatencyProfiler {
+    public static final String DETACHED = "DETACHED";
+
+    private static final OpLatencyProfiler INSTANCE = new OpLatencyProfiler();
+
+    private final ConcurrentHashMap<String, OpRecord> records = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, AtomicLong> workspaceBytes = new ConcurrentHashMap<>();
+    private final List<OpMetricsSink> sinks = new CopyOnWriteArrayList<>();
+    private ScheduledExecutorService publisher;
+
+    /**
+     * Statistics for a single op
+     */
+    @Data
+    @AllArgsConstructor
+    public static class OpStats {
+        private String opName;
+        private String opClass;
+        private long count;
+        private long totalNanos;
+        private double meanNanos;
+        private long p50Nanos;
+        private long p90Nanos;
+        private long p99Nanos;
+        private long maxNanos;
+        private long outputBytes;
+    }
+
+    private static class OpRecord {
+        private final String opClass;
+        private final LatencyHistogram histogram = new LatencyHistogram();
+        private final AtomicLong outputBytes = new AtomicLong();
+
+        private OpRecord(String opClass) {
+            this.opClass = opClass;
+        }
+    }
+
+    private OpLatencyProfiler() {
+
+    }
+
+    public static OpLatencyProfiler getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Record the execution of the given op, started at the given time (as per {@link System#nanoTime()})
+     */
+    public void timeOpCall(Op op, long startTime) {
+        long duration = System.nanoTime() - startTime;
+        OpRecord record = record(op.opName(), OpProfiler.getInstance().getOpClass(op));
+        record.histogram.record(duration);
+        recordOutput(record, op.z());
+    }
+
+    /**
+     * Record the execution of the given custom op, started at the given time (as per {@link System#nanoTime()})
+     */
+    public void timeOpCall(CustomOp op, long startTime) {
+        long duration = System.nanoTime() - startTime;
+        OpRecord record = record(op.opName(), OpProfiler.getInstance().getOpClass(op));
+        record.histogram.record(duration);
+        INDArray[] outputs = op.outputArguments();
+        if (outputs != null) {
+            for (INDArray output : outputs)
+                recordOutput(record, output);
+        }
+    }
+
+    /**
+     * Record the execution of the given BLAS call (gemm, gemv, etc), started at the given time
+     * (as per {@link System#nanoTime()})
+     *
+     * @param blasOpName Name of the BLAS call
+     * @param startTime  Start time of the call
+     * @param output     Array written by the call, or null if the call returns a scalar
+     */
+    public void timeBlasCall(String blasOpName, long startTime, INDArray output) {
+        long duration = System.nanoTime() - startTime;
+        OpRecord record = record(blasOpName, "BLAS");
+        record.histogram.record(duration);
+        recordOutput(record, output);
+    }
+
+    /**
+     * Record a single call of an op (or any other named operation) directly
+     *
+     * @param opName        Name of the op
+     * @param opClass       Class (type) of the op
+     * @param durationNanos Duration of the call
+     * @param outputBytes   Number of bytes of the call outputs
+     */
+    public void record(String opName, String opClass, long durationNanos, long outputBytes) {
+        OpRecord record = record(opName, opClass);
+        record.histogram.record(durationNanos);
+        record.outputBytes.addAndGet(outputBytes);
+    }
+
+    private OpRecord record(String opName, String opClass) {
+        OpRecord record = records.get(opName);
+        if (record == null) {
+            OpRecord newRecord = new OpRecord(opClass);
+            record = records.putIfAbsent(opName, newRecord);
+            if (record == null)
+                record = newRecord;
+        }
+        return record;
+    }
+
+    private void recordOutput(OpRecord record, INDArray output) {
+        if (output == null || output.data() == null)
+            return;
+        long bytes = output.length() * output.data().getElementSize();
+        record.outputBytes.addAndGet(bytes);
+
+        String workspace = output.isAttached() ? output.data().getParentWorkspace().getId() : DETACHED;
+        AtomicLong counter = workspaceBytes.get(workspace);
+        if (counter == null) {
+            AtomicLong newCounter = new AtomicLong();
+            counter = workspaceBytes.putIfAbsent(workspace, newCounter);
+            if (counter == null)
+                counter = newCounter;
+        }
+        counter.addAndGet(bytes);
+    }
+
+    /**
+     * @return Latency histogram (in nanoseconds) for the given op, or null if the op hasn't been recorded
+     */
+    public LatencyHistogram getHistogram(String opName) {
+        OpRecord record = records.get(opName);
+        return record == null ? null : record.histogram;
+    }
+
+    /**
+     * @return Statistics for all recorded ops, sorted by total time (descending)
+     */
+    public List<OpStats> getStats() {
+        List<OpStats> out = new ArrayList<>(records.size());
+        for (Map.Entry<String, OpRecord> e : records.entrySet()) {
+            LatencyHistogram h = e.getValue().histogram;
+            if (h.getCount() == 0)
+                continue;
+            out.add(new OpStats(e.getKey(), e.getValue().opClass, h.getCount(), h.getTotal(), h.getMean(),
+                            h.getPercentile(50), h.getPercentile(90), h.getPercentile(99), h.getMax(),
+                            e.getValue().outputBytes.get()));
+        }
+        Collections.sort(out, new Comparator<OpStats>() {
+            @Override
+            public int compare(OpStats o1, OpStats o2) {
+                return Long.compare(o2.getTotalNanos(), o1.getTotalNanos());
+            }
+        });
+        return out;
+    }
+
+    /**
+     * @return Number of bytes of op outputs per workspace id. Outputs not in any workspace are reported as
+     * {@link #DETACHED}
+     */
+    public Map<String, Long> getWorkspaceBytes() {
+        Map<String, Long> out = new TreeMap<>();
+        for (Map.Entry<String, AtomicLong> e : workspaceBytes.entrySet())
+            out.put(e.getKey(), e.getValue().get());
+        return out;
+    }
+
+    public void addSink(OpMetricsSink sink) {
+        sinks.add(sink);
+    }
+
+    public void removeSink(OpMetricsSink sink) {
+        sinks.remove(sink);
+    }
+
+    /**
+     * Publish the current statistics to all sinks
+     */
+    public void publish() {
+        if (sinks.isEmpty())
+            return;
+        List<OpStats> stats = getStats();
+        Map<String, Long> ws = getWorkspaceBytes();
+        for (OpMetricsSink sink : sinks) {
+            try {
+                sink.publish(stats, ws);
+            } catch (Exception e) {
+                log.warn("Error publishing op statistics to sink {}", sink, e);
+            }
+        }
+    }
+
+    /**
+     * Publish the statistics to all sinks periodically, from a background thread
+     *
+     * @param period Period between publications
+     * @param unit   Unit of the period
+     */
+    public synchronized void startPublishing(long period, TimeUnit unit) {
+        stopPublishing();
+        publisher = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread t = new Thread(r, "OpLatencyProfiler-publisher");
+                t.setDaemon(true);
+                return t;
+            }
+        });
+        publisher.scheduleAtFixedRate(new Runnable() {
+            @Override
+            public void run() {
+                publish();
+            }
+        }, period, period, unit);
+    }
+
+    /**
+     * Stop periodic publication started with {@link #startPublishing(long, TimeUnit)}
+     */
+    public synchronized void stopPublishing() {
+        if (publisher != null) {
+            publisher.shutdownNow();
+            publisher = null;
+        }
+    }
+
+    /**
+     * This method prints out the statistics of the most expensive ops
+     */
+    public void printOutDashboard() {
+        new LoggingOpMetricsSink().publish(getStats(), getWorkspaceBytes());
+    }
+
+    /**
+     * This method resets all histograms and counters. Sinks are retained
+     */
+    public void reset() {
+        records.clear();
+        workspaceBytes.clear();
+    }
+}
@@ -0,0 +1,19 @@
+package org.nd4j.linalg.profiler;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Destination for the statistics gathered by {@link OpLatencyProfiler}, for example a metrics registry,
+ * a monitoring system or a log. See {@link OpLatencyProfiler#addSink(OpMetricsSink)}.
+ */
+public interface OpMetricsSink {
+
+    /**
+     * Publish the current statistics
+     *
+     * @param opStats         Per-op statistics, sorted by total time (descending)
+     * @param workspaceBytes  Number of bytes of op outputs, per workspace
+     */
+    void publish(List<OpLatencyProfiler.OpStats> opStats, Map<String, Long> workspaceBytes);
+}
@@ -0,0 +1,130 @@
+package org.nd4j.linalg.profiler.data;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free latency histogram with log-linear buckets (similar to HdrHistogram):
+ * every power of 2 is split into 16 linear sub-buckets, so recorded values are accurate to within ~6%,
+ * over the full range of long values, with a fixed memory footprint of less than 8kB.<br>
+ * Recording a value is a handful of atomic increments, so histograms can be updated on every op call.
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int NUM_BUCKETS = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(NUM_BUCKETS);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong total = new AtomicLong();
+    private final AtomicLong min = new AtomicLong(Long.MAX_VALUE);
+    private final AtomicLong max = new AtomicLong(0);
+
+    /**
+     * Record a single value. Negative values are recorded as 0
+     */
+    public void record(long value) {
+        if (value < 0)
+            value = 0;
+        counts.incrementAndGet(bucketIndex(value));
+        count.incrementAndGet();
+        total.addAndGet(value);
+
+        long current;
+        while (value < (current = min.get()) && !min.compareAndSet(current, value));
+        while (value > (current = max.get()) && !max.compareAndSet(current, value));
+    }
+
+    /**
+     * @return Number of recorded values
+     */
+    public long getCount() {
+        return count.get();
+    }
+
+    /**
+     * @return Sum of all recorded values
+     */
+    public long getTotal() {
+        return total.get();
+    }
+
+    /**
+     * @return Minimum recorded value, or 0 if no values have been recorded
+     */
+    public long getMin() {
+        long m = min.get();
+        return m == Long.MAX_VALUE ? 0 : m;
+    }
+
+    /**
+     * @return Maximum recorded value
+     */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * @return Mean of the recorded values, or 0 if no values have been recorded
+     */
+    public double getMean() {
+        long c = count.get();
+        return c == 0 ? 0.0 : total.get() / (double) c;
+    }
+
+    /**
+     * Get the (approximate) value at the given percentile. The returned value is the upper bound of the bucket the
+     * percentile falls in, so it is never lower than the exact percentile
+     *
+     * @param percentile Percentile, between 0 and 100
+     * @return Value at the given percentile, or 0 if no values have been recorded
+     */
+    public long getPercentile(double percentile) {
+        if (percentile < 0 || percentile > 100)
+            throw new IllegalArgumentException("Percentile must be between 0 and 100, got " + percentile);
+
+        long c = count.get();
+        if (c == 0)
+            return 0;
+        long target = Math.max(1, (long) Math.ceil(percentile / 100.0 * c));
+        long seen = 0;
+        for (int i = 0; i < NUM_BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= target)
+                return Math.min(bucketUpperBound(i), getMax());
+        }
+        return getMax();
+    }
+
+    /**
+     * Reset the histogram. Values recorded concurrently with the reset may or may not be retained
+     */
+    public void reset() {
+        for (int i = 0; i < NUM_BUCKETS; i++)
+            counts.set(i, 0);
+        count.set(0);
+        total.set(0);
+        min.set(Long.MAX_VALUE);
+        max.set(0);
+    }
+
+    protected static int bucketIndex(long value) {
+        if (value < SUB_BUCKETS)
+            return (int) value;
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    protected static long bucketLowerBound(int index) {
+        if (index < SUB_BUCKETS)
+            return index;
+        int exponent = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        long subBucket = index % SUB_BUCKETS;
+        return (SUB_BUCKETS + subBucket) << (exponent - SUB_BUCKET_BITS);
+    }
+
+    protected static long bucketUpperBound(int index) {
+        return index == NUM_BUCKETS - 1 ? Long.MAX_VALUE : bucketLowerBound(index + 1) - 1;
+    }
+}
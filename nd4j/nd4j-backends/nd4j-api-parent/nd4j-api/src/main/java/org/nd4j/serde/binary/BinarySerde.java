@@ -3,6 +3,7 @@ package org.nd4j.serde.binary;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
 import org.bytedeco.javacpp.BytePointer;
+import org.bytedeco.javacpp.Pointer;
 import org.nd4j.linalg.api.buffer.DataBuffer;
 import org.nd4j.linalg.api.concurrency.AffinityManager;
 import org.nd4j.linalg.api.ndarray.INDArray;
@@ -17,13 +18,19 @@ import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.nio.channels.Channels;
 import java.nio.channels.FileChannel;
+import java.nio.channels.GatheringByteChannel;
+import java.nio.channels.ReadableByteChannel;
 import java.nio.channels.WritableByteChannel;
+import java.util.Arrays;
 
 /**
  * Created by agibsonccc on 7/1/17.
  */
 @Slf4j
 public class BinarySerde {
+    //Rank and data type
+    private static final int HEADER_LENGTH = 8;
+    private static final int CHUNK_BYTES = 1 << 24;
 
 
     /**
@@ -241,9 +248,8 @@ public class BinarySerde {
      * @param outputStream the output stream to write to
      */
     public static void writeArrayToOutputStream(INDArray arr, OutputStream outputStream) {
-        ByteBuffer buffer = BinarySerde.toByteBuffer(arr);
         try (WritableByteChannel channel = Channels.newChannel(outputStream)) {
-            channel.write(buffer);
+            writeArrayToChannel(arr, channel);
         } catch (IOException e) {
             e.printStackTrace();
         }
@@ -259,9 +265,306 @@ public class BinarySerde {
      */
     public static void writeArrayToDisk(INDArray arr, File toWrite) throws IOException {
         try (FileOutputStream os = new FileOutputStream(toWrite)) {
-            FileChannel channel = os.getChannel();
-            ByteBuffer buffer = BinarySerde.toByteBuffer(arr);
-            channel.write(buffer);
+            writeArrayToChannel(arr, os.getChannel());
+        }
+    }
+
+
+    /**
+     * Write an array to a channel, in the same format as {@link #toByteBuffer(INDArray)}, without creating
+     * an intermediate copy of the array.<br>
+     * The header (rank, data type and shape information) and the data are written directly from the
+     * off-heap memory of the array, in chunks of at most 16MB. If the channel is a {@link GatheringByteChannel}
+     * (i.e., {@link FileChannel} or socket channels) header and data are written with a single gathering write.
+     * Views are written without being duplicated: contiguous views are written directly, and strided views are
+     * gathered through a reusable buffer of at most 16MB.<br>
+     * Note that compressed arrays are written via {@link #toByteBuffer(INDArray)}
+     *
+     * @param arr     the array to write
+     * @param channel the channel to write to. Not closed by this method
+     * @return the number of bytes written
+     * @throws IOException
+     */
+    public static long writeArrayToChannel(INDArray arr, WritableByteChannel channel) throws IOException {
+        if (arr.isCompressed()) {
+            ByteBuffer buffer = toByteBuffer(arr);
+            long length = buffer.remaining();
+            writeFully(channel, buffer);
+            return length;
+        }
+
+        //Views are written as if they were duplicated in their own ordering
+        DataBuffer shapeInfo = arr.isView()
+                ? Nd4j.getShapeInfoProvider().createShapeInformation(arr.shape(), arr.ordering()).getFirst()
+                : arr.shapeInfoDataBuffer();
+        ByteBuffer shapeBuffer = shapeInfo.pointer().asByteBuffer().order(ByteOrder.nativeOrder());
+        ByteBuffer header = ByteBuffer.allocateDirect(HEADER_LENGTH + shapeBuffer.limit())
+                .order(ByteOrder.nativeOrder());
+        header.putInt(arr.rank());
+        header.putInt(arr.data().dataType().ordinal());
+        header.put(shapeBuffer);
+        header.flip();
+        long length = header.remaining();
+
+        writeData(arr, arr.ordering(), header, channel);
+        return length + arr.length() * arr.data().getElementSize();
+    }
+
+    /**
+     * Write the given header, followed by the raw data of the array (in native byte order) in the given order.
+     * The header is written with the first data chunk, using a gathering write if supported by the channel.
+     */
+    static void writeData(INDArray arr, char order, final ByteBuffer header, final WritableByteChannel channel)
+                    throws IOException {
+        // ensure we send data to host memory
+        Nd4j.getExecutioner().commit();
+        Nd4j.getAffinityManager().ensureLocation(arr, AffinityManager.Location.HOST);
+
+        final int elementSize = arr.data().getElementSize();
+        final ByteBuffer staging = arr.elementWiseStride() == 1 && arr.ordering() == order ? null
+                : ByteBuffer.allocateDirect((int) Math.min(CHUNK_BYTES, arr.length() * elementSize))
+                        .order(ByteOrder.nativeOrder());
+        visitSegments(arr, order, new SegmentVisitor() {
+            @Override
+            public void visit(ByteBuffer segment, int numElements, long elementStride) throws IOException {
+                if (elementStride == 1) {
+                    if (staging != null && staging.position() > 0)
+                        flush(channel, header, staging);
+                    writeFully(channel, header, segment);
+                    return;
+                }
+                if (staging.remaining() < numElements * elementSize)
+                    flush(channel, header, staging);
+                int strideBytes = (int) elementStride * elementSize;
+                for (int i = 0; i < numElements; i++) {
+                    copyElement(segment, i * strideBytes, staging, staging.position(), elementSize);
+                    staging.position(staging.position() + elementSize);
+                }
+            }
+        });
+        if (staging != null && staging.position() > 0)
+            flush(channel, header, staging);
+        //Header only, for empty arrays
+        writeFully(channel, header);
+    }
+
+    /**
+     * Read an array written by {@link #writeArrayToChannel(INDArray, WritableByteChannel)} (or in the format of
+     * {@link #toByteBuffer(INDArray)}) from a channel.<br>
+     * The array is allocated with {@link Nd4j#createUninitialized(long[], char)} (hence in the current workspace,
+     * if any) and the data is read directly into its off-heap memory, without intermediate copies.
+     * Arrays of a data type other than the current ND4J data type are converted.
+     *
+     * @param channel the channel to read from. Not closed by this method
+     * @return the array
+     * @throws IOException
+     */
+    public static INDArray readArrayFromChannel(ReadableByteChannel channel) throws IOException {
+        Pair<DataBuffer.Type, DataBuffer> header = readHeader(channel);
+        INDArray ret = Nd4j.createUninitialized(Shape.shape(header.getSecond()), Shape.order(header.getSecond()));
+        readData(channel, header.getFirst(), Shape.order(header.getSecond()), ret);
+        return ret;
+    }
+
+    /**
+     * Read an array written by {@link #writeArrayToChannel(INDArray, WritableByteChannel)} (or in the format of
+     * {@link #toByteBuffer(INDArray)}) from a channel, into an existing array.<br>
+     * If the target array is contiguous, has the same ordering as the serialized array and has the same data
+     * type, the data is read directly into its off-heap memory. Views are filled without intermediate copies of
+     * the whole array.
+     *
+     * @param channel the channel to read from. Not closed by this method
+     * @param target  the array to read into. Must have the same shape as the serialized array
+     * @return the target array
+     * @throws IOException
+     */
+    public static INDArray readArrayFromChannel(ReadableByteChannel channel, INDArray target) throws IOException {
+        Pair<DataBuffer.Type, DataBuffer> header = readHeader(channel);
+        long[] shape = Shape.shape(header.getSecond());
+        if (!Arrays.equals(shape, target.shape()))
+            throw new IllegalArgumentException("Unable to read array: target array has shape "
+                    + Arrays.toString(target.shape()) + ", serialized array has shape " + Arrays.toString(shape));
+        readData(channel, header.getFirst(), Shape.order(header.getSecond()), target);
+        return target;
+    }
+
+    private static Pair<DataBuffer.Type, DataBuffer> readHeader(ReadableByteChannel channel) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_LENGTH).order(ByteOrder.nativeOrder());
+        readFully(channel, header);
+        header.flip();
+        int rank = header.getInt();
+        if (rank < 0)
+            throw new IllegalStateException("Found negative integer. Corrupt serialization?");
+        DataBuffer.Type type = DataBuffer.Type.values()[header.getInt()];
+        if (type == DataBuffer.Type.COMPRESSED)
+            throw new IllegalStateException("Unable to read compressed array from channel: use toArray(ByteBuffer)");
+
+        ByteBuffer shapeBuffer = ByteBuffer.allocate(Shape.shapeInfoLength(rank) * 8).order(ByteOrder.nativeOrder());
+        readFully(channel, shapeBuffer);
+        shapeBuffer.flip();
+        long[] shapeInfo = new long[Shape.shapeInfoLength(rank)];
+        shapeBuffer.asLongBuffer().get(shapeInfo);
+        return Pair.of(type, Nd4j.getDataBufferFactory().createLong(shapeInfo));
+    }
+
+    /**
+     * Read the raw data (in native byte order) of an array of the given type and order into the target array,
+     * converting the data type if required
+     */
+    static void readData(final ReadableByteChannel channel, DataBuffer.Type type, char order,
+                    INDArray target) throws IOException {
+        if (target.length() == 0)
+            return;
+        Nd4j.getExecutioner().commit();
+
+        if (type != target.data().dataType()) {
+            //Different data type: read the serialized data, and convert
+            ByteBuffer bb = ByteBuffer.allocateDirect((int) (target.length() * Nd4j.sizeOfDataType(type)))
+                    .order(ByteOrder.nativeOrder());
+            readFully(channel, bb);
+            bb.flip();
+            DataBuffer data = Nd4j.createBuffer(bb, type, (int) target.length());
+            INDArray converted = target.data().dataType() == DataBuffer.Type.DOUBLE
+                    ? Nd4j.create(data.asDouble(), target.shape(), order)
+                    : Nd4j.create(data.asFloat(), target.shape(), order);
+            target.assign(converted);
+            return;
+        }
+
+        Nd4j.getAffinityManager().ensureLocation(target, AffinityManager.Location.HOST);
+        final int elementSize = target.data().getElementSize();
+        final ByteBuffer staging = target.elementWiseStride() == 1 && target.ordering() == order ? null
+                : ByteBuffer.allocateDirect((int) Math.min(CHUNK_BYTES, target.length() * elementSize))
+                        .order(ByteOrder.nativeOrder());
+        visitSegments(target, order, new SegmentVisitor() {
+            @Override
+            public void visit(ByteBuffer segment, int numElements, long elementStride) throws IOException {
+                if (elementStride == 1) {
+                    readFully(channel, segment);
+                    return;
+                }
+                staging.clear();
+                staging.limit(numElements * elementSize);
+                readFully(channel, staging);
+                int strideBytes = (int) elementStride * elementSize;
+                for (int i = 0; i < numElements; i++) {
+                    copyElement(staging, i * elementSize, segment, i * strideBytes, elementSize);
+                }
+            }
+        });
+        Nd4j.getAffinityManager().tagLocation(target, AffinityManager.Location.HOST);
+    }
+
+    private interface SegmentVisitor {
+        void visit(ByteBuffer segment, int numElements, long elementStride) throws IOException;
+    }
+
+    /**
+     * Visit the memory of the array in the given order, as byte views of (at most {@link #CHUNK_BYTES} long)
+     * segments along the fastest varying dimension
+     */
+    private static void visitSegments(INDArray arr, char order, SegmentVisitor visitor) throws IOException {
+        long length = arr.length();
+        if (length == 0)
+            return;
+        int elementSize = arr.data().getElementSize();
+        Pointer base = arr.data().addressPointer();
+        int rank = arr.rank();
+
+        if (rank == 0 || (arr.elementWiseStride() == 1 && arr.ordering() == order)) {
+            //Contiguous: visit as a single vector
+            long maxElements = CHUNK_BYTES / elementSize;
+            for (long i = 0; i < length; i += maxElements) {
+                int n = (int) Math.min(maxElements, length - i);
+                visitor.visit(byteView(base, i * elementSize, (long) n * elementSize), n, 1);
+            }
+            return;
+        }
+
+        long[] shape = arr.shape();
+        long[] stride = arr.stride();
+        int inner = order == 'c' ? rank - 1 : 0;
+        long n = shape[inner];
+        long elementStride = n == 1 ? 1 : stride[inner];
+        long maxElements = Math.max(1, CHUNK_BYTES / (elementStride * elementSize));
+        long[] idx = new long[rank];
+        for (long segment = 0; segment < length / n; segment++) {
+            long offset = 0;
+            for (int d = 0; d < rank; d++)
+                offset += idx[d] * stride[d];
+            for (long i = 0; i < n; i += maxElements) {
+                int numElements = (int) Math.min(maxElements, n - i);
+                long start = (offset + i * elementStride) * elementSize;
+                long numBytes = ((numElements - 1) * elementStride + 1) * elementSize;
+                visitor.visit(byteView(base, start, numBytes), numElements, elementStride);
+            }
+
+            //Next index of the outer dimensions
+            if (order == 'c') {
+                for (int d = rank - 2; d >= 0; d--) {
+                    if (++idx[d] < shape[d])
+                        break;
+                    idx[d] = 0;
+                }
+            } else {
+                for (int d = 1; d < rank; d++) {
+                    if (++idx[d] < shape[d])
+                        break;
+                    idx[d] = 0;
+                }
+            }
+        }
+    }
+
+    private static ByteBuffer byteView(Pointer base, long byteOffset, long numBytes) {
+        BytePointer pointer = new BytePointer(base);
+        pointer.capacity(byteOffset + numBytes);
+        pointer.limit(byteOffset + numBytes);
+        pointer.position(byteOffset);
+        return pointer.asByteBuffer().order(ByteOrder.nativeOrder());
+    }
+
+    private static void copyElement(ByteBuffer from, int fromIndex, ByteBuffer to, int toIndex, int elementSize) {
+        switch (elementSize) {
+            case 8:
+                to.putLong(toIndex, from.getLong(fromIndex));
+                break;
+            case 4:
+                to.putInt(toIndex, from.getInt(fromIndex));
+                break;
+            case 2:
+                to.putShort(toIndex, from.getShort(fromIndex));
+                break;
+            default:
+                for (int i = 0; i < elementSize; i++)
+                    to.put(toIndex + i, from.get(fromIndex + i));
+        }
+    }
+
+    private static void flush(WritableByteChannel channel, ByteBuffer header, ByteBuffer staging)
+                    throws IOException {
+        staging.flip();
+        writeFully(channel, header, staging);
+        staging.clear();
+    }
+
+    static void writeFully(WritableByteChannel channel, ByteBuffer... buffers) throws IOException {
+        if (buffers.length > 1 && channel instanceof GatheringByteChannel) {
+            GatheringByteChannel gathering = (GatheringByteChannel) channel;
+            while (buffers[buffers.length - 1].hasRemaining())
+                gathering.write(buffers);
+            return;
+        }
+        for (ByteBuffer b : buffers) {
+            while (b.hasRemaining())
+                channel.write(b);
+        }
+    }
+
+    static void readFully(ReadableByteChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0)
+                throw new EOFException("Unexpected end of channel: " + buffer.remaining() + " bytes remaining");
         }
     }
 
@@ -275,6 +578,12 @@ public class BinarySerde {
     public static INDArray readFromDisk(File readFrom) throws IOException {
         try (FileInputStream os = new FileInputStream(readFrom)) {
             FileChannel channel = os.getChannel();
+            ByteBuffer header = ByteBuffer.allocate(HEADER_LENGTH).order(ByteOrder.nativeOrder());
+            readFully(channel, header);
+            channel.position(0);
+            if (DataBuffer.Type.values()[header.getInt(4)] != DataBuffer.Type.COMPRESSED)
+                return readArrayFromChannel(channel);
+
             ByteBuffer buffer = ByteBuffer.allocateDirect((int) readFrom.length());
             channel.read(buffer);
             INDArray ret = toArray(buffer);
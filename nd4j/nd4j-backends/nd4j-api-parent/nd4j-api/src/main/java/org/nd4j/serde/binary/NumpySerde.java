@@ -0,0 +1,451 @@
+package org.nd4j.serde.binary;
+
+import com.google.common.collect.MapMaker;
+import lombok.NonNull;
+import org.apache.commons.io.output.CountingOutputStream;
+import org.apache.commons.io.output.NullOutputStream;
+import org.nd4j.linalg.api.buffer.DataBuffer;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.exception.ND4JIllegalStateException;
+import org.nd4j.linalg.factory.Nd4j;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.*;
+
+/**
+ * Reading and writing of arrays in the NumPy .npy format, and of .npz archives (zip files of .npy entries, as
+ * written by numpy.savez and numpy.savez_compressed).<br>
+ * Unlike {@link Nd4j#createFromNpyFile(File)} this is implemented in Java, and works with channels and streams:
+ * data is transferred directly between the channel and the off-heap memory of the array when the data type and
+ * byte order match, and views are written without being duplicated.<br>
+ * Notes on the conversion between NumPy and ND4J arrays:<br>
+ * - 0-d arrays are read as [1,1] arrays, and 1-d arrays of shape (n,) as row vectors of shape [1,n]<br>
+ * - Data of other types (including integer, unsigned and boolean types) is converted to the current ND4J data
+ * type on read<br>
+ * - Arrays are written in their own ordering (fortran_order is True for 'f' order arrays)
+ */
+public class NumpySerde {
+    public static final String NPY_EXTENSION = ".npy";
+
+    private static final byte[] MAGIC = {(byte) 0x93, 'N', 'U', 'M', 'P', 'Y'};
+    private static final int ALIGNMENT = 64;
+    private static final int CHUNK_BYTES = 1 << 20;
+    private static final Pattern DESCR = Pattern.compile("'descr'\\s*:\\s*'([<>|=])([a-zA-Z])(\\d+)'");
+    private static final Pattern FORTRAN_ORDER = Pattern.compile("'fortran_order'\\s*:\\s*(True|False)");
+    private static final Pattern SHAPE = Pattern.compile("'shape'\\s*:\\s*\\(([^)]*)\\)");
+
+    //Keeps the mapped buffers reachable for as long as the data buffers using them
+    private static final Map<DataBuffer, MappedByteBuffer> MAPPED_BUFFERS = new MapMaker().weakKeys().makeMap();
+
+    private NumpySerde() {}
+
+    /**
+     * Header of a .npy file
+     */
+    private static class Header {
+        private char byteOrder;
+        private char kind;
+        private int elementSize;
+        private char order;
+        private long[] shape;
+        private long dataOffset;
+
+        private ByteOrder byteOrder() {
+            return byteOrder == '>' ? ByteOrder.BIG_ENDIAN
+                    : byteOrder == '<' ? ByteOrder.LITTLE_ENDIAN : ByteOrder.nativeOrder();
+        }
+
+        /**
+         * @return the equivalent ND4J data type, or null if there is none
+         */
+        private DataBuffer.Type dataType() {
+            if (kind == 'f') {
+                switch (elementSize) {
+                    case 2:
+                        return DataBuffer.Type.HALF;
+                    case 4:
+                        return DataBuffer.Type.FLOAT;
+                    case 8:
+                        return DataBuffer.Type.DOUBLE;
+                }
+            } else if (kind == 'i') {
+                switch (elementSize) {
+                    case 4:
+                        return DataBuffer.Type.INT;
+                    case 8:
+                        return DataBuffer.Type.LONG;
+                }
+            }
+            return null;
+        }
+
+        private long length() {
+            long length = 1;
+            for (long l : shape)
+                length *= l;
+            return length;
+        }
+    }
+
+    /**
+     * Write an array in .npy format
+     *
+     * @param arr     the array to write
+     * @param channel the channel to write to. Not closed by this method
+     * @throws IOException
+     */
+    public static void write(@NonNull INDArray arr, @NonNull WritableByteChannel channel) throws IOException {
+        if (arr.isCompressed())
+            Nd4j.getCompressor().autoDecompress(arr);
+        BinarySerde.writeData(arr, arr.ordering(), header(arr), channel);
+    }
+
+    /**
+     * Write an array in .npy format
+     *
+     * @param arr  the array to write
+     * @param file the file to write to
+     * @throws IOException
+     */
+    public static void write(@NonNull INDArray arr, @NonNull File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            write(arr, channel);
+        }
+    }
+
+    /**
+     * Read an array in .npy format. The array is allocated in the current workspace, if any.
+     *
+     * @param channel the channel to read from. Not closed by this method
+     * @return the array
+     * @throws IOException
+     */
+    public static INDArray read(@NonNull ReadableByteChannel channel) throws IOException {
+        Header header = readHeader(channel);
+        INDArray ret = Nd4j.createUninitialized(nd4jShape(header.shape), header.order);
+        DataBuffer.Type type = header.dataType();
+        if (type == ret.data().dataType() && (header.elementSize == 1 || header.byteOrder() == ByteOrder.nativeOrder())) {
+            BinarySerde.readData(channel, type, header.order, ret);
+            return ret;
+        }
+
+        //Other data type or byte order: decode value by value into the (contiguous, header.order) target buffer.
+        //Note that the data type of the file may not be supported by the backend (float16 on CPU, for example)
+        long length = header.length();
+        if (length == 0)
+            return ret;
+        Nd4j.getExecutioner().commit();
+        DataBuffer data = ret.data();
+        int chunkElements = (int) Math.min(length, CHUNK_BYTES / header.elementSize);
+        ByteBuffer bb = ByteBuffer.allocate(chunkElements * header.elementSize).order(header.byteOrder());
+        long offset = 0;
+        while (offset < length) {
+            int n = (int) Math.min(chunkElements, length - offset);
+            bb.clear();
+            bb.limit(n * header.elementSize);
+            BinarySerde.readFully(channel, bb);
+            for (int i = 0; i < n; i++)
+                data.put(offset + i, readValue(bb, header, i * header.elementSize));
+            offset += n;
+        }
+        return ret;
+    }
+
+    /**
+     * Read an array in .npy format
+     *
+     * @param file the file to read from
+     * @return the array
+     * @throws IOException
+     */
+    public static INDArray read(@NonNull File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            return read(channel);
+        }
+    }
+
+    /**
+     * Open a .npy file as a memory mapped array, without reading the data: pages are read from disk (or the OS
+     * page cache) only when they are used. The array has the ordering of the file ('f' if fortran_order is True).
+     * <br>
+     * The array must be treated as read-only: if the file is writable, the mapping is private (copy on write),
+     * hence modifications of the array are never written to the file. If the file is not writable, the mapping
+     * is read-only, and modifying the array in place will crash the JVM.<br>
+     * The data type must be the current ND4J data type, in native byte order, and the data must be at most 2GB
+     * (the limit of a single mapping). Use {@link #read(File)} otherwise.
+     * The file must not be modified or truncated while the array is in use.
+     *
+     * @param file the file to map
+     * @return the memory mapped array
+     * @throws IOException
+     */
+    public static INDArray map(@NonNull File file) throws IOException {
+        boolean writable = file.canWrite();
+        try (FileChannel channel = writable
+                ? FileChannel.open(file.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE)
+                : FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            Header header = readHeader(channel);
+            DataBuffer.Type type = header.dataType();
+            if (type != Nd4j.dataType() || (header.elementSize > 1 && header.byteOrder() != ByteOrder.nativeOrder()))
+                throw new ND4JIllegalStateException("Unable to memory map array of type " + header.byteOrder
+                        + header.kind + header.elementSize + ": only arrays of the current data type ("
+                        + Nd4j.dataType() + ") in native byte order can be mapped. Use read(File) instead");
+            long length = header.length();
+            long numBytes = length * header.elementSize;
+            if (length == 0 || numBytes > Integer.MAX_VALUE)
+                throw new ND4JIllegalStateException("Unable to memory map array of " + numBytes
+                        + " bytes: only non-empty arrays up to 2GB can be mapped. Use read(File) instead");
+            if (header.dataOffset + numBytes > channel.size())
+                throw new ND4JIllegalStateException("Invalid .npy file: expected " + numBytes + " bytes of data, file "
+                        + "size is " + channel.size());
+
+            MappedByteBuffer bb = channel.map(writable ? FileChannel.MapMode.PRIVATE : FileChannel.MapMode.READ_ONLY,
+                    header.dataOffset, numBytes);
+            bb.order(ByteOrder.nativeOrder());
+            DataBuffer buffer = Nd4j.createBuffer(bb, type, (int) length);
+            MAPPED_BUFFERS.put(buffer, bb);
+            long[] shape = nd4jShape(header.shape);
+            return Nd4j.create(buffer, shape, Nd4j.getStrides(shape, header.order), 0, header.order);
+        }
+    }
+
+    /**
+     * Read all arrays of a .npz archive. Stored and compressed archives are supported.
+     *
+     * @param file the file to read from
+     * @return the arrays, by name (the entry name, without the .npy extension), in the order of the archive
+     * @throws IOException
+     */
+    public static Map<String, INDArray> readNpz(@NonNull File file) throws IOException {
+        Map<String, INDArray> ret = new LinkedHashMap<>();
+        try (ZipFile zipFile = new ZipFile(file)) {
+            Enumeration<? extends ZipEntry> entries = zipFile.entries();
+            while (entries.hasMoreElements()) {
+                ZipEntry entry = entries.nextElement();
+                String name = entry.getName();
+                if (entry.isDirectory() || !name.endsWith(NPY_EXTENSION))
+                    continue;
+                try (InputStream is = new BufferedInputStream(zipFile.getInputStream(entry))) {
+                    ret.put(name.substring(0, name.length() - NPY_EXTENSION.length()), read(Channels.newChannel(is)));
+                }
+            }
+        }
+        return ret;
+    }
+
+    /**
+     * Write arrays to a .npz archive, readable with numpy.load
+     *
+     * @param arrays   the arrays to write, by name
+     * @param file     the file to write to
+     * @param compress if true, entries are deflated (as numpy.savez_compressed). Otherwise entries are stored
+     *                 (as numpy.savez)
+     * @throws IOException
+     */
+    public static void writeNpz(@NonNull Map<String, INDArray> arrays, @NonNull File file, boolean compress)
+            throws IOException {
+        try (ZipOutputStream zos = new ZipOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+            WritableByteChannel channel = Channels.newChannel(zos);
+            for (Map.Entry<String, INDArray> e : arrays.entrySet()) {
+                ZipEntry entry = new ZipEntry(e.getKey() + NPY_EXTENSION);
+                if (compress) {
+                    entry.setMethod(ZipEntry.DEFLATED);
+                } else {
+                    //Stored entries require size and CRC before the entry data is written
+                    CRC32 crc = new CRC32();
+                    CountingOutputStream cos = new CountingOutputStream(
+                            new CheckedOutputStream(NullOutputStream.NULL_OUTPUT_STREAM, crc));
+                    write(e.getValue(), Channels.newChannel(cos));
+                    entry.setMethod(ZipEntry.STORED);
+                    entry.setSize(cos.getByteCount());
+                    entry.setCompressedSize(cos.getByteCount());
+                    entry.setCrc(crc.getValue());
+                }
+                zos.putNextEntry(entry);
+                write(e.getValue(), channel);
+                zos.closeEntry();
+            }
+        }
+    }
+
+    private static ByteBuffer header(INDArray arr) {
+        String descr;
+        char byteOrder = ByteOrder.nativeOrder() == ByteOrder.LITTLE_ENDIAN ? '<' : '>';
+        switch (arr.data().dataType()) {
+            case HALF:
+                descr = byteOrder + "f2";
+                break;
+            case FLOAT:
+                descr = byteOrder + "f4";
+                break;
+            case DOUBLE:
+                descr = byteOrder + "f8";
+                break;
+            case INT:
+                descr = byteOrder + "i4";
+                break;
+            case LONG:
+                descr = byteOrder + "i8";
+                break;
+            default:
+                throw new UnsupportedOperationException("Unable to write array of type " + arr.data().dataType()
+                        + " in .npy format");
+        }
+
+        StringBuilder sb = new StringBuilder();
+        sb.append("{'descr': '").append(descr).append("', 'fortran_order': ")
+                .append(arr.ordering() == 'f' ? "True" : "False").append(", 'shape': (");
+        long[] shape = arr.shape();
+        for (int i = 0; i < shape.length; i++) {
+            sb.append(shape[i]);
+            if (i < shape.length - 1 || shape.length == 1)
+                sb.append(",");
+            if (i < shape.length - 1)
+                sb.append(" ");
+        }
+        sb.append("), }");
+
+        //Version 1.0 uses a 2 byte header length, version 2.0 a 4 byte header length
+        int prefixLength = MAGIC.length + 2 + (sb.length() + 1 + ALIGNMENT < 65536 ? 2 : 4);
+        int padding = (ALIGNMENT - (prefixLength + sb.length() + 1) % ALIGNMENT) % ALIGNMENT;
+        for (int i = 0; i < padding; i++)
+            sb.append(' ');
+        sb.append('\n');
+        byte[] headerBytes = sb.toString().getBytes(StandardCharsets.ISO_8859_1);
+
+        ByteBuffer bb = ByteBuffer.allocate(prefixLength + headerBytes.length).order(ByteOrder.LITTLE_ENDIAN);
+        bb.put(MAGIC);
+        if (prefixLength == MAGIC.length + 4) {
+            bb.put((byte) 1).put((byte) 0);
+            bb.putShort((short) headerBytes.length);
+        } else {
+            bb.put((byte) 2).put((byte) 0);
+            bb.putInt(headerBytes.length);
+        }
+        bb.put(headerBytes);
+        bb.flip();
+        return bb;
+    }
+
+    private static Header readHeader(ReadableByteChannel channel) throws IOException {
+        ByteBuffer prefix = ByteBuffer.allocate(MAGIC.length + 2).order(ByteOrder.LITTLE_ENDIAN);
+        BinarySerde.readFully(channel, prefix);
+        for (int i = 0; i < MAGIC.length; i++) {
+            if (prefix.get(i) != MAGIC[i])
+                throw new ND4JIllegalStateException("Invalid .npy data: magic string not found");
+        }
+        int majorVersion = prefix.get(MAGIC.length);
+        ByteBuffer lengthBuffer = ByteBuffer.allocate(majorVersion == 1 ? 2 : 4).order(ByteOrder.LITTLE_ENDIAN);
+        BinarySerde.readFully(channel, lengthBuffer);
+        long headerLength = majorVersion == 1 ? lengthBuffer.getShort(0) & 0xFFFF : lengthBuffer.getInt(0) & 0xFFFFFFFFL;
+        ByteBuffer headerBuffer = ByteBuffer.allocate((int) headerLength);
+        BinarySerde.readFully(channel, headerBuffer);
+        //Version 3.0 headers are UTF-8, but descr, fortran_order and shape are always ASCII
+        String s = new String(headerBuffer.array(), majorVersion >= 3 ? StandardCharsets.UTF_8
+                : StandardCharsets.ISO_8859_1);
+
+        Header header = new Header();
+        header.dataOffset = prefix.capacity() + lengthBuffer.capacity() + headerLength;
+        Matcher m = DESCR.matcher(s);
+        if (!m.find())
+            throw new ND4JIllegalStateException("Unsupported .npy data type (structured types are not supported): " + s);
+        header.byteOrder = m.group(1).charAt(0);
+        header.kind = m.group(2).charAt(0);
+        header.elementSize = Integer.parseInt(m.group(3));
+        if ("fiub".indexOf(header.kind) < 0 || (header.kind == 'f' && header.dataType() == null)
+                || (header.kind != 'f' && header.elementSize != 1 && header.elementSize != 2
+                && header.elementSize != 4 && header.elementSize != 8)) {
+            throw new ND4JIllegalStateException("Unsupported .npy data type: " + m.group());
+        }
+
+        m = FORTRAN_ORDER.matcher(s);
+        if (!m.find())
+            throw new ND4JIllegalStateException("Invalid .npy header: no fortran_order: " + s);
+        header.order = "True".equals(m.group(1)) ? 'f' : 'c';
+
+        m = SHAPE.matcher(s);
+        if (!m.find())
+            throw new ND4JIllegalStateException("Invalid .npy header: no shape: " + s);
+        List<Long> shape = new ArrayList<>();
+        for (String dim : m.group(1).split(",")) {
+            if (!dim.trim().isEmpty())
+                shape.add(Long.parseLong(dim.trim()));
+        }
+        header.shape = new long[shape.size()];
+        for (int i = 0; i < header.shape.length; i++)
+            header.shape[i] = shape.get(i);
+        return header;
+    }
+
+    private static long[] nd4jShape(long[] shape) {
+        if (shape.length == 0)
+            return new long[] {1, 1};
+        if (shape.length == 1)
+            return new long[] {1, shape[0]};
+        return shape;
+    }
+
+    private static double readValue(ByteBuffer bb, Header header, int index) {
+        switch (header.kind) {
+            case 'f':
+                if (header.elementSize == 4)
+                    return bb.getFloat(index);
+                if (header.elementSize == 8)
+                    return bb.getDouble(index);
+                return halfToFloat(bb.getShort(index));
+            case 'b':
+                return bb.get(index) != 0 ? 1.0 : 0.0;
+            case 'u':
+                switch (header.elementSize) {
+                    case 1:
+                        return bb.get(index) & 0xFF;
+                    case 2:
+                        return bb.getShort(index) & 0xFFFF;
+                    case 4:
+                        return bb.getInt(index) & 0xFFFFFFFFL;
+                    default:
+                        long l = bb.getLong(index);
+                        return l >= 0 ? l : (double) (l >>> 1) * 2.0 + (l & 1);
+                }
+            default:
+                switch (header.elementSize) {
+                    case 1:
+                        return bb.get(index);
+                    case 2:
+                        return bb.getShort(index);
+                    case 4:
+                        return bb.getInt(index);
+                    default:
+                        return bb.getLong(index);
+                }
+        }
+    }
+
+    private static float halfToFloat(short half) {
+        int h = half & 0xFFFF;
+        int sign = (h & 0x8000) << 16;
+        int exponent = (h >>> 10) & 0x1F;
+        int mantissa = h & 0x3FF;
+        if (exponent == 0) {
+            //Zero or subnormal
+            float f = mantissa / 1024.0f * (float) Math.pow(2, -14);
+            return sign != 0 ? -f : f;
+        }
+        if (exponent == 0x1F)
+            return Float.intBitsToFloat(sign | 0x7F800000 | (mantissa << 13));
+        return Float.intBitsToFloat(sign | ((exponent + 112) << 23) | (mantissa << 13));
+    }
+}
@@ -0,0 +1,217 @@
+package org.nd4j.compression.impl;
+
+import org.bytedeco.javacpp.BytePointer;
+import org.bytedeco.javacpp.Pointer;
+import org.nd4j.linalg.api.buffer.DataBuffer;
+import org.nd4j.linalg.compression.CompressedDataBuffer;
+import org.nd4j.linalg.compression.CompressionDescriptor;
+import org.nd4j.linalg.compression.CompressionType;
+import org.nd4j.linalg.factory.Nd4j;
+
+/**
+ * Base class for lossless compressors, that operate on the raw bytes of a buffer.<br>
+ * Optionally, a byte shuffle filter is applied before compression: byte i of every element is stored together
+ * (all first bytes, then all second bytes, etc). For floating point data, exponent and high mantissa bytes of
+ * neighbouring values are often equal, so the shuffled representation usually compresses much better.
+ */
+public abstract class AbstractByteCompressor extends AbstractCompressor {
+
+    private static final int CHUNK_ELEMENTS = 8192;
+
+    protected final boolean shuffle;
+
+    protected AbstractByteCompressor(boolean shuffle) {
+        this.shuffle = shuffle;
+    }
+
+    /**
+     * This method returns compression opType provided by specific NDArrayCompressor implementation
+     *
+     * @return
+     */
+    @Override
+    public CompressionType getCompressionType() {
+        return CompressionType.LOSSLESS;
+    }
+
+    /**
+     * @param length number of bytes to compress
+     * @return max number of bytes {@link #encode(byte[], int, byte[])} may write for the given input length
+     */
+    protected abstract int maxEncodedLength(int length);
+
+    /**
+     * Compress the given bytes
+     *
+     * @param in     raw (possibly shuffled) bytes
+     * @param length number of bytes of in to compress
+     * @param out    output array, of at least {@link #maxEncodedLength(int)} bytes
+     * @return number of bytes written to out
+     */
+    protected abstract int encode(byte[] in, int length, byte[] out);
+
+    /**
+     * Decompress the given bytes
+     *
+     * @param in             compressed bytes, as written by {@link #encode(byte[], int, byte[])}. The array has
+     *                       at least one more element than length, which can be used as a dummy input byte
+     * @param length         number of compressed bytes
+     * @param out            output array, of originalLength bytes
+     * @param originalLength number of bytes before compression
+     */
+    protected abstract void decode(byte[] in, int length, byte[] out, int originalLength);
+
+    @Override
+    public DataBuffer compress(DataBuffer buffer) {
+        long length = buffer.length() * buffer.getElementSize();
+        if (length > Integer.MAX_VALUE)
+            throw new UnsupportedOperationException("Buffers larger than 2GB are not supported by " + getDescriptor());
+
+        //Stage the buffer in host memory first: for CUDA this takes care of the device -> host copy
+        CompressionDescriptor staging = new CompressionDescriptor(buffer, this);
+        CompressedDataBuffer host = new CompressedDataBuffer(new BytePointer(length), staging);
+        Nd4j.getMemoryManager().memcpy(host, buffer);
+
+        return compressBytes((BytePointer) host.addressPointer(), (int) length, buffer.length(),
+                        buffer.getElementSize());
+    }
+
+    @Override
+    public DataBuffer decompress(DataBuffer buffer) {
+        CompressedDataBuffer compressed = (CompressedDataBuffer) buffer;
+        CompressionDescriptor descriptor = compressed.getCompressionDescriptor();
+
+        long numElements = descriptor.getNumberOfElements();
+        int originalLength = (int) descriptor.getOriginalLength();
+        //Element size isn't preserved by CompressedDataBuffer.readUnknown
+        int elementSize = (int) (descriptor.getOriginalElementSize() > 0 ? descriptor.getOriginalElementSize()
+                        : (numElements == 0 ? Nd4j.sizeOfDataType() : originalLength / numElements));
+
+        int compressedLength = (int) descriptor.getCompressedLength();
+        byte[] bytes = new byte[compressedLength + 1];
+        BytePointer pointer = new BytePointer(compressed.addressPointer());
+        pointer.capacity(compressedLength);
+        pointer.get(bytes, 0, compressedLength);
+
+        byte[] raw = new byte[originalLength];
+        decode(bytes, compressedLength, raw, originalLength);
+
+        //Unshuffle straight into the host staging buffer
+        BytePointer host = new BytePointer(originalLength);
+        if (shuffle)
+            unshuffle(raw, host, elementSize);
+        else
+            host.put(raw, 0, originalLength);
+
+        DataBuffer result = Nd4j.createBuffer(new long[] {numElements}, typeForElementSize(elementSize));
+
+        CompressionDescriptor staging = descriptor.clone();
+        staging.setOriginalElementSize(elementSize);
+        Nd4j.getMemoryManager().memcpy(result, new CompressedDataBuffer(host, staging));
+
+        return result;
+    }
+
+    @Override
+    protected CompressedDataBuffer compressPointer(DataBuffer.TypeEx srcType, Pointer srcPointer, int length,
+                    int elementSize) {
+        // srcPointer is always in host memory here
+        return compressBytes(new BytePointer(srcPointer), length * elementSize, length, elementSize);
+    }
+
+    protected CompressedDataBuffer compressBytes(BytePointer src, int length, long numElements, int elementSize) {
+        //Shuffle (or copy) straight from host memory into the codec input
+        byte[] bytes = new byte[length];
+        src.capacity(src.position() + length);
+        if (shuffle)
+            shuffle(src, bytes, elementSize);
+        else
+            src.get(bytes, 0, length);
+
+        byte[] out = new byte[maxEncodedLength(length)];
+        int compressedLength = encode(bytes, length, out);
+        BytePointer compressed = new BytePointer(compressedLength);
+        compressed.put(out, 0, compressedLength);
+
+        CompressionDescriptor descriptor = new CompressionDescriptor();
+        descriptor.setCompressionType(getCompressionType());
+        descriptor.setCompressionAlgorithm(getDescriptor());
+        descriptor.setOriginalLength(length);
+        descriptor.setOriginalElementSize(elementSize);
+        descriptor.setNumberOfElements(numElements);
+        descriptor.setCompressedLength(compressedLength);
+
+        return new CompressedDataBuffer(compressed, descriptor);
+    }
+
+    /**
+     * Byte shuffle: output contains byte 0 of all elements, then byte 1 of all elements, and so on.
+     * Trailing bytes that don't form a complete element are copied as-is.
+     *
+     * @param in          host memory with out.length bytes to shuffle
+     * @param out         shuffled bytes
+     * @param elementSize element size, in bytes
+     */
+    protected static void shuffle(BytePointer in, byte[] out, int elementSize) {
+        if (elementSize <= 1) {
+            in.get(out);
+            return;
+        }
+        int n = out.length / elementSize;
+        //Elements are read in chunks: fewer JNI calls than per byte, without a copy of the whole buffer
+        byte[] chunk = new byte[Math.min(n, CHUNK_ELEMENTS) * elementSize];
+        long position = in.position();
+        for (int start = 0; start < n; start += CHUNK_ELEMENTS) {
+            int count = Math.min(CHUNK_ELEMENTS, n - start);
+            in.position(position + (long) start * elementSize).get(chunk, 0, count * elementSize);
+            for (int b = 0; b < elementSize; b++) {
+                int o = b * n + start;
+                for (int i = 0, j = b; i < count; i++, j += elementSize)
+                    out[o + i] = chunk[j];
+            }
+        }
+        in.position(position + (long) n * elementSize).get(out, n * elementSize, out.length - n * elementSize);
+        in.position(position);
+    }
+
+    /**
+     * Inverse of {@link #shuffle(BytePointer, byte[], int)}
+     *
+     * @param in          shuffled bytes
+     * @param out         host memory with at least in.length bytes, for the unshuffled bytes
+     * @param elementSize element size, in bytes
+     */
+    protected static void unshuffle(byte[] in, BytePointer out, int elementSize) {
+        if (elementSize <= 1) {
+            out.put(in);
+            return;
+        }
+        int n = in.length / elementSize;
+        byte[] chunk = new byte[Math.min(n, CHUNK_ELEMENTS) * elementSize];
+        long position = out.position();
+        for (int start = 0; start < n; start += CHUNK_ELEMENTS) {
+            int count = Math.min(CHUNK_ELEMENTS, n - start);
+            for (int b = 0; b < elementSize; b++) {
+                int o = b * n + start;
+                for (int i = 0, j = b; i < count; i++, j += elementSize)
+                    chunk[j] = in[o + i];
+            }
+            out.position(position + (long) start * elementSize).put(chunk, 0, count * elementSize);
+        }
+        out.position(position + (long) n * elementSize).put(in, n * elementSize, in.length - n * elementSize);
+        out.position(position);
+    }
+
+    protected static DataBuffer.Type typeForElementSize(int elementSize) {
+        switch (elementSize) {
+            case 8:
+                return DataBuffer.Type.DOUBLE;
+            case 4:
+                return DataBuffer.Type.FLOAT;
+            case 2:
+                return DataBuffer.Type.HALF;
+            default:
+                throw new IllegalStateException("Unsupported element size: [" + elementSize + "]");
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package org.nd4j.compression.impl;
+
+/**
+ * Lossless LZ4 block compression of the raw buffer bytes.
+ * Very fast compression and decompression, with moderate compression ratios.
+ */
+public class Lz4 extends AbstractByteCompressor {
+
+    public Lz4() {
+        this(false);
+    }
+
+    protected Lz4(boolean shuffle) {
+        super(shuffle);
+    }
+
+    /**
+     * This method returns compression descriptor. It should be unique for any compressor implementation
+     *
+     * @return
+     */
+    @Override
+    public String getDescriptor() {
+        return "LZ4";
+    }
+
+    @Override
+    protected int maxEncodedLength(int length) {
+        return Lz4Codec.maxCompressedLength(length);
+    }
+
+    @Override
+    protected int encode(byte[] in, int length, byte[] out) {
+        return Lz4Codec.compress(in, length, out);
+    }
+
+    @Override
+    protected void decode(byte[] in, int length, byte[] out, int originalLength) {
+        Lz4Codec.decompress(in, length, out, originalLength);
+    }
+}
@@ -0,0 +1,177 @@
+package org.nd4j.compression.impl;
+
+import java.util.Arrays;
+
+/**
+ * Pure Java implementation of the LZ4 block format (no frame format, no checksums).
+ * Output is compatible with the reference LZ4_compress_default/LZ4_decompress_safe implementation.
+ */
+final class Lz4Codec {
+    private static final int MIN_MATCH = 4;
+    private static final int LAST_LITERALS = 5;
+    private static final int MF_LIMIT = 12;
+    private static final int MAX_OFFSET = 65535;
+    private static final int HASH_LOG = 14;
+    private static final int SKIP_TRIGGER = 6;
+
+    private Lz4Codec() {}
+
+    /**
+     * @return Maximum length of the compressed representation of the given number of bytes
+     */
+    static int maxCompressedLength(int length) {
+        return length + length / 255 + 16;
+    }
+
+    /**
+     * Compress src[0..srcLength) into dst, which must have at least {@link #maxCompressedLength(int)} bytes
+     *
+     * @return Number of bytes written to dst
+     */
+    static int compress(byte[] src, int srcLength, byte[] dst) {
+        int ip = 0;
+        int op = 0;
+        int anchor = 0;
+
+        if (srcLength >= MF_LIMIT + 1) {
+            int[] table = new int[1 << HASH_LOG];
+            Arrays.fill(table, -1);
+            int matchStartLimit = srcLength - MF_LIMIT;
+            int matchEndLimit = srcLength - LAST_LITERALS;
+
+            while (ip < matchStartLimit) {
+                int sequence = readInt(src, ip);
+                int h = hash(sequence);
+                int ref = table[h];
+                table[h] = ip;
+
+                if (ref < 0 || ip - ref > MAX_OFFSET || readInt(src, ref) != sequence) {
+                    //Skip faster through incompressible data
+                    ip += 1 + ((ip - anchor) >>> SKIP_TRIGGER);
+                    continue;
+                }
+
+                while (ip > anchor && ref > 0 && src[ip - 1] == src[ref - 1]) {
+                    ip--;
+                    ref--;
+                }
+
+                int matchLength = MIN_MATCH;
+                while (ip + matchLength < matchEndLimit && src[ip + matchLength] == src[ref + matchLength])
+                    matchLength++;
+
+                op = writeSequence(src, anchor, ip - anchor, ip - ref, matchLength, dst, op);
+                ip += matchLength;
+                anchor = ip;
+            }
+        }
+
+        //Last literals
+        int literals = srcLength - anchor;
+        int token = op++;
+        dst[token] = (byte) (Math.min(literals, 15) << 4);
+        if (literals >= 15)
+            op = writeLength(literals - 15, dst, op);
+        System.arraycopy(src, anchor, dst, op, literals);
+        return op + literals;
+    }
+
+    /**
+     * Decompress src[0..srcLength) into dst[0..dstLength)
+     *
+     * @throws IllegalStateException If the compressed data is corrupt, or does not decompress to exactly dstLength bytes
+     */
+    static void decompress(byte[] src, int srcLength, byte[] dst, int dstLength) {
+        int ip = 0;
+        int op = 0;
+        try {
+            while (ip < srcLength) {
+                int token = src[ip++] & 0xFF;
+
+                int literals = token >>> 4;
+                if (literals == 15) {
+                    int b;
+                    do {
+                        b = src[ip++] & 0xFF;
+                        literals += b;
+                    } while (b == 255);
+                }
+                if (literals > dstLength - op || literals > srcLength - ip)
+                    throw new IllegalStateException("Corrupt LZ4 data: literals out of bounds");
+                System.arraycopy(src, ip, dst, op, literals);
+                ip += literals;
+                op += literals;
+
+                if (ip >= srcLength)
+                    break;
+
+                int offset = (src[ip++] & 0xFF) | (src[ip++] & 0xFF) << 8;
+                if (offset == 0 || offset > op)
+                    throw new IllegalStateException("Corrupt LZ4 data: invalid match offset " + offset);
+
+                int matchLength = token & 0x0F;
+                if (matchLength == 15) {
+                    int b;
+                    do {
+                        b = src[ip++] & 0xFF;
+                        matchLength += b;
+                    } while (b == 255);
+                }
+                matchLength += MIN_MATCH;
+                if (matchLength > dstLength - op)
+                    throw new IllegalStateException("Corrupt LZ4 data: match out of bounds");
+
+                int ref = op - offset;
+                if (offset >= matchLength) {
+                    System.arraycopy(dst, ref, dst, op, matchLength);
+                } else {
+                    //Overlapping copy: repeated pattern
+                    for (int i = 0; i < matchLength; i++)
+                        dst[op + i] = dst[ref + i];
+                }
+                op += matchLength;
+            }
+        } catch (ArrayIndexOutOfBoundsException e) {
+            throw new IllegalStateException("Corrupt LZ4 data: unexpected end of input", e);
+        }
+
+        if (op != dstLength)
+            throw new IllegalStateException("Corrupt LZ4 data: expected " + dstLength + " bytes, got " + op);
+    }
+
+    private static int writeSequence(byte[] src, int literalStart, int literals, int offset, int matchLength,
+                    byte[] dst, int op) {
+        int token = op++;
+        if (literals >= 15)
+            op = writeLength(literals - 15, dst, op);
+        System.arraycopy(src, literalStart, dst, op, literals);
+        op += literals;
+
+        dst[op++] = (byte) offset;
+        dst[op++] = (byte) (offset >>> 8);
+
+        int ml = matchLength - MIN_MATCH;
+        if (ml >= 15)
+            op = writeLength(ml - 15, dst, op);
+
+        dst[token] = (byte) (Math.min(literals, 15) << 4 | Math.min(ml, 15));
+        return op;
+    }
+
+    private static int writeLength(int length, byte[] dst, int op) {
+        while (length >= 255) {
+            dst[op++] = (byte) 255;
+            length -= 255;
+        }
+        dst[op++] = (byte) length;
+        return op;
+    }
+
+    private static int readInt(byte[] b, int i) {
+        return (b[i] & 0xFF) | (b[i + 1] & 0xFF) << 8 | (b[i + 2] & 0xFF) << 16 | (b[i + 3] & 0xFF) << 24;
+    }
+
+    private static int hash(int sequence) {
+        return (sequence * -1640531535) >>> (32 - HASH_LOG);
+    }
+}
@@ -0,0 +1,75 @@
+package org.nd4j.compression.impl;
+
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Deflate compression with a byte shuffle filter applied first.
+ * Usually slower than {@link ShuffleLz4}, but with higher compression ratios - useful for checkpoints and network
+ * transfers. See CompressionBenchmark in dl4j-benchmarks for speed and ratio on a given machine.
+ */
+public class ShuffleDeflate extends AbstractByteCompressor {
+
+    public ShuffleDeflate() {
+        super(true);
+    }
+
+    /**
+     * This method returns compression descriptor. It should be unique for any compressor implementation
+     *
+     * @return
+     */
+    @Override
+    public String getDescriptor() {
+        return "SHUFFLE_DEFLATE";
+    }
+
+    @Override
+    protected int maxEncodedLength(int length) {
+        //Worst case of zlib's deflateBound, for any compression level: stored blocks plus block headers
+        return length + ((length + 7) >> 3) + ((length + 63) >> 6) + 5;
+    }
+
+    @Override
+    protected int encode(byte[] in, int length, byte[] out) {
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        try {
+            deflater.setInput(in, 0, length);
+            deflater.finish();
+            int pos = 0;
+            while (!deflater.finished()) {
+                if (pos == out.length)
+                    throw new IllegalStateException("Deflate output exceeds " + out.length + " bytes for "
+                                    + length + " bytes of input");
+                pos += deflater.deflate(out, pos, out.length - pos);
+            }
+            return pos;
+        } finally {
+            deflater.end();
+        }
+    }
+
+    @Override
+    protected void decode(byte[] in, int length, byte[] out, int originalLength) {
+        Inflater inflater = new Inflater(true);
+        try {
+            //Raw deflate streams may need one extra dummy byte as input
+            inflater.setInput(in, 0, length + 1);
+            int pos = 0;
+            while (pos < originalLength && !inflater.finished()) {
+                int n = inflater.inflate(out, pos, originalLength - pos);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary()))
+                    break;
+                pos += n;
+            }
+            if (pos != originalLength)
+                throw new IllegalStateException("Corrupt compressed data: expected " + originalLength
+                                + " bytes, got " + pos);
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Corrupt compressed data", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package org.nd4j.compression.impl;
+
+/**
+ * LZ4 compression with a byte shuffle filter applied first (as in Blosc).
+ * Usually gives considerably better compression ratios than {@link Lz4} for floating point data, at the cost of the
+ * shuffle pass. See CompressionBenchmark in dl4j-benchmarks for speed and ratio on a given machine.
+ */
+public class ShuffleLz4 extends Lz4 {
+
+    public ShuffleLz4() {
+        super(true);
+    }
+
+    /**
+     * This method returns compression descriptor. It should be unique for any compressor implementation
+     *
+     * @return
+     */
+    @Override
+    public String getDescriptor() {
+        return "SHUFFLE_LZ4";
+    }
+}
@@ -28,6 +28,7 @@ import org.bytedeco.javacpp.indexer.*;
 import org.nd4j.linalg.api.buffer.DataBuffer;
 import org.nd4j.linalg.api.buffer.LongBuffer;
 import org.nd4j.linalg.api.buffer.factory.DataBufferFactory;
+import org.nd4j.linalg.api.buffer.pool.BufferPool;
 import org.nd4j.linalg.api.memory.MemoryWorkspace;
 import org.nd4j.linalg.exception.ND4JIllegalStateException;
 import org.nd4j.linalg.jcublas.buffer.*;
@@ -829,4 +830,15 @@ public class CudaDataBufferFactory implements DataBufferFactory {
         return new CudaLongDataBuffer(length, initialize, workspace);
     }
 
+    @Override
+    public void setBufferPool(BufferPool pool) {
+        if (pool != null)
+            throw new UnsupportedOperationException("Buffer pooling isn't supported for CUDA backend");
+    }
+
+    @Override
+    public BufferPool getBufferPool() {
+        return null;
+    }
+
 }
@@ -5,6 +5,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.bytedeco.javacpp.BytePointer;
 import org.bytedeco.javacpp.FloatPointer;
 import org.bytedeco.javacpp.Pointer;
+import org.nd4j.linalg.api.buffer.pool.BufferPool;
 import org.nd4j.linalg.api.ndarray.INDArray;
 import org.nd4j.linalg.exception.ND4JIllegalStateException;
 import org.nd4j.linalg.factory.Nd4j;
@@ -66,6 +67,16 @@ public class CpuMemoryManager extends BasicMemoryManager {
         super.collect(arrays);
     }
 
+    /**
+     * This method purges all cached memory chunks, i.e., the idle memory of the buffer pool (if enabled)
+     */
+    @Override
+    public void purgeCaches() {
+        BufferPool pool = Nd4j.getDataBufferFactory().getBufferPool();
+        if (pool != null)
+            pool.purge();
+    }
+
     /**
      * Nd4j-native backend doesn't use periodic GC. This method will always return false.
      *
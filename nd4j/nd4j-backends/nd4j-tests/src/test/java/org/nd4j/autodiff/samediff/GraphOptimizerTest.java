@@ -0,0 +1,174 @@
+package org.nd4j.autodiff.samediff;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.nd4j.autodiff.functions.DifferentialFunction;
+import org.nd4j.linalg.api.buffer.DataBuffer;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.api.ops.impl.accum.Mmul;
+import org.nd4j.linalg.api.ops.impl.transforms.ReluLayer;
+import org.nd4j.linalg.api.ops.impl.transforms.Tanh;
+import org.nd4j.linalg.api.ops.impl.transforms.XwPlusB;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.ops.transforms.Transforms;
+
+import static org.junit.Assert.*;
+
+public class GraphOptimizerTest {
+    private DataBuffer.Type initialType;
+
+    @Before
+    public void before() {
+        Nd4j.create(1);
+        initialType = Nd4j.dataType();
+
+        Nd4j.setDataType(DataBuffer.Type.DOUBLE);
+        Nd4j.getRandom().setSeed(12345);
+    }
+
+    @After
+    public void after() {
+        Nd4j.setDataType(initialType);
+    }
+
+    @Test
+    public void testFuseReluLayer() {
+        SameDiff sd = SameDiff.create();
+        SDVariable in = sd.var("in", new long[]{-1, 4});
+        SDVariable w = sd.var("w", Nd4j.rand(4, 3));
+        SDVariable b = sd.var("b", Nd4j.rand(1, 3));
+        SDVariable mmul = sd.mmul(in, w);
+        SDVariable z = sd.biasAdd(mmul, b);
+        sd.relu("out", z, 0.0);
+
+        sd.optimize("out");
+
+        DifferentialFunction[] functions = sd.functions();
+        assertEquals(1, functions.length);
+        assertTrue(functions[0] instanceof ReluLayer);
+        assertNull(sd.getVariable(mmul.getVarName()));
+        assertNull(sd.getVariable(z.getVarName()));
+
+        INDArray inArr = Nd4j.rand(5, 4);
+        sd.associateArrayWithVariable(inArr, in);
+        INDArray exp = Transforms.relu(inArr.mmul(w.getArr()).addRowVector(b.getArr()));
+        assertEquals(exp, sd.execAndEndResult());
+    }
+
+    @Test
+    public void testFuseXwPlusB() {
+        SameDiff sd = SameDiff.create();
+        SDVariable in = sd.var("in", new long[]{-1, 4});
+        SDVariable w = sd.var("w", Nd4j.rand(4, 3));
+        SDVariable b = sd.var("b", Nd4j.rand(1, 3));
+        SDVariable z = sd.biasAdd(sd.mmul(in, w), b);
+        sd.tanh("out", z);
+
+        sd.optimize();
+
+        DifferentialFunction[] functions = sd.functions();
+        assertEquals(2, functions.length);
+        assertTrue(functions[0] instanceof XwPlusB);
+        assertTrue(functions[1] instanceof Tanh);
+        //Output of fused op is unchanged
+        assertEquals(functions[0], sd.getVariableOutputFunction(z.getVarName()));
+
+        INDArray inArr = Nd4j.rand(5, 4);
+        sd.associateArrayWithVariable(inArr, in);
+        INDArray exp = Transforms.tanh(inArr.mmul(w.getArr()).addRowVector(b.getArr()));
+        assertEquals(exp, sd.execAndEndResult());
+    }
+
+    @Test
+    public void testNoFusionOfRequiredOutputs() {
+        SameDiff sd = SameDiff.create();
+        SDVariable in = sd.var("in", new long[]{-1, 4});
+        SDVariable w = sd.var("w", Nd4j.rand(4, 3));
+        SDVariable b = sd.var("b", Nd4j.rand(1, 3));
+        SDVariable mmul = sd.mmul("mmul", in, w);
+        sd.relu("out", sd.biasAdd(mmul, b), 0.0);
+
+        sd.optimize("out", "mmul");
+        assertEquals(3, sd.functions().length);
+        assertTrue(sd.getVariableOutputFunction("mmul") instanceof Mmul);
+    }
+
+    @Test
+    public void testConstantFolding() {
+        SameDiff sd = SameDiff.create();
+        SDVariable in = sd.var("in", new long[]{-1, 4});
+        INDArray wArr = Nd4j.rand(3, 4);
+        SDVariable w = sd.var("w", wArr);
+        SDVariable scaled = sd.transpose(w).mul(2.0);
+        sd.mmul("out", in, scaled);
+
+        sd.optimize("out");
+
+        DifferentialFunction[] functions = sd.functions();
+        assertEquals(1, functions.length);
+        assertTrue(functions[0] instanceof Mmul);
+        assertNull(sd.getVariableOutputFunction(scaled.getVarName()));
+        assertEquals(wArr.transpose().mul(2.0), sd.getArrForVarName(scaled.getVarName()));
+        //Source of folded values is no longer used
+        assertNull(sd.getVariable("w"));
+
+        INDArray inArr = Nd4j.rand(5, 4);
+        sd.associateArrayWithVariable(inArr, in);
+        assertEquals(inArr.mmul(wArr.transpose().mul(2.0)), sd.execAndEndResult());
+    }
+
+    @Test
+    public void testDeadCodeElimination() {
+        for (boolean specifyOutputs : new boolean[]{false, true}) {
+            SameDiff sd = SameDiff.create();
+            SDVariable in = sd.var("in", new long[]{-1, 4});
+            sd.exp("out", sd.tanh("a", in));
+            sd.exp("unused2", sd.sigmoid("unused", in));
+
+            if (specifyOutputs) {
+                sd.optimize("out");
+                assertEquals(2, sd.functions().length);
+                assertNull(sd.getVariable("unused"));
+                assertNull(sd.getVariable("unused2"));
+            } else {
+                //All ops are required for one of the graph outputs
+                sd.optimize();
+                assertEquals(4, sd.functions().length);
+                assertNotNull(sd.getVariable("unused2"));
+            }
+            assertNotNull(sd.getVariable("in"));
+
+            INDArray inArr = Nd4j.rand(5, 4);
+            sd.associateArrayWithVariable(inArr, in);
+            sd.exec();
+            assertEquals(Transforms.exp(Transforms.tanh(inArr)), sd.getArrForVarName("out"));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownOutput() {
+        SameDiff sd = SameDiff.create();
+        SDVariable in = sd.var("in", new long[]{-1, 4});
+        sd.tanh("out", in);
+        sd.optimize("doesNotExist");
+    }
+
+    @Test
+    public void testDisabledPasses() {
+        SameDiff sd = SameDiff.create();
+        SDVariable in = sd.var("in", new long[]{-1, 4});
+        SDVariable w = sd.var("w", Nd4j.rand(3, 4));
+        sd.relu("out", sd.biasAdd(sd.mmul(in, sd.transpose(w)), sd.var("b", Nd4j.rand(1, 3))), 0.0);
+
+        GraphOptimizer.builder().fuseOps(false).foldConstants(false).build().optimize(sd, "out");
+        assertEquals(4, sd.functions().length);
+
+        GraphOptimizer.builder().fuseOps(false).build().optimize(sd, "out");
+        assertEquals(3, sd.functions().length);
+        assertNull(sd.getVariable("w"));
+
+        GraphOptimizer.builder().build().optimize(sd, "out");
+        assertEquals(1, sd.functions().length);
+    }
+}
@@ -0,0 +1,129 @@
+package org.nd4j.linalg.api.buffer;
+
+import org.bytedeco.javacpp.DoublePointer;
+import org.junit.After;
+import org.junit.Test;
+import org.nd4j.linalg.BaseNd4jTest;
+import org.nd4j.linalg.api.buffer.factory.DataBufferFactory;
+import org.nd4j.linalg.api.buffer.pool.BufferPool;
+import org.nd4j.linalg.api.buffer.pool.BufferPoolConfiguration;
+import org.nd4j.linalg.api.buffer.pool.BufferPoolStats;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.factory.Nd4jBackend;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for pooling of off-heap memory of buffers allocated outside of workspaces
+ */
+public class BufferPoolTests extends BaseNd4jTest {
+
+    public BufferPoolTests(Nd4jBackend backend) {
+        super(backend);
+    }
+
+    @After
+    public void after() {
+        BufferPool pool = Nd4j.getDataBufferFactory().getBufferPool();
+        Nd4j.getDataBufferFactory().setBufferPool(null);
+        if (pool != null)
+            pool.purge();
+    }
+
+    @Test
+    public void testSizeClass() {
+        assertEquals(8, BufferPool.sizeClass(1));
+        assertEquals(8, BufferPool.sizeClass(8));
+        assertEquals(10, BufferPool.sizeClass(9));
+        assertEquals(112, BufferPool.sizeClass(100));
+        assertEquals(128, BufferPool.sizeClass(128));
+        assertEquals(160, BufferPool.sizeClass(129));
+        assertEquals(448, BufferPool.sizeClass(400));
+        assertEquals(1L << 30, BufferPool.sizeClass((1L << 30) - 1));
+    }
+
+    @Test
+    public void testReuse() {
+        BufferPool pool = new BufferPool();
+        DataBufferFactory factory = Nd4j.getDataBufferFactory();
+        factory.setBufferPool(pool);
+        assertSame(pool, factory.getBufferPool());
+
+        DataBuffer b1 = factory.createFloat(100, true);
+        for (int i = 0; i < 100; i++)
+            b1.put(i, i);
+        assertEquals(99.0, b1.getDouble(99), 0.0);
+        long address = b1.pointer().address();
+
+        BufferPoolStats stats = pool.getStats();
+        assertEquals(1, stats.getAllocations());
+        assertEquals(1, stats.getMisses());
+        assertEquals(448, stats.getInUseBytes());
+
+        b1.pointer().deallocate();
+        stats = pool.getStats();
+        assertEquals(1, stats.getReleased());
+        assertEquals(1, stats.getPooledBuffers());
+        assertEquals(448, stats.getPooledBytes());
+        assertEquals(0, stats.getInUseBytes());
+
+        //Same size class, different type: memory should be reused, and initialized if requested
+        DataBuffer b2 = factory.createDouble(50, true);
+        assertTrue(b2.pointer() instanceof DoublePointer);
+        assertEquals(address, b2.pointer().address());
+        assertEquals(50, b2.length());
+        for (int i = 0; i < 50; i++)
+            assertEquals(0.0, b2.getDouble(i), 0.0);
+
+        stats = pool.getStats();
+        assertEquals(2, stats.getAllocations());
+        assertEquals(1, stats.getHits());
+        assertEquals(0, stats.getPooledBuffers());
+        assertEquals(448, stats.getPeakInUseBytes());
+        assertEquals(0.5, stats.getHitRate(), 1e-6);
+
+        //Copy from array
+        int[] data = new int[20];
+        for (int i = 0; i < data.length; i++)
+            data[i] = i;
+        DataBuffer b3 = factory.createInt(data);
+        assertArrayEquals(data, b3.asInt());
+        assertEquals(3, pool.getStats().getAllocations());
+    }
+
+    @Test
+    public void testLimits() {
+        BufferPool pool = new BufferPool(BufferPoolConfiguration.builder().maxBuffersPerSizeClass(1)
+                        .maxBufferBytes(1024).build());
+        DataBufferFactory factory = Nd4j.getDataBufferFactory();
+        factory.setBufferPool(pool);
+
+        //Too large to be pooled
+        DataBuffer large = factory.createFloat(1000, false);
+        assertEquals(1000, large.length());
+        assertEquals(0, pool.getStats().getAllocations());
+
+        DataBuffer b1 = factory.createFloat(64, false);
+        DataBuffer b2 = factory.createFloat(64, false);
+        assertNotEquals(b1.pointer().address(), b2.pointer().address());
+        b1.pointer().deallocate();
+        b2.pointer().deallocate();
+
+        BufferPoolStats stats = pool.getStats();
+        assertEquals(2, stats.getMisses());
+        assertEquals(1, stats.getReleased());
+        assertEquals(1, stats.getFreed());
+        assertEquals(256, stats.getPooledBytes());
+
+        assertEquals(256, pool.purge());
+        stats = pool.getStats();
+        assertEquals(0, stats.getPooledBuffers());
+        assertEquals(0, stats.getPooledBytes());
+        assertEquals(2, stats.getFreed());
+    }
+
+    @Override
+    public char ordering() {
+        return 'c';
+    }
+}
@@ -0,0 +1,122 @@
+package org.nd4j.linalg.compression;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.nd4j.linalg.BaseNd4jTest;
+import org.nd4j.linalg.api.buffer.DataBuffer;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.factory.Nd4jBackend;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+
+import static org.junit.Assert.*;
+
+@RunWith(Parameterized.class)
+public class LosslessCompressionTests extends BaseNd4jTest {
+    private static final String[] ALGORITHMS = {"LZ4", "SHUFFLE_LZ4", "SHUFFLE_DEFLATE"};
+
+    public LosslessCompressionTests(Nd4jBackend backend) {
+        super(backend);
+    }
+
+    @Test
+    public void testRoundTrip() {
+        INDArray[] arrays = {Nd4j.linspace(1, 1000, 10000), Nd4j.rand(new int[] {37, 113}, 12345),
+                        Nd4j.zeros(50, 50), Nd4j.create(new double[] {1.5}), Nd4j.rand(5, 7).dup('f')};
+
+        for (String algorithm : ALGORITHMS) {
+            for (INDArray array : arrays) {
+                INDArray compressed = Nd4j.getCompressor().compress(array, algorithm);
+                assertTrue(compressed.isCompressed());
+                assertEquals(DataBuffer.Type.COMPRESSED, compressed.data().dataType());
+
+                INDArray decompressed = Nd4j.getCompressor().decompress(compressed);
+                assertEquals(algorithm, array, decompressed);
+                assertArrayEquals(algorithm, array.data().asDouble(), decompressed.data().asDouble(), 0.0);
+            }
+        }
+    }
+
+    @Test
+    public void testCompressionRatio() {
+        INDArray zeros = Nd4j.zeros(100, 100);
+        INDArray smooth = Nd4j.linspace(0, 1, 10000).muli(100).addi(1000);
+
+        for (String algorithm : ALGORITHMS) {
+            CompressionDescriptor descriptor = ((CompressedDataBuffer) Nd4j.getCompressor()
+                            .compress(zeros, algorithm).data()).getCompressionDescriptor();
+            assertTrue(algorithm, descriptor.getCompressedLength() < descriptor.getOriginalLength() / 50);
+        }
+
+        //Byte shuffling should help for smooth floating point data
+        long lz4 = ((CompressedDataBuffer) Nd4j.getCompressor().compress(smooth, "LZ4").data())
+                        .getCompressionDescriptor().getCompressedLength();
+        long shuffleLz4 = ((CompressedDataBuffer) Nd4j.getCompressor().compress(smooth, "SHUFFLE_LZ4").data())
+                        .getCompressionDescriptor().getCompressedLength();
+        assertTrue(shuffleLz4 + " vs. " + lz4, shuffleLz4 < lz4);
+    }
+
+    @Test
+    public void testInPlace() {
+        String defaultCompression = Nd4j.getCompressor().getDefaultCompression();
+        try {
+            for (String algorithm : ALGORITHMS) {
+                INDArray array = Nd4j.linspace(1, 100, 100);
+                INDArray exp = array.dup();
+                Nd4j.getCompressor().setDefaultCompression(algorithm);
+                Nd4j.getCompressor().compressi(array);
+                assertTrue(array.isCompressed());
+                Nd4j.getCompressor().decompressi(array);
+                assertFalse(array.isCompressed());
+                assertEquals(exp, array);
+            }
+        } finally {
+            Nd4j.getCompressor().setDefaultCompression(defaultCompression);
+        }
+    }
+
+    @Test
+    public void testSerialization() throws Exception {
+        for (String algorithm : ALGORITHMS) {
+            INDArray array = Nd4j.linspace(1, 250, 250);
+            INDArray compressed = Nd4j.getCompressor().compress(array, algorithm);
+
+            ByteArrayOutputStream bos = new ByteArrayOutputStream();
+            Nd4j.write(bos, compressed);
+            INDArray result = Nd4j.read(new ByteArrayInputStream(bos.toByteArray()));
+
+            assertEquals(algorithm, array, Nd4j.getCompressor().decompress(result));
+        }
+    }
+
+    @Test
+    public void testCompressJavaArrays() {
+        float[] data = new float[1000];
+        for (int i = 0; i < data.length; i++)
+            data[i] = i % 17;
+
+        for (String algorithm : ALGORITHMS) {
+            INDArray compressed = Nd4j.getCompressor().getCompressor(algorithm).compress(data);
+            INDArray decompressed = Nd4j.getCompressor().decompress(compressed);
+            assertArrayEquals(algorithm, data, decompressed.data().asFloat(), 0.0f);
+        }
+    }
+
+    @Test
+    public void testDescriptorSerde() {
+        for (String algorithm : ALGORITHMS) {
+            INDArray compressed = Nd4j.getCompressor().compress(Nd4j.linspace(1, 10, 10), algorithm);
+            CompressionDescriptor descriptor = ((CompressedDataBuffer) compressed.data()).getCompressionDescriptor();
+            assertEquals(descriptor, CompressionDescriptor.fromByteBuffer(descriptor.toByteBuffer()));
+            assertEquals(CompressionAlgorithm.valueOf(algorithm), CompressionAlgorithm.fromString(algorithm));
+        }
+    }
+
+    @Override
+    public char ordering() {
+        return 'c';
+    }
+}
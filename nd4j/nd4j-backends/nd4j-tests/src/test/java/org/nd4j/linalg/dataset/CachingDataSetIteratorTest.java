@@ -10,6 +10,7 @@ import org.nd4j.linalg.dataset.api.DataSetPreProcessor;
 import org.nd4j.linalg.dataset.api.iterator.CachingDataSetIterator;
 import org.nd4j.linalg.dataset.api.iterator.DataSetIterator;
 import org.nd4j.linalg.dataset.api.iterator.SamplingDataSetIterator;
+import org.nd4j.linalg.dataset.api.iterator.cache.CompressedLruDataSetCache;
 import org.nd4j.linalg.dataset.api.iterator.cache.DataSetCache;
 import org.nd4j.linalg.dataset.api.iterator.cache.InFileDataSetCache;
 import org.nd4j.linalg.dataset.api.iterator.cache.InMemoryDataSetCache;
@@ -54,6 +55,84 @@ public class CachingDataSetIteratorTest extends BaseNd4jTest {
         FileUtils.deleteDirectory(cacheDir.toFile());
     }
 
+    @Test
+    public void testCompressedLru() {
+        CompressedLruDataSetCache cache = new CompressedLruDataSetCache(100 * 1024 * 1024, "SHUFFLE_LZ4");
+
+        runDataSetTest(cache);
+
+        assertTrue(cache.getMemoryHits() > 0);
+        assertEquals(0, cache.getEvictions());
+        //Constant arrays compress very well
+        assertTrue(cache.getMemoryBytes() < 5 * 10 * 102 * Nd4j.sizeOfDataType() / 10);
+    }
+
+    @Test
+    public void testCompressedLruSpillToDisk() throws IOException {
+        Path cacheDir = Files.createTempDirectory("nd4j-data-set-cache-test");
+        //Room for ~2 uncompressed minibatches only
+        CompressedLruDataSetCache cache =
+                        new CompressedLruDataSetCache(2 * 10 * 102 * Nd4j.sizeOfDataType() + 1, null, cacheDir.toFile());
+
+        runDataSetTest(cache);
+
+        assertTrue(cache.getEvictions() > 0);
+        assertTrue(cache.getDiskHits() > 0);
+        assertTrue(cache.getMemoryBytes() <= cache.getMaxBytes());
+
+        FileUtils.deleteDirectory(cacheDir.toFile());
+    }
+
+    @Test
+    public void testCompressedLruMemoryOnlyTooSmall() {
+        //Room for ~2 of the 5 uncompressed minibatches, no spill directory: DataSets are dropped
+        CompressedLruDataSetCache cache = new CompressedLruDataSetCache(2 * 10 * 102 * Nd4j.sizeOfDataType() + 1, null);
+
+        DataSet dataSet = new DataSet(Nd4j.rand(50, 100), Nd4j.rand(50, 2));
+        DataSetIterator it = new SamplingDataSetIterator(dataSet, 10, 50);
+        CachingDataSetIterator cachedIt = new CachingDataSetIterator(it, cache, "test-namespace");
+
+        for (int epoch = 0; epoch < 2; epoch++) {
+            int count = 0;
+            while (cachedIt.hasNext()) {
+                assertNotNull(cachedIt.next());
+                count++;
+            }
+            assertEquals("Epoch " + epoch, 5, count);
+            assertFalse(cache.isComplete("test-namespace"));
+            cachedIt.reset();
+        }
+
+        assertTrue(cache.getEvictions() > 0);
+        assertTrue(cache.getMemoryBytes() <= cache.getMaxBytes());
+    }
+
+    @Test
+    public void testCompressedLruEviction() {
+        DataSet ds1 = new DataSet(Nd4j.rand(10, 10), Nd4j.rand(10, 2));
+        DataSet ds2 = new DataSet(Nd4j.rand(10, 10), Nd4j.rand(10, 2), Nd4j.ones(10, 1), null);
+        DataSet ds3 = new DataSet(Nd4j.rand(10, 10), Nd4j.rand(10, 2));
+        long size = 10 * 12 * Nd4j.sizeOfDataType();
+
+        CompressedLruDataSetCache cache = new CompressedLruDataSetCache(2 * size + 10 * Nd4j.sizeOfDataType(), null);
+        cache.put("1", ds1);
+        cache.put("2", ds2);
+        assertEquals(ds1, cache.get("1"));
+        assertEquals(ds2, cache.get("2"));
+
+        //"1" is least recently used
+        cache.get("1");
+        cache.put("3", ds3);
+        assertTrue(cache.contains("1"));
+        assertFalse(cache.contains("2"));
+        assertTrue(cache.contains("3"));
+        assertNull(cache.get("2"));
+
+        assertEquals(3, cache.getMemoryHits());
+        assertEquals(1, cache.getMisses());
+        assertEquals(1, cache.getEvictions());
+    }
+
     private void runDataSetTest(DataSetCache cache) {
         int rows = 500;
         int inputColumns = 100;
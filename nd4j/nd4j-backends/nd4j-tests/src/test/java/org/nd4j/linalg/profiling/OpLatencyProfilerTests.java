@@ -0,0 +1,152 @@
+package org.nd4j.linalg.profiling;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.nd4j.linalg.api.memory.MemoryWorkspace;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.api.ops.executioner.OpExecutioner;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.profiler.OpLatencyProfiler;
+import org.nd4j.linalg.profiler.OpMetricsSink;
+import org.nd4j.linalg.profiler.data.LatencyHistogram;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class OpLatencyProfilerTests {
+
+    @Before
+    public void setUp() {
+        Nd4j.getExecutioner().setProfilingMode(OpExecutioner.ProfilingMode.LATENCY);
+        OpLatencyProfiler.getInstance().reset();
+    }
+
+    @After
+    public void tearDown() {
+        Nd4j.getExecutioner().setProfilingMode(OpExecutioner.ProfilingMode.DISABLED);
+        OpLatencyProfiler.getInstance().reset();
+    }
+
+    @Test
+    public void testHistogram() {
+        LatencyHistogram h = new LatencyHistogram();
+        for (int i = 1; i <= 10000; i++)
+            h.record(i * 1000L);
+
+        assertEquals(10000, h.getCount());
+        assertEquals(1000, h.getMin());
+        assertEquals(10_000_000, h.getMax());
+        assertEquals(5_000_500.0, h.getMean(), 1e-6);
+
+        //Bucket resolution: within 1/16 of the exact value, and never below it
+        long[][] expected = {{50, 5_000_000}, {90, 9_000_000}, {99, 9_900_000}, {100, 10_000_000}};
+        for (long[] e : expected) {
+            long p = h.getPercentile(e[0]);
+            assertTrue(e[0] + ": " + p, p >= e[1]);
+            assertTrue(e[0] + ": " + p, p <= e[1] * 17 / 16);
+        }
+
+        //Exact for small values
+        h.reset();
+        assertEquals(0, h.getCount());
+        assertEquals(0, h.getPercentile(50));
+        for (int i = 0; i < 10; i++)
+            h.record(i);
+        assertEquals(4, h.getPercentile(50));
+        assertEquals(9, h.getPercentile(100));
+
+        h.record(Long.MAX_VALUE);
+        assertEquals(Long.MAX_VALUE, h.getPercentile(100));
+    }
+
+    @Test
+    public void testOpTiming() {
+        INDArray array = Nd4j.createUninitialized(100);
+        for (int i = 0; i < 10; i++) {
+            array.assign(10f);
+            array.divi(2f);
+        }
+        Nd4j.getExecutioner().commit();
+
+        List<OpLatencyProfiler.OpStats> stats = OpLatencyProfiler.getInstance().getStats();
+        assertFalse(stats.isEmpty());
+        long totalCount = 0;
+        for (OpLatencyProfiler.OpStats s : stats) {
+            totalCount += s.getCount();
+            assertTrue(s.getP50Nanos() <= s.getP99Nanos());
+            assertTrue(s.getOutputBytes() > 0);
+        }
+        assertEquals(20, totalCount);
+
+        for (int i = 1; i < stats.size(); i++)
+            assertTrue(stats.get(i - 1).getTotalNanos() >= stats.get(i).getTotalNanos());
+
+        long expBytes = 20 * 100 * Nd4j.sizeOfDataType();
+        assertEquals(expBytes, (long) OpLatencyProfiler.getInstance().getWorkspaceBytes()
+                        .get(OpLatencyProfiler.DETACHED));
+    }
+
+    @Test
+    public void testBlasTiming() {
+        INDArray a = Nd4j.rand(10, 20);
+        INDArray b = Nd4j.rand(20, 30);
+        for (int i = 0; i < 5; i++)
+            a.mmul(b);
+        Nd4j.getExecutioner().commit();
+
+        LatencyHistogram h = OpLatencyProfiler.getInstance().getHistogram("gemm");
+        assertNotNull(h);
+        assertEquals(5, h.getCount());
+
+        boolean found = false;
+        for (OpLatencyProfiler.OpStats s : OpLatencyProfiler.getInstance().getStats()) {
+            if ("gemm".equals(s.getOpName())) {
+                assertEquals("BLAS", s.getOpClass());
+                assertEquals(5 * 10 * 30 * Nd4j.sizeOfDataType(), s.getOutputBytes());
+                found = true;
+            }
+        }
+        assertTrue(found);
+    }
+
+    @Test
+    public void testWorkspaceBytes() {
+        try (MemoryWorkspace ws = Nd4j.getWorkspaceManager().getAndActivateWorkspace("LATENCY_TEST_WS")) {
+            INDArray array = Nd4j.create(10);
+            array.addi(1.0);
+        }
+        Nd4j.getExecutioner().commit();
+
+        Map<String, Long> bytes = OpLatencyProfiler.getInstance().getWorkspaceBytes();
+        assertEquals(10L * Nd4j.sizeOfDataType(), (long) bytes.get("LATENCY_TEST_WS"));
+    }
+
+    @Test
+    public void testSink() {
+        final List<List<OpLatencyProfiler.OpStats>> published = new ArrayList<>();
+        OpMetricsSink sink = new OpMetricsSink() {
+            @Override
+            public void publish(List<OpLatencyProfiler.OpStats> opStats, Map<String, Long> workspaceBytes) {
+                published.add(opStats);
+            }
+        };
+        OpLatencyProfiler.getInstance().addSink(sink);
+        try {
+            OpLatencyProfiler.getInstance().record("myOp", "CustomOp", 1000, 64);
+            OpLatencyProfiler.getInstance().publish();
+
+            assertEquals(1, published.size());
+            OpLatencyProfiler.OpStats s = published.get(0).get(0);
+            assertEquals("myOp", s.getOpName());
+            assertEquals(1, s.getCount());
+            assertEquals(1000, s.getMaxNanos());
+            assertEquals(64, s.getOutputBytes());
+        } finally {
+            OpLatencyProfiler.getInstance().removeSink(sink);
+        }
+    }
+}
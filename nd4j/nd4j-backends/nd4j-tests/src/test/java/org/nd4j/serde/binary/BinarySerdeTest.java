@@ -5,17 +5,20 @@ import org.junit.Test;
 import org.nd4j.linalg.api.buffer.DataBuffer;
 import org.nd4j.linalg.api.ndarray.INDArray;
 import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.indexing.NDArrayIndex;
 
 import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.DataOutputStream;
 import java.io.File;
 import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
 import java.util.UUID;
 
-import static org.junit.Assert.assertArrayEquals;
-import static org.junit.Assert.assertEquals;
-import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.*;
 
 /**
  * Created by agibsonccc on 9/23/16.
@@ -79,6 +82,108 @@ public class BinarySerdeTest {
         assertArrayEquals(rand.shapeInfoDataBuffer().asLong(), buffer.asLong());
     }
 
+    @Test
+    public void testChannelRoundTrip() throws Exception {
+        INDArray c = Nd4j.linspace(1, 60, 60).reshape('c', 3, 4, 5);
+        INDArray f = c.dup('f');
+        INDArray[] arrays = new INDArray[] {c, f,
+                        //Contiguous view, strided views
+                        c.get(NDArrayIndex.point(1), NDArrayIndex.all(), NDArrayIndex.all()),
+                        c.get(NDArrayIndex.all(), NDArrayIndex.interval(1, 3), NDArrayIndex.interval(0, 2, 5)),
+                        c.tensorAlongDimension(2, 0, 1),
+                        f.get(NDArrayIndex.all(), NDArrayIndex.point(2), NDArrayIndex.all()),
+                        c.getRow(1).getColumn(3), Nd4j.scalar(2.0)};
+
+        for (INDArray arr : arrays) {
+            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            long written = BinarySerde.writeArrayToChannel(arr, Channels.newChannel(baos));
+            byte[] bytes = baos.toByteArray();
+            assertEquals(bytes.length, written);
+
+            //Same format as the byte buffer representation of the array
+            assertEquals(BinarySerde.byteBufferSizeFor(arr.dup()), bytes.length);
+
+            INDArray read = BinarySerde.readArrayFromChannel(Channels.newChannel(new ByteArrayInputStream(bytes)));
+            assertEquals(arr, read);
+            assertEquals(arr.ordering(), read.ordering());
+            ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length);
+            direct.put(bytes).rewind();
+            assertEquals(arr, BinarySerde.toArray(direct));
+        }
+    }
+
+    @Test
+    public void testReadIntoExistingArray() throws Exception {
+        INDArray arr = Nd4j.rand(new int[] {4, 6}, 12345);
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        BinarySerde.writeArrayToChannel(arr, Channels.newChannel(baos));
+        byte[] bytes = baos.toByteArray();
+
+        INDArray target = Nd4j.create(4, 6);
+        assertSame(target, BinarySerde.readArrayFromChannel(Channels.newChannel(new ByteArrayInputStream(bytes)), target));
+        assertEquals(arr, target);
+
+        //Other ordering
+        target = Nd4j.create(new int[] {4, 6}, 'f');
+        BinarySerde.readArrayFromChannel(Channels.newChannel(new ByteArrayInputStream(bytes)), target);
+        assertEquals(arr, target);
+
+        //Strided view: other values are not modified
+        INDArray larger = Nd4j.zeros(6, 8);
+        INDArray view = larger.get(NDArrayIndex.interval(0, 2, 8), NDArrayIndex.interval(1, 7));
+        BinarySerde.readArrayFromChannel(Channels.newChannel(new ByteArrayInputStream(bytes)), view);
+        assertEquals(arr, view);
+        assertEquals(arr.sumNumber().doubleValue(), larger.sumNumber().doubleValue(), 1e-6);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testReadIntoArrayOfOtherShape() throws Exception {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        BinarySerde.writeArrayToChannel(Nd4j.create(3, 4), Channels.newChannel(baos));
+        BinarySerde.readArrayFromChannel(Channels.newChannel(new ByteArrayInputStream(baos.toByteArray())),
+                        Nd4j.create(4, 3));
+    }
+
+    @Test
+    public void testFileChannel() throws Exception {
+        File tmpFile = new File(System.getProperty("java.io.tmpdir"),
+                        "ndarraytmp-" + UUID.randomUUID().toString() + " .bin");
+        tmpFile.deleteOnExit();
+        INDArray first = Nd4j.randn(50, 30);
+        INDArray second = first.transpose();
+        try (FileChannel channel = FileChannel.open(tmpFile.toPath(), StandardOpenOption.CREATE,
+                        StandardOpenOption.WRITE)) {
+            BinarySerde.writeArrayToChannel(first, channel);
+            BinarySerde.writeArrayToChannel(second, channel);
+        }
+
+        try (FileChannel channel = FileChannel.open(tmpFile.toPath(), StandardOpenOption.READ)) {
+            assertEquals(first, BinarySerde.readArrayFromChannel(channel));
+            assertEquals(second, BinarySerde.readArrayFromChannel(channel));
+            assertEquals(channel.size(), channel.position());
+        }
+        //First array is also readable with the existing methods
+        assertEquals(first, BinarySerde.readFromDisk(tmpFile));
+    }
+
+    @Test
+    public void testReadOtherDataType() throws Exception {
+        DataBuffer.Type initialType = Nd4j.dataType();
+        try {
+            Nd4j.setDataType(DataBuffer.Type.FLOAT);
+            INDArray arr = Nd4j.linspace(1, 12, 12).reshape(3, 4);
+            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            BinarySerde.writeArrayToChannel(arr, Channels.newChannel(baos));
+
+            Nd4j.setDataType(DataBuffer.Type.DOUBLE);
+            INDArray read = BinarySerde.readArrayFromChannel(Channels.newChannel(new ByteArrayInputStream(baos.toByteArray())));
+            assertEquals(DataBuffer.Type.DOUBLE, read.data().dataType());
+            assertEquals(Nd4j.linspace(1, 12, 12).reshape(3, 4), read);
+        } finally {
+            Nd4j.setDataType(initialType);
+        }
+    }
+
     @Test
     public void timeOldVsNew() throws Exception {
         int numTrials = 1000;
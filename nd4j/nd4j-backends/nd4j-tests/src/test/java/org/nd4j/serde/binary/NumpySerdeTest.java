@@ -0,0 +1,185 @@
+package org.nd4j.serde.binary;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.nd4j.linalg.api.buffer.DataBuffer;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.indexing.NDArrayIndex;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import static org.junit.Assert.*;
+
+public class NumpySerdeTest {
+    @Rule
+    public TemporaryFolder testDir = new TemporaryFolder();
+
+    private DataBuffer.Type initialType;
+
+    @Before
+    public void before() {
+        initialType = Nd4j.dataType();
+        Nd4j.setDataType(DataBuffer.Type.DOUBLE);
+    }
+
+    @After
+    public void after() {
+        Nd4j.setDataType(initialType);
+    }
+
+    private static byte[] toBytes(INDArray arr) throws Exception {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        Nd4j.writeAsNumpy(arr, baos);
+        return baos.toByteArray();
+    }
+
+    @Test
+    public void testRoundTrip() throws Exception {
+        INDArray c = Nd4j.linspace(1, 24, 24).reshape('c', 2, 3, 4);
+        INDArray[] arrays = new INDArray[] {c, c.dup('f'), c.get(NDArrayIndex.all(), NDArrayIndex.interval(0, 2),
+                        NDArrayIndex.interval(1, 4)), Nd4j.linspace(1, 5, 5), Nd4j.rand(7, 3).transpose()};
+
+        for (INDArray arr : arrays) {
+            byte[] bytes = toBytes(arr);
+            INDArray read = NumpySerde.read(Channels.newChannel(new ByteArrayInputStream(bytes)));
+            assertEquals(arr, read);
+            assertEquals(arr.ordering(), read.ordering());
+
+            //Header is aligned, as required by the format specification
+            int headerLength = (bytes[8] & 0xFF) | (bytes[9] & 0xFF) << 8;
+            assertEquals(0, (10 + headerLength) % 64);
+            assertEquals(10 + headerLength + arr.length() * 8, bytes.length);
+        }
+    }
+
+    @Test
+    public void testHeader() throws Exception {
+        byte[] bytes = toBytes(Nd4j.create(new long[] {3, 4}, 'f'));
+        assertEquals((byte) 0x93, bytes[0]);
+        assertEquals("NUMPY", new String(bytes, 1, 5, StandardCharsets.US_ASCII));
+        assertEquals(1, bytes[6]);
+        String header = new String(bytes, 10, bytes.length - 10 - 12 * 8, StandardCharsets.US_ASCII);
+        String order = ByteOrder.nativeOrder() == ByteOrder.LITTLE_ENDIAN ? "<" : ">";
+        assertTrue(header, header.startsWith("{'descr': '" + order + "f8', 'fortran_order': True, 'shape': (3, 4), }"));
+        assertTrue(header.endsWith("\n"));
+    }
+
+    @Test
+    public void testReadOtherTypes() throws Exception {
+        //Big endian int16, shape (2, 3), as written by numpy for dtype '>i2'
+        String header = "{'descr': '>i2', 'fortran_order': False, 'shape': (2, 3), }";
+        ByteBuffer bb = ByteBuffer.allocate(10 + header.length() + 1 + 12).order(ByteOrder.LITTLE_ENDIAN);
+        bb.put((byte) 0x93).put("NUMPY".getBytes(StandardCharsets.US_ASCII)).put((byte) 1).put((byte) 0);
+        bb.putShort((short) (header.length() + 1));
+        bb.put(header.getBytes(StandardCharsets.US_ASCII)).put((byte) '\n');
+        bb.order(ByteOrder.BIG_ENDIAN);
+        for (short s : new short[] {1, -2, 3, -4, 5, 300})
+            bb.putShort(s);
+
+        INDArray read = NumpySerde.read(Channels.newChannel(new ByteArrayInputStream(bb.array())));
+        assertEquals(Nd4j.create(new double[][] {{1, -2, 3}, {-4, 5, 300}}), read);
+
+        //1-d unsigned bytes
+        header = "{'descr': '|u1', 'fortran_order': False, 'shape': (3,), }";
+        bb = ByteBuffer.allocate(10 + header.length() + 1 + 3).order(ByteOrder.LITTLE_ENDIAN);
+        bb.put((byte) 0x93).put("NUMPY".getBytes(StandardCharsets.US_ASCII)).put((byte) 1).put((byte) 0);
+        bb.putShort((short) (header.length() + 1));
+        bb.put(header.getBytes(StandardCharsets.US_ASCII)).put((byte) '\n');
+        bb.put((byte) 0).put((byte) 128).put((byte) 255);
+        read = NumpySerde.read(Channels.newChannel(new ByteArrayInputStream(bb.array())));
+        assertEquals(Nd4j.create(new double[] {0, 128, 255}), read);
+    }
+
+    @Test
+    public void testReadHalf() throws Exception {
+        //Little endian float16, as written by numpy for dtype '<f2' (native byte order on x86)
+        String header = "{'descr': '<f2', 'fortran_order': False, 'shape': (2, 2), }";
+        ByteBuffer bb = ByteBuffer.allocate(10 + header.length() + 1 + 8).order(ByteOrder.LITTLE_ENDIAN);
+        bb.put((byte) 0x93).put("NUMPY".getBytes(StandardCharsets.US_ASCII)).put((byte) 1).put((byte) 0);
+        bb.putShort((short) (header.length() + 1));
+        bb.put(header.getBytes(StandardCharsets.US_ASCII)).put((byte) '\n');
+        //1.0, -2.0, 0.5, 65504.0 (largest float16 value)
+        for (short s : new short[] {0x3C00, (short) 0xC000, 0x3800, 0x7BFF})
+            bb.putShort(s);
+
+        for (DataBuffer.Type type : new DataBuffer.Type[] {DataBuffer.Type.FLOAT, DataBuffer.Type.DOUBLE}) {
+            Nd4j.setDataType(type);
+            INDArray read = NumpySerde.read(Channels.newChannel(new ByteArrayInputStream(bb.array())));
+            assertEquals(type, read.data().dataType());
+            assertEquals(Nd4j.create(new double[][] {{1, -2}, {0.5, 65504}}), read);
+        }
+    }
+
+    @Test
+    public void testReadFloatAsDouble() throws Exception {
+        Nd4j.setDataType(DataBuffer.Type.FLOAT);
+        byte[] bytes = toBytes(Nd4j.linspace(1, 6, 6).reshape(2, 3));
+        Nd4j.setDataType(DataBuffer.Type.DOUBLE);
+        INDArray read = NumpySerde.read(Channels.newChannel(new ByteArrayInputStream(bytes)));
+        assertEquals(DataBuffer.Type.DOUBLE, read.data().dataType());
+        assertEquals(Nd4j.linspace(1, 6, 6).reshape(2, 3), read);
+    }
+
+    @Test
+    public void testMapped() throws Exception {
+        for (char order : new char[] {'c', 'f'}) {
+            INDArray arr = Nd4j.rand(new int[] {20, 30}, 12345).dup(order);
+            File f = testDir.newFile();
+            Nd4j.writeAsNumpy(arr, f);
+
+            INDArray mapped = Nd4j.createFromNpyFileMapped(f);
+            assertEquals(order, mapped.ordering());
+            assertEquals(arr, mapped);
+            assertEquals(arr.mmul(arr.transpose()), mapped.mmul(mapped.transpose()));
+
+            //Modifications are not written to the file
+            mapped.addi(1.0);
+            assertEquals(arr, NumpySerde.read(f));
+        }
+    }
+
+    @Test
+    public void testNativeReaderCompatibility() throws Exception {
+        INDArray arr = Nd4j.linspace(1, 12, 12).reshape(3, 4);
+        File f = testDir.newFile();
+        Nd4j.writeAsNumpy(arr, f);
+        assertEquals(arr, Nd4j.createFromNpyFile(f));
+    }
+
+    @Test
+    public void testNpz() throws Exception {
+        Map<String, INDArray> arrays = new LinkedHashMap<>();
+        arrays.put("features", Nd4j.rand(10, 4));
+        arrays.put("labels", Nd4j.linspace(1, 10, 10).reshape(10, 1));
+        arrays.put("weights", Nd4j.rand(3, 5).dup('f'));
+
+        for (boolean compress : new boolean[] {false, true}) {
+            File f = testDir.newFile();
+            Nd4j.writeAsNpz(arrays, f, compress);
+
+            try (ZipFile zipFile = new ZipFile(f)) {
+                ZipEntry e = zipFile.getEntry("features.npy");
+                assertNotNull(e);
+                assertEquals(compress ? ZipEntry.DEFLATED : ZipEntry.STORED, e.getMethod());
+            }
+
+            Map<String, INDArray> read = Nd4j.createFromNpzFile(f);
+            assertEquals(arrays, read);
+            assertArrayEquals(arrays.keySet().toArray(), read.keySet().toArray());
+        }
+    }
+}
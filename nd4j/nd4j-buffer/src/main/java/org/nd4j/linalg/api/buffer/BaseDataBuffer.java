@@ -23,6 +23,8 @@ import lombok.extern.slf4j.Slf4j;
 import lombok.val;
 import org.bytedeco.javacpp.*;
 import org.bytedeco.javacpp.indexer.*;
+import org.nd4j.linalg.api.buffer.pool.BufferPool;
+import org.nd4j.linalg.api.buffer.pool.BufferPoolConfiguration;
 import org.nd4j.linalg.api.buffer.util.AllocUtil;
 import org.nd4j.linalg.api.buffer.util.DataTypeUtil;
 import org.nd4j.linalg.api.complex.IComplexDouble;
@@ -77,6 +79,75 @@ public abstract class BaseDataBuffer implements DataBuffer {
         }
     }
 
+    /**
+     * Set to "true" to enable pooling of off-heap memory for buffers allocated outside of workspaces, with the
+     * default {@link BufferPoolConfiguration}. See {@link #setBufferPool(BufferPool)}
+     */
+    public static final String BUFFER_POOL_ENABLED = "org.nd4j.databuffer.pool.enabled";
+    /**
+     * Maximum number of bytes of idle memory kept by the buffer pool, if enabled via {@link #BUFFER_POOL_ENABLED}
+     */
+    public static final String BUFFER_POOL_MAX_BYTES = "org.nd4j.databuffer.pool.maxbytes";
+
+    private static volatile BufferPool bufferPool;
+    static {
+        if (Boolean.parseBoolean(System.getProperty(BUFFER_POOL_ENABLED))) {
+            BufferPoolConfiguration conf = BufferPoolConfiguration.builder().build();
+            String s = System.getProperty(BUFFER_POOL_MAX_BYTES);
+            if (s != null) {
+                try {
+                    conf.setMaxPooledBytes(Long.parseLong(s));
+                } catch (NumberFormatException e) {
+                    log.warn("Invalid value for key {}: \"{}\"", BUFFER_POOL_MAX_BYTES, s);
+                }
+            }
+            bufferPool = new BufferPool(conf);
+        }
+    }
+
+    /**
+     * Set the pool used for the off-heap memory of buffers allocated outside of workspaces. Buffers allocated
+     * while a pool is set return their memory to that pool when they are garbage collected.
+     *
+     * @param pool Buffer pool to use, or null to disable pooling. Idle memory of the previous pool is not freed:
+     *             use {@link BufferPool#purge()} for that
+     */
+    public static void setBufferPool(BufferPool pool) {
+        bufferPool = pool;
+    }
+
+    /**
+     * @return The current buffer pool, or null if pooling is disabled
+     */
+    public static BufferPool getBufferPool() {
+        return bufferPool;
+    }
+
+    /**
+     * Allocate a new (uninitialized) pointer of the type of this buffer, from the buffer pool if one is set
+     */
+    protected Pointer newPointer(long length) {
+        BufferPool pool = bufferPool;
+        if (pool != null) {
+            Pointer p = pool.allocate(dataType(), length);
+            if (p != null)
+                return p;
+        }
+
+        switch (dataType()) {
+            case DOUBLE:
+                return new DoublePointer(length);
+            case FLOAT:
+                return new FloatPointer(length);
+            case INT:
+                return new IntPointer(length);
+            case LONG:
+                return new LongPointer(length);
+            default:
+                throw new IllegalStateException("Unsupported data type: " + dataType());
+        }
+    }
+
     protected Type type;
     protected long length;
     protected long underlyingLength;
@@ -237,7 +308,7 @@ public abstract class BaseDataBuffer implements DataBuffer {
         allocationMode = AllocUtil.getAllocationModeFromContext();
         initTypeAndSize();
 
-        pointer = new FloatPointer(data);
+        pointer = ((FloatPointer) newPointer(data.length)).put(data);
 
         setIndexer(FloatIndexer.create((FloatPointer) pointer));
         //wrappedBuffer = pointer.asByteBuffer();
@@ -329,7 +400,7 @@ public abstract class BaseDataBuffer implements DataBuffer {
         allocationMode = AllocUtil.getAllocationModeFromContext();
         initTypeAndSize();
 
-        pointer = new DoublePointer(data);
+        pointer = ((DoublePointer) newPointer(data.length)).put(data);
         indexer = DoubleIndexer.create((DoublePointer) pointer);
         //wrappedBuffer = pointer.asByteBuffer();
 
@@ -360,7 +431,7 @@ public abstract class BaseDataBuffer implements DataBuffer {
         allocationMode = AllocUtil.getAllocationModeFromContext();
         initTypeAndSize();
 
-        pointer = new IntPointer(data);
+        pointer = ((IntPointer) newPointer(data.length)).put(data);
         setIndexer(IntIndexer.create((IntPointer) pointer));
 
         length = data.length;
@@ -378,7 +449,7 @@ public abstract class BaseDataBuffer implements DataBuffer {
         allocationMode = AllocUtil.getAllocationModeFromContext();
         initTypeAndSize();
 
-        pointer = new LongPointer(data);
+        pointer = ((LongPointer) newPointer(data.length)).put(data);
         setIndexer(LongIndexer.create((LongPointer) pointer));
 
         length = data.length;
@@ -441,16 +512,16 @@ public abstract class BaseDataBuffer implements DataBuffer {
         this.elementSize = (byte) elementSize;
 
         if (dataType() == Type.DOUBLE) {
-            pointer = new DoublePointer(length);
+            pointer = newPointer(length);
             indexer = DoubleIndexer.create((DoublePointer) pointer);
         } else if (dataType() == Type.FLOAT) {
-            pointer = new FloatPointer(length);
+            pointer = newPointer(length);
             setIndexer(FloatIndexer.create((FloatPointer) pointer));
         } else if (dataType() == Type.INT) {
-            pointer = new IntPointer(length);
+            pointer = newPointer(length);
             setIndexer(IntIndexer.create((IntPointer) pointer));
         } else if (dataType() == Type.LONG) {
-            pointer = new LongPointer(length);
+            pointer = newPointer(length);
             setIndexer(LongIndexer.create((LongPointer) pointer));
         }
 
@@ -598,24 +669,24 @@ public abstract class BaseDataBuffer implements DataBuffer {
             throw new IllegalArgumentException("Unable to create a buffer of length <= 0");
 
         if (dataType() == Type.DOUBLE) {
-            pointer = new DoublePointer(length());
+            pointer = newPointer(length());
             indexer = DoubleIndexer.create((DoublePointer) pointer);
             if (initialize)
                 fillPointerWithZero();
         } else if (dataType() == Type.FLOAT) {
-            pointer = new FloatPointer(length());
+            pointer = newPointer(length());
             setIndexer(FloatIndexer.create((FloatPointer) pointer));
 
             if (initialize)
                 fillPointerWithZero();
 
         } else if (dataType() == Type.INT) {
-            pointer = new IntPointer(length());
+            pointer = newPointer(length());
             setIndexer(IntIndexer.create((IntPointer) pointer));
             if (initialize)
                 fillPointerWithZero();
         } else if (dataType() == Type.LONG) {
-            pointer = new LongPointer(length());
+            pointer = newPointer(length());
             setIndexer(LongIndexer.create((LongPointer) pointer));
 
             if (initialize)
@@ -25,6 +25,7 @@ import org.bytedeco.javacpp.IntPointer;
 import org.bytedeco.javacpp.Pointer;
 import org.bytedeco.javacpp.indexer.Indexer;
 import org.nd4j.linalg.api.buffer.DataBuffer;
+import org.nd4j.linalg.api.buffer.pool.BufferPool;
 import org.nd4j.linalg.api.memory.MemoryWorkspace;
 
 import java.nio.ByteBuffer;
@@ -791,4 +792,17 @@ public interface DataBufferFactory {
 
     Class<? extends DataBuffer> doubleBufferClass();
 
+    /**
+     * Set the pool used to recycle the off-heap memory of buffers allocated outside of workspaces
+     *
+     * @param pool Buffer pool to use, or null to disable pooling
+     * @throws UnsupportedOperationException if the backend doesn't support buffer pooling
+     */
+    void setBufferPool(BufferPool pool);
+
+    /**
+     * @return The current buffer pool, or null if pooling is disabled or not supported by the backend
+     */
+    BufferPool getBufferPool();
+
 }
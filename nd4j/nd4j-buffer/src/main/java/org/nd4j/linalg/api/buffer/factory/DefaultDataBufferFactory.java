@@ -28,6 +28,7 @@ import org.bytedeco.javacpp.indexer.FloatIndexer;
 import org.bytedeco.javacpp.indexer.Indexer;
 import org.bytedeco.javacpp.indexer.IntIndexer;
 import org.nd4j.linalg.api.buffer.*;
+import org.nd4j.linalg.api.buffer.pool.BufferPool;
 import org.nd4j.linalg.api.memory.MemoryWorkspace;
 import org.nd4j.linalg.util.ArrayUtil;
 
@@ -812,4 +813,14 @@ public class DefaultDataBufferFactory implements DataBufferFactory {
     public Class<? extends DataBuffer> doubleBufferClass() {
         return DoubleBuffer.class;
     }
+
+    @Override
+    public void setBufferPool(BufferPool pool) {
+        BaseDataBuffer.setBufferPool(pool);
+    }
+
+    @Override
+    public BufferPool getBufferPool() {
+        return BaseDataBuffer.getBufferPool();
+    }
 }
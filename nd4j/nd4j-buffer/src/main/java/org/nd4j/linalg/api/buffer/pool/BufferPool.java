@@ -0,0 +1,261 @@
+package org.nd4j.linalg.api.buffer.pool;
+
+import lombok.Getter;
+import lombok.NonNull;
+import org.bytedeco.javacpp.*;
+import org.nd4j.linalg.api.buffer.DataBuffer;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Size-class pool for off-heap memory of buffers allocated outside of workspaces.<br>
+ * Requested sizes are rounded up to a size class (4 classes per power of 2, so at most 25% overhead). Pointers
+ * allocated from the pool are still released by JavaCPP when they are garbage collected, but instead of freeing
+ * the memory, it is returned to the pool and reused for the next allocation of the same size class. This keeps the
+ * native memory footprint flat for allocation-heavy code, and avoids the cost of malloc/free for each buffer.<br>
+ * Idle memory is bounded by {@link BufferPoolConfiguration#getMaxPooledBytes()} and
+ * {@link BufferPoolConfiguration#getMaxBuffersPerSizeClass()}; use {@link #purge()} to release all idle memory.
+ *
+ * @see org.nd4j.linalg.api.buffer.BaseDataBuffer#setBufferPool(BufferPool)
+ */
+public class BufferPool {
+    @Getter
+    private final BufferPoolConfiguration configuration;
+
+    //Idle raw allocations, keyed by size class. Guarded by this
+    private final Map<Long, Deque<Pointer>> pool = new HashMap<>();
+
+    private long allocations;
+    private long hits;
+    private long misses;
+    private long released;
+    private long freed;
+    private long pooledBuffers;
+    private long pooledBytes;
+    private long inUseBytes;
+    private long peakInUseBytes;
+
+    public BufferPool() {
+        this(BufferPoolConfiguration.builder().build());
+    }
+
+    public BufferPool(@NonNull BufferPoolConfiguration configuration) {
+        if (configuration.getMaxPooledBytes() < 0 || configuration.getMaxBuffersPerSizeClass() < 0)
+            throw new IllegalArgumentException("Pool limits must be >= 0, got maxPooledBytes="
+                            + configuration.getMaxPooledBytes() + ", maxBuffersPerSizeClass="
+                            + configuration.getMaxBuffersPerSizeClass());
+        this.configuration = configuration;
+    }
+
+    /**
+     * Round the number of bytes up to the size class: 4 classes per power of 2, i.e., for sizes in (2^n, 2^(n+1)]
+     * the classes are 1.25, 1.5, 1.75 and 2 times 2^n
+     *
+     * @param bytes Number of bytes (> 0)
+     * @return Size class, in bytes
+     */
+    public static long sizeClass(long bytes) {
+        if (bytes <= 8)
+            return 8;
+        int log2 = 63 - Long.numberOfLeadingZeros(bytes - 1);
+        long step = 1L << (log2 - 2);
+        return (bytes + step - 1) / step * step;
+    }
+
+    /**
+     * Allocate a pointer for the given data type and number of elements. The memory is not initialized.
+     *
+     * @return Pointer of the appropriate type for the data type (for example, FloatPointer for FLOAT), or null if
+     * this allocation isn't handled by the pool (size outside the configured range, or unsupported data type)
+     */
+    public Pointer allocate(DataBuffer.Type type, long length) {
+        int elementSize = elementSize(type);
+        if (elementSize <= 0)
+            return null;
+        long bytes = length * elementSize;
+        if (bytes <= 0 || bytes < configuration.getMinBufferBytes() || bytes > configuration.getMaxBufferBytes())
+            return null;
+
+        long sizeClass = sizeClass(bytes);
+        Pointer raw = take(sizeClass);
+        if (raw == null) {
+            raw = Pointer.malloc(sizeClass);
+            if (raw == null || raw.isNull()) {
+                //Idle memory of other size classes may be what's preventing this allocation
+                purge();
+                raw = Pointer.malloc(sizeClass);
+            }
+            if (raw == null || raw.isNull()) {
+                allocationFailed(sizeClass);
+                throw new OutOfMemoryError("Failed to allocate " + sizeClass + " bytes for buffer of type " + type
+                                + " with length " + length);
+            }
+        }
+
+        switch (type) {
+            case DOUBLE:
+                return new PooledDoublePointer(this, raw, sizeClass, length);
+            case FLOAT:
+                return new PooledFloatPointer(this, raw, sizeClass, length);
+            case INT:
+                return new PooledIntPointer(this, raw, sizeClass, length);
+            case LONG:
+                return new PooledLongPointer(this, raw, sizeClass, length);
+            default:
+                throw new IllegalStateException("Unsupported data type: " + type);
+        }
+    }
+
+    /**
+     * Free all idle memory held by the pool. Memory currently in use is not affected, and will be returned to the
+     * pool as usual when released
+     *
+     * @return Number of bytes freed
+     */
+    public long purge() {
+        List<Pointer> toFree = new ArrayList<>();
+        long bytes;
+        synchronized (this) {
+            for (Deque<Pointer> d : pool.values())
+                toFree.addAll(d);
+            pool.clear();
+            bytes = pooledBytes;
+            freed += toFree.size();
+            pooledBuffers = 0;
+            pooledBytes = 0;
+        }
+        for (Pointer p : toFree)
+            Pointer.free(p);
+        return bytes;
+    }
+
+    /**
+     * @return Snapshot of the current pool statistics
+     */
+    public synchronized BufferPoolStats getStats() {
+        return new BufferPoolStats(allocations, hits, misses, released, freed, pooledBuffers, pooledBytes,
+                        inUseBytes, peakInUseBytes);
+    }
+
+    private synchronized Pointer take(long sizeClass) {
+        allocations++;
+        inUseBytes += sizeClass;
+        peakInUseBytes = Math.max(peakInUseBytes, inUseBytes);
+
+        Deque<Pointer> d = pool.get(sizeClass);
+        if (d == null || d.isEmpty()) {
+            misses++;
+            return null;
+        }
+        hits++;
+        pooledBuffers--;
+        pooledBytes -= sizeClass;
+        return d.pop();
+    }
+
+    private synchronized void allocationFailed(long sizeClass) {
+        inUseBytes -= sizeClass;
+    }
+
+    private void release(Pointer raw, long sizeClass) {
+        synchronized (this) {
+            inUseBytes -= sizeClass;
+            Deque<Pointer> d = pool.get(sizeClass);
+            if (d == null) {
+                d = new ArrayDeque<>();
+                pool.put(sizeClass, d);
+            }
+            if (d.size() < configuration.getMaxBuffersPerSizeClass()
+                            && pooledBytes + sizeClass <= configuration.getMaxPooledBytes()) {
+                d.push(raw);
+                released++;
+                pooledBuffers++;
+                pooledBytes += sizeClass;
+                return;
+            }
+            freed++;
+        }
+        Pointer.free(raw);
+    }
+
+    private static int elementSize(DataBuffer.Type type) {
+        switch (type) {
+            case DOUBLE:
+            case LONG:
+                return 8;
+            case FLOAT:
+            case INT:
+                return 4;
+            default:
+                return -1;
+        }
+    }
+
+    /**
+     * Holder for the deallocator, as {@link Pointer}'s Deallocator interface is only accessible from subclasses
+     */
+    private static abstract class PoolPointer extends Pointer {
+
+        /**
+         * Returns the memory to the pool when the pointer is deallocated. Must not reference the pointer itself,
+         * otherwise it would never become unreachable
+         */
+        private static class PoolDeallocator implements Deallocator {
+            private final BufferPool pool;
+            private final Pointer raw;
+            private final long sizeClass;
+
+            private PoolDeallocator(BufferPool pool, Pointer raw, long sizeClass) {
+                this.pool = pool;
+                this.raw = raw;
+                this.sizeClass = sizeClass;
+            }
+
+            @Override
+            public void deallocate() {
+                pool.release(raw, sizeClass);
+            }
+        }
+    }
+
+    private static class PooledDoublePointer extends DoublePointer {
+        private PooledDoublePointer(BufferPool pool, Pointer raw, long sizeClass, long length) {
+            super(raw);
+            capacity = length;
+            limit = length;
+            deallocator(new PoolPointer.PoolDeallocator(pool, raw, sizeClass));
+        }
+    }
+
+    private static class PooledFloatPointer extends FloatPointer {
+        private PooledFloatPointer(BufferPool pool, Pointer raw, long sizeClass, long length) {
+            super(raw);
+            capacity = length;
+            limit = length;
+            deallocator(new PoolPointer.PoolDeallocator(pool, raw, sizeClass));
+        }
+    }
+
+    private static class PooledIntPointer extends IntPointer {
+        private PooledIntPointer(BufferPool pool, Pointer raw, long sizeClass, long length) {
+            super(raw);
+            capacity = length;
+            limit = length;
+            deallocator(new PoolPointer.PoolDeallocator(pool, raw, sizeClass));
+        }
+    }
+
+    private static class PooledLongPointer extends LongPointer {
+        private PooledLongPointer(BufferPool pool, Pointer raw, long sizeClass, long length) {
+            super(raw);
+            capacity = length;
+            limit = length;
+            deallocator(new PoolPointer.PoolDeallocator(pool, raw, sizeClass));
+        }
+    }
+}
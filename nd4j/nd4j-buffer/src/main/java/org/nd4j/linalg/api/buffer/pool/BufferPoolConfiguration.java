@@ -0,0 +1,38 @@
+package org.nd4j.linalg.api.buffer.pool;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * Configuration for {@link BufferPool}
+ */
+@Builder
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BufferPoolConfiguration implements Serializable {
+
+    /**
+     * Maximum total number of bytes kept in the pool (idle buffers only). Released buffers above this limit are freed
+     */
+    @Builder.Default protected long maxPooledBytes = 512L * 1024L * 1024L;
+
+    /**
+     * Maximum number of idle buffers kept for each size class
+     */
+    @Builder.Default protected int maxBuffersPerSizeClass = 64;
+
+    /**
+     * Allocations smaller than this (in bytes) are not pooled
+     */
+    @Builder.Default protected long minBufferBytes = 64;
+
+    /**
+     * Allocations larger than this (in bytes) are not pooled
+     */
+    @Builder.Default protected long maxBufferBytes = 64L * 1024L * 1024L;
+}
@@ -0,0 +1,58 @@
+package org.nd4j.linalg.api.buffer.pool;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.io.Serializable;
+
+/**
+ * Snapshot of the statistics of a {@link BufferPool}. All byte counts are in terms of size classes, i.e., including
+ * the rounding up of the requested size
+ */
+@Data
+@AllArgsConstructor
+public class BufferPoolStats implements Serializable {
+    /**
+     * Number of allocations served by the pool
+     */
+    private long allocations;
+    /**
+     * Number of allocations served by reusing a pooled buffer
+     */
+    private long hits;
+    /**
+     * Number of allocations that required a new native allocation
+     */
+    private long misses;
+    /**
+     * Number of buffers returned to the pool for reuse
+     */
+    private long released;
+    /**
+     * Number of buffers freed instead of being pooled, because a limit was reached or the pool was purged
+     */
+    private long freed;
+    /**
+     * Number of idle buffers currently in the pool
+     */
+    private long pooledBuffers;
+    /**
+     * Number of bytes held by idle buffers currently in the pool
+     */
+    private long pooledBytes;
+    /**
+     * Number of bytes currently in use by buffers allocated from the pool
+     */
+    private long inUseBytes;
+    /**
+     * Maximum value of inUseBytes seen so far
+     */
+    private long peakInUseBytes;
+
+    /**
+     * @return Fraction of allocations served by reusing a pooled buffer, or 0 if there were no allocations
+     */
+    public double getHitRate() {
+        return allocations == 0 ? 0.0 : hits / (double) allocations;
+    }
+}